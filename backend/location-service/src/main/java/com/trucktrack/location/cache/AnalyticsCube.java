@@ -0,0 +1,554 @@
+package com.trucktrack.location.cache;
+
+import com.trucktrack.location.dto.EntityInfo.EntityType;
+import com.trucktrack.location.dto.TruckRankingResponse.RankingMetric;
+import com.trucktrack.location.repository.AnalyticsRepository;
+import com.trucktrack.location.repository.AnalyticsRepository.AnalyticsOverviewData;
+import com.trucktrack.location.repository.AnalyticsRepository.DailyAlertCountRow;
+import com.trucktrack.location.repository.AnalyticsRepository.DailyMetricsRow;
+import com.trucktrack.location.repository.AnalyticsRepository.TruckLabel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * In-memory columnar cube of the daily truck metrics and alert counts (truck x day), so the
+ * analytics pages slice any entity and period, and rank trucks, without a query.
+ *
+ * Each metric is a primitive column with one cell per truck and day of the retention window
+ * (cell = truck slot x window + day modulo window, so a new day reuses the column of the day
+ * that left the window). The trucks of a group are a bitmap of truck slots.
+ *
+ * Loaded lazily on first use and rebuilt nightly. Rows of the open days changed since the
+ * last refresh are applied every refresh interval, group membership from
+ * {@link CacheInvalidator} events.
+ */
+@Slf4j
+@Component
+public class AnalyticsCube {
+
+    // Days whose rows can still change (today, and yesterday during the late-arrival grace)
+    private static final int OPEN_DAYS = 2;
+    // Rows are re-read a little before the last change seen: commit order is not updated_at order
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int INITIAL_TRUCK_CAPACITY = 64;
+
+    private final AnalyticsRepository analyticsRepository;
+    private final TruckGroupMembershipCache membershipCache;
+    private final int retentionDays;
+    private final Clock clock;
+
+    // Guarded by this
+    private Columns columns;
+    private final Map<UUID, BitSet> slotsByGroup = new HashMap<>();
+    private boolean groupsLoaded;
+    private LocalDateTime trucksWatermark = EPOCH;
+    private LocalDateTime metricsWatermark = EPOCH;
+    private LocalDateTime alertsWatermark = EPOCH;
+
+    public AnalyticsCube(
+            AnalyticsRepository analyticsRepository,
+            TruckGroupMembershipCache membershipCache,
+            @Value("${analytics.cube.retention-days:366}") int retentionDays) {
+        this(analyticsRepository, membershipCache, retentionDays, Clock.systemDefaultZone());
+    }
+
+    AnalyticsCube(AnalyticsRepository analyticsRepository, TruckGroupMembershipCache membershipCache,
+                  int retentionDays, Clock clock) {
+        this.analyticsRepository = analyticsRepository;
+        this.membershipCache = membershipCache;
+        this.retentionDays = retentionDays;
+        this.clock = clock;
+    }
+
+    /**
+     * Check if the cube holds the days from this one on (older periods are queried).
+     */
+    public boolean covers(LocalDate startDate) {
+        return !startDate.isBefore(firstRetainedDay());
+    }
+
+    /**
+     * KPIs, daily metrics and alert breakdown of the entity trucks and, when a metric is given,
+     * ranking of the accessible trucks. Rows use the same keys as the analytics queries.
+     */
+    public synchronized Slice slice(EntityType entityType, UUID entityId, Collection<UUID> userGroupIds,
+                                    LocalDate startDate, LocalDate endDate,
+                                    RankingMetric rankingMetric, int limit) {
+        ensureLoaded();
+        BitSet fleet = accessibleSlots(userGroupIds);
+        BitSet trucks = switch (entityType) {
+            case FLEET -> fleet;
+            case GROUP -> userGroupIds.contains(entityId) ? groupSlots(entityId) : new BitSet();
+            case TRUCK -> {
+                BitSet truck = new BitSet();
+                Integer slot = columns.slotByTruck.get(entityId);
+                if (slot != null && fleet.get(slot)) {
+                    truck.set(slot);
+                }
+                yield truck;
+            }
+        };
+
+        int[] days = retainedColumns(startDate, endDate);
+        AnalyticsOverviewData data = new AnalyticsOverviewData(
+                kpis(trucks, days),
+                dailyMetrics(trucks, days),
+                alertBreakdown(trucks, days),
+                rankingMetric != null ? ranking(fleet, days, rankingMetric, limit) : List.of());
+        return new Slice(trucks.cardinality(), data);
+    }
+
+    /**
+     * IDs of the trucks of any of the user groups.
+     */
+    public synchronized List<UUID> getAccessibleTruckIds(Collection<UUID> userGroupIds) {
+        ensureLoaded();
+        BitSet slots = accessibleSlots(userGroupIds);
+        List<UUID> truckIds = new ArrayList<>(slots.cardinality());
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            truckIds.add(columns.truckIds[slot]);
+        }
+        return truckIds;
+    }
+
+    /**
+     * Rebuild the cube from the database.
+     */
+    public void reload() {
+        Columns loaded = new Columns(retentionDays, INITIAL_TRUCK_CAPACITY);
+        LocalDateTime[] watermarks = {EPOCH, EPOCH, EPOCH};
+        LocalDate fromDay = firstRetainedDay();
+
+        analyticsRepository.forEachTruck(EPOCH, truck -> {
+            loaded.setTruck(truck);
+            watermarks[0] = max(watermarks[0], truck.updatedAt());
+        });
+        analyticsRepository.forEachDailyMetrics(fromDay, EPOCH, row -> {
+            loaded.setMetrics(row);
+            watermarks[1] = max(watermarks[1], row.updatedAt());
+        });
+        analyticsRepository.forEachDailyAlertCount(fromDay, EPOCH, row -> {
+            loaded.setAlertCount(row);
+            watermarks[2] = max(watermarks[2], row.updatedAt());
+        });
+
+        synchronized (this) {
+            columns = loaded;
+            trucksWatermark = watermarks[0];
+            metricsWatermark = watermarks[1];
+            alertsWatermark = watermarks[2];
+            groupsLoaded = false;
+        }
+        log.info("Loaded analytics cube of {} trucks over {} days", loaded.truckCount, retentionDays);
+    }
+
+    /**
+     * Nightly rebuild, which also picks up the rare changes to closed days (e.g. deleted
+     * notifications) that refreshes do not read.
+     */
+    @Scheduled(cron = "${analytics.cube.reload-cron:0 30 3 * * *}")
+    public void reloadIfLoaded() {
+        synchronized (this) {
+            if (columns == null) {
+                return; // Loaded on first read
+            }
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Failed to reload analytics cube: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply the trucks and rows of the open days changed since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${analytics.cube.refresh-interval-ms:10000}")
+    public void refresh() {
+        LocalDateTime trucksSince;
+        LocalDateTime metricsSince;
+        LocalDateTime alertsSince;
+        synchronized (this) {
+            if (columns == null) {
+                return; // Loaded on first read
+            }
+            trucksSince = trucksWatermark.minus(REFRESH_OVERLAP);
+            metricsSince = metricsWatermark.minus(REFRESH_OVERLAP);
+            alertsSince = alertsWatermark.minus(REFRESH_OVERLAP);
+        }
+
+        try {
+            LocalDate fromDay = LocalDate.now(clock).minusDays(OPEN_DAYS - 1);
+            List<TruckLabel> trucks = new ArrayList<>();
+            List<DailyMetricsRow> metrics = new ArrayList<>();
+            List<DailyAlertCountRow> alerts = new ArrayList<>();
+            analyticsRepository.forEachTruck(trucksSince, trucks::add);
+            analyticsRepository.forEachDailyMetrics(fromDay, metricsSince, metrics::add);
+            analyticsRepository.forEachDailyAlertCount(fromDay, alertsSince, alerts::add);
+            apply(trucks, metrics, alerts);
+        } catch (Exception e) {
+            log.warn("Failed to refresh analytics cube: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTruckGroupChanged(CacheInvalidator.TruckGroupChangedEvent event) {
+        if (!groupsLoaded) {
+            return; // Next read rebuilds the bitmaps
+        }
+        Integer slot = columns.slotByTruck.get(UUID.fromString(event.truckId()));
+        if (slot == null) {
+            return; // Unknown truck, added with its groups on next refresh
+        }
+        BitSet slots = slotsByGroup.computeIfAbsent(UUID.fromString(event.groupId()), id -> new BitSet());
+        slots.set(slot, event.added());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGroupModified(CacheInvalidator.GroupModifiedEvent event) {
+        log.debug("Group {} modified - analytics cube bitmaps will be rebuilt", event.groupId());
+        groupsLoaded = false;
+    }
+
+    private synchronized void apply(List<TruckLabel> trucks, List<DailyMetricsRow> metrics, List<DailyAlertCountRow> alerts) {
+        for (TruckLabel truck : trucks) {
+            boolean added = !columns.slotByTruck.containsKey(truck.id());
+            int slot = columns.setTruck(truck);
+            if (added && groupsLoaded) {
+                addToGroups(slot, truck.id());
+            }
+            trucksWatermark = max(trucksWatermark, truck.updatedAt());
+        }
+        for (DailyMetricsRow row : metrics) {
+            columns.setMetrics(row);
+            metricsWatermark = max(metricsWatermark, row.updatedAt());
+        }
+        for (DailyAlertCountRow row : alerts) {
+            columns.setAlertCount(row);
+            alertsWatermark = max(alertsWatermark, row.updatedAt());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (columns == null) {
+            reload();
+        }
+        if (!groupsLoaded) {
+            slotsByGroup.clear();
+            for (int slot = 0; slot < columns.truckCount; slot++) {
+                addToGroups(slot, columns.truckIds[slot]);
+            }
+            groupsLoaded = true;
+        }
+    }
+
+    private void addToGroups(int slot, UUID truckId) {
+        for (UUID groupId : membershipCache.getGroups(truckId)) {
+            slotsByGroup.computeIfAbsent(groupId, id -> new BitSet()).set(slot);
+        }
+    }
+
+    private BitSet accessibleSlots(Collection<UUID> userGroupIds) {
+        BitSet slots = new BitSet();
+        for (UUID groupId : userGroupIds) {
+            slots.or(groupSlots(groupId));
+        }
+        return slots;
+    }
+
+    private BitSet groupSlots(UUID groupId) {
+        BitSet slots = slotsByGroup.get(groupId);
+        return slots != null ? slots : new BitSet();
+    }
+
+    /**
+     * Columns of the days of the period held by the cube.
+     */
+    private int[] retainedColumns(LocalDate startDate, LocalDate endDate) {
+        int[] days = new int[(int) Math.max(0, endDate.toEpochDay() - startDate.toEpochDay() + 1)];
+        int count = 0;
+        for (long day = startDate.toEpochDay(); day <= endDate.toEpochDay(); day++) {
+            int column = columns.column(day);
+            if (columns.dayOfColumn[column] == day) {
+                days[count++] = column;
+            }
+        }
+        return Arrays.copyOf(days, count);
+    }
+
+    private Map<String, Object> kpis(BitSet trucks, int[] days) {
+        double distanceKm = 0;
+        long drivingMinutes = 0;
+        long idleMinutes = 0;
+        double maxSpeed = 0;
+        double avgSpeedSum = 0;
+        int avgSpeedCount = 0;
+        for (int slot = trucks.nextSetBit(0); slot >= 0; slot = trucks.nextSetBit(slot + 1)) {
+            int base = slot * columns.window;
+            for (int column : days) {
+                int cell = base + column;
+                distanceKm += columns.distanceKm[cell];
+                drivingMinutes += columns.drivingMinutes[cell];
+                idleMinutes += columns.idleMinutes[cell];
+                maxSpeed = Math.max(maxSpeed, columns.maxSpeed[cell]);
+                if (columns.avgSpeed[cell] != 0) {
+                    avgSpeedSum += columns.avgSpeed[cell];
+                    avgSpeedCount++;
+                }
+            }
+        }
+        return Map.of(
+            "total_distance_km", distanceKm,
+            "driving_minutes", drivingMinutes,
+            "idle_minutes", idleMinutes,
+            "max_speed", maxSpeed,
+            "avg_speed", avgSpeedCount > 0 ? avgSpeedSum / avgSpeedCount : 0.0
+        );
+    }
+
+    private List<Map<String, Object>> dailyMetrics(BitSet trucks, int[] days) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int column : days) {
+            boolean present = false;
+            double distanceKm = 0;
+            long drivingMinutes = 0;
+            long alertCount = 0;
+            for (int slot = trucks.nextSetBit(0); slot >= 0; slot = trucks.nextSetBit(slot + 1)) {
+                int cell = slot * columns.window + column;
+                present |= columns.present.get(cell);
+                distanceKm += columns.distanceKm[cell];
+                drivingMinutes += columns.drivingMinutes[cell];
+                for (int[] counts : columns.alertCounts) {
+                    alertCount += counts[cell];
+                }
+            }
+            if (present) {
+                rows.add(Map.of(
+                    "date", LocalDate.ofEpochDay(columns.dayOfColumn[column]),
+                    "distance_km", distanceKm,
+                    "driving_minutes", drivingMinutes,
+                    "alert_count", alertCount));
+            }
+        }
+        return rows;
+    }
+
+    private List<Map<String, Object>> alertBreakdown(BitSet trucks, int[] days) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int type = 0; type < columns.alertTypes.size(); type++) {
+            int[] counts = columns.alertCounts.get(type);
+            long count = 0;
+            for (int slot = trucks.nextSetBit(0); slot >= 0; slot = trucks.nextSetBit(slot + 1)) {
+                int base = slot * columns.window;
+                for (int column : days) {
+                    count += counts[base + column];
+                }
+            }
+            if (count > 0) {
+                rows.add(Map.of("alert_type", columns.alertTypes.get(type), "count", count));
+            }
+        }
+        rows.sort((a, b) -> Long.compare((Long) b.get("count"), (Long) a.get("count")));
+        return rows;
+    }
+
+    private List<Map<String, Object>> ranking(BitSet trucks, int[] days, RankingMetric metric, int limit) {
+        int[] slots = trucks.stream().toArray();
+        double[] values = new double[columns.truckCount];
+        for (int slot : slots) {
+            int base = slot * columns.window;
+            double value = 0;
+            for (int column : days) {
+                int cell = base + column;
+                value += switch (metric) {
+                    case DISTANCE -> columns.distanceKm[cell];
+                    case DRIVING_TIME -> columns.drivingMinutes[cell];
+                    case ALERTS -> alertCount(cell);
+                };
+            }
+            values[slot] = value;
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Arrays.stream(slots).boxed()
+            .sorted((a, b) -> Double.compare(values[b], values[a]))
+            .limit(limit)
+            .forEach(slot -> rows.add(Map.of(
+                "truck_id", columns.truckIds[slot],
+                "truck_name", Objects.requireNonNullElse(columns.truckNames[slot], ""),
+                "license_plate", Objects.requireNonNullElse(columns.licensePlates[slot], ""),
+                "value", values[slot])));
+        return rows;
+    }
+
+    private long alertCount(int cell) {
+        long count = 0;
+        for (int[] counts : columns.alertCounts) {
+            count += counts[cell];
+        }
+        return count;
+    }
+
+    private LocalDate firstRetainedDay() {
+        return LocalDate.now(clock).minusDays(retentionDays - 1L);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return b.isAfter(a) ? b : a;
+    }
+
+    /**
+     * Truck count of the entity and its analytics rows.
+     */
+    public record Slice(int truckCount, AnalyticsOverviewData data) {
+    }
+
+    /**
+     * Truck slots and metric columns; cells of truck slot s are [s x window, (s + 1) x window).
+     */
+    private static final class Columns {
+
+        private final int window;
+        private final Map<UUID, Integer> slotByTruck = new HashMap<>();
+        // Epoch day held by each column, -1 while unused
+        private final long[] dayOfColumn;
+        private UUID[] truckIds;
+        private String[] truckNames;
+        private String[] licensePlates;
+        private int truckCount;
+        private double[] distanceKm;
+        private int[] drivingMinutes;
+        private int[] idleMinutes;
+        private double[] maxSpeed;
+        private double[] avgSpeed;
+        private final BitSet present = new BitSet();
+        private final List<String> alertTypes = new ArrayList<>();
+        private final List<int[]> alertCounts = new ArrayList<>();
+
+        private Columns(int window, int truckCapacity) {
+            this.window = window;
+            this.dayOfColumn = new long[window];
+            Arrays.fill(dayOfColumn, -1);
+            this.truckIds = new UUID[truckCapacity];
+            this.truckNames = new String[truckCapacity];
+            this.licensePlates = new String[truckCapacity];
+            this.distanceKm = new double[truckCapacity * window];
+            this.drivingMinutes = new int[truckCapacity * window];
+            this.idleMinutes = new int[truckCapacity * window];
+            this.maxSpeed = new double[truckCapacity * window];
+            this.avgSpeed = new double[truckCapacity * window];
+        }
+
+        private int setTruck(TruckLabel truck) {
+            int slot = slot(truck.id());
+            truckNames[slot] = truck.truckName();
+            licensePlates[slot] = truck.licensePlate();
+            return slot;
+        }
+
+        private void setMetrics(DailyMetricsRow row) {
+            int cell = cell(slot(row.truckId()), row.day().toEpochDay());
+            if (cell < 0) {
+                return;
+            }
+            distanceKm[cell] = row.distanceKm();
+            drivingMinutes[cell] = row.drivingMinutes();
+            idleMinutes[cell] = row.idleMinutes();
+            maxSpeed[cell] = row.maxSpeed();
+            avgSpeed[cell] = row.avgSpeed();
+            present.set(cell);
+        }
+
+        private void setAlertCount(DailyAlertCountRow row) {
+            int cell = cell(slot(row.truckId()), row.day().toEpochDay());
+            if (cell < 0) {
+                return;
+            }
+            int type = alertTypes.indexOf(row.alertType());
+            if (type < 0) {
+                type = alertTypes.size();
+                alertTypes.add(row.alertType());
+                alertCounts.add(new int[truckIds.length * window]);
+            }
+            alertCounts.get(type)[cell] = (int) row.alertCount();
+        }
+
+        private int column(long epochDay) {
+            return (int) Math.floorMod(epochDay, (long) window);
+        }
+
+        /**
+         * Cell of a truck and day; the column is cleared when it moves on to a newer day,
+         * -1 when the day already left the window.
+         */
+        private int cell(int slot, long epochDay) {
+            int column = column(epochDay);
+            if (dayOfColumn[column] > epochDay) {
+                return -1;
+            }
+            if (dayOfColumn[column] < epochDay) {
+                clearColumn(column);
+                dayOfColumn[column] = epochDay;
+            }
+            return slot * window + column;
+        }
+
+        private void clearColumn(int column) {
+            for (int slot = 0; slot < truckCount; slot++) {
+                int cell = slot * window + column;
+                distanceKm[cell] = 0;
+                drivingMinutes[cell] = 0;
+                idleMinutes[cell] = 0;
+                maxSpeed[cell] = 0;
+                avgSpeed[cell] = 0;
+                present.clear(cell);
+                for (int[] counts : alertCounts) {
+                    counts[cell] = 0;
+                }
+            }
+        }
+
+        private int slot(UUID truckId) {
+            Integer slot = slotByTruck.get(truckId);
+            if (slot != null) {
+                return slot;
+            }
+            if (truckCount == truckIds.length) {
+                grow(truckIds.length * 2);
+            }
+            truckIds[truckCount] = truckId;
+            slotByTruck.put(truckId, truckCount);
+            return truckCount++;
+        }
+
+        private void grow(int truckCapacity) {
+            truckIds = Arrays.copyOf(truckIds, truckCapacity);
+            truckNames = Arrays.copyOf(truckNames, truckCapacity);
+            licensePlates = Arrays.copyOf(licensePlates, truckCapacity);
+            distanceKm = Arrays.copyOf(distanceKm, truckCapacity * window);
+            drivingMinutes = Arrays.copyOf(drivingMinutes, truckCapacity * window);
+            idleMinutes = Arrays.copyOf(idleMinutes, truckCapacity * window);
+            maxSpeed = Arrays.copyOf(maxSpeed, truckCapacity * window);
+            avgSpeed = Arrays.copyOf(avgSpeed, truckCapacity * window);
+            alertCounts.replaceAll(counts -> Arrays.copyOf(counts, truckCapacity * window));
+        }
+    }
+}
@@ -39,6 +39,16 @@ public class CacheInvalidator {
      */
     public record GroupModifiedEvent(String groupId) {}
 
+    /**
+     * Event triggered when a geofence is created, updated or deleted.
+     */
+    public record GeofenceChangedEvent(String geofenceId) {}
+
+    /**
+     * Event triggered when a trip is created or changes (status, assignment, schedule, proof).
+     */
+    public record TripChangedEvent(String tripId) {}
+
     /**
      * Handle driver assignment - invalidate both trucks and drivers caches.
      */
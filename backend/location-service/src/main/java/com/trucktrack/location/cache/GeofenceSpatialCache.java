@@ -0,0 +1,110 @@
+package com.trucktrack.location.cache;
+
+import com.trucktrack.common.geo.GeofenceSpatialIndex;
+import com.trucktrack.location.model.Geofence;
+import com.trucktrack.location.repository.GeofenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory spatial index of the active geofences, so point-in-polygon lookups only
+ * test the few geofences whose envelope contains the point instead of every row.
+ *
+ * Loaded on first use. Later rebuilds never run on a request thread: they happen in the
+ * background after {@link CacheInvalidator.GeofenceChangedEvent} and when the active set
+ * changed on another instance (polled version), and the new index is swapped in atomically.
+ * Lookups keep using the previous index meanwhile.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeofenceSpatialCache {
+
+    private final GeofenceRepository geofenceRepository;
+
+    private volatile GeofenceSpatialIndex index = GeofenceSpatialIndex.EMPTY;
+    private volatile String loadedVersion;
+    private volatile boolean loaded;
+
+    /**
+     * IDs of the active geofences containing the point.
+     */
+    public Set<UUID> findContaining(double latitude, double longitude) {
+        return current().findContaining(latitude, longitude);
+    }
+
+    /**
+     * Check if the point is inside an active geofence.
+     */
+    public boolean contains(UUID geofenceId, double latitude, double longitude) {
+        return current().contains(geofenceId, latitude, longitude);
+    }
+
+    /**
+     * Reload all active geofences from the database and swap the index.
+     */
+    public synchronized void reload() {
+        String version = geofenceRepository.findActiveGeofencesVersion();
+        Map<UUID, Polygon> boundaries = new HashMap<>();
+        for (Geofence geofence : geofenceRepository.findByIsActiveTrue()) {
+            boundaries.put(geofence.getId(), geofence.getBoundary());
+        }
+        index = GeofenceSpatialIndex.of(boundaries);
+        loadedVersion = version;
+        loaded = true;
+        log.info("Loaded spatial index of {} active geofences", boundaries.size());
+    }
+
+    /**
+     * Pick up geofence changes made through other instances (scheduler thread).
+     */
+    @Scheduled(fixedDelayString = "${geofence.index.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            if (!Objects.equals(geofenceRepository.findActiveGeofencesVersion(), loadedVersion)) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh geofence spatial index: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Async
+    public void onGeofenceChanged(CacheInvalidator.GeofenceChangedEvent event) {
+        if (!loaded) {
+            return; // First lookup loads the committed state
+        }
+        log.debug("Geofence {} changed - rebuilding spatial index", event.geofenceId());
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Failed to rebuild geofence spatial index, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    private GeofenceSpatialIndex current() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,114 @@
+package com.trucktrack.location.cache;
+
+import com.trucktrack.location.model.TruckGroupAssignment;
+import com.trucktrack.location.repository.TruckGroupAssignmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory truck → groups index built from truck_group_assignments.
+ * Lets hot paths (live feeds, counters) filter by group without a JOIN per update.
+ *
+ * Loaded lazily on first use, kept up to date from {@link CacheInvalidator.TruckGroupChangedEvent}
+ * and fully reloaded on {@link CacheInvalidator.GroupModifiedEvent}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TruckGroupMembershipCache {
+
+    private final TruckGroupAssignmentRepository assignmentRepository;
+
+    // Each value is an immutable set, replaced as a whole on change
+    private final Map<UUID, Set<UUID>> groupsByTruck = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Groups a truck belongs to (empty if none).
+     */
+    public Set<UUID> getGroups(UUID truckId) {
+        ensureLoaded();
+        return groupsByTruck.getOrDefault(truckId, Set.of());
+    }
+
+    /**
+     * Groups a truck belongs to as currently indexed, without ever loading the index,
+     * for threads that must not block (empty until {@link #ensureLoaded()} has run).
+     */
+    public Set<UUID> peekGroups(UUID truckId) {
+        return groupsByTruck.getOrDefault(truckId, Set.of());
+    }
+
+    /**
+     * Check if a truck belongs to at least one of the given groups.
+     */
+    public boolean isInAnyGroup(UUID truckId, Set<UUID> groupIds) {
+        for (UUID groupId : getGroups(truckId)) {
+            if (groupIds.contains(groupId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reload all assignments from the database.
+     */
+    public synchronized void reload() {
+        Map<UUID, Set<UUID>> loadedGroups = new HashMap<>();
+        for (TruckGroupAssignment assignment : assignmentRepository.findAll()) {
+            loadedGroups.computeIfAbsent(assignment.getTruckId(), id -> new HashSet<>()).add(assignment.getGroupId());
+        }
+        // Replaced in place, so concurrent peeks never see an empty index
+        loadedGroups.forEach((truckId, groups) -> groupsByTruck.put(truckId, Set.copyOf(groups)));
+        groupsByTruck.keySet().retainAll(loadedGroups.keySet());
+        loaded = true;
+        log.info("Loaded group memberships for {} trucks", groupsByTruck.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTruckGroupChanged(CacheInvalidator.TruckGroupChangedEvent event) {
+        if (!loaded) {
+            return; // Next read loads the committed state
+        }
+        UUID truckId = UUID.fromString(event.truckId());
+        UUID groupId = UUID.fromString(event.groupId());
+        groupsByTruck.compute(truckId, (id, current) -> {
+            Set<UUID> groups = current != null ? new HashSet<>(current) : new HashSet<>();
+            if (event.added()) {
+                groups.add(groupId);
+            } else {
+                groups.remove(groupId);
+            }
+            return groups.isEmpty() ? null : Set.copyOf(groups);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroupModified(CacheInvalidator.GroupModifiedEvent event) {
+        log.debug("Group {} modified - group memberships will be reloaded", event.groupId());
+        loaded = false;
+    }
+
+    /**
+     * Load the index if it was never loaded or was invalidated (blocking).
+     */
+    public void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+}
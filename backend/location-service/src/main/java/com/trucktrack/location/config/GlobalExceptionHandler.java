@@ -1,5 +1,6 @@
 package com.trucktrack.location.config;
 
+import com.trucktrack.location.service.ExportBusyException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -81,6 +82,18 @@ public class GlobalExceptionHandler {
                 .body(Map.of("error", "Bad request", "message", ex.getMessage()));
     }
 
+    /**
+     * Handle exports rejected while the maximum number are running.
+     * Returns 429 Too Many Requests.
+     */
+    @ExceptionHandler(ExportBusyException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<Map<String, String>> handleExportBusy(ExportBusyException ex) {
+        log.warn("Export rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(Map.of("error", "Too many requests", "message", ex.getMessage()));
+    }
+
     /**
      * Fallback handler for all other unhandled exceptions.
      * Returns 500 Internal Server Error.
@@ -78,8 +78,6 @@ public class RedisConfig implements CachingConfigurer {
                 defaultConfig.entryTtl(CacheConstants.TTL_DASHBOARD_KPIS));
         cacheConfigurations.put(CacheConstants.CACHE_DASHBOARD_FLEET_STATUS,
                 defaultConfig.entryTtl(CacheConstants.TTL_DASHBOARD_FLEET));
-        cacheConfigurations.put(CacheConstants.CACHE_DASHBOARD_ACTIVITY,
-                defaultConfig.entryTtl(CacheConstants.TTL_DASHBOARD_ACTIVITY));
         cacheConfigurations.put(CacheConstants.CACHE_DASHBOARD_PERFORMANCE,
                 defaultConfig.entryTtl(CacheConstants.TTL_DASHBOARD_PERFORMANCE));
 
@@ -0,0 +1,34 @@
+package com.trucktrack.location.config;
+
+import com.trucktrack.location.websocket.BackpressureSubProtocolWebSocketHandler;
+import com.trucktrack.location.websocket.OutboundBackpressureInterceptor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+
+/**
+ * STOMP broker infrastructure, in place of {@code @EnableWebSocketMessageBroker}.
+ * Same configuration (applied from {@link WebSocketConfig}), except that sessions are
+ * handled by {@link BackpressureSubProtocolWebSocketHandler}.
+ */
+@Configuration
+public class WebSocketBrokerConfiguration extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    private final OutboundBackpressureInterceptor backpressureInterceptor;
+
+    public WebSocketBrokerConfiguration(OutboundBackpressureInterceptor backpressureInterceptor) {
+        this.backpressureInterceptor = backpressureInterceptor;
+    }
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+        return new BackpressureSubProtocolWebSocketHandler(
+                clientInboundChannel, clientOutboundChannel, backpressureInterceptor);
+    }
+}
@@ -1,10 +1,13 @@
 package com.trucktrack.location.config;
 
+import com.trucktrack.location.websocket.OutboundBackpressureInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * WebSocket configuration using STOMP protocol over WebSocket
@@ -14,11 +17,20 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * - /ws - WebSocket connection endpoint
  * - /topic/positions - Subscribe to receive live GPS position updates
  * - /topic/truck/{truckId} - Subscribe to specific truck updates
+ *
+ * Outbound traffic is bounded (see {@link WebSocketOutboundProperties}):
+ * per-session send buffer/time limits, a bounded outbound thread pool and
+ * a per-session queue and send buffer limit enforced by {@link OutboundBackpressureInterceptor}.
+ *
+ * The broker itself is enabled by {@link WebSocketBrokerConfiguration}.
  */
 @Configuration
-@EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketOutboundProperties outboundProperties;
+    private final OutboundBackpressureInterceptor backpressureInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable simple in-memory message broker for broadcasting messages
@@ -42,4 +54,21 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*");
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A client that stops reading is closed once a send exceeds these limits
+        registration.setSendTimeLimit((int) outboundProperties.getSendTimeLimit().toMillis())
+                .setSendBufferSizeLimit((int) outboundProperties.getSendBufferSizeLimit().toBytes());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Bounded pool instead of the default unbounded queue
+        registration.taskExecutor()
+                .corePoolSize(outboundProperties.getCorePoolSize())
+                .maxPoolSize(outboundProperties.getMaxPoolSize())
+                .queueCapacity(outboundProperties.getQueueCapacity());
+        registration.interceptors(backpressureInterceptor);
+    }
 }
@@ -0,0 +1,57 @@
+package com.trucktrack.location.config;
+
+import com.trucktrack.location.websocket.OutboundOverflowPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to outbound STOMP traffic so a slow client cannot grow
+ * unbounded buffers in the location-service JVM.
+ *
+ * Bound from the {@code websocket.outbound.*} properties.
+ */
+@Component
+@ConfigurationProperties(prefix = "websocket.outbound")
+@Getter
+@Setter
+public class WebSocketOutboundProperties {
+
+    /**
+     * Max time a single send to a client may take before the session is closed.
+     */
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+    /**
+     * Max bytes buffered per session while a previous send is still in progress.
+     */
+    private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+
+    /**
+     * Bytes buffered per session above which the overflow policy is applied,
+     * before the hard {@code sendBufferSizeLimit} is reached.
+     */
+    private DataSize bufferSoftLimit = DataSize.ofKilobytes(256);
+
+    /**
+     * Max messages queued on the outbound channel for one session
+     * before the overflow policy is applied.
+     */
+    private int maxQueuedMessagesPerSession = 256;
+
+    /**
+     * What to do with a session whose queue or send buffer exceeds the limit.
+     */
+    private OutboundOverflowPolicy overflowPolicy = OutboundOverflowPolicy.CONFLATE;
+
+    /**
+     * Outbound channel thread pool.
+     */
+    private int corePoolSize = 4;
+    private int maxPoolSize = 16;
+    private int queueCapacity = 10_000;
+}
@@ -1,5 +1,7 @@
 package com.trucktrack.location.controller;
 
+import com.trucktrack.common.dto.CursorPage;
+import com.trucktrack.common.dto.PageCursor;
 import com.trucktrack.common.dto.PageResponse;
 import com.trucktrack.common.security.GatewayUserPrincipal;
 import com.trucktrack.location.model.AuditLog;
@@ -14,6 +16,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -60,6 +63,33 @@ public class AdminAuditController {
         ));
     }
 
+    /**
+     * Get audit logs for a specific entity with keyset pagination, newest first.
+     * GET /admin/audit/{entityType}/{entityId}/cursor?cursor=...&size=10
+     */
+    @GetMapping("/{entityType}/{entityId}/cursor")
+    public ResponseEntity<CursorPage<AuditLogResponse>> getAuditLogsCursor(
+            @AuthenticationPrincipal GatewayUserPrincipal principal,
+            @PathVariable String entityType,
+            @PathVariable UUID entityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        log.debug("User [{}] fetching audit log page for {} {}",
+                principal != null ? principal.username() : "anonymous", entityType, entityId);
+
+        int pageSize = CursorPage.pageSize(size);
+        PageCursor before = PageCursor.decode(cursor);
+        List<AuditLog> auditLogs = before == null
+                ? auditLogRepository.findFirstByEntity(entityType, entityId, pageSize + 1)
+                : auditLogRepository.findByEntityBefore(
+                        entityType, entityId, before.timestamp(), before.uuidId(), pageSize + 1);
+
+        return ResponseEntity.ok(CursorPage.of(auditLogs, pageSize,
+                        auditLog -> PageCursor.of(auditLog.getTimestamp(), auditLog.getId()))
+                .map(AuditLogResponse::fromEntity));
+    }
+
     /**
      * Response DTO for audit log entries.
      */
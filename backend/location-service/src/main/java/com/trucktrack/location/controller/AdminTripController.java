@@ -1,5 +1,6 @@
 package com.trucktrack.location.controller;
 
+import com.trucktrack.common.dto.CursorPage;
 import com.trucktrack.common.dto.PageResponse;
 import com.trucktrack.common.security.GatewayUserPrincipal;
 import com.trucktrack.location.dto.*;
@@ -78,6 +79,31 @@ public class AdminTripController {
         return ResponseEntity.ok(trips);
     }
 
+    /**
+     * Get trips with keyset pagination, newest first, for infinite scroll.
+     * GET /admin/trips/cursor?cursor=...&size=25 (same filters as GET /admin/trips)
+     *
+     * @param cursor Token of the next page, from the previous page (omit for the first page)
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<TripResponse>> getTripsCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) TripStatus status,
+            @RequestParam(required = false) UUID driverId,
+            @RequestParam(required = false) UUID truckId,
+            @RequestParam(required = false) Instant startDate,
+            @RequestParam(required = false) Instant endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "25") int size,
+            @AuthenticationPrincipal GatewayUserPrincipal principal) {
+
+        log.debug("GET /admin/trips/cursor - search: {}, status: {}, driverId: {}, truckId: {}, startDate: {}, endDate: {}, size: {}",
+            search, status, driverId, truckId, startDate, endDate, size);
+
+        return ResponseEntity.ok(tripService.getTripsPage(
+            cursor, size, search, status, driverId, truckId, startDate, endDate));
+    }
+
     /**
      * Get trip by ID with full details.
      * T015: GET /admin/trips/{id}
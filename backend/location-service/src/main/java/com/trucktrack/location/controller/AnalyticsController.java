@@ -33,6 +33,7 @@ import java.util.stream.Collectors;
  * - GET /location/v1/analytics/daily-metrics - Daily metrics for charts
  * - GET /location/v1/analytics/alert-breakdown - Alert distribution
  * - GET /location/v1/analytics/truck-ranking - Truck ranking by metric
+ * - GET /location/v1/analytics/overview - All of the above in one request
  */
 @Slf4j
 @RestController
@@ -151,6 +152,36 @@ public class AnalyticsController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get KPIs, daily metrics, alert breakdown and truck ranking in one request.
+     * GET /api/v1/analytics/overview?period=WEEK&entityType=FLEET&metric=DISTANCE&limit=10
+     */
+    @GetMapping("/overview")
+    public ResponseEntity<AnalyticsOverviewResponse> getOverview(
+            @AuthenticationPrincipal GatewayUserPrincipal principal,
+            @RequestParam PeriodType period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam EntityType entityType,
+            @RequestParam(required = false) UUID entityId,
+            @RequestParam(defaultValue = "DISTANCE") RankingMetric metric,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        log.info("User [{}] requesting analytics overview - period: {}, entityType: {}, entityId: {}, metric: {}",
+                getUsername(principal), period, entityType, entityId, metric);
+
+        validatePeriodParams(period, startDate, endDate);
+        validateEntityParams(entityType, entityId);
+        validateLimit(limit);
+
+        List<UUID> userGroupIds = getUserGroups(principal);
+
+        AnalyticsOverviewResponse response = analyticsService.getOverview(
+                period, startDate, endDate, entityType, entityId, metric, limit, userGroupIds);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get accessible trucks for filters.
      * GET /api/v1/analytics/trucks
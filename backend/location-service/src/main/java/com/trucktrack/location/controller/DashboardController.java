@@ -3,12 +3,16 @@ package com.trucktrack.location.controller;
 import com.trucktrack.common.security.GatewayUserPrincipal;
 import com.trucktrack.location.dto.*;
 import com.trucktrack.location.service.DashboardService;
+import com.trucktrack.location.service.DashboardStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -22,6 +26,7 @@ import java.util.List;
  * - GET /admin/dashboard/fleet-status - Fleet status breakdown
  * - GET /admin/dashboard/activity - Recent activity feed
  * - GET /admin/dashboard/performance - Performance metrics
+ * - GET /admin/dashboard/stream - Sections pushed as they change (Server-Sent Events)
  */
 @Slf4j
 @RestController
@@ -31,6 +36,7 @@ import java.util.List;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardStream dashboardStream;
 
     /**
      * T051: GET /admin/dashboard - Aggregated dashboard data.
@@ -117,6 +123,21 @@ public class DashboardController {
         return ResponseEntity.ok(metrics);
     }
 
+    /**
+     * GET /admin/dashboard/stream - Dashboard pushed over Server-Sent Events.
+     * Emits the full dashboard first (one event per section: kpis, fleetStatus, activity,
+     * performance), then each section again whenever its content changes.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamDashboard(
+            @AuthenticationPrincipal GatewayUserPrincipal principal,
+            @RequestParam(defaultValue = "week") String performancePeriod) {
+        log.debug("User {} subscribed to dashboard stream", getUserId(principal));
+
+        String effectivePeriod = "month".equalsIgnoreCase(performancePeriod) ? "month" : "week";
+        return dashboardStream.subscribe(getGroups(principal), effectivePeriod);
+    }
+
     // Helper methods for GatewayUserPrincipal
 
     private String getUserId(GatewayUserPrincipal principal) {
@@ -0,0 +1,94 @@
+package com.trucktrack.location.controller;
+
+import com.trucktrack.common.security.GatewayUserPrincipal;
+import com.trucktrack.location.service.LivePositionStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read-only live position feed over Server-Sent Events.
+ * Lightweight alternative to the STOMP WebSocket for consumers that only
+ * need to watch positions (no SockJS/STOMP negotiation, plain HTTP).
+ *
+ * GET /location/v1/live/positions?groupIds=...&minLat=..&maxLat=..&minLng=..&maxLng=..
+ *
+ * Emits a "positions" event per conflation interval with the latest position of
+ * every matching truck that moved, plus keep-alive comments.
+ * FLEET_MANAGER users are restricted to their assigned groups; ADMIN sees all trucks.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/location/v1/live")
+@RequiredArgsConstructor
+public class LiveFeedController {
+
+    private final LivePositionStream livePositionStream;
+
+    @GetMapping(value = "/positions", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> streamPositions(
+            @AuthenticationPrincipal GatewayUserPrincipal principal,
+            @RequestParam(required = false) List<UUID> groupIds,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLng) {
+
+        Set<UUID> effectiveGroups = groupIds != null && !groupIds.isEmpty() ? new HashSet<>(groupIds) : null;
+
+        if (!"ADMIN".equals(getUserRole(principal))) {
+            Set<UUID> allowedGroups = principal != null ? new HashSet<>(principal.getGroupIds()) : Set.of();
+            if (effectiveGroups == null) {
+                effectiveGroups = allowedGroups;
+            } else {
+                effectiveGroups.retainAll(allowedGroups);
+            }
+            if (effectiveGroups.isEmpty()) {
+                log.warn("User {} has no accessible groups for the live feed", getUserId(principal));
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        }
+
+        log.info("User [{}] ({}) subscribed to live feed - groups: {}, bbox: ({}, {}) to ({}, {})",
+                getUsername(principal), getUserId(principal), effectiveGroups, minLat, minLng, maxLat, maxLng);
+
+        LivePositionStream.Filter filter =
+                new LivePositionStream.Filter(effectiveGroups, minLat, maxLat, minLng, maxLng);
+        return ResponseEntity.ok(livePositionStream.subscribe(filter));
+    }
+
+    /**
+     * Extract user ID from principal with fallback.
+     */
+    private String getUserId(GatewayUserPrincipal principal) {
+        return principal != null ? principal.userId() : "anonymous";
+    }
+
+    /**
+     * Get username from principal with fallback.
+     */
+    private String getUsername(GatewayUserPrincipal principal) {
+        return principal != null ? principal.username() : "anonymous";
+    }
+
+    /**
+     * Get user role from principal with fallback.
+     */
+    private String getUserRole(GatewayUserPrincipal principal) {
+        return principal != null ? principal.role() : "GUEST";
+    }
+}
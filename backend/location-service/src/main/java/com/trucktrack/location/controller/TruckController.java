@@ -1,13 +1,21 @@
 package com.trucktrack.location.controller;
 
+import com.trucktrack.common.dto.CursorPage;
+import com.trucktrack.common.dto.PageCursor;
 import com.trucktrack.common.event.GPSPositionEvent;
 import com.trucktrack.common.security.GatewayUserPrincipal;
+import com.trucktrack.location.cache.TruckGroupMembershipCache;
 import com.trucktrack.location.model.GPSPosition;
 import com.trucktrack.location.model.Truck;
 import com.trucktrack.location.model.TruckStatus;
 import com.trucktrack.location.repository.GPSPositionRepository;
+import com.trucktrack.location.repository.RowCountEstimator;
 import com.trucktrack.location.repository.TruckRepository;
+import com.trucktrack.location.service.FleetStatusCounters;
+import com.trucktrack.location.service.GpsHistoryExportService;
+import com.trucktrack.location.service.PositionPayloadEncoder;
 import com.trucktrack.location.service.RedisCacheService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -15,14 +23,21 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -45,10 +60,24 @@ public class TruckController {
     private final TruckRepository truckRepository;
     private final GPSPositionRepository gpsPositionRepository;
     private final RedisCacheService redisCacheService;
+    private final PositionPayloadEncoder payloadEncoder;
+    private final TruckGroupMembershipCache membershipCache;
+    private final GpsHistoryExportService historyExportService;
+    private final RowCountEstimator rowCountEstimator;
+    private final FleetStatusCounters fleetStatusCounters;
 
     // T119: Maximum points before sampling kicks in
     private static final int MAX_POINTS_THRESHOLD = 500;
 
+    // Maximum trucks per bulk current-positions request
+    private static final int MAX_BULK_POSITIONS = 5000;
+
+    // Planner estimates of the history size, for the optional total of the first cursor page
+    private static final String ESTIMATE_TRUCK_HISTORY_SQL =
+            "SELECT 1 FROM gps_positions WHERE truck_id = ? AND timestamp BETWEEN ? AND ?";
+    private static final String ESTIMATE_ALL_HISTORY_SQL =
+            "SELECT 1 FROM gps_positions WHERE timestamp BETWEEN ? AND ?";
+
     /**
      * List all trucks with optional filters
      * GET /location/v1/trucks?status=ACTIVE&truckGroupId=xxx&page=0&size=20
@@ -159,18 +188,19 @@ public class TruckController {
      *
      * Returns cached position if available (< 5 min old)
      * Falls back to database if cache miss
+     * The cached JSON is written as-is, without deserializing/re-serializing it.
      */
     @GetMapping("/trucks/{truckId}/current-position")
-    public ResponseEntity<GPSPositionEvent> getCurrentPosition(
+    public ResponseEntity<byte[]> getCurrentPosition(
             @AuthenticationPrincipal GatewayUserPrincipal principal,
             @PathVariable UUID truckId) {
         log.debug("User [{}] getting current position for truck: {}", getUsername(principal), truckId);
 
         // Try Redis cache first (fastest)
-        GPSPositionEvent cachedPosition = redisCacheService.getCurrentPosition(truckId);
+        byte[] cachedPosition = redisCacheService.getCurrentPositionJson(truckId);
         if (cachedPosition != null) {
             log.debug("Cache hit for truck {}", truckId);
-            return ResponseEntity.ok(cachedPosition);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(cachedPosition);
         }
 
         // Cache miss - check if truck exists and return last known position
@@ -191,7 +221,50 @@ public class TruckController {
         position.setHeading(truck.getCurrentHeading());
         position.setTimestamp(truck.getLastUpdate());
 
-        return ResponseEntity.ok(position);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(payloadEncoder.encode(position).json());
+    }
+
+    /**
+     * Get current positions of several trucks in one call (single Redis MGET)
+     * POST /location/v1/trucks/current-positions  body: ["truckId", ...]
+     *
+     * Returns the cached positions as a JSON array, written as-is from Redis.
+     * Trucks without a position in the last 5 minutes are omitted.
+     * FLEET_MANAGER users only get trucks of their assigned groups.
+     */
+    @PostMapping("/trucks/current-positions")
+    public ResponseEntity<byte[]> getCurrentPositions(
+            @AuthenticationPrincipal GatewayUserPrincipal principal,
+            @RequestBody List<UUID> truckIds) {
+        if (truckIds.size() > MAX_BULK_POSITIONS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_POSITIONS + " trucks per request");
+        }
+        log.debug("User [{}] getting current positions for {} trucks", getUsername(principal), truckIds.size());
+
+        List<UUID> requested = truckIds;
+        if (!"ADMIN".equals(getUserRole(principal))) {
+            Set<UUID> allowedGroupIds = new HashSet<>(getUserGroups(principal));
+            requested = truckIds.stream()
+                    .filter(truckId -> membershipCache.isInAnyGroup(truckId, allowedGroupIds))
+                    .toList();
+        }
+
+        Map<UUID, byte[]> positions = redisCacheService.getCurrentPositionsJson(requested);
+
+        // Join the cached JSON documents into an array without parsing them
+        ByteArrayOutputStream body = new ByteArrayOutputStream(positions.size() * 256 + 2);
+        body.write('[');
+        boolean first = true;
+        for (byte[] json : positions.values()) {
+            if (!first) {
+                body.write(',');
+            }
+            body.writeBytes(json);
+            first = false;
+        }
+        body.write(']');
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body.toByteArray());
     }
 
     /**
@@ -292,6 +365,7 @@ public class TruckController {
      * GET /location/v1/trucks/history/paged?startTime=...&endTime=...&truckId=...&page=0&size=50
      *
      * Returns paginated results for infinite scroll support
+     * Deep pages get slower (OFFSET) and each page re-counts the range: prefer /trucks/history/cursor
      */
     @GetMapping("/trucks/history/paged")
     public ResponseEntity<Page<GPSPosition>> getTrucksHistoryPaged(
@@ -328,6 +402,88 @@ public class TruckController {
         }
     }
 
+    /**
+     * Get trucks' historical GPS positions with KEYSET pagination, newest first
+     * GET /location/v1/trucks/history/cursor?startTime=...&endTime=...&truckId=...&cursor=...&size=50&includeTotal=false
+     *
+     * Each page returns the token of the next one; every page costs the same however deep the scroll.
+     * The total is only estimated, on request, for the first page.
+     */
+    @GetMapping("/trucks/history/cursor")
+    public ResponseEntity<CursorPage<GPSPosition>> getTrucksHistoryCursor(
+            @AuthenticationPrincipal GatewayUserPrincipal principal,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endTime,
+            @RequestParam(required = false) UUID truckId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("User [{}] ({}) getting history page for truck {} from {} to {} (size {})",
+                getUsername(principal), getUserId(principal), truckId, startTime, endTime, size);
+
+        if (truckId != null && !truckRepository.existsById(truckId)) {
+            log.warn("Truck not found: {}", truckId);
+            return ResponseEntity.notFound().build();
+        }
+
+        int pageSize = CursorPage.pageSize(size);
+        PageCursor before = PageCursor.decode(cursor);
+        // The first page holds everything up to the end of the range
+        Instant beforeTime = before != null ? before.timestamp() : endTime;
+        long beforeId = before != null ? before.longId() : Long.MAX_VALUE;
+
+        List<GPSPosition> positions = truckId != null
+                ? gpsPositionRepository.findByTruckIdAndTimestampBetweenBefore(
+                        truckId, startTime, endTime, beforeTime, beforeId, pageSize + 1)
+                : gpsPositionRepository.findAllByTimestampBetweenBefore(
+                        startTime, endTime, beforeTime, beforeId, pageSize + 1);
+        CursorPage<GPSPosition> page = CursorPage.of(positions, pageSize,
+                position -> PageCursor.of(position.getTimestamp(), position.getId()));
+
+        if (includeTotal && before == null) {
+            page = page.withApproximateTotal(truckId != null
+                    ? rowCountEstimator.estimate(ESTIMATE_TRUCK_HISTORY_SQL,
+                            truckId, Timestamp.from(startTime), Timestamp.from(endTime))
+                    : rowCountEstimator.estimate(ESTIMATE_ALL_HISTORY_SQL,
+                            Timestamp.from(startTime), Timestamp.from(endTime)));
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Export trucks' historical GPS positions as CSV
+     * GET /location/v1/trucks/history/export?startTime=...&endTime=...&truckId=...&groupId=... (both optional)
+     *
+     * Streamed straight from the database to the response, without sampling or paging,
+     * for compliance exports over long periods.
+     * FLEET_MANAGER users only get positions of trucks in their assigned groups.
+     */
+    @GetMapping("/trucks/history/export")
+    public void exportTrucksHistory(
+            @AuthenticationPrincipal GatewayUserPrincipal principal,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endTime,
+            @RequestParam(required = false) UUID truckId,
+            @RequestParam(required = false) UUID groupId,
+            HttpServletResponse response) throws IOException {
+
+        log.info("User [{}] ({}) exporting history for truck {} / group {} from {} to {}",
+                getUsername(principal), getUserId(principal), truckId, groupId, startTime, endTime);
+
+        List<UUID> allowedGroupIds = "ADMIN".equals(getUserRole(principal)) ? null : getUserGroups(principal);
+        GpsHistoryExportService.ExportFilter filter = new GpsHistoryExportService.ExportFilter(
+                startTime, endTime, truckId, groupId, allowedGroupIds);
+
+        // Range and concurrency are checked first, so their errors are still sent as JSON
+        try (GpsHistoryExportService.Export export = historyExportService.start(filter)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader("Content-Disposition",
+                    "attachment; filename=gps-history-" + startTime.getEpochSecond() + "-" + endTime.getEpochSecond() + ".csv");
+            export.writeCsv(response.getOutputStream());
+        }
+    }
+
     /**
      * Update truck status (for drivers)
      * PATCH /location/v1/trucks/{truckId}/status
@@ -357,6 +513,7 @@ public class TruckController {
         truck.setLastUpdate(Instant.now());
 
         Truck savedTruck = truckRepository.save(truck);
+        fleetStatusCounters.onStatusChange(truckId, newStatus);
         log.info("Truck {} status updated to {}", truckId, newStatus);
 
         return ResponseEntity.ok(savedTruck);
@@ -0,0 +1,20 @@
+package com.trucktrack.location.dto;
+
+/**
+ * Response DTO for the whole analytics page (KPIs, charts and ranking) in one request.
+ * Feature: 006-fleet-analytics
+ */
+public record AnalyticsOverviewResponse(
+    FleetKPIResponse kpis,
+    DailyMetricsResponse dailyMetrics,
+    AlertBreakdownResponse alertBreakdown,
+    TruckRankingResponse truckRanking
+) {
+    public static AnalyticsOverviewResponse of(
+            FleetKPIResponse kpis,
+            DailyMetricsResponse dailyMetrics,
+            AlertBreakdownResponse alertBreakdown,
+            TruckRankingResponse truckRanking) {
+        return new AnalyticsOverviewResponse(kpis, dailyMetrics, alertBreakdown, truckRanking);
+    }
+}
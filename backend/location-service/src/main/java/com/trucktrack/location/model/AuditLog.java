@@ -14,7 +14,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "audit_logs", indexes = {
-    @Index(name = "idx_audit_logs_entity", columnList = "entity_type, entity_id"),
+    @Index(name = "idx_audit_logs_entity_time", columnList = "entity_type, entity_id, timestamp DESC, id DESC"),
     @Index(name = "idx_audit_logs_user", columnList = "user_id"),
     @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp"),
     @Index(name = "idx_audit_logs_action", columnList = "action")
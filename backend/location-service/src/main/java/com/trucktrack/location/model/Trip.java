@@ -25,7 +25,7 @@ import java.util.UUID;
     @Index(name = "idx_trips_driver", columnList = "assigned_driver_id"),
     @Index(name = "idx_trips_truck", columnList = "assigned_truck_id"),
     @Index(name = "idx_trips_scheduled", columnList = "scheduled_at"),
-    @Index(name = "idx_trips_created", columnList = "created_at")
+    @Index(name = "idx_trips_created_id", columnList = "created_at DESC, id DESC")
 })
 @Getter
 @Setter
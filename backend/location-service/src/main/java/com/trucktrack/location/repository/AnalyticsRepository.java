@@ -1,22 +1,155 @@
 package com.trucktrack.location.repository;
 
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
- * Repository for analytics queries using the daily_truck_metrics materialized view.
+ * Repository for analytics queries using the daily_truck_metrics and daily_alert_counts tables.
  * Feature: 006-fleet-analytics
  * T008: Create AnalyticsRepository with custom SQL queries
  */
 @Repository
 public class AnalyticsRepository {
 
+    // A delta extends the existing row from its last point: the segment between that point and
+    // the first point of the delta is added here. A delta that does not start after the stored
+    // last point is skipped (replayed or late data), so folding the same points twice is a no-op
+    private static final String FOLD_DAILY_METRICS_SQL = """
+        INSERT INTO daily_truck_metrics AS d (
+            truck_id, day, total_distance_km, driving_seconds, idle_seconds, max_speed,
+            speed_sum, speed_samples, position_count, last_timestamp, last_latitude, last_longitude
+        )
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (truck_id, day) DO UPDATE SET
+            total_distance_km = d.total_distance_km + EXCLUDED.total_distance_km
+                + CASE WHEN d.last_latitude IS NOT NULL THEN
+                    ST_DistanceSphere(ST_MakePoint(d.last_longitude, d.last_latitude),
+                                      ST_MakePoint(CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION))) / 1000.0
+                  ELSE 0 END,
+            driving_seconds = d.driving_seconds + EXCLUDED.driving_seconds
+                + CASE WHEN CAST(? AS DOUBLE PRECISION) > 0 THEN
+                    EXTRACT(EPOCH FROM (CAST(? AS TIMESTAMP) - d.last_timestamp))
+                  ELSE 0 END,
+            idle_seconds = d.idle_seconds + EXCLUDED.idle_seconds
+                + CASE WHEN CAST(? AS DOUBLE PRECISION) = 0 THEN
+                    EXTRACT(EPOCH FROM (CAST(? AS TIMESTAMP) - d.last_timestamp))
+                  ELSE 0 END,
+            max_speed = GREATEST(d.max_speed, EXCLUDED.max_speed),
+            speed_sum = d.speed_sum + EXCLUDED.speed_sum,
+            speed_samples = d.speed_samples + EXCLUDED.speed_samples,
+            position_count = d.position_count + EXCLUDED.position_count,
+            last_latitude = EXCLUDED.last_latitude,
+            last_longitude = EXCLUDED.last_longitude,
+            last_timestamp = EXCLUDED.last_timestamp,
+            updated_at = NOW()
+        WHERE d.last_timestamp < CAST(? AS TIMESTAMP)
+        """;
+
+    // Whole analytics page in one statement: KPIs, daily series and alert breakdown of the entity
+    // trucks, ranking of the fleet trucks (entity trucks are a subset), one row set per section
+    private static final String OVERVIEW_SQL = """
+        WITH metrics AS (
+            SELECT truck_id, day, total_distance_km, driving_minutes, idle_minutes, max_speed, avg_speed,
+                   truck_id = ANY(?) AS in_entity
+            FROM daily_truck_metrics
+            WHERE truck_id = ANY(?)
+              AND day BETWEEN ? AND ?
+        ),
+        alerts AS (
+            SELECT truck_id, day, alert_type, alert_count,
+                   truck_id = ANY(?) AS in_entity
+            FROM daily_alert_counts
+            WHERE truck_id = ANY(?)
+              AND day BETWEEN ? AND ?
+        ),
+        alerts_by_day AS (
+            SELECT day, SUM(alert_count) AS alert_count
+            FROM alerts
+            WHERE in_entity
+            GROUP BY day
+        ),
+        truck_totals AS (
+            SELECT
+                t.id AS truck_id,
+                t.truck_id AS truck_name,
+                t.license_plate,
+                COALESCE(m.distance_km, 0) AS distance_km,
+                COALESCE(m.driving_minutes, 0) AS driving_minutes,
+                COALESCE(a.alert_count, 0) AS alert_count
+            FROM trucks t
+            LEFT JOIN (
+                SELECT truck_id, SUM(total_distance_km) AS distance_km, SUM(driving_minutes) AS driving_minutes
+                FROM metrics
+                GROUP BY truck_id
+            ) m ON m.truck_id = t.id
+            LEFT JOIN (
+                SELECT truck_id, SUM(alert_count) AS alert_count
+                FROM alerts
+                GROUP BY truck_id
+            ) a ON a.truck_id = t.id
+            WHERE t.id = ANY(?)
+        )
+        SELECT
+            'KPI' AS section, NULL::date AS day, NULL::text AS label, NULL::uuid AS truck_id, NULL::text AS license_plate,
+            COALESCE(SUM(total_distance_km), 0)::double precision AS value1,
+            COALESCE(SUM(driving_minutes), 0)::double precision AS value2,
+            COALESCE(SUM(idle_minutes), 0)::double precision AS value3,
+            COALESCE(MAX(max_speed), 0)::double precision AS value4,
+            COALESCE(AVG(NULLIF(avg_speed, 0)), 0)::double precision AS value5
+        FROM metrics
+        WHERE in_entity
+        UNION ALL
+        SELECT
+            'DAY', m.day, NULL, NULL, NULL,
+            SUM(m.total_distance_km)::double precision,
+            SUM(m.driving_minutes)::double precision,
+            COALESCE(MAX(abd.alert_count), 0)::double precision,
+            NULL, NULL
+        FROM metrics m
+        LEFT JOIN alerts_by_day abd ON abd.day = m.day
+        WHERE m.in_entity
+        GROUP BY m.day
+        UNION ALL
+        SELECT
+            'ALERT_TYPE', NULL, alert_type, NULL, NULL,
+            SUM(alert_count)::double precision, NULL, NULL, NULL, NULL
+        FROM alerts
+        WHERE in_entity
+        GROUP BY alert_type
+        HAVING SUM(alert_count) > 0
+        UNION ALL
+        (
+            SELECT
+                'RANK', NULL, truck_name, truck_id, license_plate,
+                (CASE ?
+                    WHEN 'DRIVING_TIME' THEN driving_minutes
+                    WHEN 'ALERTS' THEN alert_count
+                    ELSE distance_km
+                END)::double precision AS value1,
+                NULL, NULL, NULL, NULL
+            FROM truck_totals
+            ORDER BY value1 DESC
+            LIMIT ?
+        )
+        """;
+
     private final JdbcTemplate jdbcTemplate;
 
     public AnalyticsRepository(JdbcTemplate jdbcTemplate) {
@@ -57,10 +190,10 @@ public class AnalyticsRepository {
         }
 
         String sql = """
-            SELECT COUNT(*)
-            FROM notifications
+            SELECT COALESCE(SUM(alert_count), 0)
+            FROM daily_alert_counts
             WHERE truck_id = ANY(?::uuid[])
-              AND DATE(triggered_at) BETWEEN ? AND ?
+              AND day BETWEEN ? AND ?
             """;
 
         String truckIdsArray = "{" + String.join(",", truckIds.stream().map(UUID::toString).toList()) + "}";
@@ -79,12 +212,12 @@ public class AnalyticsRepository {
 
         String sql = """
             SELECT
-                SUM(CASE WHEN notification_type = 'GEOFENCE_ENTER' THEN 1 ELSE 0 END) as entries,
-                SUM(CASE WHEN notification_type = 'GEOFENCE_EXIT' THEN 1 ELSE 0 END) as exits
-            FROM notifications
+                SUM(CASE WHEN alert_type = 'GEOFENCE_ENTER' THEN alert_count ELSE 0 END) as entries,
+                SUM(CASE WHEN alert_type = 'GEOFENCE_EXIT' THEN alert_count ELSE 0 END) as exits
+            FROM daily_alert_counts
             WHERE truck_id = ANY(?::uuid[])
-              AND DATE(triggered_at) BETWEEN ? AND ?
-              AND notification_type IN ('GEOFENCE_ENTER', 'GEOFENCE_EXIT')
+              AND day BETWEEN ? AND ?
+              AND alert_type IN ('GEOFENCE_ENTER', 'GEOFENCE_EXIT')
             """;
 
         String truckIdsArray = "{" + String.join(",", truckIds.stream().map(UUID::toString).toList()) + "}";
@@ -112,9 +245,9 @@ public class AnalyticsRepository {
                 day as date,
                 SUM(total_distance_km) as distance_km,
                 SUM(driving_minutes) as driving_minutes,
-                (SELECT COUNT(*) FROM notifications n
-                 WHERE n.truck_id = ANY(?::uuid[])
-                   AND DATE(n.triggered_at) = dtm.day) as alert_count
+                (SELECT COALESCE(SUM(dac.alert_count), 0) FROM daily_alert_counts dac
+                 WHERE dac.truck_id = ANY(?::uuid[])
+                   AND dac.day = dtm.day) as alert_count
             FROM daily_truck_metrics dtm
             WHERE truck_id = ANY(?::uuid[])
               AND day BETWEEN ? AND ?
@@ -137,12 +270,13 @@ public class AnalyticsRepository {
 
         String sql = """
             SELECT
-                notification_type as alert_type,
-                COUNT(*) as count
-            FROM notifications
+                alert_type,
+                SUM(alert_count) as count
+            FROM daily_alert_counts
             WHERE truck_id = ANY(?::uuid[])
-              AND DATE(triggered_at) BETWEEN ? AND ?
-            GROUP BY notification_type
+              AND day BETWEEN ? AND ?
+            GROUP BY alert_type
+            HAVING SUM(alert_count) > 0
             ORDER BY count DESC
             """;
 
@@ -220,10 +354,10 @@ public class AnalyticsRepository {
                 t.id as truck_id,
                 t.truck_id as truck_name,
                 t.license_plate,
-                COUNT(n.id) as value
+                COALESCE(SUM(dac.alert_count), 0) as value
             FROM trucks t
-            LEFT JOIN notifications n ON t.id = n.truck_id
-                AND DATE(n.triggered_at) BETWEEN ? AND ?
+            LEFT JOIN daily_alert_counts dac ON t.id = dac.truck_id
+                AND dac.day BETWEEN ? AND ?
             WHERE t.id = ANY(?::uuid[])
             GROUP BY t.id, t.truck_id, t.license_plate
             ORDER BY value DESC
@@ -270,10 +404,236 @@ public class AnalyticsRepository {
     }
 
     /**
-     * Refresh the materialized view.
+     * Get KPIs, daily metrics and alert breakdown of the entity trucks, and the ranking of the
+     * fleet trucks by the given metric, in one query. Rows use the same keys as the single queries.
+     */
+    public AnalyticsOverviewData getAnalyticsOverview(
+            List<UUID> entityTruckIds, List<UUID> fleetTruckIds,
+            LocalDate startDate, LocalDate endDate, String rankingMetric, int limit) {
+        if (fleetTruckIds.isEmpty()) {
+            return new AnalyticsOverviewData(emptyKPIs(), List.of(), List.of(), List.of());
+        }
+
+        Map<String, Object> kpis = new HashMap<>(emptyKPIs());
+        List<Map<String, Object>> dailyMetrics = new ArrayList<>();
+        List<Map<String, Object>> alertBreakdown = new ArrayList<>();
+        List<Map<String, Object>> ranking = new ArrayList<>();
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(OVERVIEW_SQL);
+            Array entityIds = con.createArrayOf("uuid", entityTruckIds.toArray());
+            Array fleetIds = con.createArrayOf("uuid", fleetTruckIds.toArray());
+            new ArgumentPreparedStatementSetter(new Object[]{
+                    entityIds, fleetIds, startDate, endDate,
+                    entityIds, fleetIds, startDate, endDate,
+                    fleetIds, rankingMetric, limit
+            }).setValues(ps);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            switch (rs.getString("section")) {
+                case "KPI" -> {
+                    kpis.put("total_distance_km", rs.getDouble("value1"));
+                    kpis.put("driving_minutes", rs.getLong("value2"));
+                    kpis.put("idle_minutes", rs.getLong("value3"));
+                    kpis.put("max_speed", rs.getDouble("value4"));
+                    kpis.put("avg_speed", rs.getDouble("value5"));
+                }
+                case "DAY" -> dailyMetrics.add(Map.of(
+                        "date", rs.getDate("day"),
+                        "distance_km", rs.getDouble("value1"),
+                        "driving_minutes", rs.getLong("value2"),
+                        "alert_count", rs.getLong("value3")));
+                case "ALERT_TYPE" -> alertBreakdown.add(Map.of(
+                        "alert_type", rs.getString("label"),
+                        "count", rs.getLong("value1")));
+                case "RANK" -> ranking.add(Map.of(
+                        "truck_id", rs.getObject("truck_id", UUID.class),
+                        "truck_name", rs.getString("label"),
+                        "license_plate", rs.getString("license_plate"),
+                        "value", rs.getDouble("value1")));
+                default -> {
+                }
+            }
+        });
+
+        // Sections come back in no particular order
+        dailyMetrics.sort(Comparator.comparing(row -> ((java.sql.Date) row.get("date")).toLocalDate()));
+        alertBreakdown.sort(Comparator.comparing((Map<String, Object> row) -> (Long) row.get("count")).reversed());
+        ranking.sort(Comparator.comparing((Map<String, Object> row) -> (Double) row.get("value")).reversed());
+
+        return new AnalyticsOverviewData(kpis, dailyMetrics, alertBreakdown, ranking);
+    }
+
+    /**
+     * Stream the trucks changed after the given time (all trucks from the epoch).
+     */
+    public void forEachTruck(LocalDateTime updatedAfter, Consumer<TruckLabel> consumer) {
+        String sql = """
+            SELECT id, truck_id, license_plate, updated_at
+            FROM trucks
+            WHERE updated_at > ?
+            """;
+
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> consumer.accept(new TruckLabel(
+                rs.getObject("id", UUID.class),
+                rs.getString("truck_id"),
+                rs.getString("license_plate"),
+                rs.getTimestamp("updated_at").toLocalDateTime()
+        )), updatedAfter);
+    }
+
+    /**
+     * Stream the daily truck metrics from a day on, changed after the given time.
      */
-    public void refreshMaterializedView() {
-        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY daily_truck_metrics");
+    public void forEachDailyMetrics(LocalDate fromDay, LocalDateTime updatedAfter, Consumer<DailyMetricsRow> consumer) {
+        String sql = """
+            SELECT truck_id, day, total_distance_km, driving_minutes, idle_minutes, max_speed, avg_speed, updated_at
+            FROM daily_truck_metrics
+            WHERE day >= ?
+              AND updated_at > ?
+            """;
+
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> consumer.accept(new DailyMetricsRow(
+                rs.getObject("truck_id", UUID.class),
+                rs.getDate("day").toLocalDate(),
+                rs.getDouble("total_distance_km"),
+                rs.getInt("driving_minutes"),
+                rs.getInt("idle_minutes"),
+                rs.getDouble("max_speed"),
+                rs.getDouble("avg_speed"),
+                rs.getTimestamp("updated_at").toLocalDateTime()
+        )), fromDay, updatedAfter);
+    }
+
+    /**
+     * Stream the daily alert counts from a day on, changed after the given time.
+     */
+    public void forEachDailyAlertCount(LocalDate fromDay, LocalDateTime updatedAfter, Consumer<DailyAlertCountRow> consumer) {
+        String sql = """
+            SELECT truck_id, day, alert_type, alert_count, updated_at
+            FROM daily_alert_counts
+            WHERE day >= ?
+              AND updated_at > ?
+            """;
+
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> consumer.accept(new DailyAlertCountRow(
+                rs.getObject("truck_id", UUID.class),
+                rs.getDate("day").toLocalDate(),
+                rs.getString("alert_type"),
+                rs.getLong("alert_count"),
+                rs.getTimestamp("updated_at").toLocalDateTime()
+        )), fromDay, updatedAfter);
+    }
+
+    /**
+     * Timestamp of the last point folded into a truck's day, or null if the day has no row yet.
+     */
+    public Instant findDailyMetricsLastTimestamp(UUID truckId, LocalDate day) {
+        List<Timestamp> rows = jdbcTemplate.queryForList(
+                "SELECT last_timestamp FROM daily_truck_metrics WHERE truck_id = ? AND day = ?",
+                Timestamp.class, truckId, day);
+        return rows.isEmpty() ? null : rows.get(0).toInstant();
+    }
+
+    /**
+     * Fold the points received since the last call into the daily rows, one batched statement.
+     *
+     * @return the deltas not folded because they do not start after the stored last point
+     */
+    public List<DailyMetricsDelta> foldDailyMetrics(List<DailyMetricsDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return List.of();
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(FOLD_DAILY_METRICS_SQL, deltas, deltas.size(), (ps, delta) -> {
+            Timestamp firstTimestamp = Timestamp.from(delta.firstTimestamp());
+            ps.setObject(1, delta.truckId());
+            ps.setObject(2, delta.day());
+            ps.setDouble(3, delta.distanceKm());
+            ps.setDouble(4, delta.drivingSeconds());
+            ps.setDouble(5, delta.idleSeconds());
+            ps.setDouble(6, delta.maxSpeed());
+            ps.setDouble(7, delta.speedSum());
+            ps.setLong(8, delta.speedSamples());
+            ps.setLong(9, delta.positionCount());
+            ps.setTimestamp(10, Timestamp.from(delta.lastTimestamp()));
+            ps.setDouble(11, delta.lastLatitude());
+            ps.setDouble(12, delta.lastLongitude());
+            // Segment from the stored last point to the first point of the delta
+            ps.setDouble(13, delta.firstLongitude());
+            ps.setDouble(14, delta.firstLatitude());
+            ps.setDouble(15, delta.firstSpeed());
+            ps.setTimestamp(16, firstTimestamp);
+            ps.setDouble(17, delta.firstSpeed());
+            ps.setTimestamp(18, firstTimestamp);
+            // Only a delta starting after the stored last point is folded
+            ps.setTimestamp(19, firstTimestamp);
+        });
+
+        List<DailyMetricsDelta> skipped = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    skipped.add(deltas.get(index));
+                }
+                index++;
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Aggregates of consecutive points of one truck and day, with the first and last point so
+     * the delta can be joined to the stored row.
+     */
+    public record DailyMetricsDelta(
+            UUID truckId,
+            LocalDate day,
+            Instant firstTimestamp,
+            double firstLatitude,
+            double firstLongitude,
+            double firstSpeed,
+            Instant lastTimestamp,
+            double lastLatitude,
+            double lastLongitude,
+            double distanceKm,
+            double drivingSeconds,
+            double idleSeconds,
+            double maxSpeed,
+            double speedSum,
+            long speedSamples,
+            long positionCount
+    ) {
+    }
+
+    /**
+     * Result of the overview query, one list of rows per section.
+     */
+    public record AnalyticsOverviewData(
+            Map<String, Object> kpis,
+            List<Map<String, Object>> dailyMetrics,
+            List<Map<String, Object>> alertBreakdown,
+            List<Map<String, Object>> ranking
+    ) {
+    }
+
+    public record TruckLabel(UUID id, String truckName, String licensePlate, LocalDateTime updatedAt) {
+    }
+
+    public record DailyMetricsRow(
+            UUID truckId,
+            LocalDate day,
+            double distanceKm,
+            int drivingMinutes,
+            int idleMinutes,
+            double maxSpeed,
+            double avgSpeed,
+            LocalDateTime updatedAt
+    ) {
+    }
+
+    public record DailyAlertCountRow(UUID truckId, LocalDate day, String alertType, long alertCount, LocalDateTime updatedAt) {
     }
 
     private Map<String, Object> emptyKPIs() {
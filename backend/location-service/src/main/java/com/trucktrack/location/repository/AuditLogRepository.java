@@ -27,6 +27,31 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
     Page<AuditLog> findByEntityTypeAndEntityIdOrderByTimestampDesc(
         String entityType, UUID entityId, Pageable pageable);
 
+    /**
+     * First keyset page of the audit logs of an entity, newest first.
+     */
+    @Query(value = "SELECT * FROM audit_logs WHERE entity_type = :entityType AND entity_id = :entityId " +
+                   "ORDER BY timestamp DESC, id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<AuditLog> findFirstByEntity(
+        @Param("entityType") String entityType,
+        @Param("entityId") UUID entityId,
+        @Param("limit") int limit);
+
+    /**
+     * Next keyset page of the audit logs of an entity: the logs strictly before (beforeTime, beforeId).
+     */
+    @Query(value = "SELECT * FROM audit_logs WHERE entity_type = :entityType AND entity_id = :entityId " +
+                   "AND (timestamp, id) < (:beforeTime, :beforeId) " +
+                   "ORDER BY timestamp DESC, id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<AuditLog> findByEntityBefore(
+        @Param("entityType") String entityType,
+        @Param("entityId") UUID entityId,
+        @Param("beforeTime") Instant beforeTime,
+        @Param("beforeId") UUID beforeId,
+        @Param("limit") int limit);
+
     /**
      * Find all audit logs by a specific user.
      */
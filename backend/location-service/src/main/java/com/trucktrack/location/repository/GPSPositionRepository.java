@@ -187,6 +187,41 @@ public interface GPSPositionRepository extends JpaRepository<GPSPosition, UUID>
         Pageable pageable
     );
 
+    /**
+     * Keyset page of a truck's GPS positions within a time range, newest first.
+     * Returns the positions strictly before (beforeTime, beforeId), so every page costs the same;
+     * the first page starts from (endTime, Long.MAX_VALUE).
+     */
+    @Query(value = "SELECT * FROM gps_positions WHERE truck_id = :truckId " +
+                   "AND timestamp BETWEEN :startTime AND :endTime " +
+                   "AND (timestamp, id) < (:beforeTime, :beforeId) " +
+                   "ORDER BY timestamp DESC, id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<GPSPosition> findByTruckIdAndTimestampBetweenBefore(
+        @Param("truckId") UUID truckId,
+        @Param("startTime") Instant startTime,
+        @Param("endTime") Instant endTime,
+        @Param("beforeTime") Instant beforeTime,
+        @Param("beforeId") long beforeId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Keyset page of all GPS positions within a time range, newest first.
+     * Same paging as {@link #findByTruckIdAndTimestampBetweenBefore}.
+     */
+    @Query(value = "SELECT * FROM gps_positions WHERE timestamp BETWEEN :startTime AND :endTime " +
+                   "AND (timestamp, id) < (:beforeTime, :beforeId) " +
+                   "ORDER BY timestamp DESC, id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<GPSPosition> findAllByTimestampBetweenBefore(
+        @Param("startTime") Instant startTime,
+        @Param("endTime") Instant endTime,
+        @Param("beforeTime") Instant beforeTime,
+        @Param("beforeId") long beforeId,
+        @Param("limit") int limit
+    );
+
     /**
      * Count all GPS positions within a time range
      */
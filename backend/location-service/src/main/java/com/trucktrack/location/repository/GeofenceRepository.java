@@ -99,6 +99,16 @@ public interface GeofenceRepository extends JpaRepository<Geofence, UUID> {
      */
     List<Geofence> findByIsActiveTrue();
 
+    /**
+     * Version of the active geofence set (count + latest update), changes on any insert/update/delete
+     */
+    @Query(value = """
+        SELECT COUNT(*) || ':' || COALESCE(MAX(g.updated_at)::text, '')
+        FROM geofences g
+        WHERE g.is_active = true
+        """, nativeQuery = true)
+    String findActiveGeofencesVersion();
+
     /**
      * Find all geofences by zone type
      */
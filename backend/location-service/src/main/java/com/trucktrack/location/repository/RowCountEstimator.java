@@ -0,0 +1,40 @@
+package com.trucktrack.location.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Approximate row counts from the PostgreSQL planner, for listings too large to COUNT(*) on every page.
+ * The planner estimate comes from table statistics: fast whatever the table size, but only approximate.
+ */
+@Slf4j
+@Repository
+public class RowCountEstimator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public RowCountEstimator(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Estimated number of rows returned by a query, or null if no estimate is available.
+     *
+     * @param sql query with positional parameters (constant SQL, never built from user input)
+     */
+    public Long estimate(String sql, Object... args) {
+        try {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return rows.isNumber() ? rows.asLong() : null;
+        } catch (Exception e) {
+            log.warn("Failed to estimate row count: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -191,28 +192,56 @@ public interface TripRepository extends JpaRepository<Trip, UUID> {
     );
 
     /**
-     * Count trips created within a date range.
+     * Keyset page of trips with filters including date range, newest first.
+     * Returns the trips created strictly before (beforeTime, beforeId), or the first page when they are null.
      */
-    @Query("SELECT COUNT(t) FROM Trip t WHERE t.createdAt >= :start AND t.createdAt < :end")
-    long countByCreatedAtBetween(@Param("start") Instant start, @Param("end") Instant end);
+    @Query(value = "SELECT * FROM trips t WHERE " +
+           "(:search IS NULL OR :search = '' OR " +
+           "LOWER(t.origin) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(t.destination) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(t.notes) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "AND (CAST(:status AS VARCHAR) IS NULL OR t.status = :status) " +
+           "AND (CAST(:driverId AS UUID) IS NULL OR t.assigned_driver_id = CAST(:driverId AS UUID)) " +
+           "AND (CAST(:truckId AS UUID) IS NULL OR t.assigned_truck_id = CAST(:truckId AS UUID)) " +
+           "AND (CAST(:startDate AS TIMESTAMP) IS NULL OR t.created_at >= :startDate) " +
+           "AND (CAST(:endDate AS TIMESTAMP) IS NULL OR t.created_at <= :endDate) " +
+           "AND (CAST(:beforeTime AS TIMESTAMP) IS NULL OR " +
+           "(t.created_at, t.id) < (CAST(:beforeTime AS TIMESTAMPTZ), CAST(:beforeId AS UUID))) " +
+           "ORDER BY t.created_at DESC, t.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Trip> searchWithFiltersBefore(
+        @Param("search") String search,
+        @Param("status") String status,
+        @Param("driverId") UUID driverId,
+        @Param("truckId") UUID truckId,
+        @Param("startDate") Instant startDate,
+        @Param("endDate") Instant endDate,
+        @Param("beforeTime") Instant beforeTime,
+        @Param("beforeId") UUID beforeId,
+        @Param("limit") int limit
+    );
 
     /**
-     * Count completed trips within a date range.
+     * Trip counts per status from the trigger-maintained trip_status_counts table.
+     * Each row: status, trip_count, timed_count, duration_minutes_sum.
      */
-    @Query("SELECT COUNT(t) FROM Trip t WHERE t.status = 'COMPLETED' AND t.completedAt >= :start AND t.completedAt < :end")
-    long countCompletedBetween(@Param("start") Instant start, @Param("end") Instant end);
+    @Query(value = "SELECT status, trip_count, timed_count, duration_minutes_sum FROM trip_status_counts",
+           nativeQuery = true)
+    List<Object[]> findStatusCounts();
 
     /**
-     * Get average trip duration in minutes for completed trips.
-     * Uses native SQL for PostgreSQL EXTRACT(EPOCH...) function.
+     * Count trips created on the UTC days [start, end), from the trigger-maintained trip_daily_counts table.
      */
-    @Query(value = "SELECT AVG(EXTRACT(EPOCH FROM (completed_at - started_at)) / 60) " +
-           "FROM trips " +
-           "WHERE status = 'COMPLETED' " +
-           "AND started_at IS NOT NULL " +
-           "AND completed_at IS NOT NULL",
+    @Query(value = "SELECT COALESCE(SUM(created_count), 0) FROM trip_daily_counts " +
+           "WHERE day >= :start AND day < :end",
            nativeQuery = true)
-    Double getAverageTripDurationMinutes();
+    long countCreatedOnDays(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Count completed trips within a date range.
+     */
+    @Query("SELECT COUNT(t) FROM Trip t WHERE t.status = 'COMPLETED' AND t.completedAt >= :start AND t.completedAt < :end")
+    long countCompletedBetween(@Param("start") Instant start, @Param("end") Instant end);
 
     /**
      * Get average trip duration for trips completed within a date range.
@@ -5,9 +5,11 @@ import com.trucktrack.location.model.TruckStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -66,6 +68,21 @@ public interface TruckRepository extends JpaRepository<Truck, UUID> {
     @Query("SELECT t FROM Truck t WHERE t.lastUpdate < :threshold")
     List<Truck> findStalePositions(@Param("threshold") Instant threshold);
 
+    /**
+     * Change a truck's status only if it still has the expected status and no GPS point
+     * newer than lastUpdate arrived meanwhile. Used by the status sweeper.
+     *
+     * @return number of updated rows (0 or 1)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Truck t SET t.status = :newStatus, t.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE t.id = :id AND t.status = :expectedStatus AND t.lastUpdate <= :lastUpdate")
+    int updateStatusIfNotUpdatedSince(@Param("id") UUID id,
+                                      @Param("expectedStatus") TruckStatus expectedStatus,
+                                      @Param("newStatus") TruckStatus newStatus,
+                                      @Param("lastUpdate") Instant lastUpdate);
+
     /**
      * Find trucks within a bounding box (spatial query for map viewport)
      * Uses spatial index for performance
@@ -85,6 +102,12 @@ public interface TruckRepository extends JpaRepository<Truck, UUID> {
      */
     long countByStatus(TruckStatus status);
 
+    /**
+     * ID and status of every truck, as [UUID, TruckStatus] rows (fleet counters)
+     */
+    @Query("SELECT t.id, t.status FROM Truck t")
+    List<Object[]> findAllIdsAndStatuses();
+
     /**
      * Check if truck exists by truck ID
      */
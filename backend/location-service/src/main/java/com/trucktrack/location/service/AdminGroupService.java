@@ -2,6 +2,7 @@ package com.trucktrack.location.service;
 
 import com.trucktrack.common.cache.CacheConstants;
 import com.trucktrack.common.dto.PageResponse;
+import com.trucktrack.location.cache.CacheInvalidator;
 import com.trucktrack.location.dto.CreateGroupRequest;
 import com.trucktrack.location.dto.GroupDetailResponse;
 import com.trucktrack.location.dto.UpdateGroupRequest;
@@ -12,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -35,16 +37,19 @@ public class AdminGroupService {
     private final TruckGroupAssignmentRepository truckAssignmentRepository;
     private final JdbcTemplate jdbcTemplate;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AdminGroupService(
             TruckGroupRepository groupRepository,
             TruckGroupAssignmentRepository truckAssignmentRepository,
             JdbcTemplate jdbcTemplate,
-            AuditService auditService) {
+            AuditService auditService,
+            ApplicationEventPublisher eventPublisher) {
         this.groupRepository = groupRepository;
         this.truckAssignmentRepository = truckAssignmentRepository;
         this.jdbcTemplate = jdbcTemplate;
         this.auditService = auditService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -161,6 +166,7 @@ public class AdminGroupService {
 
         // First delete all truck assignments
         truckAssignmentRepository.deleteByGroupId(id);
+        eventPublisher.publishEvent(new CacheInvalidator.GroupModifiedEvent(id.toString()));
 
         // Delete user assignments via JDBC (cross-service)
         jdbcTemplate.update(
@@ -2,6 +2,7 @@ package com.trucktrack.location.service;
 
 import com.trucktrack.common.cache.CacheConstants;
 import com.trucktrack.common.dto.PageResponse;
+import com.trucktrack.location.cache.CacheInvalidator;
 import com.trucktrack.location.dto.CreateTruckRequest;
 import com.trucktrack.location.dto.TruckAdminResponse;
 import com.trucktrack.location.dto.UpdateTruckRequest;
@@ -18,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -42,6 +44,8 @@ public class AdminTruckService {
     private final TruckGroupRepository truckGroupRepository;
     private final TruckGroupAssignmentRepository assignmentRepository;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FleetStatusCounters fleetStatusCounters;
 
     // Map entity field names to database column names for native query sorting
     private static final Map<String, String> SORT_FIELD_MAPPING = Map.of(
@@ -149,6 +153,7 @@ public class AdminTruckService {
             .build();
 
         truck = truckRepository.save(truck);
+        fleetStatusCounters.onStatusChange(truck.getId(), truck.getStatus());
 
         // Create group assignments
         Set<UUID> allGroupIds = new HashSet<>();
@@ -161,6 +166,7 @@ public class AdminTruckService {
             if (truckGroupRepository.existsById(groupId)) {
                 TruckGroupAssignment assignment = TruckGroupAssignment.create(truck.getId(), groupId, actorId);
                 assignmentRepository.save(assignment);
+                publishGroupChange(truck.getId(), groupId, true);
             }
         }
 
@@ -250,6 +256,7 @@ public class AdminTruckService {
         TruckStatus previousStatus = truck.getStatus();
         truck.setStatus(TruckStatus.OUT_OF_SERVICE);
         truck = truckRepository.save(truck);
+        fleetStatusCounters.onStatusChange(id, TruckStatus.OUT_OF_SERVICE);
 
         // Audit log
         auditService.logTruckStatusChange(truck, actorId, previousStatus, TruckStatus.OUT_OF_SERVICE);
@@ -272,6 +279,7 @@ public class AdminTruckService {
         TruckStatus previousStatus = truck.getStatus();
         truck.setStatus(TruckStatus.OFFLINE);
         truck = truckRepository.save(truck);
+        fleetStatusCounters.onStatusChange(id, TruckStatus.OFFLINE);
 
         // Audit log
         auditService.logTruckStatusChange(truck, actorId, previousStatus, TruckStatus.OFFLINE);
@@ -320,6 +328,7 @@ public class AdminTruckService {
         for (UUID currentGroupId : currentGroupIds) {
             if (!newGroupIds.contains(currentGroupId)) {
                 assignmentRepository.deleteByTruckIdAndGroupId(truckId, currentGroupId);
+                publishGroupChange(truckId, currentGroupId, false);
             }
         }
 
@@ -328,6 +337,7 @@ public class AdminTruckService {
             if (!currentGroupIds.contains(newGroupId)) {
                 TruckGroupAssignment assignment = TruckGroupAssignment.create(truckId, newGroupId, actorId);
                 assignmentRepository.save(assignment);
+                publishGroupChange(truckId, newGroupId, true);
             }
         }
 
@@ -338,6 +348,11 @@ public class AdminTruckService {
         return new ArrayList<>(newGroupIds);
     }
 
+    private void publishGroupChange(UUID truckId, UUID groupId, boolean added) {
+        eventPublisher.publishEvent(
+            new CacheInvalidator.TruckGroupChangedEvent(truckId.toString(), groupId.toString(), added));
+    }
+
     /**
      * Enrich truck response with group information.
      */
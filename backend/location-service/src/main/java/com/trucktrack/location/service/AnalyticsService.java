@@ -3,6 +3,7 @@ package com.trucktrack.location.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.trucktrack.location.cache.AnalyticsCube;
 import com.trucktrack.location.dto.*;
 import com.trucktrack.location.dto.AlertBreakdownResponse.AlertTypeCount;
 import com.trucktrack.location.dto.DailyMetricsResponse.DailyDataPoint;
@@ -11,6 +12,7 @@ import com.trucktrack.location.dto.TruckRankingResponse.TruckRankEntry;
 import com.trucktrack.location.model.Truck;
 import com.trucktrack.location.model.TruckGroup;
 import com.trucktrack.location.repository.AnalyticsRepository;
+import com.trucktrack.location.repository.AnalyticsRepository.AnalyticsOverviewData;
 import com.trucktrack.location.repository.TruckGroupRepository;
 import com.trucktrack.location.repository.TruckRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +30,9 @@ import java.util.stream.Collectors;
  * Service for fleet analytics KPI aggregation.
  * Feature: 006-fleet-analytics
  * T014: Create AnalyticsService with core aggregation logic
+ *
+ * Periods within the retention window of the {@link AnalyticsCube} are sliced in memory;
+ * older custom periods are queried and cached in Redis.
  */
 @Slf4j
 @Service
@@ -40,6 +45,7 @@ public class AnalyticsService {
     private final AnalyticsRepository analyticsRepository;
     private final TruckRepository truckRepository;
     private final TruckGroupRepository truckGroupRepository;
+    private final AnalyticsCube analyticsCube;
     private final RedisTemplate<String, String> redisTemplate;
     private final ObjectMapper objectMapper;
 
@@ -47,8 +53,10 @@ public class AnalyticsService {
             AnalyticsRepository analyticsRepository,
             TruckRepository truckRepository,
             TruckGroupRepository truckGroupRepository,
+            AnalyticsCube analyticsCube,
             RedisTemplate<String, String> redisTemplate) {
         this.analyticsRepository = analyticsRepository;
+        this.analyticsCube = analyticsCube;
         this.truckRepository = truckRepository;
         this.truckGroupRepository = truckGroupRepository;
         this.redisTemplate = redisTemplate;
@@ -69,7 +77,14 @@ public class AnalyticsService {
 
         PeriodInfo period = buildPeriodInfo(periodType, startDate, endDate);
 
-        // Check cache
+        if (analyticsCube.covers(period.startDate())) {
+            AnalyticsCube.Slice slice = analyticsCube.slice(entityType, entityId, userGroupIds,
+                    period.startDate(), period.endDate(), null, 0);
+            return toOverview(period, buildEntityInfo(entityType, entityId, slice.truckCount()),
+                    slice.data(), null, 0).kpis();
+        }
+
+        // Older periods: queried, cached in Redis
         String cacheKey = buildCacheKey("kpi", period, entityType, entityId, userGroupIds);
         FleetKPIResponse cached = getCached(cacheKey, FleetKPIResponse.class);
         if (cached != null) {
@@ -86,18 +101,8 @@ public class AnalyticsService {
         int alertCount = analyticsRepository.getAlertCount(truckIds, period.startDate(), period.endDate());
         Map<String, Integer> geofenceEvents = analyticsRepository.getGeofenceEventCounts(truckIds, period.startDate(), period.endDate());
 
-        FleetKPIResponse response = FleetKPIResponse.builder()
-                .period(period)
-                .entity(entity)
-                .totalDistanceKm(toDouble(kpiData.get("total_distance_km")))
-                .drivingTimeMinutes(toLong(kpiData.get("driving_minutes")))
-                .idleTimeMinutes(toLong(kpiData.get("idle_minutes")))
-                .avgSpeedKmh(toDouble(kpiData.get("avg_speed")))
-                .maxSpeedKmh(toDouble(kpiData.get("max_speed")))
-                .alertCount(alertCount)
-                .geofenceEntries(geofenceEvents.get("entries"))
-                .geofenceExits(geofenceEvents.get("exits"))
-                .build();
+        FleetKPIResponse response = toFleetKPI(period, entity, kpiData,
+                alertCount, geofenceEvents.get("entries"), geofenceEvents.get("exits"));
 
         // Cache the result
         cache(cacheKey, response, getTTL(periodType));
@@ -118,7 +123,14 @@ public class AnalyticsService {
 
         PeriodInfo period = buildPeriodInfo(periodType, startDate, endDate);
 
-        // Check cache
+        if (analyticsCube.covers(period.startDate())) {
+            AnalyticsCube.Slice slice = analyticsCube.slice(entityType, entityId, userGroupIds,
+                    period.startDate(), period.endDate(), null, 0);
+            EntityInfo entity = buildEntityInfo(entityType, entityId, slice.truckCount());
+            return DailyMetricsResponse.of(period, entity, toDailyDataPoints(slice.data().dailyMetrics()));
+        }
+
+        // Older periods: queried, cached in Redis
         String cacheKey = buildCacheKey("daily", period, entityType, entityId, userGroupIds);
         DailyMetricsResponse cached = getCached(cacheKey, DailyMetricsResponse.class);
         if (cached != null) {
@@ -130,16 +142,7 @@ public class AnalyticsService {
 
         List<Map<String, Object>> rawData = analyticsRepository.getDailyMetrics(truckIds, period.startDate(), period.endDate());
 
-        List<DailyDataPoint> dailyData = rawData.stream()
-                .map(row -> new DailyDataPoint(
-                        ((java.sql.Date) row.get("date")).toLocalDate(),
-                        toDouble(row.get("distance_km")),
-                        toLong(row.get("driving_minutes")),
-                        toInt(row.get("alert_count"))
-                ))
-                .collect(Collectors.toList());
-
-        DailyMetricsResponse response = DailyMetricsResponse.of(period, entity, dailyData);
+        DailyMetricsResponse response = DailyMetricsResponse.of(period, entity, toDailyDataPoints(rawData));
         cache(cacheKey, response, getTTL(periodType));
 
         return response;
@@ -158,7 +161,14 @@ public class AnalyticsService {
 
         PeriodInfo period = buildPeriodInfo(periodType, startDate, endDate);
 
-        // Check cache
+        if (analyticsCube.covers(period.startDate())) {
+            AnalyticsCube.Slice slice = analyticsCube.slice(entityType, entityId, userGroupIds,
+                    period.startDate(), period.endDate(), null, 0);
+            EntityInfo entity = buildEntityInfo(entityType, entityId, slice.truckCount());
+            return AlertBreakdownResponse.of(period, entity, toAlertTypeCounts(slice.data().alertBreakdown()));
+        }
+
+        // Older periods: queried, cached in Redis
         String cacheKey = buildCacheKey("alerts", period, entityType, entityId, userGroupIds);
         AlertBreakdownResponse cached = getCached(cacheKey, AlertBreakdownResponse.class);
         if (cached != null) {
@@ -170,17 +180,7 @@ public class AnalyticsService {
 
         List<Map<String, Object>> rawData = analyticsRepository.getAlertBreakdown(truckIds, period.startDate(), period.endDate());
 
-        int total = rawData.stream().mapToInt(row -> toInt(row.get("count"))).sum();
-
-        List<AlertTypeCount> breakdown = rawData.stream()
-                .map(row -> AlertTypeCount.of(
-                        (String) row.get("alert_type"),
-                        toInt(row.get("count")),
-                        total
-                ))
-                .collect(Collectors.toList());
-
-        AlertBreakdownResponse response = AlertBreakdownResponse.of(period, entity, breakdown);
+        AlertBreakdownResponse response = AlertBreakdownResponse.of(period, entity, toAlertTypeCounts(rawData));
         cache(cacheKey, response, getTTL(periodType));
 
         return response;
@@ -199,7 +199,13 @@ public class AnalyticsService {
 
         PeriodInfo period = buildPeriodInfo(periodType, startDate, endDate);
 
-        // Check cache
+        if (analyticsCube.covers(period.startDate())) {
+            AnalyticsCube.Slice slice = analyticsCube.slice(EntityInfo.EntityType.FLEET, null, userGroupIds,
+                    period.startDate(), period.endDate(), metric, limit);
+            return TruckRankingResponse.of(period, metric, toRankEntries(metric, slice.data().ranking()), limit);
+        }
+
+        // Older periods: queried, cached in Redis
         String cacheKey = buildCacheKey("ranking:" + metric, period, EntityInfo.EntityType.FLEET, null, userGroupIds) + ":" + limit;
         TruckRankingResponse cached = getCached(cacheKey, TruckRankingResponse.class);
         if (cached != null) {
@@ -214,31 +220,54 @@ public class AnalyticsService {
             case ALERTS -> analyticsRepository.getTruckRankingByAlerts(truckIds, period.startDate(), period.endDate(), limit);
         };
 
-        String unit = switch (metric) {
-            case DISTANCE -> "km";
-            case DRIVING_TIME -> "heures";
-            case ALERTS -> "";
+        TruckRankingResponse response = TruckRankingResponse.of(period, metric, toRankEntries(metric, rawData), limit);
+        cache(cacheKey, response, getTTL(periodType));
+
+        return response;
+    }
+
+    /**
+     * Get KPIs, daily metrics, alert breakdown and truck ranking in one query, for the
+     * analytics page. The ranking covers the accessible fleet, as in getTruckRanking.
+     */
+    public AnalyticsOverviewResponse getOverview(
+            PeriodInfo.PeriodType periodType,
+            LocalDate startDate,
+            LocalDate endDate,
+            EntityInfo.EntityType entityType,
+            UUID entityId,
+            RankingMetric metric,
+            int limit,
+            List<UUID> userGroupIds) {
+
+        PeriodInfo period = buildPeriodInfo(periodType, startDate, endDate);
+
+        if (analyticsCube.covers(period.startDate())) {
+            AnalyticsCube.Slice slice = analyticsCube.slice(entityType, entityId, userGroupIds,
+                    period.startDate(), period.endDate(), metric, limit);
+            return toOverview(period, buildEntityInfo(entityType, entityId, slice.truckCount()),
+                    slice.data(), metric, limit);
+        }
+
+        // Older periods: queried, cached in Redis
+        String cacheKey = buildCacheKey("overview:" + metric, period, entityType, entityId, userGroupIds) + ":" + limit;
+        AnalyticsOverviewResponse cached = getCached(cacheKey, AnalyticsOverviewResponse.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<UUID> fleetTruckIds = analyticsRepository.getAccessibleTruckIds(userGroupIds);
+        List<UUID> truckIds = switch (entityType) {
+            case FLEET -> fleetTruckIds;
+            case GROUP -> getAccessibleTruckIds(entityType, entityId, userGroupIds);
+            case TRUCK -> fleetTruckIds.contains(entityId) ? List.of(entityId) : List.of();
         };
+        EntityInfo entity = buildEntityInfo(entityType, entityId, truckIds.size());
 
-        AtomicInteger rank = new AtomicInteger(1);
-        List<TruckRankEntry> ranking = rawData.stream()
-                .map(row -> {
-                    double value = toDouble(row.get("value"));
-                    if (metric == RankingMetric.DRIVING_TIME) {
-                        value = value / 60.0; // Convert minutes to hours
-                    }
-                    return TruckRankEntry.of(
-                            rank.getAndIncrement(),
-                            (UUID) row.get("truck_id"),
-                            (String) row.get("truck_name"),
-                            (String) row.get("license_plate"),
-                            Math.round(value * 10) / 10.0,
-                            unit
-                    );
-                })
-                .collect(Collectors.toList());
+        AnalyticsOverviewData data = analyticsRepository.getAnalyticsOverview(
+                truckIds, fleetTruckIds, period.startDate(), period.endDate(), metric.name(), limit);
 
-        TruckRankingResponse response = TruckRankingResponse.of(period, metric, ranking, limit);
+        AnalyticsOverviewResponse response = toOverview(period, entity, data, metric, limit);
         cache(cacheKey, response, getTTL(periodType));
 
         return response;
@@ -248,7 +277,7 @@ public class AnalyticsService {
      * Get list of accessible trucks for the user.
      */
     public List<Truck> getAccessibleTrucks(List<UUID> userGroupIds) {
-        List<UUID> truckIds = analyticsRepository.getAccessibleTruckIds(userGroupIds);
+        List<UUID> truckIds = analyticsCube.getAccessibleTruckIds(userGroupIds);
         return truckRepository.findAllById(truckIds);
     }
 
@@ -306,6 +335,92 @@ public class AnalyticsService {
         };
     }
 
+    private AnalyticsOverviewResponse toOverview(PeriodInfo period, EntityInfo entity, AnalyticsOverviewData data,
+                                                 RankingMetric metric, int limit) {
+        List<AlertTypeCount> breakdown = toAlertTypeCounts(data.alertBreakdown());
+        int geofenceEntries = countOf(breakdown, "GEOFENCE_ENTER");
+        int geofenceExits = countOf(breakdown, "GEOFENCE_EXIT");
+        AlertBreakdownResponse alertBreakdown = AlertBreakdownResponse.of(period, entity, breakdown);
+
+        return AnalyticsOverviewResponse.of(
+                toFleetKPI(period, entity, data.kpis(), alertBreakdown.totalAlerts(), geofenceEntries, geofenceExits),
+                DailyMetricsResponse.of(period, entity, toDailyDataPoints(data.dailyMetrics())),
+                alertBreakdown,
+                metric != null ? TruckRankingResponse.of(period, metric, toRankEntries(metric, data.ranking()), limit) : null);
+    }
+
+    private FleetKPIResponse toFleetKPI(PeriodInfo period, EntityInfo entity, Map<String, Object> kpiData,
+                                        int alertCount, int geofenceEntries, int geofenceExits) {
+        return FleetKPIResponse.builder()
+                .period(period)
+                .entity(entity)
+                .totalDistanceKm(toDouble(kpiData.get("total_distance_km")))
+                .drivingTimeMinutes(toLong(kpiData.get("driving_minutes")))
+                .idleTimeMinutes(toLong(kpiData.get("idle_minutes")))
+                .avgSpeedKmh(toDouble(kpiData.get("avg_speed")))
+                .maxSpeedKmh(toDouble(kpiData.get("max_speed")))
+                .alertCount(alertCount)
+                .geofenceEntries(geofenceEntries)
+                .geofenceExits(geofenceExits)
+                .build();
+    }
+
+    private List<DailyDataPoint> toDailyDataPoints(List<Map<String, Object>> rawData) {
+        return rawData.stream()
+                .map(row -> new DailyDataPoint(
+                        toLocalDate(row.get("date")),
+                        toDouble(row.get("distance_km")),
+                        toLong(row.get("driving_minutes")),
+                        toInt(row.get("alert_count"))
+                ))
+                .collect(Collectors.toList());
+    }
+
+    private List<AlertTypeCount> toAlertTypeCounts(List<Map<String, Object>> rawData) {
+        int total = rawData.stream().mapToInt(row -> toInt(row.get("count"))).sum();
+
+        return rawData.stream()
+                .map(row -> AlertTypeCount.of(
+                        (String) row.get("alert_type"),
+                        toInt(row.get("count")),
+                        total
+                ))
+                .collect(Collectors.toList());
+    }
+
+    private List<TruckRankEntry> toRankEntries(RankingMetric metric, List<Map<String, Object>> rawData) {
+        String unit = switch (metric) {
+            case DISTANCE -> "km";
+            case DRIVING_TIME -> "heures";
+            case ALERTS -> "";
+        };
+
+        AtomicInteger rank = new AtomicInteger(1);
+        return rawData.stream()
+                .map(row -> {
+                    double value = toDouble(row.get("value"));
+                    if (metric == RankingMetric.DRIVING_TIME) {
+                        value = value / 60.0; // Convert minutes to hours
+                    }
+                    return TruckRankEntry.of(
+                            rank.getAndIncrement(),
+                            (UUID) row.get("truck_id"),
+                            (String) row.get("truck_name"),
+                            (String) row.get("license_plate"),
+                            Math.round(value * 10) / 10.0,
+                            unit
+                    );
+                })
+                .collect(Collectors.toList());
+    }
+
+    private int countOf(List<AlertTypeCount> breakdown, String alertType) {
+        return breakdown.stream()
+                .filter(count -> alertType.equals(count.alertType()))
+                .mapToInt(AlertTypeCount::count)
+                .sum();
+    }
+
     private String buildCacheKey(String prefix, PeriodInfo period, EntityInfo.EntityType entityType, UUID entityId, List<UUID> userGroupIds) {
         String userHash = userGroupIds.stream()
                 .sorted()
@@ -344,6 +459,11 @@ public class AnalyticsService {
         }
     }
 
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) return date.toLocalDate();
+        return (LocalDate) value;
+    }
+
     private double toDouble(Object value) {
         if (value == null) return 0.0;
         if (value instanceof BigDecimal) return ((BigDecimal) value).doubleValue();
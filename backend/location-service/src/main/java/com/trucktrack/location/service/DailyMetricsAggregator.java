@@ -0,0 +1,279 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.location.repository.AnalyticsRepository;
+import com.trucktrack.location.repository.AnalyticsRepository.DailyMetricsDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental maintenance of daily_truck_metrics (Feature: 006-fleet-analytics).
+ *
+ * Each GPS point is folded into a running aggregate of its truck and day (distance, driving and
+ * idle time, max / average speed), with the same rules as the former materialized view: the
+ * segment between two consecutive points of a day counts as driving when the later point moves,
+ * idle when it stands still. Aggregates are buffered and added to the stored rows every flush
+ * interval, so today's row stays near real time without rescanning gps_positions.
+ *
+ * Points are folded once their transaction committed, and only in timestamp order: a point
+ * not after the last one of its truck and day (replayed or late) is not counted again, here
+ * nor in the stored row, so a redelivered position does not inflate the day. The last stored
+ * point of each open day (its watermark) is kept, read once from the row otherwise, so every
+ * aggregate starts after it: a stale point is dropped alone, never the newer points after it.
+ *
+ * Days are in the JVM time zone, the zone timestamps are stored in. Once the grace period
+ * after midnight is over a day is closed: its late points are no longer counted.
+ */
+@Slf4j
+@Service
+public class DailyMetricsAggregator {
+
+    // Mean Earth radius used by PostGIS ST_DistanceSphere
+    private static final double EARTH_RADIUS_KM = 6370.986;
+
+    private final AnalyticsRepository analyticsRepository;
+    private final Duration lateArrivalGrace;
+    private final Clock clock;
+
+    // Marks a day without stored row in the watermarks
+    private static final Instant NO_ROW = Instant.MIN;
+
+    // Points not yet written, per truck and day
+    private final Map<DayKey, Accumulator> pending = new ConcurrentHashMap<>();
+
+    // Last point written or being written, per truck and open day
+    private final Map<DayKey, Instant> watermarks = new ConcurrentHashMap<>();
+
+    public DailyMetricsAggregator(
+            AnalyticsRepository analyticsRepository,
+            @Value("${analytics.daily-metrics.late-arrival-grace:1h}") Duration lateArrivalGrace) {
+        this(analyticsRepository, lateArrivalGrace, Clock.systemDefaultZone());
+    }
+
+    DailyMetricsAggregator(AnalyticsRepository analyticsRepository, Duration lateArrivalGrace, Clock clock) {
+        this.analyticsRepository = analyticsRepository;
+        this.lateArrivalGrace = lateArrivalGrace;
+        this.clock = clock;
+    }
+
+    /**
+     * Fold a GPS point into the running aggregate of its truck and day, once the current
+     * transaction (the one storing the point) committed.
+     */
+    public void record(GPSPositionEvent event) {
+        if (event.getTimestamp() == null || event.getLatitude() == null
+                || event.getLongitude() == null || event.getSpeed() == null) {
+            return; // Not a storable position
+        }
+        afterCommit(() -> fold(event));
+    }
+
+    private void fold(GPSPositionEvent event) {
+        LocalDate day = LocalDate.ofInstant(event.getTimestamp(), clock.getZone());
+        LocalDate oldestOpenDay = LocalDate.ofInstant(clock.instant().minus(lateArrivalGrace), clock.getZone());
+        if (day.isBefore(oldestOpenDay)) {
+            log.debug("Ignoring late GPS point of truck {} for closed day {}", event.getTruckId(), day);
+            return;
+        }
+
+        DayKey key = new DayKey(UUID.fromString(event.getTruckId()), day);
+        if (!watermarks.containsKey(key)) {
+            Instant stored = analyticsRepository.findDailyMetricsLastTimestamp(key.truckId(), key.day());
+            watermarks.putIfAbsent(key, stored != null ? stored : NO_ROW);
+        }
+        pending.compute(key, (k, accumulator) -> {
+            if (accumulator == null) {
+                // A new aggregate starts after the stored (or in flight) last point
+                Instant watermark = watermarks.getOrDefault(k, NO_ROW);
+                if (!event.getTimestamp().isAfter(watermark)) {
+                    log.debug("Ignoring GPS point of truck {} at {}, not after {}", k.truckId(), event.getTimestamp(), watermark);
+                    return null;
+                }
+                return new Accumulator(event.getTimestamp(), event.getLatitude(), event.getLongitude(), event.getSpeed());
+            }
+            accumulator.add(event.getTimestamp(), event.getLatitude(), event.getLongitude(), event.getSpeed());
+            return accumulator;
+        });
+    }
+
+    /**
+     * Add the buffered aggregates to daily_truck_metrics in one batch.
+     */
+    @Scheduled(fixedDelayString = "${analytics.daily-metrics.flush-interval-ms:5000}")
+    public void flush() {
+        LocalDate oldestOpenDay = LocalDate.ofInstant(clock.instant().minus(lateArrivalGrace), clock.getZone());
+        watermarks.keySet().removeIf(key -> key.day().isBefore(oldestOpenDay));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<DayKey, Accumulator> batch = new HashMap<>();
+        for (DayKey key : pending.keySet()) {
+            // Atomic with fold(): points arriving from now on start a new aggregate after this one
+            pending.computeIfPresent(key, (k, accumulator) -> {
+                watermarks.merge(k, accumulator.lastTimestamp, (a, b) -> a.isAfter(b) ? a : b);
+                batch.put(k, accumulator);
+                return null;
+            });
+        }
+
+        List<DailyMetricsDelta> deltas = new ArrayList<>(batch.size());
+        batch.forEach((key, accumulator) -> deltas.add(accumulator.toDelta(key)));
+        try {
+            List<DailyMetricsDelta> skipped = analyticsRepository.foldDailyMetrics(deltas);
+            for (DailyMetricsDelta delta : skipped) {
+                // Row written elsewhere (e.g. by another instance after a rebalance): read it again
+                watermarks.remove(new DayKey(delta.truckId(), delta.day()));
+                log.warn("Daily metrics of truck {} on {} already past {}, points skipped",
+                        delta.truckId(), delta.day(), delta.firstTimestamp());
+            }
+            log.debug("Folded GPS points into {} daily truck metrics", deltas.size() - skipped.size());
+        } catch (Exception e) {
+            log.error("Failed to update {} daily truck metrics, retrying next flush: {}", deltas.size(), e.getMessage());
+            // Put the aggregates back in front of the points received meanwhile
+            batch.forEach((key, accumulator) -> pending.merge(key, accumulator, (newer, older) -> older.append(newer)));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    static double distanceKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double dLat = Math.toRadians(toLatitude - fromLatitude);
+        double dLon = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private record DayKey(UUID truckId, LocalDate day) {
+    }
+
+    /**
+     * Running aggregate of consecutive points; guarded by the pending map (compute / merge).
+     */
+    private static final class Accumulator {
+
+        private final Instant firstTimestamp;
+        private final double firstLatitude;
+        private final double firstLongitude;
+        private final double firstSpeed;
+        private Instant lastTimestamp;
+        private double lastLatitude;
+        private double lastLongitude;
+        private double distanceKm;
+        private double drivingSeconds;
+        private double idleSeconds;
+        private double maxSpeed;
+        private double speedSum;
+        private long speedSamples;
+        private long positionCount;
+
+        private Accumulator(Instant timestamp, double latitude, double longitude, double speed) {
+            this.firstTimestamp = timestamp;
+            this.firstLatitude = latitude;
+            this.firstLongitude = longitude;
+            this.firstSpeed = speed;
+            this.lastTimestamp = timestamp;
+            this.lastLatitude = latitude;
+            this.lastLongitude = longitude;
+            countSpeed(speed);
+            this.positionCount = 1;
+        }
+
+        private void add(Instant timestamp, double latitude, double longitude, double speed) {
+            if (!timestamp.isAfter(lastTimestamp)) {
+                return; // Replayed or out of order: already covered by the path
+            }
+            countSpeed(speed);
+            positionCount++;
+            extend(timestamp, latitude, longitude, speed);
+        }
+
+        /**
+         * This aggregate followed by a later one of the same truck and day.
+         */
+        private Accumulator append(Accumulator next) {
+            speedSum += next.speedSum;
+            speedSamples += next.speedSamples;
+            maxSpeed = Math.max(maxSpeed, next.maxSpeed);
+            positionCount += next.positionCount;
+            distanceKm += next.distanceKm;
+            drivingSeconds += next.drivingSeconds;
+            idleSeconds += next.idleSeconds;
+            if (next.firstTimestamp.isAfter(lastTimestamp)) {
+                extend(next.firstTimestamp, next.firstLatitude, next.firstLongitude, next.firstSpeed);
+            }
+            if (next.lastTimestamp.isAfter(lastTimestamp)) {
+                lastTimestamp = next.lastTimestamp;
+                lastLatitude = next.lastLatitude;
+                lastLongitude = next.lastLongitude;
+            }
+            return this;
+        }
+
+        private void extend(Instant timestamp, double latitude, double longitude, double speed) {
+            double seconds = Duration.between(lastTimestamp, timestamp).toMillis() / 1000.0;
+            distanceKm += distanceKm(lastLatitude, lastLongitude, latitude, longitude);
+            if (speed > 0) {
+                drivingSeconds += seconds;
+            } else {
+                idleSeconds += seconds;
+            }
+            lastTimestamp = timestamp;
+            lastLatitude = latitude;
+            lastLongitude = longitude;
+        }
+
+        private void countSpeed(double speed) {
+            maxSpeed = Math.max(maxSpeed, speed);
+            if (speed > 0) {
+                speedSum += speed;
+                speedSamples++;
+            }
+        }
+
+        private DailyMetricsDelta toDelta(DayKey key) {
+            return new DailyMetricsDelta(key.truckId(), key.day(),
+                    firstTimestamp, firstLatitude, firstLongitude, firstSpeed,
+                    lastTimestamp, lastLatitude, lastLongitude,
+                    distanceKm, drivingSeconds, idleSeconds, maxSpeed, speedSum, speedSamples, positionCount);
+        }
+    }
+}
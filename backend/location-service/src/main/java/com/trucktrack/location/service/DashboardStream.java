@@ -0,0 +1,250 @@
+package com.trucktrack.location.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trucktrack.common.cache.CacheConstants;
+import com.trucktrack.location.cache.CacheInvalidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Admin dashboard pushed over Server-Sent Events instead of polled.
+ *
+ * One model per distinct view (user groups and performance period) with subscribers.
+ * Truck status changes and trip changes mark dashboard sections dirty; one debounced
+ * pass evicts the cache entries of the watched views only, recomputes them once per view
+ * and pushes only the sections whose content changed. Load follows the change rate, not
+ * the number of admins watching. The recomputed entries also serve the polling endpoints.
+ *
+ * Each section is replayed to new subscribers, so the first events are the full dashboard.
+ */
+@Slf4j
+@Component
+public class DashboardStream {
+
+    private final DashboardService dashboardService;
+    private final FleetStatusCounters fleetStatusCounters;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final long resyncIntervalNanos;
+    private final Flux<Long> heartbeats;
+
+    private final Map<ViewKey, View> views = new ConcurrentHashMap<>();
+    private final AtomicBoolean tripsChanged = new AtomicBoolean();
+
+    // Scheduler thread only
+    private long seenStatusVersion = -1;
+    private long lastResync = System.nanoTime();
+
+    public DashboardStream(
+            DashboardService dashboardService,
+            FleetStatusCounters fleetStatusCounters,
+            CacheManager cacheManager,
+            ObjectMapper objectMapper,
+            @Value("${dashboard.push.resync-interval:5m}") Duration resyncInterval,
+            @Value("${dashboard.push.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.dashboardService = dashboardService;
+        this.fleetStatusCounters = fleetStatusCounters;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.resyncIntervalNanos = resyncInterval.toNanos();
+        this.heartbeats = Flux.interval(heartbeatInterval).share();
+    }
+
+    /**
+     * Dashboard sections, pushed as SSE events named after them.
+     */
+    enum Section {
+        // Cache keys as in the @Cacheable of DashboardServiceImpl
+        KPIS("kpis", CacheConstants.CACHE_DASHBOARD_KPIS, ViewKey::groupsKey),
+        FLEET_STATUS("fleetStatus", null, null), // Read from the live counters, not cached
+        ACTIVITY("activity", null, null), // Copied from the in-memory activity log, not cached
+        PERFORMANCE("performance", CacheConstants.CACHE_DASHBOARD_PERFORMANCE,
+                key -> key.groupsKey() + ":" + key.performancePeriod());
+
+        private final String eventName;
+        private final String cacheName;
+        private final Function<ViewKey, String> cacheKey;
+
+        Section(String eventName, String cacheName, Function<ViewKey, String> cacheKey) {
+            this.eventName = eventName;
+            this.cacheName = cacheName;
+            this.cacheKey = cacheKey;
+        }
+    }
+
+    /**
+     * Stream of the dashboard sections of a view as they change, interleaved with keep-alive comments.
+     */
+    public Flux<ServerSentEvent<String>> subscribe(String userGroups, String performancePeriod) {
+        ViewKey key = new ViewKey(userGroups, performancePeriod);
+        return Flux.defer(() -> {
+            View view = views.compute(key, (k, existing) -> {
+                View joined = existing != null ? existing : new View(k);
+                joined.subscribers++;
+                return joined;
+            });
+            view.ensureLoaded();
+
+            Flux<ServerSentEvent<String>> keepAlive = heartbeats
+                    .map(tick -> ServerSentEvent.<String>builder().comment("keepalive").build());
+            return Flux.merge(view.events(), keepAlive)
+                    .doFinally(signal -> views.computeIfPresent(key,
+                            (k, existing) -> --existing.subscribers == 0 ? null : existing));
+        });
+    }
+
+    public int getViewCount() {
+        return views.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripChanged(CacheInvalidator.TripChangedEvent event) {
+        tripsChanged.set(true);
+    }
+
+    /**
+     * Recompute the sections changed since the last pass and push the ones that differ.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.push.debounce-interval-ms:2000}")
+    public void pushChanges() {
+        Set<Section> dirty = EnumSet.noneOf(Section.class);
+        long statusVersion = fleetStatusCounters.getVersion();
+        if (statusVersion != seenStatusVersion) {
+            seenStatusVersion = statusVersion;
+            dirty.add(Section.KPIS);
+            dirty.add(Section.FLEET_STATUS);
+        }
+        if (tripsChanged.getAndSet(false)) {
+            dirty.add(Section.KPIS);
+            dirty.add(Section.ACTIVITY);
+            dirty.add(Section.PERFORMANCE);
+        }
+        long now = System.nanoTime();
+        if (now - lastResync >= resyncIntervalNanos) {
+            lastResync = now;
+            dirty.addAll(EnumSet.allOf(Section.class));
+        }
+        if (dirty.isEmpty() || views.isEmpty()) {
+            return;
+        }
+
+        // Distinct keys first: views of the same groups share the KPIs entry
+        for (Section section : dirty) {
+            if (section.cacheName != null) {
+                Set<String> keys = new HashSet<>();
+                views.keySet().forEach(key -> keys.add(section.cacheKey.apply(key)));
+                evict(section, keys);
+            }
+        }
+        for (View view : views.values()) {
+            view.refresh(dirty);
+        }
+        log.debug("Dashboard sections {} recomputed for {} views", dirty, views.size());
+    }
+
+    private void evict(Section section, Set<String> keys) {
+        Cache cache = cacheManager.getCache(section.cacheName);
+        if (cache == null) {
+            return;
+        }
+        for (String key : keys) {
+            try {
+                cache.evict(key);
+            } catch (Exception e) {
+                log.warn("Failed to evict {} from cache {}: {}", key, section.cacheName, e.getMessage());
+            }
+        }
+    }
+
+    private Object compute(Section section, ViewKey key) {
+        return switch (section) {
+            case KPIS -> dashboardService.getKpis(key.userGroups());
+            case FLEET_STATUS -> dashboardService.getFleetStatus(key.userGroups());
+            case ACTIVITY -> dashboardService.getRecentActivity(key.userGroups(), 5);
+            case PERFORMANCE -> dashboardService.getPerformanceMetrics(key.userGroups(), key.performancePeriod());
+        };
+    }
+
+    /**
+     * A distinct dashboard: what the sections depend on.
+     */
+    record ViewKey(String userGroups, String performancePeriod) {
+
+        String groupsKey() {
+            return userGroups != null ? userGroups : "all";
+        }
+    }
+
+    /**
+     * Last pushed content of each section of a view, replayed to new subscribers.
+     */
+    private class View {
+
+        private final ViewKey key;
+        private final Map<Section, String> json = new EnumMap<>(Section.class);
+        private final Map<Section, Sinks.Many<String>> sinks = new EnumMap<>(Section.class);
+        private boolean loaded;
+
+        // Guarded by the views map entry
+        private int subscribers;
+
+        View(ViewKey key) {
+            this.key = key;
+            for (Section section : Section.values()) {
+                sinks.put(section, Sinks.many().replay().latest());
+            }
+        }
+
+        synchronized void ensureLoaded() {
+            if (!loaded) {
+                refresh(EnumSet.allOf(Section.class));
+                loaded = true;
+            }
+        }
+
+        synchronized void refresh(Set<Section> sections) {
+            for (Section section : sections) {
+                String content;
+                try {
+                    content = objectMapper.writeValueAsString(compute(section, key));
+                } catch (JsonProcessingException | RuntimeException e) {
+                    log.warn("Failed to compute dashboard section {}: {}", section, e.getMessage());
+                    continue; // Subscribers keep the last pushed content
+                }
+                if (!Objects.equals(json.put(section, content), content)) {
+                    sinks.get(section).tryEmitNext(content);
+                }
+            }
+        }
+
+        Flux<ServerSentEvent<String>> events() {
+            return Flux.merge(sinks.entrySet().stream()
+                    .map(entry -> entry.getValue().asFlux().map(toEvent(entry.getKey())))
+                    .toList());
+        }
+
+        private Function<String, ServerSentEvent<String>> toEvent(Section section) {
+            return content -> ServerSentEvent.builder(content).event(section.eventName).build();
+        }
+    }
+}
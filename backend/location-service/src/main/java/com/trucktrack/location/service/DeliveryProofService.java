@@ -1,5 +1,7 @@
 package com.trucktrack.location.service;
 
+import com.trucktrack.location.cache.CacheInvalidator;
+import com.trucktrack.location.dto.ActivityEventDTO;
 import com.trucktrack.location.dto.CreateProofRequest;
 import com.trucktrack.location.dto.ProofPhotoDTO;
 import com.trucktrack.location.dto.ProofResponse;
@@ -9,6 +11,7 @@ import com.trucktrack.location.repository.TripRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -35,6 +38,8 @@ public class DeliveryProofService {
     private final DeliveryProofRepository proofRepository;
     private final TripRepository tripRepository;
     private final TripEventPublisher tripEventPublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecentActivityLog recentActivityLog;
 
     // Minimum signature coverage: 15% of canvas pixels must be non-transparent
     private static final double MIN_SIGNATURE_COVERAGE = 0.15;
@@ -112,6 +117,9 @@ public class DeliveryProofService {
         trip.setStatus(TripStatus.COMPLETED);
         trip.setCompletedAt(Instant.now());
         tripRepository.save(trip);
+        eventPublisher.publishEvent(new CacheInvalidator.TripChangedEvent(trip.getId().toString()));
+        recentActivityLog.onTripEvent(trip, ActivityEventDTO.ActivityType.TRIP_COMPLETED);
+        recentActivityLog.onTripEvent(trip, ActivityEventDTO.ActivityType.DELIVERY_CONFIRMED);
 
         // Publish trip completed event to Kafka for notification-service (Feature 016)
         List<String> photoUrls = saved.getPhotos() != null
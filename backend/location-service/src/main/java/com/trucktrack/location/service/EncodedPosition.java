@@ -0,0 +1,25 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.common.event.GPSPositionEvent;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A GPS position serialized once per update and shared by every sink
+ * (Redis cache, STOMP topics, Server-Sent Events, current-position reads).
+ *
+ * The JSON bytes are shared between sinks and must not be modified.
+ */
+public record EncodedPosition(GPSPositionEvent position, byte[] json) {
+
+    public String truckId() {
+        return position.getTruckId();
+    }
+
+    /**
+     * JSON payload as a string (decoded on each call).
+     */
+    public String jsonString() {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+}
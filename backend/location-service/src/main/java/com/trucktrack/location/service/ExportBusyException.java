@@ -0,0 +1,11 @@
+package com.trucktrack.location.service;
+
+/**
+ * Thrown when the maximum number of exports are already running. Mapped to 429 Too Many Requests.
+ */
+public class ExportBusyException extends RuntimeException {
+
+    public ExportBusyException(String message) {
+        super(message);
+    }
+}
@@ -8,7 +8,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -96,76 +99,71 @@ public class FleetStatisticsService {
 
     /**
      * T082: Get total kilometers with PostGIS
+     *
+     * Whole days of the period are read from the daily odometer buckets (daily_truck_metrics,
+     * maintained as positions arrive); only the partial first and last day are computed from
+     * gps_positions, each point paired with the previous one with LAG.
      */
     public MileageStats getMileageStats(Instant startTime, Instant endTime) {
         try {
-            // Calculate total distance for each truck using PostGIS
             String sql = """
-                WITH truck_distances AS (
+                WITH edge_positions AS (
                     SELECT
-                        t.truck_id,
-                        t.license_plate,
-                        COALESCE(
-                            SUM(
-                                ST_DistanceSphere(
-                                    ST_MakePoint(g1.longitude, g1.latitude),
-                                    ST_MakePoint(g2.longitude, g2.latitude)
-                                )
-                            ) / 1000.0,
-                            0
-                        ) as km
-                    FROM trucks t
-                    LEFT JOIN gps_positions g1 ON t.id = g1.truck_id
-                    LEFT JOIN gps_positions g2 ON t.id = g2.truck_id
-                        AND g2.timestamp = (
-                            SELECT MIN(g3.timestamp)
-                            FROM gps_positions g3
-                            WHERE g3.truck_id = t.id
-                            AND g3.timestamp > g1.timestamp
-                            AND g3.timestamp BETWEEN ? AND ?
-                        )
-                    WHERE g1.timestamp BETWEEN ? AND ?
-                    GROUP BY t.truck_id, t.license_plate
+                        truck_id,
+                        latitude,
+                        longitude,
+                        LAG(latitude) OVER w AS prev_lat,
+                        LAG(longitude) OVER w AS prev_lng
+                    FROM gps_positions
+                    WHERE (timestamp >= ? AND timestamp < ?)
+                       OR (timestamp >= ? AND timestamp < ?)
+                    WINDOW w AS (PARTITION BY truck_id, DATE(timestamp) ORDER BY timestamp)
+                ),
+                truck_km AS (
+                    SELECT truck_id, SUM(km) AS km
+                    FROM (
+                        SELECT truck_id, total_distance_km AS km
+                        FROM daily_truck_metrics
+                        WHERE day >= ? AND day < ?
+                        UNION ALL
+                        SELECT truck_id,
+                               ST_DistanceSphere(ST_MakePoint(prev_lng, prev_lat), ST_MakePoint(longitude, latitude)) / 1000.0
+                        FROM edge_positions
+                        WHERE prev_lat IS NOT NULL
+                    ) segments
+                    GROUP BY truck_id
                 )
-                SELECT
-                    COALESCE(SUM(km), 0) as total_km,
-                    COALESCE(AVG(km), 0) as avg_km,
-                    truck_id,
-                    license_plate,
-                    km
-                FROM truck_distances
-                GROUP BY truck_id, license_plate, km
-                ORDER BY km DESC
-                LIMIT 10
-                """;
-
-            // Simplified query for now - calculate approximate distance
-            String simpleSql = """
                 SELECT
                     t.truck_id,
                     t.license_plate,
-                    COUNT(g.id) * 0.1 as km
-                FROM trucks t
-                LEFT JOIN gps_positions g ON t.id = g.truck_id
-                    AND g.timestamp BETWEEN ? AND ?
-                GROUP BY t.truck_id, t.license_plate
-                ORDER BY km DESC
+                    tk.km,
+                    SUM(tk.km) OVER () AS total_km,
+                    COUNT(*) OVER () AS truck_count
+                FROM truck_km tk
+                JOIN trucks t ON t.id = tk.truck_id
+                ORDER BY tk.km DESC
                 LIMIT 5
                 """;
 
+            MileageRange range = MileageRange.of(startTime, endTime, ZoneId.systemDefault());
+            var results = jdbcTemplate.queryForList(sql,
+                Timestamp.from(range.headStart()), Timestamp.from(range.headEnd()),
+                Timestamp.from(range.tailStart()), Timestamp.from(range.tailEnd()),
+                range.firstFullDay(), range.fullDaysEnd());
+
             List<MileageStats.TruckMileage> topTrucks = new ArrayList<>();
             double totalKm = 0;
-
-            var results = jdbcTemplate.queryForList(simpleSql, startTime, endTime);
+            long truckCount = 0;
             for (var row : results) {
                 String truckId = (String) row.get("truck_id");
                 String licensePlate = (String) row.get("license_plate");
                 double km = ((Number) row.get("km")).doubleValue();
                 topTrucks.add(new MileageStats.TruckMileage(truckId, licensePlate, km));
-                totalKm += km;
+                totalKm = ((Number) row.get("total_km")).doubleValue();
+                truckCount = ((Number) row.get("truck_count")).longValue();
             }
 
-            double avgKm = topTrucks.isEmpty() ? 0 : totalKm / topTrucks.size();
+            double avgKm = truckCount == 0 ? 0 : totalKm / truckCount;
 
             return new MileageStats(totalKm, avgKm, topTrucks);
         } catch (Exception e) {
@@ -174,6 +172,34 @@ public class FleetStatisticsService {
         }
     }
 
+    /**
+     * Split of a period into whole days, read from the daily buckets, and the partial days at
+     * its edges, computed from positions. An empty edge has start == end.
+     */
+    record MileageRange(
+        Instant headStart,
+        Instant headEnd,
+        LocalDate firstFullDay,
+        LocalDate fullDaysEnd,
+        Instant tailStart,
+        Instant tailEnd
+    ) {
+        static MileageRange of(Instant start, Instant end, ZoneId zone) {
+            LocalDate startDay = LocalDate.ofInstant(start, zone);
+            LocalDate firstFullDay = start.equals(startDay.atStartOfDay(zone).toInstant())
+                ? startDay : startDay.plusDays(1);
+            LocalDate endDay = LocalDate.ofInstant(end, zone);
+
+            if (!firstFullDay.isBefore(endDay)) {
+                // No whole day: the period is a single edge
+                return new MileageRange(start, end, firstFullDay, firstFullDay, end, end);
+            }
+            Instant fullDaysStart = firstFullDay.atStartOfDay(zone).toInstant();
+            Instant fullDaysEndInstant = endDay.atStartOfDay(zone).toInstant();
+            return new MileageRange(start, fullDaysStart, firstFullDay, endDay, fullDaysEndInstant, end);
+        }
+    }
+
     /**
      * T083: Get alerts by type
      */
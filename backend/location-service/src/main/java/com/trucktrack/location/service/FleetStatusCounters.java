@@ -0,0 +1,277 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.location.cache.CacheInvalidator;
+import com.trucktrack.location.cache.TruckGroupMembershipCache;
+import com.trucktrack.location.model.TruckStatus;
+import com.trucktrack.location.repository.TruckRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Live truck counts per status, fleet-wide and by truck group, for the dashboard.
+ *
+ * Trucks are counted by group set (the exact set of groups a truck belongs to), so the
+ * trucks of several groups are counted once even when they belong to more than one of
+ * them; reading is a pass over the group sets, usually about as many as groups.
+ *
+ * Loaded from the trucks table on first use, then kept up to date from status changes
+ * (GPS points, status sweeper, admin and driver actions) and group membership events,
+ * applied once committed. A group modification reloads everything on next read.
+ *
+ * Counters are per instance and only see the changes made through it, so they are also
+ * rebuilt periodically to pick up the changes of other instances and deleted trucks.
+ * The trucks table is read outside the lock, so updates are never held up by a reload;
+ * the updates applied meanwhile are replayed on the new counters when they are swapped in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FleetStatusCounters {
+
+    private static final int STATUS_COUNT = TruckStatus.values().length;
+
+    private final TruckRepository truckRepository;
+    private final TruckGroupMembershipCache membershipCache;
+
+    // Serializes reloads; updates only take this monitor, so they never wait for the table read
+    private final Object reloadLock = new Object();
+
+    // Guarded by this
+    private Map<UUID, TrackedTruck> trucks = new HashMap<>();
+    private Map<Set<UUID>, long[]> countsByGroupSet = new HashMap<>();
+    private boolean loaded;
+    private long version;
+    // Updates applied while a reload reads the table, null when none is running
+    private List<Runnable> appliedDuringReload;
+
+    /**
+     * Truck counts by status, for the trucks of any of the groups (all trucks if none given).
+     */
+    public Counts getCounts(Collection<UUID> groupIds) {
+        ensureLoaded();
+        long[] counts = new long[STATUS_COUNT];
+        synchronized (this) {
+            for (Map.Entry<Set<UUID>, long[]> entry : countsByGroupSet.entrySet()) {
+                if (groupIds.isEmpty() || intersects(entry.getKey(), groupIds)) {
+                    long[] groupSetCounts = entry.getValue();
+                    for (int i = 0; i < STATUS_COUNT; i++) {
+                        counts[i] += groupSetCounts[i];
+                    }
+                }
+            }
+        }
+        return new Counts(counts);
+    }
+
+    /**
+     * Incremented on every change of the counts, so readers can tell whether they moved.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Record the new status of a truck (a new truck is added). Applied after commit when
+     * called within a transaction.
+     */
+    public void onStatusChange(UUID truckId, TruckStatus newStatus) {
+        afterCommit(() -> applyStatus(truckId, newStatus));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTruckGroupChanged(CacheInvalidator.TruckGroupChangedEvent event) {
+        recordDuringReload(() -> onTruckGroupChanged(event));
+        if (!loaded) {
+            return; // Next read loads the committed state
+        }
+        UUID truckId = UUID.fromString(event.truckId());
+        UUID groupId = UUID.fromString(event.groupId());
+        TrackedTruck truck = trucks.get(truckId);
+        if (truck == null || truck.groups().contains(groupId) == event.added()) {
+            return; // Unknown truck or already applied
+        }
+
+        Set<UUID> groups = new HashSet<>(truck.groups());
+        if (event.added()) {
+            groups.add(groupId);
+        } else {
+            groups.remove(groupId);
+        }
+        move(truckId, truck, new TrackedTruck(truck.status(), Set.copyOf(groups)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGroupModified(CacheInvalidator.GroupModifiedEvent event) {
+        log.debug("Group {} modified - fleet counters will be reloaded", event.groupId());
+        recordDuringReload(() -> onGroupModified(event));
+        loaded = false;
+        version++;
+    }
+
+    /**
+     * Rebuild loaded counters periodically, bounding their drift from the trucks table.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.fleet-counters.reload-interval-ms:60000}")
+    public void reloadIfLoaded() {
+        if (isLoaded()) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuild the counters from the trucks table.
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                appliedDuringReload = new ArrayList<>();
+            }
+            try {
+                Map<UUID, TrackedTruck> loadedTrucks = new HashMap<>();
+                Map<Set<UUID>, long[]> loadedCounts = new HashMap<>();
+                for (Object[] row : truckRepository.findAllIdsAndStatuses()) {
+                    UUID truckId = (UUID) row[0];
+                    TruckStatus status = (TruckStatus) row[1];
+                    TrackedTruck truck = new TrackedTruck(status != null ? status : TruckStatus.OFFLINE,
+                            membershipCache.getGroups(truckId));
+                    loadedTrucks.put(truckId, truck);
+                    add(loadedCounts, truck, 1);
+                }
+                swapIn(loadedTrucks, loadedCounts);
+            } finally {
+                synchronized (this) {
+                    appliedDuringReload = null;
+                }
+            }
+        }
+    }
+
+    private synchronized void swapIn(Map<UUID, TrackedTruck> loadedTrucks, Map<Set<UUID>, long[]> loadedCounts) {
+        trucks = loadedTrucks;
+        countsByGroupSet = loadedCounts;
+        loaded = true;
+        version++;
+        // Updates are idempotent, so replaying those the table read already saw is harmless
+        List<Runnable> replay = appliedDuringReload;
+        appliedDuringReload = null;
+        replay.forEach(Runnable::run);
+        log.info("Loaded fleet counters for {} trucks in {} group sets", trucks.size(), countsByGroupSet.size());
+    }
+
+    private synchronized void applyStatus(UUID truckId, TruckStatus newStatus) {
+        recordDuringReload(() -> applyStatus(truckId, newStatus));
+        if (!loaded) {
+            return; // Next read loads the committed state
+        }
+        TrackedTruck truck = trucks.get(truckId);
+        if (truck == null) {
+            TrackedTruck added = new TrackedTruck(newStatus, membershipCache.getGroups(truckId));
+            trucks.put(truckId, added);
+            add(countsByGroupSet, added, 1);
+            version++;
+        } else if (truck.status() != newStatus) {
+            move(truckId, truck, new TrackedTruck(newStatus, truck.groups()));
+        }
+    }
+
+    private void move(UUID truckId, TrackedTruck from, TrackedTruck to) {
+        add(countsByGroupSet, from, -1);
+        add(countsByGroupSet, to, 1);
+        trucks.put(truckId, to);
+        version++;
+    }
+
+    private void recordDuringReload(Runnable update) {
+        if (appliedDuringReload != null) {
+            appliedDuringReload.add(update);
+        }
+    }
+
+    private static void add(Map<Set<UUID>, long[]> countsByGroupSet, TrackedTruck truck, int delta) {
+        long[] counts = countsByGroupSet.computeIfAbsent(truck.groups(), groups -> new long[STATUS_COUNT]);
+        counts[truck.status().ordinal()] += delta;
+        if (delta < 0 && isEmpty(counts)) {
+            countsByGroupSet.remove(truck.groups());
+        }
+    }
+
+    private synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    private void ensureLoaded() {
+        if (!isLoaded()) {
+            synchronized (reloadLock) {
+                if (!isLoaded()) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private static boolean isEmpty(long[] counts) {
+        for (long count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean intersects(Set<UUID> groupSet, Collection<UUID> groupIds) {
+        for (UUID groupId : groupIds) {
+            if (groupSet.contains(groupId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record TrackedTruck(TruckStatus status, Set<UUID> groups) {
+    }
+
+    /**
+     * Truck counts by status.
+     */
+    public record Counts(long[] byStatus) {
+
+        public long get(TruckStatus status) {
+            return byStatus[status.ordinal()];
+        }
+
+        public long total() {
+            long total = 0;
+            for (long count : byStatus) {
+                total += count;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.common.event.GeofenceChangeEvent;
+import com.trucktrack.location.cache.CacheInvalidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Publishes committed geofence changes to Kafka,
+ * so other services can reload their own copy of the geofences.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeofenceEventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${kafka.topics.geofence-change:truck-track.location.geofence-change}")
+    private String geofenceChangeTopic;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGeofenceChanged(CacheInvalidator.GeofenceChangedEvent event) {
+        try {
+            GeofenceChangeEvent change = new GeofenceChangeEvent(
+                    UUID.randomUUID().toString(), event.geofenceId(), Instant.now());
+            kafkaTemplate.send(geofenceChangeTopic, event.geofenceId(), change);
+            log.debug("Published geofence change: {}", change);
+        } catch (Exception e) {
+            log.error("Failed to publish change of geofence {}: {}", event.geofenceId(), e.getMessage());
+        }
+    }
+}
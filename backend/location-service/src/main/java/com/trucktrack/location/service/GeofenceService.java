@@ -1,5 +1,7 @@
 package com.trucktrack.location.service;
 
+import com.trucktrack.location.cache.CacheInvalidator;
+import com.trucktrack.location.cache.GeofenceSpatialCache;
 import com.trucktrack.location.dto.GeofenceDTO;
 import com.trucktrack.location.model.Geofence;
 import com.trucktrack.location.model.GeofenceZoneType;
@@ -13,12 +15,14 @@ import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -32,6 +36,8 @@ import java.util.UUID;
 public class GeofenceService {
 
     private final GeofenceRepository geofenceRepository;
+    private final GeofenceSpatialCache geofenceSpatialCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     // SRID 4326 = WGS84 (GPS coordinate system)
     private static final int SRID_WGS84 = 4326;
@@ -60,6 +66,7 @@ public class GeofenceService {
 
         Geofence saved = geofenceRepository.save(geofence);
         log.info("Created geofence with ID {}", saved.getId());
+        eventPublisher.publishEvent(new CacheInvalidator.GeofenceChangedEvent(saved.getId().toString()));
 
         return toDTO(saved);
     }
@@ -102,6 +109,7 @@ public class GeofenceService {
 
         Geofence saved = geofenceRepository.save(geofence);
         log.info("Updated geofence {}", id);
+        eventPublisher.publishEvent(new CacheInvalidator.GeofenceChangedEvent(id.toString()));
 
         return toDTO(saved);
     }
@@ -119,6 +127,7 @@ public class GeofenceService {
 
         geofenceRepository.deleteById(id);
         log.info("Deleted geofence {}", id);
+        eventPublisher.publishEvent(new CacheInvalidator.GeofenceChangedEvent(id.toString()));
     }
 
     /**
@@ -168,10 +177,16 @@ public class GeofenceService {
 
     /**
      * Find geofences containing a point
+     * Resolved against the in-memory spatial index, only matching geofences are loaded
      */
     public List<GeofenceDTO> findGeofencesContainingPoint(double latitude, double longitude) {
-        return geofenceRepository.findGeofencesContainingPoint(latitude, longitude)
+        Set<UUID> containing = geofenceSpatialCache.findContaining(latitude, longitude);
+        if (containing.isEmpty()) {
+            return List.of();
+        }
+        return geofenceRepository.findAllById(containing)
                 .stream()
+                .filter(Geofence::getIsActive)
                 .map(this::toDTO)
                 .toList();
     }
@@ -180,14 +195,14 @@ public class GeofenceService {
      * Check if point is inside any geofence
      */
     public boolean isPointInsideAnyGeofence(double latitude, double longitude) {
-        return geofenceRepository.isPointInsideAnyGeofence(latitude, longitude);
+        return !geofenceSpatialCache.findContaining(latitude, longitude).isEmpty();
     }
 
     /**
      * Check if point is inside a specific geofence
      */
     public boolean isPointInsideGeofence(UUID geofenceId, double latitude, double longitude) {
-        return geofenceRepository.isPointInsideGeofence(geofenceId, latitude, longitude);
+        return geofenceSpatialCache.contains(geofenceId, latitude, longitude);
     }
 
     /**
@@ -0,0 +1,266 @@
+package com.trucktrack.location.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Export of GPS position history as CSV, streamed from the database to the response.
+ *
+ * Rows are read through a server-side cursor (PostgreSQL only uses one with a fetch size
+ * inside a transaction) and written one by one, so memory stays flat whatever the range:
+ * months of history for hundreds of trucks never sit in memory as entities or lists.
+ *
+ * An export holds a pooled connection and its transaction until the client has downloaded
+ * everything, so the number of concurrent exports is capped (further requests are rejected
+ * rather than queued) and so is the time range of one export.
+ */
+@Slf4j
+@Service
+public class GpsHistoryExportService {
+
+    static final String CSV_HEADER =
+            "truck_uuid,truck_id,license_plate,timestamp,latitude,longitude,altitude,speed,heading,accuracy,satellites";
+
+    private static final String SELECT_SQL = """
+            SELECT g.truck_id AS truck_uuid, t.truck_id, t.license_plate, g.timestamp,
+                   g.latitude, g.longitude, g.altitude, g.speed, g.heading, g.accuracy, g.satellites
+            FROM gps_positions g
+            JOIN trucks t ON t.id = g.truck_id
+            WHERE g.timestamp >= ? AND g.timestamp < ?
+            """;
+
+    private static final String GROUPS_CONDITION =
+            " AND g.truck_id IN (SELECT truck_id FROM truck_group_assignments WHERE group_id = ANY(?::uuid[]))";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final Duration maxRange;
+    private final Semaphore running;
+
+    public GpsHistoryExportService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${export.history.fetch-size:5000}") int fetchSize,
+            @Value("${export.history.max-range:366d}") Duration maxRange,
+            @Value("${export.history.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.maxRange = maxRange;
+        this.running = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Filter of an export. Positions of all trucks are exported when no truck or group is given.
+     *
+     * @param allowedGroupIds groups the user may see, or null for all trucks (ADMIN)
+     */
+    public record ExportFilter(Instant startTime, Instant endTime, UUID truckId, UUID groupId, List<UUID> allowedGroupIds) {
+    }
+
+    /**
+     * Check the filter and reserve one of the export slots, before anything is written to the
+     * response. Close the returned export (try-with-resources) to release the slot.
+     *
+     * @throws IllegalArgumentException if the range is empty or longer than the maximum
+     * @throws ExportBusyException      if the maximum number of exports are already running
+     */
+    public Export start(ExportFilter filter) {
+        if (!filter.endTime().isAfter(filter.startTime())) {
+            throw new IllegalArgumentException("endTime must be after startTime");
+        }
+        if (Duration.between(filter.startTime(), filter.endTime()).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("Export range must not exceed " + maxRange.toDays() + " days");
+        }
+        // Before the transaction: a rejected request must not take a connection
+        if (!running.tryAcquire()) {
+            throw new ExportBusyException("Too many history exports running, retry later");
+        }
+        return new Export(filter);
+    }
+
+    /**
+     * A started export holding one of the export slots until closed.
+     */
+    public final class Export implements AutoCloseable {
+
+        private final ExportFilter filter;
+        private boolean closed;
+
+        private Export(ExportFilter filter) {
+            this.filter = filter;
+        }
+
+        /**
+         * Write the positions matching the filter as CSV, ordered by truck then time.
+         *
+         * @return number of positions written
+         */
+        public long writeCsv(OutputStream out) throws IOException {
+            if (closed) {
+                throw new IllegalStateException("Export already closed");
+            }
+            long[] rows = {0};
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try {
+                        rows[0] = write(filter, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return rows[0];
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                running.release();
+            }
+        }
+    }
+
+    private long write(ExportFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        if (filter.allowedGroupIds() != null && filter.allowedGroupIds().isEmpty()) {
+            // User has no group assignments - header only
+            writer.flush();
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(Timestamp.from(filter.startTime()));
+        params.add(Timestamp.from(filter.endTime()));
+        if (filter.truckId() != null) {
+            sql.append(" AND g.truck_id = ?");
+            params.add(filter.truckId());
+        }
+        if (filter.groupId() != null) {
+            sql.append(GROUPS_CONDITION);
+            params.add(toArray(List.of(filter.groupId())));
+        }
+        if (filter.allowedGroupIds() != null) {
+            sql.append(GROUPS_CONDITION);
+            params.add(toArray(filter.allowedGroupIds()));
+        }
+        // Follows idx_gps_positions_truck_time, one truck's track after the other
+        sql.append(" ORDER BY g.truck_id, g.timestamp");
+
+        long[] rows = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, rs -> {
+            try {
+                writeRow(rs, writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Client went away, stops the cursor
+            }
+            rows[0]++;
+        });
+
+        writer.flush();
+        log.info("Exported {} GPS positions from {} to {}", rows[0], filter.startTime(), filter.endTime());
+        return rows[0];
+    }
+
+    /**
+     * Write the current row of the result set as a CSV line.
+     */
+    static void writeRow(ResultSet rs, Writer writer) throws SQLException, IOException {
+        writer.write(rs.getString("truck_uuid"));
+        writer.write(',');
+        writeText(writer, rs.getString("truck_id"));
+        writer.write(',');
+        writeText(writer, rs.getString("license_plate"));
+        writer.write(',');
+        writer.write(rs.getTimestamp("timestamp").toInstant().toString());
+        writer.write(',');
+        writeNumber(writer, rs.getBigDecimal("latitude"));
+        writer.write(',');
+        writeNumber(writer, rs.getBigDecimal("longitude"));
+        writer.write(',');
+        writeNumber(writer, rs.getBigDecimal("altitude"));
+        writer.write(',');
+        writeNumber(writer, rs.getBigDecimal("speed"));
+        writer.write(',');
+        writeInteger(writer, rs, "heading");
+        writer.write(',');
+        writeNumber(writer, rs.getBigDecimal("accuracy"));
+        writer.write(',');
+        writeInteger(writer, rs, "satellites");
+        writer.write('\n');
+    }
+
+    private static void writeNumber(Writer writer, BigDecimal value) throws IOException {
+        if (value != null) {
+            writer.write(value.toPlainString());
+        }
+    }
+
+    private static void writeInteger(Writer writer, ResultSet rs, String column) throws SQLException, IOException {
+        int value = rs.getInt(column);
+        if (!rs.wasNull()) {
+            writer.write(Integer.toString(value));
+        }
+    }
+
+    /**
+     * Text field, quoted when it contains a separator, a quote or a line break (RFC 4180).
+     */
+    private static void writeText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String toArray(List<UUID> ids) {
+        return "{" + String.join(",", ids.stream().map(UUID::toString).toList()) + "}";
+    }
+}
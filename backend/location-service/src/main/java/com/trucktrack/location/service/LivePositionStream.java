@@ -0,0 +1,157 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.location.cache.TruckGroupMembershipCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only live position stream for Server-Sent Events consumers
+ * (TV wall dashboards, partner integrations).
+ *
+ * Positions are conflated globally: only the latest position per truck is kept,
+ * and one shared timer emits a batch per interval. Subscribers just filter the
+ * shared batch, so an idle connection costs no timer and no per-truck state.
+ *
+ * Batches are assembled and filtered on the Reactor parallel scheduler, which must never
+ * block: group filters read {@link TruckGroupMembershipCache#peekGroups}, and the index is
+ * (re)loaded on the publishing thread instead.
+ */
+@Slf4j
+@Component
+public class LivePositionStream {
+
+    private final TruckGroupMembershipCache membershipCache;
+    private final int maxBufferedBatches;
+
+    private final Map<String, EncodedPosition> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Flux<List<LivePosition>> batches;
+    private final Flux<Long> heartbeats;
+
+    public LivePositionStream(
+            TruckGroupMembershipCache membershipCache,
+            MeterRegistry meterRegistry,
+            @Value("${live-feed.conflation-interval:1s}") Duration conflationInterval,
+            @Value("${live-feed.heartbeat-interval:15s}") Duration heartbeatInterval,
+            @Value("${live-feed.max-buffered-batches:8}") int maxBufferedBatches) {
+        this.membershipCache = membershipCache;
+        this.maxBufferedBatches = maxBufferedBatches;
+
+        // share(): one timer for all subscribers, stopped when the last one leaves
+        this.batches = Flux.interval(conflationInterval)
+                .map(tick -> drain())
+                .filter(batch -> !batch.isEmpty())
+                .share();
+        this.heartbeats = Flux.interval(heartbeatInterval).share();
+
+        Gauge.builder("live_feed.subscribers", subscribers, AtomicInteger::get)
+                .description("Connected Server-Sent Events live feed subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record the latest position of a truck; replaces any not yet emitted one.
+     */
+    public void publish(EncodedPosition position) {
+        membershipCache.ensureLoaded();
+        pending.put(position.truckId(), position);
+    }
+
+    /**
+     * Stream of position batches matching the filter, interleaved with keep-alive comments.
+     * Each batch is a JSON array assembled from the already encoded positions.
+     */
+    public Flux<ServerSentEvent<String>> subscribe(Filter filter) {
+        Flux<ServerSentEvent<String>> positions = batches
+                .mapNotNull(batch -> select(batch, filter))
+                .map(selected -> ServerSentEvent.builder(selected)
+                        .event("positions")
+                        .build())
+                // A slow reader only keeps the most recent batches
+                .onBackpressureBuffer(maxBufferedBatches, dropped -> { }, BufferOverflowStrategy.DROP_OLDEST);
+
+        Flux<ServerSentEvent<String>> keepAlive = heartbeats
+                .map(tick -> ServerSentEvent.<String>builder().comment("keepalive").build());
+
+        return Flux.merge(positions, keepAlive)
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    private List<LivePosition> drain() {
+        List<LivePosition> batch = new ArrayList<>(pending.size());
+        for (String truckId : pending.keySet()) {
+            EncodedPosition position = pending.remove(truckId);
+            if (position != null) {
+                batch.add(new LivePosition(UUID.fromString(truckId), position.position(), position.jsonString()));
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * JSON array of the matching positions, or null if none match.
+     */
+    private String select(List<LivePosition> batch, Filter filter) {
+        StringJoiner selected = new StringJoiner(",", "[", "]");
+        boolean any = false;
+        for (LivePosition livePosition : batch) {
+            if (filter.matches(livePosition, membershipCache)) {
+                selected.add(livePosition.json());
+                any = true;
+            }
+        }
+        return any ? selected.toString() : null;
+    }
+
+    /**
+     * Position with its JSON resolved once per batch.
+     */
+    record LivePosition(UUID truckId, GPSPositionEvent position, String json) {}
+
+    /**
+     * Subscriber filter. A null group set means all groups; null bounds mean no bounding box.
+     */
+    public record Filter(Set<UUID> groupIds, Double minLat, Double maxLat, Double minLng, Double maxLng) {
+
+        public static Filter all() {
+            return new Filter(null, null, null, null, null);
+        }
+
+        boolean matches(LivePosition livePosition, TruckGroupMembershipCache membershipCache) {
+            if (groupIds != null
+                    && membershipCache.peekGroups(livePosition.truckId()).stream().noneMatch(groupIds::contains)) {
+                return false;
+            }
+            if (minLat == null || maxLat == null || minLng == null || maxLng == null) {
+                return true;
+            }
+            Double lat = livePosition.position().getLatitude();
+            Double lng = livePosition.position().getLongitude();
+            return lat != null && lng != null
+                    && lat >= minLat && lat <= maxLat
+                    && lng >= minLng && lng <= maxLng;
+        }
+    }
+}
@@ -38,6 +38,12 @@ public class LocationService {
     private final RedisCacheService redisCacheService;
     private final TruckStatusService truckStatusService;
     private final LocationWebSocketHandler webSocketHandler;
+    private final LivePositionStream livePositionStream;
+    private final PositionPayloadEncoder payloadEncoder;
+    private final TruckStatusSweeper statusSweeper;
+    private final TruckStatusEventPublisher statusEventPublisher;
+    private final DailyMetricsAggregator dailyMetricsAggregator;
+    private final FleetStatusCounters fleetStatusCounters;
 
     /**
      * Process GPS position event from Kafka
@@ -45,6 +51,8 @@ public class LocationService {
      * 2. Update truck's current position
      * 3. Calculate and update truck status (ACTIVE/IDLE/OFFLINE)
      * 4. Update Redis cache with current position
+     * 5. Broadcast to WebSocket and Server-Sent Events subscribers
+     * 6. Fold the point into today's analytics aggregates
      */
     @Transactional
     public void processGPSPosition(GPSPositionEvent event) {
@@ -62,13 +70,22 @@ public class LocationService {
         // 3. Update truck's current position
         updateTruckCurrentPosition(truckId, event);
 
+        // Serialize once, every sink below reuses the same bytes
+        EncodedPosition encoded = payloadEncoder.encode(event);
+
         // 4. Update Redis cache (for fast reads)
-        redisCacheService.cacheCurrentPosition(truckId, event);
+        redisCacheService.cacheCurrentPosition(truckId, encoded);
         log.debug("Updated Redis cache for truck: {}", truckId);
 
         // 5. Broadcast position update via WebSocket to connected clients
-        webSocketHandler.sendPositionUpdate(event);
+        webSocketHandler.sendPositionUpdate(encoded);
         log.debug("Broadcasted WebSocket update for truck: {}", truckId);
+
+        // 6. Hand over to the Server-Sent Events live feed (conflated, emitted on its own timer)
+        livePositionStream.publish(encoded);
+
+        // 7. Update the daily analytics aggregates (after commit, buffered, written on their own timer)
+        dailyMetricsAggregator.record(event);
     }
 
     /**
@@ -118,9 +135,14 @@ public class LocationService {
         truckRepository.save(truck);
         log.debug("Updated truck current position: {} - Status: {}", truckId, truck.getStatus());
 
+        // Schedule the IDLE/OFFLINE deadline if the truck stops reporting
+        statusSweeper.track(truckId, newStatus, event.getTimestamp());
+
         // Notify clients if status changed
         if (oldStatus != newStatus) {
             webSocketHandler.notifyStatusChange(truckId, oldStatus.name(), newStatus.name());
+            statusEventPublisher.publishStatusChange(truck, oldStatus, newStatus);
+            fleetStatusCounters.onStatusChange(truckId, newStatus);
             log.info("Truck {} status changed: {} -> {}", truckId, oldStatus, newStatus);
         }
     }
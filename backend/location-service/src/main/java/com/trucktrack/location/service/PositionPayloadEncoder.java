@@ -0,0 +1,26 @@
+package com.trucktrack.location.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trucktrack.common.event.GPSPositionEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes GPS positions once with the application ObjectMapper, the same mapper
+ * used by Spring MVC and the STOMP message converter, so every sink can reuse the bytes.
+ */
+@Component
+@RequiredArgsConstructor
+public class PositionPayloadEncoder {
+
+    private final ObjectMapper objectMapper;
+
+    public EncodedPosition encode(GPSPositionEvent position) {
+        try {
+            return new EncodedPosition(position, objectMapper.writeValueAsBytes(position));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize GPS position for truck " + position.getTruckId(), e);
+        }
+    }
+}
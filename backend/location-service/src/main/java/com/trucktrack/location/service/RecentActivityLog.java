@@ -0,0 +1,302 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.location.cache.TruckGroupMembershipCache;
+import com.trucktrack.location.dto.ActivityEventDTO;
+import com.trucktrack.location.dto.ActivityEventDTO.ActivityType;
+import com.trucktrack.location.model.Trip;
+import com.trucktrack.location.model.Truck;
+import com.trucktrack.location.repository.TripRepository;
+import com.trucktrack.location.repository.TruckRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recent activity feed of the dashboard (trips started and completed, deliveries confirmed),
+ * kept in a bounded ring buffer of the latest events.
+ *
+ * Appending does not block other appends: a sequence number claims a slot and the entry is
+ * stored with its sequence, so a reader copying the newest entries skips slots overwritten in
+ * the meantime. Entries carry the groups of their truck, so the feed of some groups is a
+ * filtered copy.
+ *
+ * Seeded from the trips table on first read (the trips are the durable record, nothing
+ * else is persisted), then appended to from trip transitions once committed. Trip changes
+ * made by other instances only reach the trips table, so the feed is re-seeded periodically
+ * while in use: a new ring is built from the trips, the events appended since the seed began
+ * are replayed into it, and it replaces the current one. Appends are never dropped, even
+ * when they commit while a seed is running.
+ */
+@Slf4j
+@Component
+public class RecentActivityLog {
+
+    // Trips read per query when seeding the feed
+    private static final int SEED_TRIPS_PER_TYPE = 100;
+
+    private final TripRepository tripRepository;
+    private final TruckRepository truckRepository;
+    private final TruckGroupMembershipCache membershipCache;
+    private final int capacity;
+
+    // Appends share the read lock, replacing the ring takes the write lock
+    private final ReadWriteLock ringLock = new ReentrantReadWriteLock();
+    private volatile Ring ring;
+    private volatile boolean loaded;
+
+    public RecentActivityLog(
+            TripRepository tripRepository,
+            TruckRepository truckRepository,
+            TruckGroupMembershipCache membershipCache,
+            @Value("${dashboard.activity.capacity:1024}") int capacity) {
+        this.tripRepository = tripRepository;
+        this.truckRepository = truckRepository;
+        this.membershipCache = membershipCache;
+        this.capacity = capacity;
+        this.ring = new Ring(capacity);
+    }
+
+    /**
+     * Record an activity of a trip. Applied after commit when called within a transaction.
+     */
+    public void onTripEvent(Trip trip, ActivityType type) {
+        Truck truck = trip.getAssignedTruckId() != null
+            ? truckRepository.findById(trip.getAssignedTruckId()).orElse(null)
+            : null;
+        Entry entry = toEntry(trip, type, truck);
+        afterCommit(() -> append(entry));
+    }
+
+    /**
+     * Latest events, newest first, of the trucks of any of the groups (all events if none given).
+     */
+    public List<ActivityEventDTO> getRecent(Collection<UUID> groupIds, int limit) {
+        if (!loaded) {
+            ensureLoaded();
+        }
+        List<ActivityEventDTO> recent = new ArrayList<>(limit);
+        Set<UUID> seen = new HashSet<>();
+        Ring current = ring;
+        long newest = current.nextSequence.get() - 1;
+        long oldest = Math.max(0, newest - capacity + 1);
+        for (long sequence = newest; sequence >= oldest && recent.size() < limit; sequence--) {
+            Entry entry = current.get(sequence);
+            if (entry == null) {
+                continue; // Not yet stored, or already overwritten by a newer event
+            }
+            if (entry.matches(groupIds) && seen.add(entry.event().id())) {
+                recent.add(entry.event());
+            }
+        }
+        // Sequence order is commit order, not always event time order
+        recent.sort(Comparator.comparing(ActivityEventDTO::timestamp).reversed());
+        return recent;
+    }
+
+    /**
+     * Re-seed the feed periodically once read, picking up the trips changed by other instances.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.activity.reseed-interval-ms:60000}")
+    public synchronized void reseedIfLoaded() {
+        if (loaded) {
+            seed();
+        }
+    }
+
+    private void append(Entry entry) {
+        ringLock.readLock().lock();
+        try {
+            ring.append(entry);
+        } finally {
+            ringLock.readLock().unlock();
+        }
+    }
+
+    private synchronized void ensureLoaded() {
+        if (!loaded) {
+            seed();
+            loaded = true;
+        }
+    }
+
+    /**
+     * Replace the ring with one built from the trips table. Events committed after the seed
+     * begins are appended to the current ring and replayed into the new one, so none is lost.
+     */
+    private void seed() {
+        long seedStart = ring.nextSequence.get();
+        PageRequest seed = PageRequest.of(0, Math.min(SEED_TRIPS_PER_TYPE, capacity));
+        List<Trip> started = tripRepository.findRecentlyStartedTrips(seed);
+        List<Trip> completed = tripRepository.findRecentlyCompletedTrips(seed);
+        List<Trip> withProof = tripRepository.findTripsWithProof(seed);
+
+        // Truck labels of all seeded trips in one query
+        Set<UUID> truckIds = new HashSet<>();
+        for (List<Trip> trips : List.of(started, completed, withProof)) {
+            trips.stream().map(Trip::getAssignedTruckId).filter(id -> id != null).forEach(truckIds::add);
+        }
+        Map<UUID, Truck> trucks = truckIds.isEmpty() ? Map.of() : truckRepository.findAllById(truckIds).stream()
+            .collect(Collectors.toMap(Truck::getId, Function.identity()));
+
+        List<Entry> entries = new ArrayList<>();
+        started.forEach(trip -> entries.add(toEntry(trip, ActivityType.TRIP_STARTED, trucks.get(trip.getAssignedTruckId()))));
+        completed.forEach(trip -> entries.add(toEntry(trip, ActivityType.TRIP_COMPLETED, trucks.get(trip.getAssignedTruckId()))));
+        withProof.forEach(trip -> entries.add(toEntry(trip, ActivityType.DELIVERY_CONFIRMED, trucks.get(trip.getAssignedTruckId()))));
+
+        // Oldest first, so the newest end up last in the ring
+        entries.sort(Comparator.comparing(entry -> entry.event().timestamp()));
+        Ring seeded = new Ring(capacity);
+        entries.forEach(seeded::append);
+
+        ringLock.writeLock().lock();
+        try {
+            Ring previous = ring;
+            long end = previous.nextSequence.get();
+            for (long sequence = Math.max(seedStart, end - capacity); sequence < end; sequence++) {
+                Entry appended = previous.get(sequence);
+                if (appended != null) {
+                    seeded.append(appended); // Listed once if also seeded: same event ID
+                }
+            }
+            ring = seeded;
+        } finally {
+            ringLock.writeLock().unlock();
+        }
+        log.debug("Seeded recent activity feed with {} events", entries.size());
+    }
+
+    private Entry toEntry(Trip trip, ActivityType type, Truck truck) {
+        String title = switch (type) {
+            case TRIP_STARTED -> "Trip started: " + truncate(trip.getOrigin(), 30) + " → " + truncate(trip.getDestination(), 30);
+            case TRIP_COMPLETED -> "Trip completed: " + truncate(trip.getOrigin(), 30) + " → " + truncate(trip.getDestination(), 30);
+            case DELIVERY_CONFIRMED -> "Delivery confirmed at " + truncate(trip.getDestination(), 50);
+            default -> "Trip activity";
+        };
+        Instant timestamp = type == ActivityType.TRIP_STARTED ? trip.getStartedAt() : trip.getCompletedAt();
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("tripId", trip.getId().toString());
+        metadata.put("origin", trip.getOrigin());
+        metadata.put("destination", trip.getDestination());
+        if (trip.getAssignedDriverId() != null) {
+            metadata.put("driverId", trip.getAssignedDriverId().toString());
+        }
+
+        // Same ID for the same event, so an event both seeded and appended is listed once
+        UUID id = UUID.nameUUIDFromBytes((trip.getId() + ":" + type).getBytes(StandardCharsets.UTF_8));
+
+        ActivityEventDTO event = ActivityEventDTO.builder()
+            .id(id)
+            .type(type)
+            .title(title)
+            .truckId(getTruckIdentifier(trip.getAssignedTruckId(), truck))
+            .timestamp(timestamp != null ? timestamp : trip.getUpdatedAt() != null ? trip.getUpdatedAt() : Instant.now())
+            .metadata(metadata)
+            .build();
+        Set<UUID> groupIds = trip.getAssignedTruckId() != null
+            ? membershipCache.getGroups(trip.getAssignedTruckId())
+            : Set.of();
+        return new Entry(-1, event, groupIds);
+    }
+
+    /**
+     * Truck identifier (license plate or truckId) for display.
+     */
+    private String getTruckIdentifier(UUID truckId, Truck truck) {
+        if (truckId == null) {
+            return "Unassigned";
+        }
+        if (truck == null) {
+            return "TRK-" + truckId.toString().substring(0, 8);
+        }
+        return truck.getLicensePlate() != null ? truck.getLicensePlate() : truck.getTruckId();
+    }
+
+    private static String truncate(String text, int maxLength) {
+        if (text == null) return "";
+        return text.length() > maxLength ? text.substring(0, maxLength - 3) + "..." : text;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Bounded ring of the latest entries, indexed by sequence number.
+     */
+    private static final class Ring {
+
+        private final AtomicReferenceArray<Entry> slots;
+        private final AtomicLong nextSequence = new AtomicLong();
+
+        Ring(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        void append(Entry entry) {
+            long sequence = nextSequence.getAndIncrement();
+            slots.set(index(sequence), new Entry(sequence, entry.event(), entry.groupIds()));
+        }
+
+        /**
+         * Entry of the sequence, null if not yet stored or already overwritten.
+         */
+        Entry get(long sequence) {
+            Entry entry = slots.get(index(sequence));
+            return entry != null && entry.sequence() == sequence ? entry : null;
+        }
+
+        private int index(long sequence) {
+            return (int) (sequence % slots.length());
+        }
+    }
+
+    /**
+     * An event with its ring sequence and the groups of its truck (none if unassigned).
+     */
+    private record Entry(long sequence, ActivityEventDTO event, Set<UUID> groupIds) {
+
+        boolean matches(Collection<UUID> filter) {
+            if (filter.isEmpty()) {
+                return true;
+            }
+            for (UUID groupId : filter) {
+                if (groupIds.contains(groupId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,20 +1,36 @@
 package com.trucktrack.location.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.trucktrack.common.event.GPSPositionEvent;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for caching truck positions in Redis
  * T068: Implement RedisCacheService to cache current truck positions with TTL=5min
  * Refactored with Lombok best practices
+ *
+ * Layout: one binary-safe string per truck (truck:position:{truckId}) holding the
+ * already encoded JSON, so reads are written to responses without parsing.
+ * Writes are buffered (latest position per truck) and flushed in one pipeline
+ * every flush interval; bulk reads use a single MGET.
  */
 @Slf4j
 @Service
@@ -26,6 +42,9 @@ public class RedisCacheService {
     private final RedisTemplate<String, String> redisTemplate;
     private final ObjectMapper objectMapper;
 
+    // Positions not yet written to Redis, latest per truck
+    private final Map<UUID, byte[]> pendingWrites = new ConcurrentHashMap<>();
+
     public RedisCacheService(RedisTemplate<String, String> redisTemplate) {
         this.redisTemplate = redisTemplate;
         this.objectMapper = new ObjectMapper();
@@ -36,48 +55,120 @@ public class RedisCacheService {
      * Cache current position for a truck
      * Key format: truck:position:{truckId}
      * TTL: 5 minutes
+     * Buffered until the next flush; a newer position of the same truck replaces it.
      */
-    public void cacheCurrentPosition(UUID truckId, GPSPositionEvent position) {
-        try {
-            String key = CURRENT_POSITION_PREFIX + truckId;
-            String value = objectMapper.writeValueAsString(position);
+    public void cacheCurrentPosition(UUID truckId, EncodedPosition position) {
+        pendingWrites.put(truckId, position.json());
+    }
 
-            redisTemplate.opsForValue().set(key, value, TTL);
-            log.debug("Cached position for truck {} with TTL {}min", truckId, TTL.toMinutes());
+    /**
+     * Write buffered positions to Redis in a single pipelined round trip.
+     * Positions stay buffered (and readable) until the pipeline has succeeded;
+     * a failed flush is retried on the next one.
+     */
+    @Scheduled(fixedDelayString = "${redis.position-cache.flush-interval-ms:100}")
+    public void flushPendingWrites() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, byte[]> batch = new LinkedHashMap<>(pendingWrites);
+        try {
+            Expiration expiration = Expiration.from(TTL);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                batch.forEach((truckId, json) ->
+                        connection.stringCommands().set(key(truckId), json, expiration, SetOption.upsert()));
+                return null;
+            });
+            // Keep positions replaced by a newer one during the flush
+            batch.forEach(pendingWrites::remove);
+            log.debug("Cached {} positions with TTL {}min", batch.size(), TTL.toMinutes());
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize GPS position for caching: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to cache {} GPS positions: {}", batch.size(), e.getMessage());
             // Don't throw - caching failure shouldn't break the flow
         }
     }
 
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushPendingWrites();
+    }
+
     /**
-     * Get current position from cache
+     * Get current position from cache as raw JSON, ready to be written to a response.
      * Returns null if not found or expired
      */
-    public GPSPositionEvent getCurrentPosition(UUID truckId) {
-        try {
-            String key = CURRENT_POSITION_PREFIX + truckId;
-            String value = redisTemplate.opsForValue().get(key);
+    public byte[] getCurrentPositionJson(UUID truckId) {
+        byte[] pending = pendingWrites.get(truckId);
+        if (pending != null) {
+            return pending;
+        }
+        byte[] key = key(truckId);
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(key));
+        log.debug("Cache {} for truck: {}", value != null ? "hit" : "miss", truckId);
+        return value;
+    }
 
-            if (value == null) {
-                log.debug("Cache miss for truck: {}", truckId);
-                return null;
+    /**
+     * Get current positions of several trucks as raw JSON with one MGET.
+     * Trucks without a cached position are absent from the result.
+     *
+     * @return truckId -> JSON, in request order
+     */
+    public Map<UUID, byte[]> getCurrentPositionsJson(Collection<UUID> truckIds) {
+        Map<UUID, byte[]> positions = new LinkedHashMap<>();
+        List<UUID> toFetch = new ArrayList<>(truckIds.size());
+        for (UUID truckId : truckIds) {
+            byte[] pending = pendingWrites.get(truckId);
+            if (pending != null) {
+                positions.put(truckId, pending);
+            } else {
+                toFetch.add(truckId);
             }
+        }
+        if (toFetch.isEmpty()) {
+            return positions;
+        }
 
-            log.debug("Cache hit for truck: {}", truckId);
-            return objectMapper.readValue(value, GPSPositionEvent.class);
+        byte[][] keys = toFetch.stream().map(this::key).toArray(byte[][]::new);
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(keys));
+        if (values != null) {
+            for (int i = 0; i < toFetch.size(); i++) {
+                if (values.get(i) != null) {
+                    positions.put(toFetch.get(i), values.get(i));
+                }
+            }
+        }
+        log.debug("Bulk read {} trucks: {} cached", truckIds.size(), positions.size());
+        return positions;
+    }
 
-        } catch (JsonProcessingException e) {
+    /**
+     * Get current position from cache
+     * Returns null if not found or expired
+     */
+    public GPSPositionEvent getCurrentPosition(UUID truckId) {
+        try {
+            byte[] value = getCurrentPositionJson(truckId);
+            return value != null ? objectMapper.readValue(value, GPSPositionEvent.class) : null;
+
+        } catch (Exception e) {
             log.error("Failed to deserialize GPS position from cache: {}", e.getMessage());
             return null;
         }
     }
 
+    private byte[] key(UUID truckId) {
+        return (CURRENT_POSITION_PREFIX + truckId).getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * Invalidate cache for a truck
      */
     public void invalidatePosition(UUID truckId) {
+        pendingWrites.remove(truckId);
         String key = CURRENT_POSITION_PREFIX + truckId;
         redisTemplate.delete(key);
         log.debug("Invalidated cache for truck: {}", truckId);
@@ -87,6 +178,9 @@ public class RedisCacheService {
      * Check if truck position is cached
      */
     public boolean isCached(UUID truckId) {
+        if (pendingWrites.containsKey(truckId)) {
+            return true;
+        }
         String key = CURRENT_POSITION_PREFIX + truckId;
         return Boolean.TRUE.equals(redisTemplate.hasKey(key));
     }
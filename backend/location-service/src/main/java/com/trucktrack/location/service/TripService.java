@@ -1,7 +1,10 @@
 package com.trucktrack.location.service;
 
+import com.trucktrack.common.dto.CursorPage;
+import com.trucktrack.common.dto.PageCursor;
 import com.trucktrack.common.dto.PageResponse;
 import com.trucktrack.common.util.ConversionUtils;
+import com.trucktrack.location.cache.CacheInvalidator;
 import com.trucktrack.location.dto.*;
 import com.trucktrack.location.model.Trip;
 import com.trucktrack.location.model.TripStatus;
@@ -17,6 +20,7 @@ import com.trucktrack.location.repository.UserPushTokenRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +29,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +54,8 @@ public class TripService {
     private final DeliveryProofRepository deliveryProofRepository;
     private final PushNotificationService pushNotificationService;
     private final TripEventPublisher tripEventPublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecentActivityLog recentActivityLog;
 
     // Map entity field names to database column names for native query sorting
     private static final Map<String, String> SORT_FIELD_MAPPING = Map.of(
@@ -89,6 +97,7 @@ public class TripService {
         }
 
         trip = tripRepository.save(trip);
+        eventPublisher.publishEvent(new CacheInvalidator.TripChangedEvent(trip.getId().toString()));
 
         // Record initial status in history
         TripStatusHistory history = TripStatusHistory.of(
@@ -174,6 +183,33 @@ public class TripService {
         );
     }
 
+    /**
+     * Get a keyset page of trips with filters, newest first.
+     * Unlike the paginated list there is no OFFSET and no COUNT, so deep pages cost the same as the first.
+     *
+     * @param cursor token of the page to get (from the previous page), null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TripResponse> getTripsPage(
+            String cursor,
+            int size,
+            String search,
+            TripStatus status,
+            UUID driverId,
+            UUID truckId,
+            Instant startDate,
+            Instant endDate
+    ) {
+        int pageSize = CursorPage.pageSize(size);
+        PageCursor before = PageCursor.decode(cursor);
+        List<Trip> trips = tripRepository.searchWithFiltersBefore(
+            search, status != null ? status.name() : null, driverId, truckId, startDate, endDate,
+            before != null ? before.timestamp() : null, before != null ? before.uuidId() : null, pageSize + 1);
+
+        return CursorPage.of(trips, pageSize, trip -> PageCursor.of(trip.getCreatedAt(), trip.getId()))
+            .map(this::enrichTripResponse);
+    }
+
     /**
      * Update a trip (only origin, destination, scheduledAt, notes).
      */
@@ -226,6 +262,7 @@ public class TripService {
         }
 
         trip = tripRepository.save(trip);
+        eventPublisher.publishEvent(new CacheInvalidator.TripChangedEvent(trip.getId().toString()));
 
         if (!changes.isEmpty()) {
             log.info("Updated trip {} by user {}: {}", trip.getId(), actorId, changes.keySet());
@@ -256,6 +293,7 @@ public class TripService {
         trip.setStatus(TripStatus.ASSIGNED);
 
         trip = tripRepository.save(trip);
+        eventPublisher.publishEvent(new CacheInvalidator.TripChangedEvent(trip.getId().toString()));
 
         // Record status change
         TripStatusHistory history = TripStatusHistory.of(
@@ -336,6 +374,7 @@ public class TripService {
         }
 
         trip = tripRepository.save(trip);
+        eventPublisher.publishEvent(new CacheInvalidator.TripChangedEvent(trip.getId().toString()));
 
         // Record status change
         TripStatusHistory history = TripStatusHistory.of(
@@ -350,6 +389,12 @@ public class TripService {
         log.info("Updated trip {} status from {} to {} by user {}",
             trip.getId(), previousStatus, newStatus, actorId);
 
+        if (newStatus == TripStatus.IN_PROGRESS) {
+            recentActivityLog.onTripEvent(trip, ActivityEventDTO.ActivityType.TRIP_STARTED);
+        } else if (newStatus == TripStatus.COMPLETED) {
+            recentActivityLog.onTripEvent(trip, ActivityEventDTO.ActivityType.TRIP_COMPLETED);
+        }
+
         // Feature 016: Publish Kafka events for notification-service
         if (newStatus == TripStatus.IN_PROGRESS) {
             // Trip started - notify client
@@ -381,6 +426,7 @@ public class TripService {
         TripStatus previousStatus = trip.getStatus();
         trip.setStatus(TripStatus.CANCELLED);
         trip = tripRepository.save(trip);
+        eventPublisher.publishEvent(new CacheInvalidator.TripChangedEvent(trip.getId().toString()));
 
         // Record status change
         TripStatusHistory history = TripStatusHistory.of(
@@ -430,6 +476,7 @@ public class TripService {
         trip.setAssignedDriverId(request.getDriverId());
 
         trip = tripRepository.save(trip);
+        eventPublisher.publishEvent(new CacheInvalidator.TripChangedEvent(trip.getId().toString()));
 
         // Record the reassignment
         String notes = String.format("Trip reassigned from truck %s to %s, driver changed",
@@ -533,14 +580,19 @@ public class TripService {
 
     /**
      * Get trip statistics.
+     * Read from the per-status counters maintained by trigger on trips (see V26).
      */
     @Transactional(readOnly = true)
     public Map<String, Long> getTripStats() {
+        Map<TripStatus, Object[]> counts = getStatusCounts();
         Map<String, Long> stats = new HashMap<>();
+        long total = 0;
         for (TripStatus status : TripStatus.values()) {
-            stats.put(status.name(), tripRepository.countByStatus(status));
+            long count = countOf(counts, status);
+            stats.put(status.name(), count);
+            total += count;
         }
-        stats.put("TOTAL", tripRepository.count());
+        stats.put("TOTAL", total);
         return stats;
     }
 
@@ -557,27 +609,30 @@ public class TripService {
         Instant startOfMonth = startOfDay.atZone(java.time.ZoneOffset.UTC)
             .withDayOfMonth(1).toInstant();
 
-        // Count by status
-        long pending = tripRepository.countByStatus(TripStatus.PENDING);
-        long assigned = tripRepository.countByStatus(TripStatus.ASSIGNED);
-        long inProgress = tripRepository.countByStatus(TripStatus.IN_PROGRESS);
-        long completed = tripRepository.countByStatus(TripStatus.COMPLETED);
-        long cancelled = tripRepository.countByStatus(TripStatus.CANCELLED);
-        long total = tripRepository.count();
-
-        // Time-based counts
-        long tripsToday = tripRepository.countByCreatedAtBetween(startOfDay, now);
-        long tripsThisWeek = tripRepository.countByCreatedAtBetween(startOfWeek, now);
-        long tripsThisMonth = tripRepository.countByCreatedAtBetween(startOfMonth, now);
+        // Count by status, from the counters maintained by trigger on trips (see V26)
+        Map<TripStatus, Object[]> counts = getStatusCounts();
+        long pending = countOf(counts, TripStatus.PENDING);
+        long assigned = countOf(counts, TripStatus.ASSIGNED);
+        long inProgress = countOf(counts, TripStatus.IN_PROGRESS);
+        long completed = countOf(counts, TripStatus.COMPLETED);
+        long cancelled = countOf(counts, TripStatus.CANCELLED);
+        long total = pending + assigned + inProgress + completed + cancelled;
+
+        // Time-based counts, from the per-day counters (UTC days, today included)
+        LocalDate today = LocalDate.ofInstant(startOfDay, java.time.ZoneOffset.UTC);
+        LocalDate tomorrow = today.plusDays(1);
+        LocalDate weekStart = LocalDate.ofInstant(startOfWeek, java.time.ZoneOffset.UTC);
+        long tripsToday = tripRepository.countCreatedOnDays(today, tomorrow);
+        long tripsThisWeek = tripRepository.countCreatedOnDays(weekStart, tomorrow);
+        long tripsThisMonth = tripRepository.countCreatedOnDays(today.withDayOfMonth(1), tomorrow);
 
         // Performance metrics
-        Double avgDuration = tripRepository.getAverageTripDurationMinutes();
+        Double avgDuration = averageDurationMinutes(counts.get(TripStatus.COMPLETED));
         double completionRate = TripAnalyticsDTO.calculateCompletionRate(completed, total);
         double cancellationRate = TripAnalyticsDTO.calculateCancellationRate(cancelled, total);
 
         // Calculate trend (compare this week to last week)
-        Instant lastWeekStart = startOfWeek.minus(java.time.Duration.ofDays(7));
-        long tripsLastWeek = tripRepository.countByCreatedAtBetween(lastWeekStart, startOfWeek);
+        long tripsLastWeek = tripRepository.countCreatedOnDays(weekStart.minusDays(7), weekStart);
         Double tripsTrend = tripsLastWeek > 0
             ? ((tripsThisWeek - tripsLastWeek) * 100.0 / tripsLastWeek)
             : (tripsThisWeek > 0 ? 100.0 : 0.0);
@@ -601,6 +656,32 @@ public class TripService {
             .build();
     }
 
+    /**
+     * Rows of the per-status counters (status, trip_count, timed_count, duration_minutes_sum) by status.
+     */
+    private Map<TripStatus, Object[]> getStatusCounts() {
+        Map<TripStatus, Object[]> counts = new EnumMap<>(TripStatus.class);
+        for (Object[] row : tripRepository.findStatusCounts()) {
+            counts.put(TripStatus.valueOf((String) row[0]), row);
+        }
+        return counts;
+    }
+
+    private long countOf(Map<TripStatus, Object[]> counts, TripStatus status) {
+        Object[] row = counts.get(status);
+        return row != null ? ((Number) row[1]).longValue() : 0;
+    }
+
+    /**
+     * Average duration of the timed trips of a status row, or null if none.
+     */
+    private Double averageDurationMinutes(Object[] row) {
+        if (row == null || ((Number) row[2]).longValue() == 0) {
+            return null;
+        }
+        return ((Number) row[3]).doubleValue() / ((Number) row[2]).longValue();
+    }
+
     /**
      * Validate truck and driver for assignment.
      */
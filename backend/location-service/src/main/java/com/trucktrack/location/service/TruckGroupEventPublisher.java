@@ -0,0 +1,51 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.common.event.TruckGroupChangeEvent;
+import com.trucktrack.location.cache.CacheInvalidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Publishes committed truck group membership changes to Kafka,
+ * so other services can keep their own truck -> groups view up to date.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TruckGroupEventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${kafka.topics.truck-group-change:truck-track.location.truck-group-change}")
+    private String truckGroupChangeTopic;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTruckGroupChanged(CacheInvalidator.TruckGroupChangedEvent event) {
+        publish(event.truckId(), event.groupId(), event.added()
+                ? TruckGroupChangeEvent.ChangeType.ADDED
+                : TruckGroupChangeEvent.ChangeType.REMOVED);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroupModified(CacheInvalidator.GroupModifiedEvent event) {
+        publish(null, event.groupId(), TruckGroupChangeEvent.ChangeType.GROUP_MODIFIED);
+    }
+
+    private void publish(String truckId, String groupId, TruckGroupChangeEvent.ChangeType changeType) {
+        try {
+            TruckGroupChangeEvent event = new TruckGroupChangeEvent(
+                    UUID.randomUUID().toString(), truckId, groupId, changeType, Instant.now());
+            kafkaTemplate.send(truckGroupChangeTopic, truckId != null ? truckId : groupId, event);
+            log.debug("Published group change: {}", event);
+        } catch (Exception e) {
+            log.error("Failed to publish group change of group {}: {}", groupId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.common.event.TruckStatusChangeEvent;
+import com.trucktrack.location.model.Truck;
+import com.trucktrack.location.model.TruckStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Publishes truck status changes (ACTIVE/IDLE/OFFLINE) to Kafka.
+ * Keyed by truck ID so changes of one truck stay ordered.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TruckStatusEventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${kafka.topics.status-change:truck-track.location.status-change}")
+    private String statusChangeTopic;
+
+    /**
+     * Publish a status change of a truck
+     */
+    public void publishStatusChange(Truck truck, TruckStatus previousStatus, TruckStatus newStatus) {
+        try {
+            TruckStatusChangeEvent event = new TruckStatusChangeEvent();
+            event.setEventId(UUID.randomUUID().toString());
+            event.setTruckId(truck.getId().toString());
+            event.setTruckIdReadable(truck.getTruckId());
+            event.setPreviousStatus(toEventStatus(previousStatus));
+            event.setNewStatus(toEventStatus(newStatus));
+            event.setLatitude(truck.getCurrentLatitude() != null ? truck.getCurrentLatitude().doubleValue() : null);
+            event.setLongitude(truck.getCurrentLongitude() != null ? truck.getCurrentLongitude().doubleValue() : null);
+            event.setTimestamp(Instant.now());
+
+            kafkaTemplate.send(statusChangeTopic, event.getTruckId(), event);
+            log.debug("Published status change for truck {}: {} -> {}", truck.getId(), previousStatus, newStatus);
+        } catch (Exception e) {
+            log.error("Failed to publish status change for truck {}: {}", truck.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Map to the shared status enum (MAINTENANCE / OUT_OF_SERVICE have no equivalent)
+     */
+    private com.trucktrack.common.dto.TruckStatus toEventStatus(TruckStatus status) {
+        return switch (status) {
+            case ACTIVE -> com.trucktrack.common.dto.TruckStatus.ACTIVE;
+            case IDLE -> com.trucktrack.common.dto.TruckStatus.IDLE;
+            case OFFLINE -> com.trucktrack.common.dto.TruckStatus.OFFLINE;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.common.util.TimerWheel;
+import com.trucktrack.location.model.Truck;
+import com.trucktrack.location.model.TruckStatus;
+import com.trucktrack.location.repository.TruckRepository;
+import com.trucktrack.location.websocket.LocationWebSocketHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Flips trucks that stopped reporting to IDLE / OFFLINE as soon as their threshold passes.
+ *
+ * Each GPS point (re)schedules the truck's next deadline in a hashed timer wheel (O(1)),
+ * and a 1s tick only visits the deadlines that expired - no table scans.
+ * - ACTIVE truck silent for idle-after (2 min) -> IDLE
+ * - ACTIVE/IDLE truck silent for the offline threshold (5 min) -> OFFLINE
+ *
+ * The status is changed with a conditional update on (status, last_update), so a point
+ * arriving concurrently or another instance sweeping the same truck never gets overwritten.
+ */
+@Slf4j
+@Component
+public class TruckStatusSweeper {
+
+    private final TruckRepository truckRepository;
+    private final LocationWebSocketHandler webSocketHandler;
+    private final TruckStatusEventPublisher statusEventPublisher;
+    private final FleetStatusCounters fleetStatusCounters;
+    private final Duration idleAfter;
+    private final Duration offlineAfter;
+
+    // Guarded by this
+    private final TimerWheel<UUID> wheel;
+    private final Map<UUID, TrackedTruck> tracked = new HashMap<>();
+
+    private final Counter transitions;
+
+    public TruckStatusSweeper(
+            TruckRepository truckRepository,
+            LocationWebSocketHandler webSocketHandler,
+            TruckStatusEventPublisher statusEventPublisher,
+            FleetStatusCounters fleetStatusCounters,
+            TruckStatusService truckStatusService,
+            MeterRegistry meterRegistry,
+            @Value("${truck-status.sweeper.idle-after:2m}") Duration idleAfter,
+            @Value("${truck-status.sweeper.tick-interval-ms:1000}") long tickIntervalMs,
+            @Value("${truck-status.sweeper.wheel-size:512}") int wheelSize) {
+        this.truckRepository = truckRepository;
+        this.webSocketHandler = webSocketHandler;
+        this.statusEventPublisher = statusEventPublisher;
+        this.fleetStatusCounters = fleetStatusCounters;
+        this.idleAfter = idleAfter;
+        this.offlineAfter = truckStatusService.getOfflineThreshold();
+        this.wheel = new TimerWheel<>(Duration.ofMillis(tickIntervalMs), wheelSize, System.currentTimeMillis());
+
+        this.transitions = Counter.builder("truck_status.sweeper.transitions")
+                .description("Trucks flipped to IDLE/OFFLINE for not reporting")
+                .register(meterRegistry);
+        Gauge.builder("truck_status.sweeper.tracked", this, TruckStatusSweeper::getTrackedCount)
+                .description("Trucks with a pending IDLE/OFFLINE deadline")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register the current state of a truck after a GPS point (or at startup).
+     * ACTIVE/IDLE trucks get their next deadline, other statuses are no longer tracked.
+     */
+    public synchronized void track(UUID truckId, TruckStatus status, Instant lastUpdate) {
+        if (lastUpdate == null || (status != TruckStatus.ACTIVE && status != TruckStatus.IDLE)) {
+            tracked.remove(truckId);
+            wheel.cancel(truckId);
+            return;
+        }
+        tracked.put(truckId, new TrackedTruck(status, lastUpdate));
+        wheel.schedule(truckId, nextDeadline(status, lastUpdate).toEpochMilli());
+    }
+
+    /**
+     * Load the trucks currently ACTIVE/IDLE once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTrackedTrucks() {
+        List<Truck> trucks = new ArrayList<>(truckRepository.findByStatus(TruckStatus.ACTIVE));
+        trucks.addAll(truckRepository.findByStatus(TruckStatus.IDLE));
+        for (Truck truck : trucks) {
+            track(truck.getId(), truck.getStatus(), truck.getLastUpdate());
+        }
+        log.info("Status sweeper tracking {} trucks (idle after {}, offline after {})",
+                getTrackedCount(), idleAfter, offlineAfter);
+    }
+
+    @Scheduled(fixedDelayString = "${truck-status.sweeper.tick-interval-ms:1000}")
+    public void sweep() {
+        sweep(Instant.now());
+    }
+
+    void sweep(Instant now) {
+        Map<UUID, TrackedTruck> due = new HashMap<>();
+        synchronized (this) {
+            for (UUID truckId : wheel.advance(now.toEpochMilli())) {
+                TrackedTruck truck = tracked.get(truckId);
+                if (truck != null) {
+                    due.put(truckId, truck);
+                }
+            }
+        }
+        due.forEach((truckId, truck) -> expire(truckId, truck, now));
+    }
+
+    public synchronized int getTrackedCount() {
+        return tracked.size();
+    }
+
+    private void expire(UUID truckId, TrackedTruck truck, Instant now) {
+        TruckStatus newStatus = Duration.between(truck.lastUpdate(), now).compareTo(offlineAfter) >= 0
+                ? TruckStatus.OFFLINE
+                : TruckStatus.IDLE;
+
+        int updated;
+        try {
+            // +1µs: last_update is stored with microsecond precision
+            updated = truckRepository.updateStatusIfNotUpdatedSince(
+                    truckId, truck.status(), newStatus, truck.lastUpdate().plus(1, ChronoUnit.MICROS));
+        } catch (Exception e) {
+            log.error("Failed to update status of truck {}: {}", truckId, e.getMessage());
+            retryLater(truckId, truck, now);
+            return;
+        }
+
+        synchronized (this) {
+            if (tracked.get(truckId) != truck) {
+                return; // A newer point rescheduled the truck meanwhile
+            }
+            if (updated == 0) {
+                // Changed elsewhere (new point on another instance, manual status, deleted truck)
+                tracked.remove(truckId);
+                return;
+            }
+            track(truckId, newStatus, truck.lastUpdate());
+        }
+
+        transitions.increment();
+        log.info("Truck {} status changed: {} -> {} (no GPS data since {})",
+                truckId, truck.status(), newStatus, truck.lastUpdate());
+        webSocketHandler.notifyStatusChange(truckId, truck.status().name(), newStatus.name());
+        fleetStatusCounters.onStatusChange(truckId, newStatus);
+        truckRepository.findById(truckId)
+                .ifPresent(changed -> statusEventPublisher.publishStatusChange(changed, truck.status(), newStatus));
+    }
+
+    private synchronized void retryLater(UUID truckId, TrackedTruck truck, Instant now) {
+        if (tracked.get(truckId) == truck) {
+            wheel.schedule(truckId, now.plusSeconds(30).toEpochMilli());
+        }
+    }
+
+    private Instant nextDeadline(TruckStatus status, Instant lastUpdate) {
+        if (status == TruckStatus.ACTIVE && idleAfter.compareTo(offlineAfter) < 0) {
+            return lastUpdate.plus(idleAfter);
+        }
+        return lastUpdate.plus(offlineAfter);
+    }
+
+    /**
+     * Status and last update the pending deadline was computed from.
+     */
+    private record TrackedTruck(TruckStatus status, Instant lastUpdate) {}
+}
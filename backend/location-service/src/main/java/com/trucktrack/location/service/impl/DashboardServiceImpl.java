@@ -8,24 +8,20 @@ import com.trucktrack.location.model.TruckStatus;
 import com.trucktrack.location.repository.TripRepository;
 import com.trucktrack.location.repository.TruckRepository;
 import com.trucktrack.location.service.DashboardService;
+import com.trucktrack.location.service.FleetStatusCounters;
+import com.trucktrack.location.service.RecentActivityLog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import org.springframework.data.domain.PageRequest;
-
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -46,6 +42,8 @@ public class DashboardServiceImpl implements DashboardService {
 
     private final TruckRepository truckRepository;
     private final TripRepository tripRepository;
+    private final FleetStatusCounters fleetStatusCounters;
+    private final RecentActivityLog recentActivityLog;
 
     /**
      * Parse comma-separated group UUIDs into a list.
@@ -73,30 +71,17 @@ public class DashboardServiceImpl implements DashboardService {
         List<UUID> groupIds = parseGroups(userGroups);
         log.debug("Getting KPIs for groups: {}", groupIds);
 
-        // Calculate time boundaries
-        Instant now = Instant.now();
-        Instant startOfToday = now.truncatedTo(ChronoUnit.DAYS);
-        Instant startOfYesterday = startOfToday.minus(1, ChronoUnit.DAYS);
-        Instant startOfLastMonth = startOfToday.minus(30, ChronoUnit.DAYS);
-
-        // Get truck counts
-        int totalTrucks;
-        int activeTrucks;
-        if (groupIds.isEmpty()) {
-            // No groups specified - count all trucks
-            totalTrucks = (int) truckRepository.count();
-            activeTrucks = (int) truckRepository.countByStatus(TruckStatus.ACTIVE);
-        } else {
-            // Count trucks in user's groups
-            totalTrucks = (int) truckRepository.findByAllowedGroups(groupIds,
-                PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-            activeTrucks = (int) truckRepository.findByAllowedGroupsAndStatus(groupIds,
-                TruckStatus.ACTIVE.name(), PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-        }
+        // Calculate time boundaries (UTC days, as counted in trip_daily_counts)
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        // Get truck counts (all trucks when no groups specified)
+        FleetStatusCounters.Counts counts = fleetStatusCounters.getCounts(groupIds);
+        int totalTrucks = (int) counts.total();
+        int activeTrucks = (int) counts.get(TruckStatus.ACTIVE);
 
-        // Get trips today count
-        int tripsToday = (int) tripRepository.countByCreatedAtBetween(startOfToday, now);
-        int tripsYesterday = (int) tripRepository.countByCreatedAtBetween(startOfYesterday, startOfToday);
+        // Get trips today count from the per-day counters instead of scanning trips
+        int tripsToday = (int) tripRepository.countCreatedOnDays(today, today.plusDays(1));
+        int tripsYesterday = (int) tripRepository.countCreatedOnDays(today.minusDays(1), today);
 
         // Note: Alerts count would require cross-service call to notification-service
         // For MVP, we'll use a placeholder (0) - can be enhanced later
@@ -138,35 +123,21 @@ public class DashboardServiceImpl implements DashboardService {
      * T026: Get fleet status breakdown by truck status.
      * Returns counts for Active, Idle, and Offline trucks.
      * Percentages are auto-calculated by the DTO builder.
+     * Read from the live counters, so not cached.
      */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = CacheConstants.CACHE_DASHBOARD_FLEET_STATUS, key = "#userGroups ?: 'all'")
     public FleetStatusDTO getFleetStatus(String userGroups) {
         List<UUID> groupIds = parseGroups(userGroups);
         log.debug("Getting fleet status for groups: {}", groupIds);
 
-        int active, idle, offline, total;
-
-        if (groupIds.isEmpty()) {
-            // No groups specified - count all trucks
-            active = (int) truckRepository.countByStatus(TruckStatus.ACTIVE);
-            idle = (int) truckRepository.countByStatus(TruckStatus.IDLE);
-            offline = (int) truckRepository.countByStatus(TruckStatus.OFFLINE);
-            total = (int) truckRepository.count();
-        } else {
-            // Count trucks in user's groups by status
-            active = (int) truckRepository.findByAllowedGroupsAndStatus(groupIds,
-                TruckStatus.ACTIVE.name(), PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-            idle = (int) truckRepository.findByAllowedGroupsAndStatus(groupIds,
-                TruckStatus.IDLE.name(), PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-            offline = (int) truckRepository.findByAllowedGroupsAndStatus(groupIds,
-                TruckStatus.OFFLINE.name(), PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-            total = (int) truckRepository.findByAllowedGroups(groupIds,
-                PageRequest.of(0, Integer.MAX_VALUE)).getTotalElements();
-        }
+        // All trucks when no groups specified
+        FleetStatusCounters.Counts counts = fleetStatusCounters.getCounts(groupIds);
+        int active = (int) counts.get(TruckStatus.ACTIVE);
+        int idle = (int) counts.get(TruckStatus.IDLE);
+        int offline = (int) counts.get(TruckStatus.OFFLINE);
+        int total = (int) counts.total();
 
-        log.info("Fleet status: total={}, active={}, idle={}, offline={}",
+        log.debug("Fleet status: total={}, active={}, idle={}, offline={}",
             total, active, idle, offline);
 
         // Builder auto-calculates percentages
@@ -179,110 +150,15 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     /**
-     * T034: Get recent activity feed by combining different event types.
-     * Queries: recently started trips, completed trips, and deliveries confirmed.
+     * T034: Get recent activity feed (trips started and completed, deliveries confirmed).
+     * A copy of the latest events of the in-memory activity log, so not cached.
      * Note: Alert events would require cross-service call - excluded for MVP.
      */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = CacheConstants.CACHE_DASHBOARD_ACTIVITY, key = "#userGroups ?: 'all' + ':' + #limit")
     public List<ActivityEventDTO> getRecentActivity(String userGroups, int limit) {
         List<UUID> groupIds = parseGroups(userGroups);
         log.debug("Getting recent activity for groups: {}, limit: {}", groupIds, limit);
-
-        // Limit for each query type - we'll merge and sort later
-        int queryLimit = limit * 2;
-        PageRequest pageRequest = PageRequest.of(0, queryLimit);
-
-        List<ActivityEventDTO> activities = new ArrayList<>();
-
-        // Get recently started trips -> TRIP_STARTED events
-        List<Trip> startedTrips = tripRepository.findRecentlyStartedTrips(pageRequest);
-        for (Trip trip : startedTrips) {
-            activities.add(createActivityFromTrip(trip, ActivityEventDTO.ActivityType.TRIP_STARTED, trip.getStartedAt()));
-        }
-
-        // Get recently completed trips -> TRIP_COMPLETED events
-        List<Trip> completedTrips = tripRepository.findRecentlyCompletedTrips(pageRequest);
-        for (Trip trip : completedTrips) {
-            activities.add(createActivityFromTrip(trip, ActivityEventDTO.ActivityType.TRIP_COMPLETED, trip.getCompletedAt()));
-        }
-
-        // Get trips with proof of delivery -> DELIVERY_CONFIRMED events
-        List<Trip> proofTrips = tripRepository.findTripsWithProof(pageRequest);
-        for (Trip trip : proofTrips) {
-            // Only add if not already added as TRIP_COMPLETED
-            if (!containsTripEvent(activities, trip.getId(), ActivityEventDTO.ActivityType.DELIVERY_CONFIRMED)) {
-                activities.add(createActivityFromTrip(trip, ActivityEventDTO.ActivityType.DELIVERY_CONFIRMED, trip.getCompletedAt()));
-            }
-        }
-
-        // Sort by timestamp descending and limit
-        return activities.stream()
-            .sorted((a, b) -> b.timestamp().compareTo(a.timestamp()))
-            .limit(limit)
-            .toList();
-    }
-
-    /**
-     * Create an ActivityEventDTO from a Trip entity.
-     */
-    private ActivityEventDTO createActivityFromTrip(Trip trip, ActivityEventDTO.ActivityType type, Instant timestamp) {
-        String title = switch (type) {
-            case TRIP_STARTED -> "Trip started: " + truncate(trip.getOrigin(), 30) + " → " + truncate(trip.getDestination(), 30);
-            case TRIP_COMPLETED -> "Trip completed: " + truncate(trip.getOrigin(), 30) + " → " + truncate(trip.getDestination(), 30);
-            case DELIVERY_CONFIRMED -> "Delivery confirmed at " + truncate(trip.getDestination(), 50);
-            default -> "Trip activity";
-        };
-
-        String truckId = trip.getAssignedTruckId() != null
-            ? getTruckIdentifier(trip.getAssignedTruckId())
-            : "Unassigned";
-
-        Map<String, Object> metadata = new HashMap<>();
-        metadata.put("tripId", trip.getId().toString());
-        metadata.put("origin", trip.getOrigin());
-        metadata.put("destination", trip.getDestination());
-        if (trip.getAssignedDriverId() != null) {
-            metadata.put("driverId", trip.getAssignedDriverId().toString());
-        }
-
-        return ActivityEventDTO.builder()
-            .id(UUID.randomUUID())
-            .type(type)
-            .title(title)
-            .truckId(truckId)
-            .timestamp(timestamp != null ? timestamp : trip.getUpdatedAt())
-            .metadata(metadata)
-            .build();
-    }
-
-    /**
-     * Get truck identifier (license plate or truckId) for display.
-     */
-    private String getTruckIdentifier(UUID truckId) {
-        return truckRepository.findById(truckId)
-            .map(truck -> truck.getLicensePlate() != null ? truck.getLicensePlate() : truck.getTruckId())
-            .orElse("TRK-" + truckId.toString().substring(0, 8));
-    }
-
-    /**
-     * Truncate string for display.
-     */
-    private String truncate(String text, int maxLength) {
-        if (text == null) return "";
-        return text.length() > maxLength ? text.substring(0, maxLength - 3) + "..." : text;
-    }
-
-    /**
-     * Check if activities list already contains an event for the given trip and type.
-     */
-    private boolean containsTripEvent(List<ActivityEventDTO> activities, UUID tripId, ActivityEventDTO.ActivityType type) {
-        String tripIdStr = tripId.toString();
-        return activities.stream()
-            .anyMatch(a -> a.type() == type &&
-                         a.metadata() != null &&
-                         tripIdStr.equals(a.metadata().get("tripId")));
+        return recentActivityLog.getRecent(groupIds, limit);
     }
 
     /**
@@ -292,7 +168,7 @@ public class DashboardServiceImpl implements DashboardService {
      */
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConstants.CACHE_DASHBOARD_PERFORMANCE, key = "#userGroups ?: 'all' + ':' + #period")
+    @Cacheable(value = CacheConstants.CACHE_DASHBOARD_PERFORMANCE, key = "(#userGroups ?: 'all') + ':' + #period")
     public PerformanceMetricsDTO getPerformanceMetrics(String userGroups, String period) {
         List<UUID> groupIds = parseGroups(userGroups);
         log.debug("Getting performance metrics for groups: {}, period: {}", groupIds, period);
@@ -309,7 +185,7 @@ public class DashboardServiceImpl implements DashboardService {
         // Calculate trip completion rate
         // Completed trips / (Completed + Cancelled trips)
         long completedTrips = tripRepository.countCompletedBetween(startInstant, endInstant);
-        long totalCreated = tripRepository.countByCreatedAtBetween(startInstant, endInstant);
+        long totalCreated = tripRepository.countCreatedOnDays(periodStart, now.plusDays(1));
         double tripCompletionRate = totalCreated > 0
             ? (completedTrips * 100.0) / totalCreated
             : 0.0;
@@ -0,0 +1,40 @@
+package com.trucktrack.location.websocket;
+
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP WebSocket handler that hands the send buffer of every session to the
+ * {@link OutboundBackpressureInterceptor}, so the overflow policy is applied to the bytes
+ * actually waiting for a slow client rather than to the outbound executor alone.
+ */
+public class BackpressureSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+    private final OutboundBackpressureInterceptor backpressureInterceptor;
+
+    public BackpressureSubProtocolWebSocketHandler(MessageChannel clientInboundChannel,
+                                                   SubscribableChannel clientOutboundChannel,
+                                                   OutboundBackpressureInterceptor backpressureInterceptor) {
+        super(clientInboundChannel, clientOutboundChannel);
+        this.backpressureInterceptor = backpressureInterceptor;
+    }
+
+    @Override
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+        ConcurrentWebSocketSessionDecorator decorator = new ConcurrentWebSocketSessionDecorator(
+                session, getSendTimeLimit(), getSendBufferSizeLimit(),
+                backpressureInterceptor.getBufferOverflowStrategy());
+        backpressureInterceptor.register(decorator);
+        return decorator;
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        backpressureInterceptor.unregister(session.getId());
+        super.afterConnectionClosed(session, closeStatus);
+    }
+}
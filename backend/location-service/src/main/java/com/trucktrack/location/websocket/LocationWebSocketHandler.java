@@ -1,10 +1,15 @@
 package com.trucktrack.location.websocket;
 
-import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.location.service.EncodedPosition;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
 
 import java.util.UUID;
 
@@ -15,6 +20,9 @@ import java.util.UUID;
  * Broadcasts GPS position updates to:
  * - /topic/positions - All position updates (for general map view)
  * - /topic/truck/{truckId} - Specific truck updates (for truck detail view)
+ * Position updates carry a conflation key (the truck ID) so slow clients only
+ * receive the latest queued position per truck, see {@link OutboundBackpressureInterceptor}.
+ * Positions arrive already encoded ({@link EncodedPosition}) and are sent as raw JSON bytes.
  * Refactored with Lombok best practices
  */
 @Slf4j
@@ -28,10 +36,10 @@ public class LocationWebSocketHandler {
      * Broadcast GPS position update to all connected clients
      * Sends to /topic/positions
      */
-    public void broadcastPositionUpdate(GPSPositionEvent position) {
+    public void broadcastPositionUpdate(EncodedPosition position) {
         try {
-            log.debug("Broadcasting position update for truck: {}", position.getTruckId());
-            messagingTemplate.convertAndSend("/topic/positions", position);
+            log.debug("Broadcasting position update for truck: {}", position.truckId());
+            messagingTemplate.send("/topic/positions", toMessage(position));
         } catch (Exception e) {
             log.error("Failed to broadcast position update: {}", e.getMessage(), e);
             // Don't throw - WebSocket broadcast failure shouldn't break processing
@@ -42,11 +50,11 @@ public class LocationWebSocketHandler {
      * Send GPS position update to subscribers of a specific truck
      * Sends to /topic/truck/{truckId}
      */
-    public void sendTruckPositionUpdate(UUID truckId, GPSPositionEvent position) {
+    public void sendTruckPositionUpdate(UUID truckId, EncodedPosition position) {
         try {
             String destination = "/topic/truck/" + truckId;
             log.debug("Sending position update to {}", destination);
-            messagingTemplate.convertAndSend(destination, position);
+            messagingTemplate.send(destination, toMessage(position));
         } catch (Exception e) {
             log.error("Failed to send truck-specific position update: {}", e.getMessage(), e);
         }
@@ -55,8 +63,8 @@ public class LocationWebSocketHandler {
     /**
      * Send position update to both broadcast and truck-specific channels
      */
-    public void sendPositionUpdate(GPSPositionEvent position) {
-        UUID truckId = UUID.fromString(position.getTruckId());
+    public void sendPositionUpdate(EncodedPosition position) {
+        UUID truckId = UUID.fromString(position.truckId());
 
         // Broadcast to all subscribers
         broadcastPositionUpdate(position);
@@ -79,6 +87,18 @@ public class LocationWebSocketHandler {
         }
     }
 
+    /**
+     * Wrap the already encoded JSON in a STOMP message (no converter, no re-serialization).
+     * A new message per destination, the payload bytes are shared.
+     */
+    private Message<byte[]> toMessage(EncodedPosition position) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader(OutboundBackpressureInterceptor.CONFLATION_KEY_HEADER, position.truckId());
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(position.json(), accessor.getMessageHeaders());
+    }
+
     /**
      * Event class for status changes
      * Refactored with Lombok
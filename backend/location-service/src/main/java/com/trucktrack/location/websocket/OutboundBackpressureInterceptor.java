@@ -0,0 +1,349 @@
+package com.trucktrack.location.websocket;
+
+import com.trucktrack.location.config.WebSocketOutboundProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the outbound queue of every WebSocket session and applies the configured
+ * {@link OutboundOverflowPolicy} when a client cannot keep up.
+ *
+ * Two backlogs are watched:
+ * - the outbound channel executor, counted in {@code preSend} and released once handled
+ *   (bounded by {@code maxQueuedMessagesPerSession});
+ * - the send buffer of the session's {@link ConcurrentWebSocketSessionDecorator}, where
+ *   frames pile up while the client is not reading (bounded by {@code bufferSoftLimit}).
+ *   Above the soft limit CONFLATE parks the latest frame per key until the buffer drains,
+ *   DISCONNECT closes the session, and DROP_OLDEST leaves the decorator dropping its oldest
+ *   frames at the hard {@code sendBufferSizeLimit}.
+ *
+ * Sessions are registered by {@link BackpressureSubProtocolWebSocketHandler}, which creates
+ * their decorator.
+ *
+ * Metrics:
+ * - websocket.outbound.sessions - tracked sessions
+ * - websocket.outbound.queue.depth - per-session queue depth, sampled on each enqueue
+ * - websocket.outbound.queue.depth.max / .total - current max and total across sessions
+ * - websocket.outbound.buffer.bytes.max - largest send buffer across sessions
+ * - websocket.outbound.dropped{reason=oldest|conflated} - messages not delivered
+ * - websocket.outbound.evictions - sessions closed for being too slow
+ */
+@Slf4j
+@Component
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor {
+
+    /**
+     * Native header set by publishers on messages that may be conflated (e.g. the truck ID
+     * of a position update). Only the latest queued message per key is delivered.
+     * Moved to an internal header on enqueue, so it never reaches the client.
+     */
+    public static final String CONFLATION_KEY_HEADER = "conflation-key";
+
+    private static final String CONFLATION_KEY = "outboundConflationKey";
+    private static final String SEQUENCE_HEADER = "outboundSequence";
+
+    private final WebSocketOutboundProperties properties;
+    private final Map<String, SessionQueue> sessions = new ConcurrentHashMap<>();
+
+    /** Outbound channel, to re-send parked messages. */
+    private volatile MessageChannel outboundChannel;
+
+    private final DistributionSummary queueDepth;
+    private final Counter droppedOldest;
+    private final Counter droppedConflated;
+    private final Counter evictions;
+
+    public OutboundBackpressureInterceptor(WebSocketOutboundProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        this.queueDepth = DistributionSummary.builder("websocket.outbound.queue.depth")
+                .description("Outbound queue depth of a session, sampled on each enqueue")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.droppedOldest = Counter.builder("websocket.outbound.dropped")
+                .tag("reason", "oldest")
+                .register(meterRegistry);
+        this.droppedConflated = Counter.builder("websocket.outbound.dropped")
+                .tag("reason", "conflated")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("websocket.outbound.evictions")
+                .description("Sessions closed because their outbound queue overflowed")
+                .register(meterRegistry);
+
+        Gauge.builder("websocket.outbound.sessions", sessions, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.queue.depth.max", this, OutboundBackpressureInterceptor::getMaxQueueDepth)
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.queue.depth.total", this, OutboundBackpressureInterceptor::getTotalQueueDepth)
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.buffer.bytes.max", this, OutboundBackpressureInterceptor::getMaxBufferSize)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // ---- Outbound channel ----
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SessionQueue queue = queueFor(message);
+        if (queue == null) {
+            return message;
+        }
+        outboundChannel = channel;
+
+        long sequence = queue.sequence.incrementAndGet();
+        int depth = queue.depth.incrementAndGet();
+        queueDepth.record(depth);
+
+        String conflationKey = conflationKey(message);
+        if (conflationKey != null) {
+            queue.latestByKey.put(conflationKey, sequence);
+        }
+
+        if (depth > properties.getMaxQueuedMessagesPerSession()) {
+            if (properties.getOverflowPolicy() == OutboundOverflowPolicy.DISCONNECT) {
+                queue.depth.decrementAndGet();
+                evict(queue, depth + " messages queued");
+                return null;
+            }
+            // Everything older than the newest N messages is skipped when it reaches the executor
+            long keepFrom = sequence - properties.getMaxQueuedMessagesPerSession() + 1;
+            queue.dropBelow.accumulateAndGet(keepFrom, Math::max);
+        }
+
+        // Copy of the headers: native headers may be shared with the other subscribers' messages
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setHeader(SEQUENCE_HEADER, sequence);
+        if (conflationKey != null) {
+            accessor.removeNativeHeader(CONFLATION_KEY_HEADER);
+            accessor.setHeader(CONFLATION_KEY, conflationKey);
+        }
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // Rejected by the outbound executor: the message never reached the queue
+        if (ex != null) {
+            release(message);
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Long sequence = message.getHeaders().get(SEQUENCE_HEADER, Long.class);
+        if (sequence == null) {
+            return message;
+        }
+        SessionQueue queue = sessions.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        if (queue == null) {
+            return message;
+        }
+
+        if (sequence < queue.dropBelow.get()) {
+            queue.depth.decrementAndGet();
+            droppedOldest.increment();
+            return null;
+        }
+
+        OutboundOverflowPolicy policy = properties.getOverflowPolicy();
+        String conflationKey = conflationKey(message);
+        if (policy == OutboundOverflowPolicy.CONFLATE && conflationKey != null) {
+            Long latest = queue.latestByKey.get(conflationKey);
+            if (latest != null && latest > sequence) {
+                // A newer update for the same key is already queued
+                queue.depth.decrementAndGet();
+                droppedConflated.increment();
+                return null;
+            }
+            if (queue.parked.remove(conflationKey) != null) {
+                droppedConflated.increment(); // Superseded by this one
+            }
+        }
+
+        int buffered = queue.session.getBufferSize();
+        if (buffered <= properties.getBufferSoftLimit().toBytes()) {
+            return message;
+        }
+        if (policy == OutboundOverflowPolicy.DISCONNECT) {
+            release(message);
+            evict(queue, buffered + " bytes buffered");
+            return null;
+        }
+        if (policy == OutboundOverflowPolicy.CONFLATE && conflationKey != null) {
+            // Client is not reading: hold the latest frame per key until the buffer drains
+            release(message);
+            if (queue.parked.put(conflationKey, message) != null) {
+                droppedConflated.increment();
+            }
+            return null;
+        }
+        // DROP_OLDEST: the decorator drops its oldest frames at the hard limit
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        release(message);
+    }
+
+    /**
+     * Re-sends parked messages of the sessions whose send buffer is back under the soft limit.
+     */
+    @Scheduled(fixedDelayString = "${websocket.outbound.parked-flush-interval-ms:100}")
+    public void flushParked() {
+        MessageChannel channel = outboundChannel;
+        if (channel == null) {
+            return;
+        }
+        for (SessionQueue queue : sessions.values()) {
+            if (queue.parked.isEmpty() || queue.session.getBufferSize() > properties.getBufferSoftLimit().toBytes()) {
+                continue;
+            }
+            for (String conflationKey : queue.parked.keySet()) {
+                Message<?> parked = queue.parked.remove(conflationKey);
+                if (parked != null) {
+                    channel.send(parked);
+                }
+            }
+        }
+    }
+
+    // ---- Session tracking ----
+
+    /**
+     * Buffer overflow strategy for new session decorators: DISCONNECT closes the session at
+     * the hard buffer limit, the other policies drop the oldest buffered frames.
+     */
+    public OverflowStrategy getBufferOverflowStrategy() {
+        return properties.getOverflowPolicy() == OutboundOverflowPolicy.DISCONNECT
+                ? OverflowStrategy.TERMINATE
+                : OverflowStrategy.DROP;
+    }
+
+    public void register(ConcurrentWebSocketSessionDecorator session) {
+        sessions.put(session.getId(), new SessionQueue(session));
+    }
+
+    public void unregister(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /**
+     * Current number of queued outbound messages for a session (0 if unknown).
+     */
+    public int getQueueDepth(String sessionId) {
+        SessionQueue queue = sessions.get(sessionId);
+        return queue != null ? queue.depth.get() : 0;
+    }
+
+    public int getMaxQueueDepth() {
+        int max = 0;
+        for (SessionQueue queue : sessions.values()) {
+            max = Math.max(max, queue.depth.get());
+        }
+        return max;
+    }
+
+    public long getTotalQueueDepth() {
+        long total = 0;
+        for (SessionQueue queue : sessions.values()) {
+            total += queue.depth.get();
+        }
+        return total;
+    }
+
+    public int getMaxBufferSize() {
+        int max = 0;
+        for (SessionQueue queue : sessions.values()) {
+            max = Math.max(max, queue.session.getBufferSize());
+        }
+        return max;
+    }
+
+    private SessionQueue queueFor(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return null; // Never throttle protocol frames (CONNECTED, RECEIPT, ERROR, heartbeats)
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    private void release(Message<?> message) {
+        Long sequence = message.getHeaders().get(SEQUENCE_HEADER, Long.class);
+        if (sequence == null) {
+            return;
+        }
+        SessionQueue queue = sessions.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        if (queue == null) {
+            return;
+        }
+        queue.depth.decrementAndGet();
+        String conflationKey = conflationKey(message);
+        if (conflationKey != null) {
+            queue.latestByKey.remove(conflationKey, sequence);
+        }
+    }
+
+    private String conflationKey(Message<?> message) {
+        String conflationKey = message.getHeaders().get(CONFLATION_KEY, String.class);
+        if (conflationKey != null) {
+            return conflationKey;
+        }
+        SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        return accessor != null ? accessor.getFirstNativeHeader(CONFLATION_KEY_HEADER) : null;
+    }
+
+    private void evict(SessionQueue queue, String backlog) {
+        if (!queue.evicted.compareAndSet(false, true)) {
+            return;
+        }
+        evictions.increment();
+        log.warn("Evicting slow WebSocket session {} - {}", queue.session.getId(), backlog);
+        try {
+            queue.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Failed to close slow WebSocket session {}: {}", queue.session.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Outbound queue state of one session.
+     */
+    private static final class SessionQueue {
+        private final ConcurrentWebSocketSessionDecorator session;
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicLong dropBelow = new AtomicLong();
+        private final AtomicBoolean evicted = new AtomicBoolean();
+        private final Map<String, Long> latestByKey = new ConcurrentHashMap<>();
+        private final Map<String, Message<?>> parked = new ConcurrentHashMap<>();
+
+        private SessionQueue(ConcurrentWebSocketSessionDecorator session) {
+            this.session = session;
+        }
+    }
+}
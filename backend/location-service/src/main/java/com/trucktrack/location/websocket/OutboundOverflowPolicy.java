@@ -0,0 +1,23 @@
+package com.trucktrack.location.websocket;
+
+/**
+ * Policy applied when a WebSocket session has more outbound messages
+ * queued than allowed.
+ */
+public enum OutboundOverflowPolicy {
+    /**
+     * Discard the oldest queued messages, keep the most recent ones.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Only deliver the latest queued message per conflation key (e.g. per truck),
+     * then fall back to DROP_OLDEST if the queue is still over the limit.
+     */
+    CONFLATE,
+
+    /**
+     * Close the session; the client is expected to reconnect and resubscribe.
+     */
+    DISCONNECT
+}
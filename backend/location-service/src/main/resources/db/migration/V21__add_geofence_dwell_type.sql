@@ -0,0 +1,12 @@
+-- Geofence dwell alerts: notify when a truck stays inside a geofence longer than the rule threshold
+-- threshold_value holds the dwell time in minutes
+
+ALTER TYPE alert_rule_type ADD VALUE IF NOT EXISTS 'GEOFENCE_DWELL';
+ALTER TYPE notification_type ADD VALUE IF NOT EXISTS 'GEOFENCE_DWELL';
+
+-- Dwell rules need a geofence too. Compare as text: a new enum value cannot be used
+-- in the transaction that added it.
+ALTER TABLE alert_rules DROP CONSTRAINT IF EXISTS check_geofence_rules;
+ALTER TABLE alert_rules ADD CONSTRAINT check_geofence_rules CHECK (
+    rule_type::text NOT IN ('GEOFENCE_ENTER', 'GEOFENCE_EXIT', 'GEOFENCE_DWELL') OR geofence_id IS NOT NULL
+);
@@ -0,0 +1,15 @@
+-- Composite alert rules: a condition expression evaluated over a sliding per-truck window,
+-- e.g. 'speed > 90 AND inside RESTRICTED_ZONE FOR 30s' or 'COUNT(decel >= 12) >= 3 WITHIN 5m'
+
+ALTER TYPE alert_rule_type ADD VALUE IF NOT EXISTS 'COMPOSITE';
+ALTER TYPE notification_type ADD VALUE IF NOT EXISTS 'COMPOSITE';
+
+ALTER TABLE alert_rules ADD COLUMN IF NOT EXISTS condition_expression TEXT;
+
+-- Compare as text: a new enum value cannot be used in the transaction that added it
+ALTER TABLE alert_rules DROP CONSTRAINT IF EXISTS check_composite_rules;
+ALTER TABLE alert_rules ADD CONSTRAINT check_composite_rules CHECK (
+    rule_type::text <> 'COMPOSITE' OR condition_expression IS NOT NULL
+);
+
+COMMENT ON COLUMN alert_rules.condition_expression IS 'Condition of COMPOSITE rules, compiled by notification-service';
@@ -0,0 +1,111 @@
+-- Fleet Analytics - Incremental Daily Truck Metrics
+-- Version: 23
+-- Created: 2026-10-18
+-- Feature: 006-fleet-analytics
+-- Description: Replace the daily_truck_metrics materialized view with a table maintained
+--              incrementally by location-service (each GPS point is folded into the row of
+--              its truck and day), instead of recomputing the whole gps_positions history
+--              on every refresh.
+
+-- ====================
+-- DROP MATERIALIZED VIEW
+-- ====================
+
+DROP FUNCTION IF EXISTS refresh_daily_truck_metrics();
+DROP MATERIALIZED VIEW IF EXISTS daily_truck_metrics;
+
+-- ====================
+-- TABLE
+-- ====================
+
+-- Running aggregates per truck and day. Same columns as the former view, so analytics
+-- queries are unchanged; minutes and average speed are derived from exact sums.
+CREATE TABLE daily_truck_metrics (
+    truck_id UUID NOT NULL,
+    day DATE NOT NULL,
+    total_distance_km DOUBLE PRECISION NOT NULL DEFAULT 0,
+    driving_seconds DOUBLE PRECISION NOT NULL DEFAULT 0,
+    idle_seconds DOUBLE PRECISION NOT NULL DEFAULT 0,
+    max_speed DOUBLE PRECISION NOT NULL DEFAULT 0,
+    speed_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    speed_samples BIGINT NOT NULL DEFAULT 0,
+    position_count BIGINT NOT NULL DEFAULT 0,
+    -- Last point folded in, start of the next segment
+    last_timestamp TIMESTAMP NOT NULL,
+    last_latitude DOUBLE PRECISION,
+    last_longitude DOUBLE PRECISION,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    driving_minutes INTEGER GENERATED ALWAYS AS (ROUND(driving_seconds / 60.0)::INTEGER) STORED,
+    idle_minutes INTEGER GENERATED ALWAYS AS (ROUND(idle_seconds / 60.0)::INTEGER) STORED,
+    avg_speed DOUBLE PRECISION GENERATED ALWAYS AS (
+        CASE WHEN speed_samples > 0 THEN speed_sum / speed_samples ELSE 0 END
+    ) STORED,
+    PRIMARY KEY (truck_id, day)
+);
+
+-- Index for date-range queries across all trucks (truck lookups use the primary key)
+CREATE INDEX idx_daily_metrics_day ON daily_truck_metrics(day);
+
+-- ====================
+-- BACKFILL
+-- ====================
+
+-- One last full pass over the history, with the same rules as the former view
+INSERT INTO daily_truck_metrics (
+    truck_id, day, total_distance_km, driving_seconds, idle_seconds, max_speed,
+    speed_sum, speed_samples, position_count, last_timestamp, last_latitude, last_longitude
+)
+WITH daily_positions AS (
+    SELECT
+        truck_id,
+        DATE(timestamp) AS day,
+        timestamp,
+        latitude,
+        longitude,
+        speed,
+        LAG(latitude) OVER (PARTITION BY truck_id, DATE(timestamp) ORDER BY timestamp) AS prev_lat,
+        LAG(longitude) OVER (PARTITION BY truck_id, DATE(timestamp) ORDER BY timestamp) AS prev_lng,
+        LAG(timestamp) OVER (PARTITION BY truck_id, DATE(timestamp) ORDER BY timestamp) AS prev_timestamp
+    FROM gps_positions
+)
+SELECT
+    truck_id,
+    day,
+    COALESCE(SUM(
+        CASE
+            WHEN prev_lat IS NOT NULL AND prev_lng IS NOT NULL THEN
+                ST_DistanceSphere(ST_MakePoint(prev_lng, prev_lat), ST_MakePoint(longitude, latitude)) / 1000.0
+            ELSE 0
+        END
+    ), 0),
+    COALESCE(SUM(
+        CASE
+            WHEN speed > 0 AND prev_timestamp IS NOT NULL THEN EXTRACT(EPOCH FROM (timestamp - prev_timestamp))
+            ELSE 0
+        END
+    ), 0),
+    COALESCE(SUM(
+        CASE
+            WHEN speed = 0 AND prev_timestamp IS NOT NULL THEN EXTRACT(EPOCH FROM (timestamp - prev_timestamp))
+            ELSE 0
+        END
+    ), 0),
+    COALESCE(MAX(speed), 0),
+    COALESCE(SUM(speed) FILTER (WHERE speed > 0), 0),
+    COUNT(*) FILTER (WHERE speed > 0),
+    COUNT(*),
+    MAX(timestamp),
+    (ARRAY_AGG(latitude ORDER BY timestamp DESC))[1],
+    (ARRAY_AGG(longitude ORDER BY timestamp DESC))[1]
+FROM daily_positions
+GROUP BY truck_id, day;
+
+-- ====================
+-- COMMENTS
+-- ====================
+
+COMMENT ON TABLE daily_truck_metrics IS 'Daily aggregates for fleet analytics dashboard, updated incrementally by location-service. Closed days are not modified.';
+COMMENT ON COLUMN daily_truck_metrics.total_distance_km IS 'Total distance traveled in kilometers using Haversine formula';
+COMMENT ON COLUMN daily_truck_metrics.driving_seconds IS 'Total seconds with speed > 0';
+COMMENT ON COLUMN daily_truck_metrics.idle_seconds IS 'Total seconds with speed = 0';
+COMMENT ON COLUMN daily_truck_metrics.last_timestamp IS 'Timestamp of the last point folded in; the next point extends the day from it';
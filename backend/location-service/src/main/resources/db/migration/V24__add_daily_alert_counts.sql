@@ -0,0 +1,79 @@
+-- Fleet Analytics - Pre-aggregated Daily Alert Counts
+-- Version: 24
+-- Created: 2026-10-19
+-- Feature: 006-fleet-analytics
+-- Description: Replace the daily_alert_counts view (a GROUP BY over notifications on
+--              DATE(triggered_at), which no index can serve) with a table kept up to date by
+--              a trigger on notifications, so analytics read a few rows per truck and day.
+
+-- ====================
+-- DROP VIEW
+-- ====================
+
+DROP VIEW IF EXISTS daily_alert_counts;
+
+-- ====================
+-- TABLE
+-- ====================
+
+CREATE TABLE daily_alert_counts (
+    truck_id UUID NOT NULL,
+    day DATE NOT NULL,
+    alert_type VARCHAR(50) NOT NULL,
+    alert_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (truck_id, day, alert_type)
+);
+
+-- Index for date-range queries across all trucks (truck lookups use the primary key)
+CREATE INDEX idx_daily_alert_counts_day ON daily_alert_counts(day);
+
+-- ====================
+-- TRIGGER
+-- ====================
+
+CREATE OR REPLACE FUNCTION count_daily_alert()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        UPDATE daily_alert_counts
+        SET alert_count = alert_count - 1
+        WHERE truck_id = OLD.truck_id
+          AND day = DATE(OLD.triggered_at)
+          AND alert_type = OLD.notification_type::TEXT;
+
+        DELETE FROM daily_alert_counts
+        WHERE truck_id = OLD.truck_id
+          AND day = DATE(OLD.triggered_at)
+          AND alert_type = OLD.notification_type::TEXT
+          AND alert_count <= 0;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO daily_alert_counts (truck_id, day, alert_type, alert_count)
+        VALUES (NEW.truck_id, DATE(NEW.triggered_at), NEW.notification_type::TEXT, 1)
+        ON CONFLICT (truck_id, day, alert_type)
+        DO UPDATE SET alert_count = daily_alert_counts.alert_count + 1;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_notifications_daily_alert_counts
+    AFTER INSERT OR DELETE OR UPDATE OF truck_id, triggered_at, notification_type ON notifications
+    FOR EACH ROW EXECUTE FUNCTION count_daily_alert();
+
+-- ====================
+-- BACKFILL
+-- ====================
+
+INSERT INTO daily_alert_counts (truck_id, day, alert_type, alert_count)
+SELECT truck_id, DATE(triggered_at), notification_type::TEXT, COUNT(*)
+FROM notifications
+GROUP BY truck_id, DATE(triggered_at), notification_type;
+
+-- ====================
+-- COMMENTS
+-- ====================
+
+COMMENT ON TABLE daily_alert_counts IS 'Notification counts by truck, day and type, maintained by trigger on notifications';
@@ -0,0 +1,35 @@
+-- Fleet Analytics - Track Changes of Daily Alert Counts
+-- Version: 25
+-- Created: 2026-10-19
+-- Feature: 006-fleet-analytics
+-- Description: Stamp daily_alert_counts rows with their last change, like daily_truck_metrics,
+--              so location-service picks up changed rows incrementally. Rows dropping to zero
+--              are kept (with the new stamp) instead of deleted, so the decrement is seen too.
+
+ALTER TABLE daily_alert_counts ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+
+CREATE OR REPLACE FUNCTION count_daily_alert()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        UPDATE daily_alert_counts
+        SET alert_count = GREATEST(alert_count - 1, 0),
+            updated_at = NOW()
+        WHERE truck_id = OLD.truck_id
+          AND day = DATE(OLD.triggered_at)
+          AND alert_type = OLD.notification_type::TEXT;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO daily_alert_counts (truck_id, day, alert_type, alert_count)
+        VALUES (NEW.truck_id, DATE(NEW.triggered_at), NEW.notification_type::TEXT, 1)
+        ON CONFLICT (truck_id, day, alert_type)
+        DO UPDATE SET alert_count = daily_alert_counts.alert_count + 1,
+                      updated_at = NOW();
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON COLUMN daily_alert_counts.updated_at IS 'Last change of the row; rows at zero are kept so the change is visible';
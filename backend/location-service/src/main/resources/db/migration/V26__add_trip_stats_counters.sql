@@ -0,0 +1,109 @@
+-- Trip Management - Pre-aggregated Trip Statistics
+-- Version: 26
+-- Created: 2026-10-19
+-- Feature: 010-trip-management
+-- Description: Trip counts per status (with the completed durations) and per creation day,
+--              kept up to date by a trigger on trips, so trip statistics and analytics read
+--              a handful of rows instead of counting the trips table on every call.
+
+-- ====================
+-- TABLES
+-- ====================
+
+CREATE TABLE trip_status_counts (
+    status VARCHAR(20) PRIMARY KEY,
+    trip_count BIGINT NOT NULL DEFAULT 0,
+    -- Trips of the status with both started_at and completed_at, and their total duration
+    timed_count BIGINT NOT NULL DEFAULT 0,
+    duration_minutes_sum DOUBLE PRECISION NOT NULL DEFAULT 0
+);
+
+CREATE TABLE trip_daily_counts (
+    day DATE PRIMARY KEY,
+    created_count BIGINT NOT NULL DEFAULT 0
+);
+
+-- One row per status, so the trigger only updates
+INSERT INTO trip_status_counts (status)
+VALUES ('PENDING'), ('ASSIGNED'), ('IN_PROGRESS'), ('COMPLETED'), ('CANCELLED');
+
+-- ====================
+-- TRIGGER
+-- ====================
+
+CREATE OR REPLACE FUNCTION count_trip_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE'
+        OR (TG_OP = 'UPDATE' AND (OLD.status, OLD.started_at, OLD.completed_at)
+                IS DISTINCT FROM (NEW.status, NEW.started_at, NEW.completed_at)) THEN
+        UPDATE trip_status_counts
+        SET trip_count = trip_count - 1,
+            timed_count = timed_count - (OLD.started_at IS NOT NULL AND OLD.completed_at IS NOT NULL)::INT,
+            duration_minutes_sum = duration_minutes_sum
+                - COALESCE(EXTRACT(EPOCH FROM (OLD.completed_at - OLD.started_at)) / 60, 0)
+        WHERE status = OLD.status;
+    END IF;
+
+    IF TG_OP = 'INSERT'
+        OR (TG_OP = 'UPDATE' AND (OLD.status, OLD.started_at, OLD.completed_at)
+                IS DISTINCT FROM (NEW.status, NEW.started_at, NEW.completed_at)) THEN
+        UPDATE trip_status_counts
+        SET trip_count = trip_count + 1,
+            timed_count = timed_count + (NEW.started_at IS NOT NULL AND NEW.completed_at IS NOT NULL)::INT,
+            duration_minutes_sum = duration_minutes_sum
+                + COALESCE(EXTRACT(EPOCH FROM (NEW.completed_at - NEW.started_at)) / 60, 0)
+        WHERE status = NEW.status;
+    END IF;
+
+    -- Days are UTC, like the day boundaries of the trip analytics
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.created_at IS DISTINCT FROM NEW.created_at) THEN
+        UPDATE trip_daily_counts
+        SET created_count = created_count - 1
+        WHERE day = (OLD.created_at AT TIME ZONE 'UTC')::DATE;
+    END IF;
+
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND OLD.created_at IS DISTINCT FROM NEW.created_at) THEN
+        INSERT INTO trip_daily_counts (day, created_count)
+        VALUES ((NEW.created_at AT TIME ZONE 'UTC')::DATE, 1)
+        ON CONFLICT (day)
+        DO UPDATE SET created_count = trip_daily_counts.created_count + 1;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_trips_stats
+    AFTER INSERT OR DELETE OR UPDATE OF status, started_at, completed_at, created_at ON trips
+    FOR EACH ROW EXECUTE FUNCTION count_trip_stats();
+
+-- ====================
+-- BACKFILL
+-- ====================
+
+UPDATE trip_status_counts c
+SET trip_count = s.trip_count,
+    timed_count = s.timed_count,
+    duration_minutes_sum = s.duration_minutes_sum
+FROM (
+    SELECT status,
+           COUNT(*) AS trip_count,
+           COUNT(*) FILTER (WHERE started_at IS NOT NULL AND completed_at IS NOT NULL) AS timed_count,
+           COALESCE(SUM(EXTRACT(EPOCH FROM (completed_at - started_at)) / 60), 0) AS duration_minutes_sum
+    FROM trips
+    GROUP BY status
+) s
+WHERE c.status = s.status;
+
+INSERT INTO trip_daily_counts (day, created_count)
+SELECT (created_at AT TIME ZONE 'UTC')::DATE, COUNT(*)
+FROM trips
+GROUP BY (created_at AT TIME ZONE 'UTC')::DATE;
+
+-- ====================
+-- COMMENTS
+-- ====================
+
+COMMENT ON TABLE trip_status_counts IS 'Trip counts and completed durations by status, maintained by trigger on trips';
+COMMENT ON TABLE trip_daily_counts IS 'Trips created per UTC day, maintained by trigger on trips';
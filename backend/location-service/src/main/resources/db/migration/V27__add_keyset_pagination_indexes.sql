@@ -0,0 +1,21 @@
+-- Keyset Pagination Indexes
+-- Version: 27
+-- Created: 2026-10-19
+-- Description: Indexes matching the (timestamp, id) order of the cursor-paginated listings,
+--              so a page is a short index range scan starting at the cursor, whatever its depth.
+--              Each replaces an index that is a prefix of it.
+
+-- Audit logs of an entity
+CREATE INDEX idx_audit_logs_entity_time ON audit_logs(entity_type, entity_id, timestamp DESC, id DESC);
+DROP INDEX IF EXISTS idx_audit_logs_entity;
+
+-- Notifications of a user
+CREATE INDEX idx_notifications_user_time ON notifications(user_id, triggered_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_notifications_user;
+
+-- Trips, newest first
+CREATE INDEX idx_trips_created_id ON trips(created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_trips_created;
+
+-- gps_positions keeps idx_gps_positions_truck_time and idx_gps_positions_timestamp:
+-- rows sharing a timestamp are rare, so the id tie-break is filtered, not indexed.
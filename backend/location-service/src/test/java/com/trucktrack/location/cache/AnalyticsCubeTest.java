@@ -0,0 +1,245 @@
+package com.trucktrack.location.cache;
+
+import com.trucktrack.location.dto.EntityInfo.EntityType;
+import com.trucktrack.location.dto.TruckRankingResponse.RankingMetric;
+import com.trucktrack.location.repository.AnalyticsRepository;
+import com.trucktrack.location.repository.AnalyticsRepository.DailyAlertCountRow;
+import com.trucktrack.location.repository.AnalyticsRepository.DailyMetricsRow;
+import com.trucktrack.location.repository.AnalyticsRepository.TruckLabel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AnalyticsCube - in-memory slices and rankings of the daily truck metrics.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AnalyticsCube")
+class AnalyticsCubeTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    @Mock
+    private AnalyticsRepository analyticsRepository;
+
+    @Mock
+    private TruckGroupMembershipCache membershipCache;
+
+    private AnalyticsCube cube;
+    private UUID groupA;
+    private UUID groupB;
+    private UUID truck1;
+    private UUID truck2;
+    private UUID truck3;
+    private final List<TruckLabel> trucks = new ArrayList<>();
+    private final List<DailyMetricsRow> metrics = new ArrayList<>();
+    private final List<DailyAlertCountRow> alerts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cube = new AnalyticsCube(analyticsRepository, membershipCache, 30,
+                Clock.fixed(Instant.parse("2026-03-10T12:00:00Z"), ZoneOffset.UTC));
+        groupA = UUID.randomUUID();
+        groupB = UUID.randomUUID();
+        truck1 = UUID.randomUUID();
+        truck2 = UUID.randomUUID();
+        truck3 = UUID.randomUUID();
+
+        // truck1 in both groups, truck2 in A, truck3 in B
+        truck(truck1, "TRK-001", Set.of(groupA, groupB));
+        truck(truck2, "TRK-002", Set.of(groupA));
+        truck(truck3, "TRK-003", Set.of(groupB));
+        stubRepository();
+    }
+
+    private void truck(UUID truckId, String name, Set<UUID> groups) {
+        trucks.add(new TruckLabel(truckId, name, "PL-" + name, UPDATED));
+        lenient().when(membershipCache.getGroups(truckId)).thenReturn(groups);
+    }
+
+    private void metrics(UUID truckId, LocalDate day, double distanceKm, int drivingMinutes, double avgSpeed) {
+        metrics.add(new DailyMetricsRow(truckId, day, distanceKm, drivingMinutes, 10, avgSpeed * 1.5, avgSpeed, UPDATED));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRepository() {
+        lenient().doAnswer(invocation -> {
+            List.copyOf(trucks).forEach(invocation.getArgument(1, Consumer.class));
+            return null;
+        }).when(analyticsRepository).forEachTruck(any(), any());
+        lenient().doAnswer(invocation -> {
+            List.copyOf(metrics).forEach(invocation.getArgument(2, Consumer.class));
+            return null;
+        }).when(analyticsRepository).forEachDailyMetrics(any(), any(), any());
+        lenient().doAnswer(invocation -> {
+            List.copyOf(alerts).forEach(invocation.getArgument(2, Consumer.class));
+            return null;
+        }).when(analyticsRepository).forEachDailyAlertCount(any(), any(), any());
+    }
+
+    private AnalyticsCube.Slice slice(EntityType entityType, UUID entityId, List<UUID> userGroups, LocalDate from) {
+        return cube.slice(entityType, entityId, userGroups, from, TODAY, RankingMetric.DISTANCE, 10);
+    }
+
+    @Nested
+    @DisplayName("slice")
+    class Slice {
+
+        @Test
+        @DisplayName("should count a truck of several user groups once")
+        void should_countOnce_when_truckInSeveralGroups() {
+            // Given
+            metrics(truck1, TODAY, 100, 60, 50);
+            metrics(truck2, TODAY, 40, 30, 30);
+            metrics(truck3, TODAY, 10, 10, 0);
+            alerts.add(new DailyAlertCountRow(truck1, TODAY, "SPEED_LIMIT", 3, UPDATED));
+            alerts.add(new DailyAlertCountRow(truck3, TODAY, "GEOFENCE_ENTER", 2, UPDATED));
+
+            // When
+            AnalyticsCube.Slice result = slice(EntityType.FLEET, null, List.of(groupA, groupB), TODAY);
+
+            // Then
+            assertThat(result.truckCount()).isEqualTo(3);
+            Map<String, Object> kpis = result.data().kpis();
+            assertThat(kpis.get("total_distance_km")).isEqualTo(150.0);
+            assertThat(kpis.get("driving_minutes")).isEqualTo(100L);
+            assertThat(kpis.get("max_speed")).isEqualTo(75.0);
+            assertThat(kpis.get("avg_speed")).isEqualTo(40.0);
+            assertThat(result.data().alertBreakdown()).containsExactly(
+                Map.of("alert_type", "SPEED_LIMIT", "count", 3L),
+                Map.of("alert_type", "GEOFENCE_ENTER", "count", 2L));
+            assertThat(result.data().dailyMetrics()).containsExactly(Map.of(
+                "date", TODAY, "distance_km", 150.0, "driving_minutes", 100L, "alert_count", 5L));
+        }
+
+        @Test
+        @DisplayName("should keep only the trucks of the group and the days of the period")
+        void should_filterGroupAndPeriod() {
+            // Given
+            metrics(truck1, TODAY.minusDays(3), 70, 40, 50);
+            metrics(truck2, TODAY, 40, 30, 30);
+            metrics(truck3, TODAY, 10, 10, 20);
+
+            // When
+            AnalyticsCube.Slice groupToday = slice(EntityType.GROUP, groupA, List.of(groupA, groupB), TODAY);
+            AnalyticsCube.Slice groupWeek = slice(EntityType.GROUP, groupA, List.of(groupA, groupB), TODAY.minusDays(6));
+
+            // Then
+            assertThat(groupToday.truckCount()).isEqualTo(2);
+            assertThat(groupToday.data().kpis().get("total_distance_km")).isEqualTo(40.0);
+            assertThat(groupWeek.data().kpis().get("total_distance_km")).isEqualTo(110.0);
+            assertThat(groupWeek.data().dailyMetrics()).extracting(row -> row.get("date"))
+                .containsExactly(TODAY.minusDays(3), TODAY);
+        }
+
+        @Test
+        @DisplayName("should return nothing for a truck or group the user cannot access")
+        void should_returnNothing_when_notAccessible() {
+            // Given
+            metrics(truck3, TODAY, 10, 10, 20);
+
+            // When
+            AnalyticsCube.Slice truck = slice(EntityType.TRUCK, truck3, List.of(groupA), TODAY);
+            AnalyticsCube.Slice group = slice(EntityType.GROUP, groupB, List.of(groupA), TODAY);
+
+            // Then
+            assertThat(truck.truckCount()).isZero();
+            assertThat(truck.data().kpis().get("total_distance_km")).isEqualTo(0.0);
+            assertThat(group.truckCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should rank the accessible trucks, including those without data")
+        void should_rankAccessibleTrucks() {
+            // Given
+            metrics(truck2, TODAY, 40, 30, 30);
+            metrics(truck3, TODAY, 90, 10, 20);
+
+            // When
+            List<Map<String, Object>> ranking = cube.slice(EntityType.FLEET, null, List.of(groupA),
+                TODAY, TODAY, RankingMetric.DISTANCE, 5).data().ranking();
+
+            // Then
+            assertThat(ranking).extracting(row -> row.get("truck_name")).containsExactly("TRK-002", "TRK-001");
+            assertThat(ranking.get(1).get("value")).isEqualTo(0.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("updates")
+    class Updates {
+
+        @Test
+        @DisplayName("should overwrite the cells of changed rows on refresh")
+        void should_applyChangedRows_when_refreshed() {
+            // Given
+            metrics(truck1, TODAY, 100, 60, 50);
+            slice(EntityType.FLEET, null, List.of(groupA), TODAY);
+            metrics.clear();
+            metrics(truck1, TODAY, 120, 70, 50);
+
+            // When
+            cube.refresh();
+
+            // Then
+            assertThat(slice(EntityType.FLEET, null, List.of(groupA), TODAY).data().kpis().get("total_distance_km"))
+                .isEqualTo(120.0);
+            verify(analyticsRepository).forEachDailyMetrics(eq(TODAY.minusDays(1)), eq(UPDATED.minusMinutes(1)), any());
+        }
+
+        @Test
+        @DisplayName("should reuse the column of a day that left the window")
+        void should_clearOldDay_when_columnReused() {
+            // Given - with 30 days of retention, the day 30 days ago shares today's column
+            metrics(truck1, TODAY.minusDays(30), 500, 300, 50);
+            metrics(truck1, TODAY, 100, 60, 50);
+
+            // When
+            AnalyticsCube.Slice result = cube.slice(EntityType.FLEET, null, List.of(groupA),
+                TODAY.minusDays(29), TODAY, null, 0);
+
+            // Then
+            assertThat(result.data().kpis().get("total_distance_km")).isEqualTo(100.0);
+            assertThat(cube.covers(TODAY.minusDays(29))).isTrue();
+            assertThat(cube.covers(TODAY.minusDays(30))).isFalse();
+        }
+
+        @Test
+        @DisplayName("should move a truck between group bitmaps on membership events")
+        void should_updateBitmaps_when_truckGroupChanged() {
+            // Given
+            metrics(truck3, TODAY, 90, 10, 20);
+            slice(EntityType.FLEET, null, List.of(groupA), TODAY);
+
+            // When
+            cube.onTruckGroupChanged(new CacheInvalidator.TruckGroupChangedEvent(
+                truck3.toString(), groupA.toString(), true));
+
+            // Then
+            AnalyticsCube.Slice result = slice(EntityType.FLEET, null, List.of(groupA), TODAY);
+            assertThat(result.truckCount()).isEqualTo(3);
+            assertThat(result.data().kpis().get("total_distance_km")).isEqualTo(90.0);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.trucktrack.location.controller;
+
+import com.trucktrack.common.security.GatewayAuthenticationFilter;
+import com.trucktrack.location.cache.TruckGroupMembershipCache;
+import com.trucktrack.location.repository.GPSPositionRepository;
+import com.trucktrack.location.repository.RowCountEstimator;
+import com.trucktrack.location.repository.TruckRepository;
+import com.trucktrack.location.service.ExportBusyException;
+import com.trucktrack.location.service.FleetStatusCounters;
+import com.trucktrack.location.service.GpsHistoryExportService;
+import com.trucktrack.location.service.PositionPayloadEncoder;
+import com.trucktrack.location.service.RedisCacheService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for TruckController.
+ * Tests the error responses of the streamed GPS history export.
+ */
+@WebMvcTest(TruckController.class)
+@Import(TestSecurityConfig.class)
+@DisplayName("TruckController Integration Tests")
+class TruckControllerTest {
+
+    private static final String EXPORT_URL = "/location/v1/trucks/history/export";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TruckRepository truckRepository;
+
+    @MockBean
+    private GPSPositionRepository gpsPositionRepository;
+
+    @MockBean
+    private RedisCacheService redisCacheService;
+
+    @MockBean
+    private PositionPayloadEncoder payloadEncoder;
+
+    @MockBean
+    private TruckGroupMembershipCache membershipCache;
+
+    @MockBean
+    private GpsHistoryExportService historyExportService;
+
+    @MockBean
+    private RowCountEstimator rowCountEstimator;
+
+    @MockBean
+    private FleetStatusCounters fleetStatusCounters;
+
+    @Nested
+    @DisplayName("GET /location/v1/trucks/history/export")
+    class ExportTrucksHistory {
+
+        @Test
+        @DisplayName("should stream the CSV when the export starts")
+        void should_streamCsv_when_exportStarted() throws Exception {
+            // Given
+            GpsHistoryExportService.Export export = mock(GpsHistoryExportService.Export.class);
+            when(historyExportService.start(any())).thenReturn(export);
+            when(export.writeCsv(any())).thenAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(0);
+                out.write("truck_uuid\n".getBytes(StandardCharsets.UTF_8));
+                return 0L;
+            });
+
+            // When/Then
+            mockMvc.perform(get(EXPORT_URL)
+                    .param("startTime", "2026-01-01T00:00:00Z")
+                    .param("endTime", "2026-02-01T00:00:00Z")
+                    .header(GatewayAuthenticationFilter.HEADER_USER_ID, UUID.randomUUID().toString())
+                    .header(GatewayAuthenticationFilter.HEADER_USERNAME, "admin@test.com")
+                    .header(GatewayAuthenticationFilter.HEADER_USER_ROLE, "ADMIN"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", containsString("attachment")))
+                .andExpect(content().string("truck_uuid\n"));
+            verify(export).close();
+        }
+
+        @Test
+        @DisplayName("should return 400 as JSON when the range is rejected")
+        void should_return400_when_rangeRejected() throws Exception {
+            // Given
+            when(historyExportService.start(any()))
+                .thenThrow(new IllegalArgumentException("Export range must not exceed 366 days"));
+
+            // When/Then
+            mockMvc.perform(get(EXPORT_URL)
+                    .param("startTime", "2020-01-01T00:00:00Z")
+                    .param("endTime", "2026-01-01T00:00:00Z")
+                    .header(GatewayAuthenticationFilter.HEADER_USER_ID, UUID.randomUUID().toString())
+                    .header(GatewayAuthenticationFilter.HEADER_USERNAME, "admin@test.com")
+                    .header(GatewayAuthenticationFilter.HEADER_USER_ROLE, "ADMIN"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(jsonPath("$.message").value("Export range must not exceed 366 days"));
+        }
+
+        @Test
+        @DisplayName("should return 429 as JSON when too many exports are running")
+        void should_return429_when_exportsBusy() throws Exception {
+            // Given
+            when(historyExportService.start(any()))
+                .thenThrow(new ExportBusyException("Too many history exports running, retry later"));
+
+            // When/Then
+            mockMvc.perform(get(EXPORT_URL)
+                    .param("startTime", "2026-01-01T00:00:00Z")
+                    .param("endTime", "2026-02-01T00:00:00Z")
+                    .header(GatewayAuthenticationFilter.HEADER_USER_ID, UUID.randomUUID().toString())
+                    .header(GatewayAuthenticationFilter.HEADER_USERNAME, "admin@test.com")
+                    .header(GatewayAuthenticationFilter.HEADER_USER_ROLE, "ADMIN"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(jsonPath("$.error").value("Too many requests"));
+        }
+    }
+}
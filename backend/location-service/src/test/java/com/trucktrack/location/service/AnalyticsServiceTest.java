@@ -0,0 +1,203 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.location.cache.AnalyticsCube;
+import com.trucktrack.location.dto.AnalyticsOverviewResponse;
+import com.trucktrack.location.dto.EntityInfo;
+import com.trucktrack.location.dto.PeriodInfo;
+import com.trucktrack.location.dto.TruckRankingResponse;
+import com.trucktrack.location.dto.TruckRankingResponse.RankingMetric;
+import com.trucktrack.location.repository.AnalyticsRepository;
+import com.trucktrack.location.repository.AnalyticsRepository.AnalyticsOverviewData;
+import com.trucktrack.location.repository.TruckGroupRepository;
+import com.trucktrack.location.repository.TruckRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AnalyticsService - analytics from the cube, or one query for older periods.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AnalyticsService")
+class AnalyticsServiceTest {
+
+    @Mock
+    private AnalyticsRepository analyticsRepository;
+
+    @Mock
+    private TruckRepository truckRepository;
+
+    @Mock
+    private TruckGroupRepository truckGroupRepository;
+
+    @Mock
+    private AnalyticsCube analyticsCube;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private AnalyticsService analyticsService;
+    private List<UUID> userGroupIds;
+    private UUID truck1;
+    private UUID truck2;
+
+    @BeforeEach
+    void setUp() {
+        analyticsService = new AnalyticsService(analyticsRepository, truckRepository, truckGroupRepository,
+            analyticsCube, redisTemplate);
+        userGroupIds = List.of(UUID.randomUUID());
+        truck1 = UUID.randomUUID();
+        truck2 = UUID.randomUUID();
+    }
+
+    private AnalyticsOverviewData overviewData(LocalDate day) {
+        return new AnalyticsOverviewData(
+            Map.of("total_distance_km", 320.5, "driving_minutes", 600L, "idle_minutes", 90L,
+                "max_speed", 110.0, "avg_speed", 62.0),
+            List.of(Map.of("date", day, "distance_km", 320.5,
+                "driving_minutes", 600L, "alert_count", 5L)),
+            List.of(Map.of("alert_type", "SPEED_LIMIT", "count", 3L),
+                Map.of("alert_type", "GEOFENCE_ENTER", "count", 2L)),
+            List.of(Map.of("truck_id", truck1, "truck_name", "TRUCK-001", "license_plate", "AB-123-CD",
+                "value", 200.04)));
+    }
+
+    @Nested
+    @DisplayName("periods held by the cube")
+    class FromCube {
+
+        @Test
+        @DisplayName("should slice the cube without querying or caching")
+        void should_sliceCube_when_periodCovered() {
+            // Given
+            LocalDate today = LocalDate.now();
+            when(analyticsCube.covers(today)).thenReturn(true);
+            when(analyticsCube.slice(EntityInfo.EntityType.FLEET, null, userGroupIds, today, today, RankingMetric.DISTANCE, 10))
+                .thenReturn(new AnalyticsCube.Slice(2, overviewData(today)));
+
+            // When
+            AnalyticsOverviewResponse result = analyticsService.getOverview(
+                PeriodInfo.PeriodType.TODAY, null, null, EntityInfo.EntityType.FLEET, null,
+                RankingMetric.DISTANCE, 10, userGroupIds);
+
+            // Then
+            assertThat(result.kpis().entity().truckCount()).isEqualTo(2);
+            assertThat(result.kpis().alertCount()).isEqualTo(5);
+            assertThat(result.kpis().geofenceEntries()).isEqualTo(2);
+            assertThat(result.dailyMetrics().dailyData().get(0).date()).isEqualTo(today);
+            assertThat(result.truckRanking().ranking().get(0).value()).isEqualTo(200.0);
+            verifyNoInteractions(analyticsRepository, redisTemplate);
+        }
+
+        @Test
+        @DisplayName("should rank the accessible fleet from the cube")
+        void should_rankFleet_when_periodCovered() {
+            // Given
+            LocalDate today = LocalDate.now();
+            when(analyticsCube.covers(today)).thenReturn(true);
+            when(analyticsCube.slice(EntityInfo.EntityType.FLEET, null, userGroupIds, today, today, RankingMetric.DRIVING_TIME, 5))
+                .thenReturn(new AnalyticsCube.Slice(2, new AnalyticsOverviewData(Map.of(), List.of(), List.of(),
+                    List.of(Map.of("truck_id", truck1, "truck_name", "TRUCK-001", "license_plate", "AB-123-CD",
+                        "value", 90.0)))));
+
+            // When
+            TruckRankingResponse result = analyticsService.getTruckRanking(
+                PeriodInfo.PeriodType.TODAY, null, null, RankingMetric.DRIVING_TIME, 5, userGroupIds);
+
+            // Then
+            assertThat(result.ranking()).hasSize(1);
+            assertThat(result.ranking().get(0).value()).isEqualTo(1.5);
+            assertThat(result.ranking().get(0).unit()).isEqualTo("heures");
+        }
+    }
+
+    @Nested
+    @DisplayName("getOverview of periods older than the cube")
+    class GetOverview {
+
+        @BeforeEach
+        void setUp() {
+            when(analyticsCube.covers(any())).thenReturn(false);
+            when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        }
+
+        @Test
+        @DisplayName("should build KPIs, charts and ranking from a single query")
+        void should_buildAllSections_when_fleetRequested() {
+            // Given
+            LocalDate today = LocalDate.now();
+            when(analyticsRepository.getAccessibleTruckIds(userGroupIds)).thenReturn(List.of(truck1, truck2));
+            AnalyticsOverviewData rows = overviewData(today);
+            when(analyticsRepository.getAnalyticsOverview(any(), any(), any(), any(), anyString(), anyInt()))
+                .thenReturn(new AnalyticsOverviewData(rows.kpis(),
+                    List.of(Map.of("date", Date.valueOf(today), "distance_km", 320.5,
+                        "driving_minutes", 600L, "alert_count", 5L)),
+                    rows.alertBreakdown(), rows.ranking()));
+
+            // When
+            AnalyticsOverviewResponse result = analyticsService.getOverview(
+                PeriodInfo.PeriodType.TODAY, null, null, EntityInfo.EntityType.FLEET, null,
+                RankingMetric.DISTANCE, 10, userGroupIds);
+
+            // Then
+            assertThat(result.kpis().totalDistanceKm()).isEqualTo(320.5);
+            assertThat(result.kpis().alertCount()).isEqualTo(5);
+            assertThat(result.kpis().geofenceEntries()).isEqualTo(2);
+            assertThat(result.kpis().geofenceExits()).isZero();
+            assertThat(result.dailyMetrics().dailyData()).hasSize(1);
+            assertThat(result.dailyMetrics().dailyData().get(0).date()).isEqualTo(today);
+            assertThat(result.alertBreakdown().totalAlerts()).isEqualTo(5);
+            assertThat(result.alertBreakdown().breakdown().get(0).percentage()).isEqualTo(60.0);
+            assertThat(result.truckRanking().ranking()).hasSize(1);
+            assertThat(result.truckRanking().ranking().get(0).value()).isEqualTo(200.0);
+
+            verify(analyticsRepository).getAnalyticsOverview(
+                eq(List.of(truck1, truck2)), eq(List.of(truck1, truck2)), eq(today), eq(today), eq("DISTANCE"), eq(10));
+            verify(analyticsRepository, never()).getAggregatedKPIs(any(), any(), any());
+            verify(valueOperations).set(anyString(), anyString(), any());
+        }
+
+        @Test
+        @DisplayName("should rank the fleet but report nothing for a truck outside the user groups")
+        void should_queryNoEntityTrucks_when_truckNotAccessible() {
+            // Given
+            UUID otherTruck = UUID.randomUUID();
+            when(analyticsRepository.getAccessibleTruckIds(userGroupIds)).thenReturn(List.of(truck1, truck2));
+            when(analyticsRepository.getAnalyticsOverview(any(), any(), any(), any(), anyString(), anyInt()))
+                .thenReturn(new AnalyticsOverviewData(Map.of(), List.of(), List.of(), List.of()));
+
+            // When
+            AnalyticsOverviewResponse result = analyticsService.getOverview(
+                PeriodInfo.PeriodType.WEEK, null, null, EntityInfo.EntityType.TRUCK, otherTruck,
+                RankingMetric.ALERTS, 5, userGroupIds);
+
+            // Then
+            assertThat(result.kpis().totalDistanceKm()).isZero();
+            assertThat(result.alertBreakdown().totalAlerts()).isZero();
+            verify(analyticsRepository).getAnalyticsOverview(
+                eq(List.of()), eq(List.of(truck1, truck2)), any(), any(), eq("ALERTS"), eq(5));
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.location.repository.AnalyticsRepository;
+import com.trucktrack.location.repository.AnalyticsRepository.DailyMetricsDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DailyMetricsAggregator - incremental daily_truck_metrics maintenance.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DailyMetricsAggregator")
+class DailyMetricsAggregatorTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T12:00:00Z");
+
+    @Mock
+    private AnalyticsRepository analyticsRepository;
+
+    private DailyMetricsAggregator aggregator;
+    private UUID truckId;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new DailyMetricsAggregator(analyticsRepository, Duration.ofHours(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        truckId = UUID.randomUUID();
+    }
+
+    private GPSPositionEvent point(Instant timestamp, double latitude, double longitude, double speed) {
+        GPSPositionEvent event = new GPSPositionEvent();
+        event.setTruckId(truckId.toString());
+        event.setTimestamp(timestamp);
+        event.setLatitude(latitude);
+        event.setLongitude(longitude);
+        event.setSpeed(speed);
+        return event;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DailyMetricsDelta> flushAndCapture() {
+        ArgumentCaptor<List<DailyMetricsDelta>> captor = ArgumentCaptor.forClass(List.class);
+        aggregator.flush();
+        verify(analyticsRepository, atLeastOnce()).foldDailyMetrics(captor.capture());
+        return captor.getValue();
+    }
+
+    @Nested
+    @DisplayName("record")
+    class Record {
+
+        @Test
+        @DisplayName("should accumulate distance, driving and idle time between consecutive points")
+        void should_accumulateSegments() {
+            // Given
+            Instant start = NOW.minusSeconds(600);
+            aggregator.record(point(start, 48.8566, 2.3522, 0));
+            aggregator.record(point(start.plusSeconds(60), 48.8666, 2.3522, 50));   // ~1.11 km, driving
+            aggregator.record(point(start.plusSeconds(120), 48.8666, 2.3522, 0));   // idle
+
+            // When
+            List<DailyMetricsDelta> deltas = flushAndCapture();
+
+            // Then
+            assertThat(deltas).hasSize(1);
+            DailyMetricsDelta delta = deltas.get(0);
+            assertThat(delta.truckId()).isEqualTo(truckId);
+            assertThat(delta.day()).isEqualTo(LocalDate.of(2026, 3, 10));
+            assertThat(delta.distanceKm()).isCloseTo(1.112, within(0.01));
+            assertThat(delta.drivingSeconds()).isEqualTo(60);
+            assertThat(delta.idleSeconds()).isEqualTo(60);
+            assertThat(delta.maxSpeed()).isEqualTo(50);
+            assertThat(delta.speedSamples()).isEqualTo(1);
+            assertThat(delta.positionCount()).isEqualTo(3);
+            assertThat(delta.firstTimestamp()).isEqualTo(start);
+            assertThat(delta.lastTimestamp()).isEqualTo(start.plusSeconds(120));
+        }
+
+        @Test
+        @DisplayName("should split points across days")
+        void should_keepOneAggregatePerDay() {
+            // Given - one point yesterday (within the grace period), one today
+            Instant midnight = Instant.parse("2026-03-10T00:00:00Z");
+            aggregator = new DailyMetricsAggregator(analyticsRepository, Duration.ofHours(1),
+                    Clock.fixed(midnight.plusSeconds(600), ZoneOffset.UTC));
+            aggregator.record(point(midnight.minusSeconds(30), 48.8566, 2.3522, 40));
+            aggregator.record(point(midnight.plusSeconds(30), 48.8600, 2.3522, 40));
+
+            // When
+            List<DailyMetricsDelta> deltas = flushAndCapture();
+
+            // Then
+            assertThat(deltas).extracting(DailyMetricsDelta::day)
+                .containsExactlyInAnyOrder(LocalDate.of(2026, 3, 9), LocalDate.of(2026, 3, 10));
+            assertThat(deltas).allSatisfy(delta -> assertThat(delta.distanceKm()).isZero());
+        }
+
+        @Test
+        @DisplayName("should ignore points of a closed day")
+        void should_ignore_when_dayClosed() {
+            // When
+            aggregator.record(point(NOW.minus(Duration.ofDays(2)), 48.8566, 2.3522, 40));
+
+            // Then
+            assertThat(aggregator.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should not count an out of order or replayed point again")
+        void should_ignorePoint_when_notAfterLast() {
+            // Given
+            Instant start = NOW.minusSeconds(600);
+            aggregator.record(point(start.plusSeconds(60), 48.8566, 2.3522, 30));
+            aggregator.record(point(start, 48.9566, 2.3522, 90));
+            aggregator.record(point(start.plusSeconds(60), 48.8566, 2.3522, 30));
+
+            // When
+            DailyMetricsDelta delta = flushAndCapture().get(0);
+
+            // Then
+            assertThat(delta.positionCount()).isEqualTo(1);
+            assertThat(delta.maxSpeed()).isEqualTo(30);
+            assertThat(delta.distanceKm()).isZero();
+            assertThat(delta.lastTimestamp()).isEqualTo(start.plusSeconds(60));
+        }
+
+        @Test
+        @DisplayName("should drop only the leading points not after the stored last point")
+        void should_dropStaleLeadingPoint_when_newerPointsFollow() {
+            // Given - the stored row already covers start + 30s
+            Instant start = NOW.minusSeconds(600);
+            when(analyticsRepository.findDailyMetricsLastTimestamp(truckId, LocalDate.of(2026, 3, 10)))
+                .thenReturn(start.plusSeconds(30));
+            aggregator.record(point(start, 48.8566, 2.3522, 50));                  // replayed
+            aggregator.record(point(start.plusSeconds(60), 48.8566, 2.3522, 50));
+            aggregator.record(point(start.plusSeconds(120), 48.8666, 2.3522, 50));
+
+            // When
+            DailyMetricsDelta delta = flushAndCapture().get(0);
+
+            // Then
+            assertThat(delta.firstTimestamp()).isEqualTo(start.plusSeconds(60));
+            assertThat(delta.positionCount()).isEqualTo(2);
+            assertThat(delta.drivingSeconds()).isEqualTo(60);
+        }
+
+        @Test
+        @DisplayName("should start the next aggregate after the points already flushed")
+        void should_dropLatePoint_when_beforeFlushedPoints() {
+            // Given
+            Instant start = NOW.minusSeconds(600);
+            aggregator.record(point(start.plusSeconds(60), 48.8566, 2.3522, 50));
+            aggregator.flush();
+            aggregator.record(point(start, 48.8566, 2.3522, 50));                  // late
+            aggregator.record(point(start.plusSeconds(120), 48.8666, 2.3522, 50));
+
+            // When
+            DailyMetricsDelta delta = flushAndCapture().get(0);
+
+            // Then
+            assertThat(delta.firstTimestamp()).isEqualTo(start.plusSeconds(120));
+            assertThat(delta.positionCount()).isEqualTo(1);
+            verify(analyticsRepository, times(1)).findDailyMetricsLastTimestamp(any(), any());
+        }
+
+        @Test
+        @DisplayName("should fold a point only once its transaction committed")
+        void should_waitForCommit_when_inTransaction() {
+            // Given
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // When
+                aggregator.record(point(NOW.minusSeconds(60), 48.8566, 2.3522, 30));
+
+                // Then - rolled back points are never counted
+                assertThat(aggregator.getPendingCount()).isZero();
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+                assertThat(aggregator.getPendingCount()).isEqualTo(1);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("flush")
+    class Flush {
+
+        @Test
+        @DisplayName("should not write anything when no point was received")
+        void should_skip_when_nothingPending() {
+            // When
+            aggregator.flush();
+
+            // Then
+            verify(analyticsRepository, never()).foldDailyMetrics(anyList());
+        }
+
+        @Test
+        @DisplayName("should keep the aggregates and join them to newer points when the write fails")
+        void should_retry_when_writeFails() {
+            // Given
+            Instant start = NOW.minusSeconds(600);
+            aggregator.record(point(start, 48.8566, 2.3522, 50));
+            doThrow(new RuntimeException("db down")).doReturn(List.of()).when(analyticsRepository).foldDailyMetrics(anyList());
+            aggregator.flush();
+            aggregator.record(point(start.plusSeconds(60), 48.8666, 2.3522, 50));
+
+            // When
+            DailyMetricsDelta delta = flushAndCapture().get(0);
+
+            // Then
+            assertThat(delta.positionCount()).isEqualTo(2);
+            assertThat(delta.firstTimestamp()).isEqualTo(start);
+            assertThat(delta.drivingSeconds()).isEqualTo(60);
+            assertThat(delta.distanceKm()).isCloseTo(1.112, within(0.01));
+            assertThat(aggregator.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should read the stored last point again when a delta was skipped")
+        void should_reloadWatermark_when_deltaSkipped() {
+            // Given - another writer moved the row past the delta
+            Instant start = NOW.minusSeconds(600);
+            aggregator.record(point(start, 48.8566, 2.3522, 50));
+            when(analyticsRepository.foldDailyMetrics(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+            aggregator.flush();
+
+            // When
+            aggregator.record(point(start.plusSeconds(60), 48.8666, 2.3522, 50));
+
+            // Then
+            verify(analyticsRepository, times(2)).findDailyMetricsLastTimestamp(truckId, LocalDate.of(2026, 3, 10));
+        }
+    }
+}
@@ -2,9 +2,6 @@ package com.trucktrack.location.service;
 
 import com.trucktrack.location.dto.*;
 import com.trucktrack.location.model.Trip;
-import com.trucktrack.location.model.TripStatus;
-import com.trucktrack.location.model.Truck;
-import com.trucktrack.location.model.TruckStatus;
 import com.trucktrack.location.repository.TripRepository;
 import com.trucktrack.location.repository.TruckRepository;
 import com.trucktrack.location.service.impl.DashboardServiceImpl;
@@ -16,20 +13,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -46,6 +38,12 @@ class DashboardServiceTest {
     @Mock
     private TripRepository tripRepository;
 
+    @Mock
+    private FleetStatusCounters fleetStatusCounters;
+
+    @Mock
+    private RecentActivityLog recentActivityLog;
+
     @InjectMocks
     private DashboardServiceImpl dashboardService;
 
@@ -60,6 +58,10 @@ class DashboardServiceTest {
         userGroups = groupId1 + "," + groupId2;
     }
 
+    private FleetStatusCounters.Counts counts(long active, long idle, long offline, long outOfService) {
+        return new FleetStatusCounters.Counts(new long[]{active, idle, offline, 0, outOfService});
+    }
+
     @Nested
     @DisplayName("getKpis")
     class GetKpis {
@@ -68,9 +70,8 @@ class DashboardServiceTest {
         @DisplayName("should return KPIs with all truck and trip counts when no groups specified")
         void should_returnKpis_when_noGroupsSpecified() {
             // Given
-            when(truckRepository.count()).thenReturn(50L);
-            when(truckRepository.countByStatus(TruckStatus.ACTIVE)).thenReturn(30L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(fleetStatusCounters.getCounts(List.of())).thenReturn(counts(30, 15, 5, 0));
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(10L)  // trips today
                 .thenReturn(8L);  // trips yesterday
 
@@ -88,14 +89,8 @@ class DashboardServiceTest {
         @DisplayName("should return KPIs filtered by user groups")
         void should_returnKpis_filteredByGroups() {
             // Given
-            Page<Truck> trucksPage = new PageImpl<>(List.of(new Truck(), new Truck()), Pageable.unpaged(), 25);
-            Page<Truck> activeTrucksPage = new PageImpl<>(List.of(new Truck()), Pageable.unpaged(), 15);
-
-            when(truckRepository.findByAllowedGroups(anyList(), any(Pageable.class)))
-                .thenReturn(trucksPage);
-            when(truckRepository.findByAllowedGroupsAndStatus(anyList(), eq(TruckStatus.ACTIVE.name()), any(Pageable.class)))
-                .thenReturn(activeTrucksPage);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(fleetStatusCounters.getCounts(List.of(groupId1, groupId2))).thenReturn(counts(15, 6, 4, 0));
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(5L)
                 .thenReturn(3L);
 
@@ -112,9 +107,8 @@ class DashboardServiceTest {
         @DisplayName("should calculate positive trend when trips increased")
         void should_calculatePositiveTrend_when_tripsIncreased() {
             // Given
-            when(truckRepository.count()).thenReturn(10L);
-            when(truckRepository.countByStatus(TruckStatus.ACTIVE)).thenReturn(5L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(fleetStatusCounters.getCounts(List.of())).thenReturn(counts(5, 3, 2, 0));
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(10L)  // trips today
                 .thenReturn(5L);  // trips yesterday
 
@@ -129,9 +123,8 @@ class DashboardServiceTest {
         @DisplayName("should return null trend when previous value is zero")
         void should_returnNullTrend_when_previousValueZero() {
             // Given
-            when(truckRepository.count()).thenReturn(10L);
-            when(truckRepository.countByStatus(TruckStatus.ACTIVE)).thenReturn(5L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(fleetStatusCounters.getCounts(List.of())).thenReturn(counts(5, 3, 2, 0));
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(0L)   // trips today
                 .thenReturn(0L);  // trips yesterday
 
@@ -146,9 +139,8 @@ class DashboardServiceTest {
         @DisplayName("should return 100% trend when previous is zero but current has value")
         void should_return100Trend_when_previousZeroCurrentHasValue() {
             // Given
-            when(truckRepository.count()).thenReturn(10L);
-            when(truckRepository.countByStatus(TruckStatus.ACTIVE)).thenReturn(5L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(fleetStatusCounters.getCounts(List.of())).thenReturn(counts(5, 3, 2, 0));
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(5L)   // trips today
                 .thenReturn(0L);  // trips yesterday
 
@@ -168,10 +160,7 @@ class DashboardServiceTest {
         @DisplayName("should return fleet status with all trucks when no groups specified")
         void should_returnFleetStatus_when_noGroupsSpecified() {
             // Given
-            when(truckRepository.countByStatus(TruckStatus.ACTIVE)).thenReturn(30L);
-            when(truckRepository.countByStatus(TruckStatus.IDLE)).thenReturn(15L);
-            when(truckRepository.countByStatus(TruckStatus.OFFLINE)).thenReturn(5L);
-            when(truckRepository.count()).thenReturn(50L);
+            when(fleetStatusCounters.getCounts(List.of())).thenReturn(counts(30, 15, 5, 0));
 
             // When
             FleetStatusDTO result = dashboardService.getFleetStatus(null);
@@ -190,19 +179,7 @@ class DashboardServiceTest {
         @DisplayName("should return fleet status filtered by user groups")
         void should_returnFleetStatus_filteredByGroups() {
             // Given
-            Page<Truck> activePage = new PageImpl<>(Collections.emptyList(), Pageable.unpaged(), 20);
-            Page<Truck> idlePage = new PageImpl<>(Collections.emptyList(), Pageable.unpaged(), 10);
-            Page<Truck> offlinePage = new PageImpl<>(Collections.emptyList(), Pageable.unpaged(), 5);
-            Page<Truck> totalPage = new PageImpl<>(Collections.emptyList(), Pageable.unpaged(), 35);
-
-            when(truckRepository.findByAllowedGroupsAndStatus(anyList(), eq(TruckStatus.ACTIVE.name()), any(Pageable.class)))
-                .thenReturn(activePage);
-            when(truckRepository.findByAllowedGroupsAndStatus(anyList(), eq(TruckStatus.IDLE.name()), any(Pageable.class)))
-                .thenReturn(idlePage);
-            when(truckRepository.findByAllowedGroupsAndStatus(anyList(), eq(TruckStatus.OFFLINE.name()), any(Pageable.class)))
-                .thenReturn(offlinePage);
-            when(truckRepository.findByAllowedGroups(anyList(), any(Pageable.class)))
-                .thenReturn(totalPage);
+            when(fleetStatusCounters.getCounts(List.of(groupId1, groupId2))).thenReturn(counts(20, 10, 5, 0));
 
             // When
             FleetStatusDTO result = dashboardService.getFleetStatus(userGroups);
@@ -218,8 +195,7 @@ class DashboardServiceTest {
         @DisplayName("should return zero percentages when total is zero")
         void should_returnZeroPercentages_when_totalIsZero() {
             // Given
-            when(truckRepository.countByStatus(any(TruckStatus.class))).thenReturn(0L);
-            when(truckRepository.count()).thenReturn(0L);
+            when(fleetStatusCounters.getCounts(List.of())).thenReturn(counts(0, 0, 0, 0));
 
             // When
             FleetStatusDTO result = dashboardService.getFleetStatus("");
@@ -237,152 +213,22 @@ class DashboardServiceTest {
     class GetRecentActivity {
 
         @Test
-        @DisplayName("should return recent activity events from trips")
-        void should_returnRecentActivity_fromTrips() {
-            // Given
-            UUID tripId = UUID.randomUUID();
-            UUID truckId = UUID.randomUUID();
-            Truck truck = new Truck();
-            truck.setId(truckId);
-            truck.setLicensePlate("AB-123-CD");
-
-            Trip startedTrip = Trip.builder()
-                .id(tripId)
-                .origin("Paris")
-                .destination("Lyon")
-                .assignedTruckId(truckId)
-                .startedAt(Instant.now().minus(1, ChronoUnit.HOURS))
-                .status(TripStatus.IN_PROGRESS)
-                .updatedAt(Instant.now())
-                .build();
-
-            when(tripRepository.findRecentlyStartedTrips(any(Pageable.class)))
-                .thenReturn(List.of(startedTrip));
-            when(tripRepository.findRecentlyCompletedTrips(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(tripRepository.findTripsWithProof(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(truckRepository.findById(truckId)).thenReturn(Optional.of(truck));
-
-            // When
-            List<ActivityEventDTO> result = dashboardService.getRecentActivity(null, 10);
-
-            // Then
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).type()).isEqualTo(ActivityEventDTO.ActivityType.TRIP_STARTED);
-            assertThat(result.get(0).title()).contains("Trip started");
-            assertThat(result.get(0).truckId()).isEqualTo("AB-123-CD");
-        }
-
-        @Test
-        @DisplayName("should merge and sort activities by timestamp descending")
-        void should_mergeAndSortActivities_byTimestampDescending() {
+        @DisplayName("should copy the latest events of the user groups from the activity log")
+        void should_readActivityLog_filteredByGroups() {
             // Given
-            Instant now = Instant.now();
-            UUID truckId = UUID.randomUUID();
-            Truck truck = new Truck();
-            truck.setId(truckId);
-            truck.setTruckId("TRK-001");
-
-            Trip startedTrip = Trip.builder()
-                .id(UUID.randomUUID())
-                .origin("A")
-                .destination("B")
-                .assignedTruckId(truckId)
-                .startedAt(now.minus(2, ChronoUnit.HOURS))
-                .status(TripStatus.IN_PROGRESS)
-                .updatedAt(now.minus(2, ChronoUnit.HOURS))
-                .build();
-
-            Trip completedTrip = Trip.builder()
+            ActivityEventDTO event = ActivityEventDTO.builder()
                 .id(UUID.randomUUID())
-                .origin("C")
-                .destination("D")
-                .assignedTruckId(truckId)
-                .completedAt(now.minus(1, ChronoUnit.HOURS))
-                .status(TripStatus.COMPLETED)
-                .updatedAt(now.minus(1, ChronoUnit.HOURS))
+                .type(ActivityEventDTO.ActivityType.TRIP_STARTED)
+                .timestamp(Instant.now())
                 .build();
-
-            when(tripRepository.findRecentlyStartedTrips(any(Pageable.class)))
-                .thenReturn(List.of(startedTrip));
-            when(tripRepository.findRecentlyCompletedTrips(any(Pageable.class)))
-                .thenReturn(List.of(completedTrip));
-            when(tripRepository.findTripsWithProof(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(truckRepository.findById(truckId)).thenReturn(Optional.of(truck));
+            when(recentActivityLog.getRecent(List.of(groupId1, groupId2), 5)).thenReturn(List.of(event));
 
             // When
-            List<ActivityEventDTO> result = dashboardService.getRecentActivity(null, 10);
+            List<ActivityEventDTO> result = dashboardService.getRecentActivity(userGroups, 5);
 
             // Then
-            assertThat(result).hasSize(2);
-            // Most recent first (completed at -1h, started at -2h)
-            assertThat(result.get(0).type()).isEqualTo(ActivityEventDTO.ActivityType.TRIP_COMPLETED);
-            assertThat(result.get(1).type()).isEqualTo(ActivityEventDTO.ActivityType.TRIP_STARTED);
-        }
-
-        @Test
-        @DisplayName("should limit activities to requested count")
-        void should_limitActivities_toRequestedCount() {
-            // Given
-            Instant now = Instant.now();
-            UUID truckId = UUID.randomUUID();
-            Truck truck = new Truck();
-            truck.setId(truckId);
-            truck.setTruckId("TRK-001");
-
-            List<Trip> manyTrips = List.of(
-                createTrip(now.minus(1, ChronoUnit.HOURS), truckId),
-                createTrip(now.minus(2, ChronoUnit.HOURS), truckId),
-                createTrip(now.minus(3, ChronoUnit.HOURS), truckId),
-                createTrip(now.minus(4, ChronoUnit.HOURS), truckId),
-                createTrip(now.minus(5, ChronoUnit.HOURS), truckId)
-            );
-
-            when(tripRepository.findRecentlyStartedTrips(any(Pageable.class)))
-                .thenReturn(manyTrips);
-            when(tripRepository.findRecentlyCompletedTrips(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(tripRepository.findTripsWithProof(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(truckRepository.findById(truckId)).thenReturn(Optional.of(truck));
-
-            // When
-            List<ActivityEventDTO> result = dashboardService.getRecentActivity(null, 3);
-
-            // Then
-            assertThat(result).hasSize(3);
-        }
-
-        @Test
-        @DisplayName("should return empty list when no activities found")
-        void should_returnEmptyList_when_noActivitiesFound() {
-            // Given
-            when(tripRepository.findRecentlyStartedTrips(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(tripRepository.findRecentlyCompletedTrips(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(tripRepository.findTripsWithProof(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-
-            // When
-            List<ActivityEventDTO> result = dashboardService.getRecentActivity(null, 10);
-
-            // Then
-            assertThat(result).isEmpty();
-        }
-
-        private Trip createTrip(Instant startedAt, UUID truckId) {
-            return Trip.builder()
-                .id(UUID.randomUUID())
-                .origin("Origin")
-                .destination("Destination")
-                .assignedTruckId(truckId)
-                .startedAt(startedAt)
-                .status(TripStatus.IN_PROGRESS)
-                .updatedAt(startedAt)
-                .build();
+            assertThat(result).containsExactly(event);
+            verifyNoInteractions(tripRepository);
         }
     }
 
@@ -396,7 +242,7 @@ class DashboardServiceTest {
             // Given
             when(tripRepository.countCompletedBetween(any(Instant.class), any(Instant.class)))
                 .thenReturn(80L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(100L);
             when(truckRepository.count()).thenReturn(50L);
             when(tripRepository.findByScheduledAtBetween(any(Instant.class), any(Instant.class)))
@@ -419,7 +265,7 @@ class DashboardServiceTest {
             // Given
             when(tripRepository.countCompletedBetween(any(Instant.class), any(Instant.class)))
                 .thenReturn(200L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(250L);
             when(truckRepository.count()).thenReturn(100L);
             when(tripRepository.findByScheduledAtBetween(any(Instant.class), any(Instant.class)))
@@ -440,7 +286,7 @@ class DashboardServiceTest {
             // Given
             when(tripRepository.countCompletedBetween(any(Instant.class), any(Instant.class)))
                 .thenReturn(0L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(0L);
             when(truckRepository.count()).thenReturn(10L);
             when(tripRepository.findByScheduledAtBetween(any(Instant.class), any(Instant.class)))
@@ -461,7 +307,7 @@ class DashboardServiceTest {
             // Given
             when(tripRepository.countCompletedBetween(any(Instant.class), any(Instant.class)))
                 .thenReturn(5L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(10L);
             when(truckRepository.count()).thenReturn(0L);
             when(tripRepository.findByScheduledAtBetween(any(Instant.class), any(Instant.class)))
@@ -496,10 +342,8 @@ class DashboardServiceTest {
 
             // KPIs
             when(truckRepository.count()).thenReturn(50L);
-            when(truckRepository.countByStatus(TruckStatus.ACTIVE)).thenReturn(30L);
-            when(truckRepository.countByStatus(TruckStatus.IDLE)).thenReturn(15L);
-            when(truckRepository.countByStatus(TruckStatus.OFFLINE)).thenReturn(5L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(fleetStatusCounters.getCounts(List.of())).thenReturn(counts(30, 15, 5, 0));
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(10L);
 
             // Performance metrics
@@ -508,14 +352,6 @@ class DashboardServiceTest {
             when(tripRepository.findByScheduledAtBetween(any(Instant.class), any(Instant.class)))
                 .thenReturn(Collections.emptyList());
 
-            // Activities
-            when(tripRepository.findRecentlyStartedTrips(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(tripRepository.findRecentlyCompletedTrips(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(tripRepository.findTripsWithProof(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-
             // When
             DashboardDataDTO result = dashboardService.getDashboardData(null, userId, "week");
 
@@ -545,19 +381,13 @@ class DashboardServiceTest {
 
         private void setupBasicMocks() {
             when(truckRepository.count()).thenReturn(10L);
-            when(truckRepository.countByStatus(any(TruckStatus.class))).thenReturn(3L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(fleetStatusCounters.getCounts(List.of())).thenReturn(counts(3, 3, 3, 1));
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(5L);
             when(tripRepository.countCompletedBetween(any(Instant.class), any(Instant.class)))
                 .thenReturn(3L);
             when(tripRepository.findByScheduledAtBetween(any(Instant.class), any(Instant.class)))
                 .thenReturn(Collections.emptyList());
-            when(tripRepository.findRecentlyStartedTrips(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(tripRepository.findRecentlyCompletedTrips(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-            when(tripRepository.findTripsWithProof(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
         }
     }
 
@@ -569,9 +399,8 @@ class DashboardServiceTest {
         @DisplayName("should handle empty groups string")
         void should_handleEmptyGroupsString() {
             // Given
-            when(truckRepository.count()).thenReturn(10L);
-            when(truckRepository.countByStatus(TruckStatus.ACTIVE)).thenReturn(5L);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(fleetStatusCounters.getCounts(List.of())).thenReturn(counts(5, 3, 2, 0));
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(2L);
 
             // When
@@ -579,22 +408,15 @@ class DashboardServiceTest {
 
             // Then
             assertThat(result.totalTrucks()).isEqualTo(10);
-            verify(truckRepository).count();
-            verify(truckRepository, never()).findByAllowedGroups(anyList(), any(Pageable.class));
+            verify(fleetStatusCounters).getCounts(List.of());
         }
 
         @Test
         @DisplayName("should handle whitespace in groups string")
         void should_handleWhitespaceInGroupsString() {
             // Given
-            Page<Truck> trucksPage = new PageImpl<>(Collections.emptyList(), Pageable.unpaged(), 5);
-            Page<Truck> activeTrucksPage = new PageImpl<>(Collections.emptyList(), Pageable.unpaged(), 3);
-
-            when(truckRepository.findByAllowedGroups(anyList(), any(Pageable.class)))
-                .thenReturn(trucksPage);
-            when(truckRepository.findByAllowedGroupsAndStatus(anyList(), eq(TruckStatus.ACTIVE.name()), any(Pageable.class)))
-                .thenReturn(activeTrucksPage);
-            when(tripRepository.countByCreatedAtBetween(any(Instant.class), any(Instant.class)))
+            when(fleetStatusCounters.getCounts(List.of(groupId1, groupId2))).thenReturn(counts(3, 1, 1, 0));
+            when(tripRepository.countCreatedOnDays(any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(1L);
 
             // When - groups with extra spaces
@@ -602,7 +424,7 @@ class DashboardServiceTest {
 
             // Then
             assertThat(result.totalTrucks()).isEqualTo(5);
-            verify(truckRepository).findByAllowedGroups(anyList(), any(Pageable.class));
+            verify(fleetStatusCounters).getCounts(List.of(groupId1, groupId2));
         }
     }
 }
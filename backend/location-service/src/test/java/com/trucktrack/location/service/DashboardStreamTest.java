@@ -0,0 +1,176 @@
+package com.trucktrack.location.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.trucktrack.common.cache.CacheConstants;
+import com.trucktrack.location.cache.CacheInvalidator;
+import com.trucktrack.location.dto.DashboardKpiDTO;
+import com.trucktrack.location.dto.FleetStatusDTO;
+import com.trucktrack.location.dto.PerformanceMetricsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DashboardStream - dashboard sections pushed on change.
+ * Tests the initial snapshot, debounced recomputation and shared views.
+ */
+@DisplayName("DashboardStream")
+class DashboardStreamTest {
+
+    private static final String GROUPS = "11111111-1111-1111-1111-111111111111";
+
+    private DashboardService dashboardService;
+    private FleetStatusCounters fleetStatusCounters;
+    private Cache kpisCache;
+    private Cache performanceCache;
+    private DashboardStream stream;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = mock(DashboardService.class);
+        fleetStatusCounters = mock(FleetStatusCounters.class);
+        kpisCache = mock(Cache.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(anyString())).thenReturn(mock(Cache.class));
+        when(cacheManager.getCache(CacheConstants.CACHE_DASHBOARD_KPIS)).thenReturn(kpisCache);
+        performanceCache = mock(Cache.class);
+        when(cacheManager.getCache(CacheConstants.CACHE_DASHBOARD_PERFORMANCE)).thenReturn(performanceCache);
+
+        stream = new DashboardStream(dashboardService, fleetStatusCounters, cacheManager,
+                new ObjectMapper().registerModule(new JavaTimeModule()), Duration.ofHours(1), Duration.ofHours(1));
+
+        when(dashboardService.getKpis(GROUPS)).thenReturn(kpis(10));
+        when(dashboardService.getFleetStatus(GROUPS)).thenReturn(fleetStatus(4));
+        when(dashboardService.getRecentActivity(GROUPS, 5)).thenReturn(List.of());
+        when(dashboardService.getPerformanceMetrics(GROUPS, "week"))
+                .thenReturn(PerformanceMetricsDTO.builder().tripCompletionRate(80.0).build());
+    }
+
+    private DashboardKpiDTO kpis(int totalTrucks) {
+        return DashboardKpiDTO.builder().totalTrucks(totalTrucks).activeTrucks(3).tripsToday(2).build();
+    }
+
+    private FleetStatusDTO fleetStatus(int active) {
+        return FleetStatusDTO.builder().total(10).active(active).idle(10 - active).offline(0).build();
+    }
+
+    /**
+     * Subscribe and collect the named events (keep-alive comments skipped).
+     */
+    private Disposable collect(List<String> eventNames) {
+        return stream.subscribe(GROUPS, "week")
+                .filter(event -> event.event() != null)
+                .map(ServerSentEvent::event)
+                .subscribe(eventNames::add);
+    }
+
+    @Nested
+    @DisplayName("subscribe")
+    class Subscribe {
+
+        @Test
+        @DisplayName("should emit every section first")
+        void should_emitFullDashboard_when_subscribed() {
+            // Given
+            List<String> events = new CopyOnWriteArrayList<>();
+
+            // When
+            Disposable subscription = collect(events);
+
+            // Then
+            assertThat(events).containsExactlyInAnyOrder("kpis", "fleetStatus", "activity", "performance");
+            subscription.dispose();
+        }
+
+        @Test
+        @DisplayName("should share one view between admins of the same groups and drop it when they leave")
+        void should_shareView_when_sameGroups() {
+            // When
+            Disposable first = collect(new CopyOnWriteArrayList<>());
+            Disposable second = collect(new CopyOnWriteArrayList<>());
+
+            // Then
+            verify(dashboardService, times(1)).getKpis(GROUPS);
+            assertThat(stream.getViewCount()).isEqualTo(1);
+            first.dispose();
+            assertThat(stream.getViewCount()).isEqualTo(1);
+            second.dispose();
+            assertThat(stream.getViewCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("pushChanges")
+    class PushChanges {
+
+        @Test
+        @DisplayName("should push only the sections whose content changed")
+        void should_pushChangedSections_when_statusChanged() {
+            // Given
+            List<String> events = new CopyOnWriteArrayList<>();
+            Disposable subscription = collect(events);
+            stream.pushChanges();
+            events.clear();
+            when(fleetStatusCounters.getVersion()).thenReturn(1L);
+            when(dashboardService.getFleetStatus(GROUPS)).thenReturn(fleetStatus(6));
+
+            // When
+            stream.pushChanges();
+
+            // Then
+            assertThat(events).containsExactly("fleetStatus");
+            verify(kpisCache, atLeastOnce()).evict(GROUPS);
+            verify(kpisCache, never()).clear();
+            verify(dashboardService, times(1)).getPerformanceMetrics(GROUPS, "week");
+            subscription.dispose();
+        }
+
+        @Test
+        @DisplayName("should recompute trip sections once per debounce pass")
+        void should_recomputeTripSections_when_tripsChanged() {
+            // Given
+            Disposable subscription = collect(new CopyOnWriteArrayList<>());
+            stream.pushChanges();
+            stream.onTripChanged(new CacheInvalidator.TripChangedEvent("trip-1"));
+            stream.onTripChanged(new CacheInvalidator.TripChangedEvent("trip-2"));
+
+            // When
+            stream.pushChanges();
+            stream.pushChanges();
+
+            // Then
+            verify(dashboardService, times(2)).getRecentActivity(GROUPS, 5);
+            verify(dashboardService, times(2)).getPerformanceMetrics(GROUPS, "week");
+            verify(performanceCache).evict(GROUPS + ":week");
+            verify(performanceCache, never()).clear();
+            subscription.dispose();
+        }
+
+        @Test
+        @DisplayName("should not recompute anything without subscribers")
+        void should_skip_when_noViews() {
+            // Given
+            stream.onTripChanged(new CacheInvalidator.TripChangedEvent("trip-1"));
+
+            // When
+            stream.pushChanges();
+
+            // Then
+            verifyNoInteractions(dashboardService);
+        }
+    }
+}
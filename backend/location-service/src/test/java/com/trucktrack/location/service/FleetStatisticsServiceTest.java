@@ -1,6 +1,7 @@
 package com.trucktrack.location.service;
 
 import com.trucktrack.location.dto.DashboardStats;
+import com.trucktrack.location.dto.MileageStats;
 import com.trucktrack.location.dto.TruckStatusStats;
 import com.trucktrack.location.repository.GPSPositionRepository;
 import com.trucktrack.location.repository.TruckRepository;
@@ -14,6 +15,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -148,6 +156,99 @@ class FleetStatisticsServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getMileageStats")
+    class GetMileageStats {
+
+        @Test
+        @DisplayName("should return fleet total, average and top trucks")
+        void should_returnTotalsAndTopTrucks() {
+            // Given - 3 trucks moved, the query returns the top ones with the fleet totals
+            when(jdbcTemplate.queryForList(anyString(), any(Object[].class))).thenReturn(List.of(
+                Map.of("truck_id", "TRK-001", "license_plate", "AB-123-CD", "km", 120.0,
+                    "total_km", 180.0, "truck_count", 3L),
+                Map.of("truck_id", "TRK-002", "license_plate", "EF-456-GH", "km", 40.0,
+                    "total_km", 180.0, "truck_count", 3L)
+            ));
+
+            // When
+            MileageStats stats = fleetStatisticsService.getMileageStats(
+                Instant.parse("2026-03-01T00:00:00Z"), Instant.parse("2026-03-10T12:00:00Z"));
+
+            // Then
+            assertThat(stats.totalKilometers()).isEqualTo(180.0);
+            assertThat(stats.averagePerTruck()).isEqualTo(60.0);
+            assertThat(stats.topTrucks()).extracting(MileageStats.TruckMileage::truckId)
+                .containsExactly("TRK-001", "TRK-002");
+        }
+
+        @Test
+        @DisplayName("should return empty stats on database error")
+        void should_returnEmpty_when_databaseError() {
+            // Given
+            when(jdbcTemplate.queryForList(anyString(), any(Object[].class)))
+                .thenThrow(new RuntimeException("Database error"));
+
+            // When
+            MileageStats stats = fleetStatisticsService.getMileageStats(Instant.now().minusSeconds(3600), Instant.now());
+
+            // Then
+            assertThat(stats.totalKilometers()).isZero();
+            assertThat(stats.topTrucks()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("MileageRange")
+    class MileageRangeSplit {
+
+        private final ZoneId utc = ZoneOffset.UTC;
+
+        @Test
+        @DisplayName("should read whole days from buckets and compute partial edges from positions")
+        void should_splitIntoEdgesAndWholeDays() {
+            // When
+            FleetStatisticsService.MileageRange range = FleetStatisticsService.MileageRange.of(
+                Instant.parse("2026-03-01T10:00:00Z"), Instant.parse("2026-03-05T15:00:00Z"), utc);
+
+            // Then
+            assertThat(range.headStart()).isEqualTo(Instant.parse("2026-03-01T10:00:00Z"));
+            assertThat(range.headEnd()).isEqualTo(Instant.parse("2026-03-02T00:00:00Z"));
+            assertThat(range.firstFullDay()).isEqualTo(LocalDate.of(2026, 3, 2));
+            assertThat(range.fullDaysEnd()).isEqualTo(LocalDate.of(2026, 3, 5));
+            assertThat(range.tailStart()).isEqualTo(Instant.parse("2026-03-05T00:00:00Z"));
+            assertThat(range.tailEnd()).isEqualTo(Instant.parse("2026-03-05T15:00:00Z"));
+        }
+
+        @Test
+        @DisplayName("should have no head edge when the period starts at midnight")
+        void should_haveEmptyHead_when_startAtMidnight() {
+            // When
+            FleetStatisticsService.MileageRange range = FleetStatisticsService.MileageRange.of(
+                Instant.parse("2026-03-01T00:00:00Z"), Instant.parse("2026-03-03T00:00:00Z"), utc);
+
+            // Then
+            assertThat(range.headStart()).isEqualTo(range.headEnd());
+            assertThat(range.firstFullDay()).isEqualTo(LocalDate.of(2026, 3, 1));
+            assertThat(range.fullDaysEnd()).isEqualTo(LocalDate.of(2026, 3, 3));
+            assertThat(range.tailStart()).isEqualTo(range.tailEnd());
+        }
+
+        @Test
+        @DisplayName("should use a single edge when the period contains no whole day")
+        void should_useSingleEdge_when_noWholeDay() {
+            // When
+            FleetStatisticsService.MileageRange range = FleetStatisticsService.MileageRange.of(
+                Instant.parse("2026-03-01T10:00:00Z"), Instant.parse("2026-03-02T05:00:00Z"), utc);
+
+            // Then
+            assertThat(range.headStart()).isEqualTo(Instant.parse("2026-03-01T10:00:00Z"));
+            assertThat(range.headEnd()).isEqualTo(Instant.parse("2026-03-02T05:00:00Z"));
+            assertThat(range.firstFullDay()).isEqualTo(range.fullDaysEnd());
+            assertThat(range.tailStart()).isEqualTo(range.tailEnd());
+        }
+    }
+
     @Nested
     @DisplayName("TruckStatusStats calculations")
     class TruckStatusStatsCalculations {
@@ -0,0 +1,188 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.location.cache.CacheInvalidator;
+import com.trucktrack.location.cache.TruckGroupMembershipCache;
+import com.trucktrack.location.model.TruckStatus;
+import com.trucktrack.location.repository.TruckRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FleetStatusCounters - live truck counts per status and group.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FleetStatusCounters")
+class FleetStatusCountersTest {
+
+    @Mock
+    private TruckRepository truckRepository;
+
+    @Mock
+    private TruckGroupMembershipCache membershipCache;
+
+    @InjectMocks
+    private FleetStatusCounters counters;
+
+    private UUID groupA;
+    private UUID groupB;
+    private UUID truck1;
+    private UUID truck2;
+    private UUID truck3;
+
+    @BeforeEach
+    void setUp() {
+        groupA = UUID.randomUUID();
+        groupB = UUID.randomUUID();
+        truck1 = UUID.randomUUID();
+        truck2 = UUID.randomUUID();
+        truck3 = UUID.randomUUID();
+
+        // truck1 in both groups, truck2 in A, truck3 in none
+        when(truckRepository.findAllIdsAndStatuses()).thenReturn(List.of(
+            new Object[]{truck1, TruckStatus.ACTIVE},
+            new Object[]{truck2, TruckStatus.IDLE},
+            new Object[]{truck3, TruckStatus.OFFLINE}));
+        when(membershipCache.getGroups(truck1)).thenReturn(Set.of(groupA, groupB));
+        when(membershipCache.getGroups(truck2)).thenReturn(Set.of(groupA));
+        when(membershipCache.getGroups(truck3)).thenReturn(Set.of());
+    }
+
+    @Nested
+    @DisplayName("getCounts")
+    class GetCounts {
+
+        @Test
+        @DisplayName("should count all trucks when no group is given")
+        void should_countAllTrucks_when_noGroups() {
+            // When
+            FleetStatusCounters.Counts result = counters.getCounts(List.of());
+
+            // Then
+            assertThat(result.total()).isEqualTo(3);
+            assertThat(result.get(TruckStatus.ACTIVE)).isEqualTo(1);
+            assertThat(result.get(TruckStatus.IDLE)).isEqualTo(1);
+            assertThat(result.get(TruckStatus.OFFLINE)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should count a truck of several groups once")
+        void should_countOnce_when_truckInSeveralGroups() {
+            // When
+            FleetStatusCounters.Counts both = counters.getCounts(List.of(groupA, groupB));
+            FleetStatusCounters.Counts onlyB = counters.getCounts(List.of(groupB));
+
+            // Then
+            assertThat(both.total()).isEqualTo(2);
+            assertThat(onlyB.total()).isEqualTo(1);
+            assertThat(onlyB.get(TruckStatus.ACTIVE)).isEqualTo(1);
+            verify(truckRepository, times(1)).findAllIdsAndStatuses();
+        }
+    }
+
+    @Nested
+    @DisplayName("updates")
+    class Updates {
+
+        @Test
+        @DisplayName("should move a truck to its new status")
+        void should_moveTruck_when_statusChanges() {
+            // Given
+            counters.getCounts(List.of());
+
+            // When
+            counters.onStatusChange(truck2, TruckStatus.ACTIVE);
+
+            // Then
+            FleetStatusCounters.Counts result = counters.getCounts(List.of(groupA));
+            assertThat(result.get(TruckStatus.ACTIVE)).isEqualTo(2);
+            assertThat(result.get(TruckStatus.IDLE)).isZero();
+            assertThat(result.total()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should move a truck between groups when its membership changes")
+        void should_moveTruck_when_addedToGroup() {
+            // Given
+            counters.getCounts(List.of());
+
+            // When
+            counters.onTruckGroupChanged(new CacheInvalidator.TruckGroupChangedEvent(
+                truck3.toString(), groupB.toString(), true));
+            counters.onTruckGroupChanged(new CacheInvalidator.TruckGroupChangedEvent(
+                truck3.toString(), groupB.toString(), true));
+
+            // Then
+            FleetStatusCounters.Counts result = counters.getCounts(List.of(groupB));
+            assertThat(result.total()).isEqualTo(2);
+            assertThat(result.get(TruckStatus.OFFLINE)).isEqualTo(1);
+            assertThat(counters.getCounts(List.of()).total()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should reload on next read after a group modification")
+        void should_reload_when_groupModified() {
+            // Given
+            counters.getCounts(List.of());
+
+            // When
+            counters.onGroupModified(new CacheInvalidator.GroupModifiedEvent(groupA.toString()));
+            counters.getCounts(List.of());
+
+            // Then
+            verify(truckRepository, times(2)).findAllIdsAndStatuses();
+        }
+
+        @Test
+        @DisplayName("should pick up on the periodic reload the status changes made by other instances")
+        void should_reloadFromTable_when_periodicReload() {
+            // Given
+            counters.getCounts(List.of());
+            when(truckRepository.findAllIdsAndStatuses()).thenReturn(List.of(
+                new Object[]{truck1, TruckStatus.ACTIVE},
+                new Object[]{truck2, TruckStatus.ACTIVE}));
+
+            // When
+            counters.reloadIfLoaded();
+
+            // Then
+            FleetStatusCounters.Counts result = counters.getCounts(List.of());
+            assertThat(result.get(TruckStatus.ACTIVE)).isEqualTo(2);
+            assertThat(result.total()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should apply status changes without waiting for a reload and keep them once it completes")
+        void should_keepStatusChange_when_appliedDuringReload() {
+            // Given
+            List<Object[]> tableBeforeChange = truckRepository.findAllIdsAndStatuses();
+            when(truckRepository.findAllIdsAndStatuses()).thenAnswer(invocation -> {
+                CompletableFuture.runAsync(() -> counters.onStatusChange(truck2, TruckStatus.OUT_OF_SERVICE))
+                    .get(5, TimeUnit.SECONDS);
+                return tableBeforeChange;
+            });
+
+            // When
+            FleetStatusCounters.Counts result = counters.getCounts(List.of());
+
+            // Then
+            assertThat(result.get(TruckStatus.OUT_OF_SERVICE)).isEqualTo(1);
+            assertThat(result.get(TruckStatus.IDLE)).isZero();
+            assertThat(result.total()).isEqualTo(3);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.trucktrack.location.service;
 
 import com.trucktrack.common.exception.ResourceNotFoundException;
 import com.trucktrack.common.exception.ValidationException;
+import com.trucktrack.location.cache.CacheInvalidator;
+import com.trucktrack.location.cache.GeofenceSpatialCache;
 import com.trucktrack.location.dto.GeofenceDTO;
 import com.trucktrack.location.model.Geofence;
 import com.trucktrack.location.model.GeofenceZoneType;
@@ -19,6 +21,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -26,6 +29,7 @@ import org.springframework.data.domain.PageRequest;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,6 +48,12 @@ class GeofenceServiceTest {
     @Mock
     private GeofenceRepository geofenceRepository;
 
+    @Mock
+    private GeofenceSpatialCache geofenceSpatialCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private GeofenceService geofenceService;
 
@@ -288,6 +298,7 @@ class GeofenceServiceTest {
 
             // Then
             verify(geofenceRepository).deleteById(geofenceId);
+            verify(eventPublisher).publishEvent(new CacheInvalidator.GeofenceChangedEvent(geofenceId.toString()));
         }
 
         @Test
@@ -313,7 +324,7 @@ class GeofenceServiceTest {
             // Given - point inside the polygon
             double lat = 48.85;
             double lon = 2.35;
-            when(geofenceRepository.isPointInsideGeofence(geofenceId, lat, lon)).thenReturn(true);
+            when(geofenceSpatialCache.contains(geofenceId, lat, lon)).thenReturn(true);
 
             // When
             boolean result = geofenceService.isPointInsideGeofence(geofenceId, lat, lon);
@@ -328,7 +339,7 @@ class GeofenceServiceTest {
             // Given - point outside the polygon
             double lat = 49.0;
             double lon = 3.0;
-            when(geofenceRepository.isPointInsideGeofence(geofenceId, lat, lon)).thenReturn(false);
+            when(geofenceSpatialCache.contains(geofenceId, lat, lon)).thenReturn(false);
 
             // When
             boolean result = geofenceService.isPointInsideGeofence(geofenceId, lat, lon);
@@ -387,15 +398,29 @@ class GeofenceServiceTest {
             // Given
             double lat = 48.85;
             double lon = 2.35;
-            when(geofenceRepository.findGeofencesContainingPoint(lat, lon))
-                .thenReturn(List.of(testGeofence));
+            when(geofenceSpatialCache.findContaining(lat, lon)).thenReturn(Set.of(geofenceId));
+            when(geofenceRepository.findAllById(Set.of(geofenceId))).thenReturn(List.of(testGeofence));
 
             // When
             List<GeofenceDTO> result = geofenceService.findGeofencesContainingPoint(lat, lon);
 
             // Then
             assertThat(result).hasSize(1);
-            verify(geofenceRepository).findGeofencesContainingPoint(lat, lon);
+            verify(geofenceRepository, never()).findGeofencesContainingPoint(anyDouble(), anyDouble());
+        }
+
+        @Test
+        @DisplayName("should not query the database when no geofence contains the point")
+        void should_skipDatabase_when_noCandidate() {
+            // Given
+            when(geofenceSpatialCache.findContaining(49.0, 3.0)).thenReturn(Set.of());
+
+            // When
+            List<GeofenceDTO> result = geofenceService.findGeofencesContainingPoint(49.0, 3.0);
+
+            // Then
+            assertThat(result).isEmpty();
+            verifyNoInteractions(geofenceRepository);
         }
     }
 
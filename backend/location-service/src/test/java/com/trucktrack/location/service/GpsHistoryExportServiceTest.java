@@ -0,0 +1,192 @@
+package com.trucktrack.location.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GpsHistoryExportService - streamed CSV export of GPS history.
+ * Tests the CSV layout, the cursor fetch size, the access filters and the export limits.
+ */
+@DisplayName("GpsHistoryExportService")
+class GpsHistoryExportServiceTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2026-04-01T00:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private GpsHistoryExportService exportService;
+    private ByteArrayOutputStream out;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        exportService = new GpsHistoryExportService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                5000, Duration.ofDays(366), 1);
+        out = new ByteArrayOutputStream();
+    }
+
+    private String csv() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private long export(GpsHistoryExportService.ExportFilter filter, OutputStream target) throws IOException {
+        try (GpsHistoryExportService.Export export = exportService.start(filter)) {
+            return export.writeCsv(target);
+        }
+    }
+
+    @Nested
+    @DisplayName("start / writeCsv")
+    class ExportCsv {
+
+        @Test
+        @DisplayName("should write one CSV line per row, quoting text and leaving nulls empty")
+        void should_writeRows_when_positionsFound() throws Exception {
+            // Given
+            UUID truckId = UUID.randomUUID();
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("truck_uuid")).thenReturn(truckId.toString());
+            when(rs.getString("truck_id")).thenReturn("TRK-001");
+            when(rs.getString("license_plate")).thenReturn("AB \"12\", FR");
+            when(rs.getTimestamp("timestamp")).thenReturn(Timestamp.from(START));
+            when(rs.getBigDecimal("latitude")).thenReturn(new BigDecimal("48.85660000"));
+            when(rs.getBigDecimal("longitude")).thenReturn(new BigDecimal("2.35220000"));
+            when(rs.getBigDecimal("speed")).thenReturn(new BigDecimal("52.50"));
+            when(rs.getInt("heading")).thenReturn(90);
+            when(rs.getInt("satellites")).thenReturn(0);
+            when(rs.wasNull()).thenReturn(false, true);
+            doAnswer(invocation -> {
+                RowCallbackHandler handler = invocation.getArgument(1);
+                handler.processRow(rs);
+                return null;
+            }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+            // When
+            long rows = export(new GpsHistoryExportService.ExportFilter(START, END, null, null, null), out);
+
+            // Then
+            assertThat(rows).isEqualTo(1);
+            assertThat(csv()).isEqualTo(GpsHistoryExportService.CSV_HEADER + "\n"
+                    + truckId + ",TRK-001,\"AB \"\"12\"\", FR\",2026-01-01T00:00:00Z,48.85660000,2.35220000,,52.50,90,,\n");
+        }
+
+        @Test
+        @DisplayName("should read through a cursor restricted to the truck, group and user groups")
+        void should_filterQuery_when_truckAndGroupsGiven() throws Exception {
+            // Given
+            UUID truckId = UUID.randomUUID();
+            UUID groupId = UUID.randomUUID();
+            Connection connection = mock(Connection.class);
+            PreparedStatement statement = mock(PreparedStatement.class);
+            when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+            // When
+            export(new GpsHistoryExportService.ExportFilter(
+                    START, END, truckId, groupId, List.of(groupId)), out);
+
+            // Then
+            ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+            verify(jdbcTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+            creator.getValue().createPreparedStatement(connection);
+
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            verify(connection).prepareStatement(sql.capture());
+            assertThat(sql.getValue()).contains("g.truck_id = ?").endsWith("ORDER BY g.truck_id, g.timestamp");
+            // Column renamed by V8__fix_truck_group_assignments_schema
+            assertThat(sql.getValue()).contains("WHERE group_id = ANY(?::uuid[])").doesNotContain("truck_group_id");
+            verify(statement).setFetchSize(5000);
+            verify(statement).setObject(3, truckId);
+            verify(statement, times(2)).setObject(anyInt(), eq("{" + groupId + "}"));
+        }
+
+        @Test
+        @DisplayName("should write the header only when the user has no groups")
+        void should_writeHeaderOnly_when_noGroups() throws Exception {
+            // When
+            long rows = export(new GpsHistoryExportService.ExportFilter(START, END, null, null, List.of()), out);
+
+            // Then
+            assertThat(rows).isZero();
+            assertThat(csv()).isEqualTo(GpsHistoryExportService.CSV_HEADER + "\n");
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("limits")
+    class Limits {
+
+        @Test
+        @DisplayName("should reject a range longer than the maximum without querying")
+        void should_reject_when_rangeTooLong() {
+            // Given
+            GpsHistoryExportService.ExportFilter filter = new GpsHistoryExportService.ExportFilter(
+                    START, START.plus(Duration.ofDays(367)), null, null, null);
+
+            // When / Then
+            assertThatThrownBy(() -> export(filter, out))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("366 days");
+            verifyNoInteractions(jdbcTemplate);
+            assertThat(csv()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should reject an empty range")
+        void should_reject_when_endNotAfterStart() {
+            // When / Then
+            assertThatThrownBy(() -> export(new GpsHistoryExportService.ExportFilter(START, START, null, null, null), out))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("should reject an export while the maximum are running, then accept again")
+        void should_rejectExport_when_maxConcurrentRunning() throws Exception {
+            // Given
+            GpsHistoryExportService.ExportFilter filter =
+                    new GpsHistoryExportService.ExportFilter(START, END, null, null, null);
+            doAnswer(invocation -> {
+                // A second export while this one streams
+                assertThatThrownBy(() -> export(filter, new ByteArrayOutputStream()))
+                        .isInstanceOf(ExportBusyException.class);
+                return null;
+            }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+            // When
+            export(filter, out);
+            doNothing().when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+            long rows = export(filter, new ByteArrayOutputStream());
+
+            // Then
+            assertThat(rows).isZero();
+            verify(jdbcTemplate, times(2)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.trucktrack.location.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.location.cache.TruckGroupMembershipCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LivePositionStream - Server-Sent Events live feed.
+ * Tests conflation, group and bounding box filters.
+ */
+@DisplayName("LivePositionStream")
+class LivePositionStreamTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final PositionPayloadEncoder encoder = new PositionPayloadEncoder(objectMapper);
+
+    private TruckGroupMembershipCache membershipCache;
+    private LivePositionStream stream;
+
+    private UUID truckA;
+    private UUID truckB;
+    private UUID groupA;
+
+    @BeforeEach
+    void setUp() {
+        membershipCache = mock(TruckGroupMembershipCache.class);
+        stream = new LivePositionStream(membershipCache, new SimpleMeterRegistry(),
+                Duration.ofMillis(20), Duration.ofMinutes(1), 8);
+
+        truckA = UUID.randomUUID();
+        truckB = UUID.randomUUID();
+        groupA = UUID.randomUUID();
+        when(membershipCache.peekGroups(truckA)).thenReturn(Set.of(groupA));
+        when(membershipCache.peekGroups(truckB)).thenReturn(Set.of(UUID.randomUUID()));
+    }
+
+    private EncodedPosition position(UUID truckId, double latitude, double longitude) {
+        GPSPositionEvent event = new GPSPositionEvent();
+        event.setTruckId(truckId.toString());
+        event.setLatitude(latitude);
+        event.setLongitude(longitude);
+        return encoder.encode(event);
+    }
+
+    /**
+     * Subscribe, publish once the subscription is active and return the first emitted batch.
+     */
+    private List<GPSPositionEvent> firstBatch(LivePositionStream.Filter filter, List<EncodedPosition> positions)
+            throws Exception {
+        ServerSentEvent<String> event = stream.subscribe(filter)
+                .doOnSubscribe(subscription -> positions.forEach(stream::publish))
+                .blockFirst(TIMEOUT);
+        assertThat(event).isNotNull();
+        assertThat(event.event()).isEqualTo("positions");
+        return objectMapper.readValue(event.data(), new TypeReference<>() {});
+    }
+
+    @Nested
+    @DisplayName("conflation")
+    class Conflation {
+
+        @Test
+        @DisplayName("should emit only the latest position per truck")
+        void should_keepLatest_when_truckReportsTwice() throws Exception {
+            // When
+            List<GPSPositionEvent> batch = firstBatch(LivePositionStream.Filter.all(), List.of(
+                    position(truckA, 48.80, 2.30),
+                    position(truckA, 48.90, 2.35)));
+
+            // Then
+            assertThat(batch).hasSize(1);
+            assertThat(batch.get(0).getLatitude()).isEqualTo(48.90);
+        }
+
+        @Test
+        @DisplayName("should count subscribers while connected")
+        void should_countSubscribers() {
+            // When
+            var subscription = stream.subscribe(LivePositionStream.Filter.all()).subscribe();
+
+            // Then
+            assertThat(stream.getSubscriberCount()).isEqualTo(1);
+            subscription.dispose();
+            assertThat(stream.getSubscriberCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("filters")
+    class Filters {
+
+        @Test
+        @DisplayName("should only emit trucks of the requested groups")
+        void should_filterByGroup() throws Exception {
+            // Given
+            LivePositionStream.Filter filter = new LivePositionStream.Filter(Set.of(groupA), null, null, null, null);
+
+            // When
+            List<GPSPositionEvent> batch = firstBatch(filter, List.of(
+                    position(truckA, 48.85, 2.35),
+                    position(truckB, 48.85, 2.35)));
+
+            // Then
+            assertThat(batch).extracting(GPSPositionEvent::getTruckId).containsExactly(truckA.toString());
+            verify(membershipCache, never()).getGroups(any());
+            verify(membershipCache, atLeastOnce()).ensureLoaded();
+        }
+
+        @Test
+        @DisplayName("should only emit trucks inside the bounding box")
+        void should_filterByBoundingBox() throws Exception {
+            // Given
+            LivePositionStream.Filter filter = new LivePositionStream.Filter(null, 48.0, 49.0, 2.0, 3.0);
+
+            // When
+            List<GPSPositionEvent> batch = firstBatch(filter, List.of(
+                    position(truckA, 43.30, 5.37),
+                    position(truckB, 48.85, 2.35)));
+
+            // Then
+            assertThat(batch).extracting(GPSPositionEvent::getTruckId).containsExactly(truckB.toString());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.trucktrack.location.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.trucktrack.common.event.GPSPositionEvent;
 import com.trucktrack.location.model.Truck;
 import com.trucktrack.location.model.TruckStatus;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -49,6 +52,25 @@ class LocationServiceTest {
     @Mock
     private LocationWebSocketHandler webSocketHandler;
 
+    @Mock
+    private LivePositionStream livePositionStream;
+
+    @Mock
+    private TruckStatusSweeper statusSweeper;
+
+    @Mock
+    private TruckStatusEventPublisher statusEventPublisher;
+
+    @Mock
+    private DailyMetricsAggregator dailyMetricsAggregator;
+
+    @Mock
+    private FleetStatusCounters fleetStatusCounters;
+
+    @Spy
+    private PositionPayloadEncoder payloadEncoder = new PositionPayloadEncoder(
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
     @InjectMocks
     private LocationService locationService;
 
@@ -132,7 +154,7 @@ class LocationServiceTest {
             locationService.processGPSPosition(testEvent);
 
             // Then
-            verify(redisCacheService).cacheCurrentPosition(eq(truckId), eq(testEvent));
+            verify(redisCacheService).cacheCurrentPosition(eq(truckId), argThat(encoded -> encoded.position() == testEvent));
         }
 
         @Test
@@ -146,7 +168,40 @@ class LocationServiceTest {
             locationService.processGPSPosition(testEvent);
 
             // Then
-            verify(webSocketHandler).sendPositionUpdate(eq(testEvent));
+            verify(webSocketHandler).sendPositionUpdate(argThat(encoded -> encoded.position() == testEvent));
+        }
+
+        @Test
+        @DisplayName("should serialize position once and share it with every sink")
+        void should_encodeOnce_when_eventProcessed() {
+            // Given
+            when(truckRepository.findById(truckId)).thenReturn(Optional.of(testTruck));
+            when(truckStatusService.calculateStatus(anyDouble(), any(Instant.class))).thenReturn(TruckStatus.ACTIVE);
+
+            // When
+            locationService.processGPSPosition(testEvent);
+
+            // Then
+            ArgumentCaptor<EncodedPosition> encodedCaptor = ArgumentCaptor.forClass(EncodedPosition.class);
+            verify(payloadEncoder, times(1)).encode(testEvent);
+            verify(redisCacheService).cacheCurrentPosition(eq(truckId), encodedCaptor.capture());
+            verify(webSocketHandler).sendPositionUpdate(same(encodedCaptor.getValue()));
+            verify(livePositionStream).publish(same(encodedCaptor.getValue()));
+            assertThat(encodedCaptor.getValue().jsonString()).contains(truckId.toString());
+        }
+
+        @Test
+        @DisplayName("should fold the position into the daily analytics aggregates")
+        void should_recordDailyMetrics_when_eventProcessed() {
+            // Given
+            when(truckRepository.findById(truckId)).thenReturn(Optional.of(testTruck));
+            when(truckStatusService.calculateStatus(anyDouble(), any(Instant.class))).thenReturn(TruckStatus.ACTIVE);
+
+            // When
+            locationService.processGPSPosition(testEvent);
+
+            // Then
+            verify(dailyMetricsAggregator).record(testEvent);
         }
 
         @Test
@@ -159,6 +214,7 @@ class LocationServiceTest {
             assertThatThrownBy(() -> locationService.processGPSPosition(testEvent))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Truck not found");
+            verify(dailyMetricsAggregator, never()).record(any());
         }
 
         @Test
@@ -192,6 +248,22 @@ class LocationServiceTest {
 
             // Then
             verify(webSocketHandler).notifyStatusChange(eq(truckId), eq("IDLE"), eq("ACTIVE"));
+            verify(fleetStatusCounters).onStatusChange(truckId, TruckStatus.ACTIVE);
+            verify(statusEventPublisher).publishStatusChange(testTruck, TruckStatus.IDLE, TruckStatus.ACTIVE);
+        }
+
+        @Test
+        @DisplayName("should schedule the truck's IDLE/OFFLINE deadline")
+        void should_trackTruck_when_eventProcessed() {
+            // Given
+            when(truckRepository.findById(truckId)).thenReturn(Optional.of(testTruck));
+            when(truckStatusService.calculateStatus(anyDouble(), any(Instant.class))).thenReturn(TruckStatus.ACTIVE);
+
+            // When
+            locationService.processGPSPosition(testEvent);
+
+            // Then
+            verify(statusSweeper).track(truckId, TruckStatus.ACTIVE, testEvent.getTimestamp());
         }
 
         @Test
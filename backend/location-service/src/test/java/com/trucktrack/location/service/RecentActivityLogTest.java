@@ -0,0 +1,249 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.location.cache.TruckGroupMembershipCache;
+import com.trucktrack.location.dto.ActivityEventDTO;
+import com.trucktrack.location.dto.ActivityEventDTO.ActivityType;
+import com.trucktrack.location.model.Trip;
+import com.trucktrack.location.model.TripStatus;
+import com.trucktrack.location.model.Truck;
+import com.trucktrack.location.repository.TripRepository;
+import com.trucktrack.location.repository.TruckRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RecentActivityLog - in-memory recent activity feed.
+ * Tests seeding from trips, appends, group filters and the ring bound.
+ */
+@DisplayName("RecentActivityLog")
+class RecentActivityLogTest {
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private TripRepository tripRepository;
+    private TruckRepository truckRepository;
+    private TruckGroupMembershipCache membershipCache;
+    private RecentActivityLog activityLog;
+
+    private UUID truckId;
+    private UUID groupId;
+    private Truck truck;
+
+    @BeforeEach
+    void setUp() {
+        tripRepository = mock(TripRepository.class);
+        truckRepository = mock(TruckRepository.class);
+        membershipCache = mock(TruckGroupMembershipCache.class);
+        activityLog = new RecentActivityLog(tripRepository, truckRepository, membershipCache, 4);
+
+        truckId = UUID.randomUUID();
+        groupId = UUID.randomUUID();
+        truck = new Truck();
+        truck.setId(truckId);
+        truck.setLicensePlate("AB-123-CD");
+        when(membershipCache.getGroups(truckId)).thenReturn(Set.of(groupId));
+        when(truckRepository.findById(truckId)).thenReturn(Optional.of(truck));
+        when(truckRepository.findAllById(any())).thenReturn(List.of(truck));
+    }
+
+    private Trip startedTrip(Instant startedAt, UUID assignedTruckId) {
+        return Trip.builder()
+            .id(UUID.randomUUID())
+            .origin("Paris")
+            .destination("Lyon")
+            .assignedTruckId(assignedTruckId)
+            .startedAt(startedAt)
+            .status(TripStatus.IN_PROGRESS)
+            .updatedAt(startedAt)
+            .build();
+    }
+
+    private void seed(List<Trip> started, List<Trip> completed) {
+        when(tripRepository.findRecentlyStartedTrips(any(Pageable.class))).thenReturn(started);
+        when(tripRepository.findRecentlyCompletedTrips(any(Pageable.class))).thenReturn(completed);
+        when(tripRepository.findTripsWithProof(any(Pageable.class))).thenReturn(List.of());
+    }
+
+    @Nested
+    @DisplayName("seeding")
+    class Seeding {
+
+        @Test
+        @DisplayName("should merge seeded trips newest first with truck labels")
+        void should_mergeSeededTrips_byTimestampDescending() {
+            // Given
+            Trip started = startedTrip(now.minus(2, ChronoUnit.HOURS), truckId);
+            Trip completed = startedTrip(now.minus(3, ChronoUnit.HOURS), truckId);
+            completed.setStatus(TripStatus.COMPLETED);
+            completed.setCompletedAt(now.minus(1, ChronoUnit.HOURS));
+            seed(List.of(started), List.of(completed));
+
+            // When
+            List<ActivityEventDTO> result = activityLog.getRecent(List.of(), 10);
+
+            // Then
+            assertThat(result).extracting(ActivityEventDTO::type)
+                .containsExactly(ActivityType.TRIP_COMPLETED, ActivityType.TRIP_STARTED);
+            assertThat(result.get(0).truckId()).isEqualTo("AB-123-CD");
+            assertThat(result.get(1).title()).contains("Trip started");
+            verify(truckRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("should seed only once")
+        void should_seedOnce_when_readTwice() {
+            // Given
+            seed(List.of(), List.of());
+
+            // When
+            activityLog.getRecent(List.of(), 5);
+            activityLog.getRecent(List.of(), 5);
+
+            // Then
+            verify(tripRepository, times(1)).findRecentlyStartedTrips(any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("should keep an event committed while the seed queries run")
+        void should_keepEvent_when_committedDuringSeed() {
+            // Given
+            Trip committedDuringSeed = startedTrip(now, truckId);
+            when(tripRepository.findRecentlyStartedTrips(any(Pageable.class))).thenAnswer(invocation -> {
+                activityLog.onTripEvent(committedDuringSeed, ActivityType.TRIP_STARTED);
+                return List.of(); // Query snapshot taken before the commit
+            });
+            when(tripRepository.findRecentlyCompletedTrips(any(Pageable.class))).thenReturn(List.of());
+            when(tripRepository.findTripsWithProof(any(Pageable.class))).thenReturn(List.of());
+
+            // When
+            List<ActivityEventDTO> result = activityLog.getRecent(List.of(), 5);
+
+            // Then
+            assertThat(result).extracting(ActivityEventDTO::timestamp).containsExactly(now);
+        }
+    }
+
+    @Nested
+    @DisplayName("reseedIfLoaded")
+    class Reseed {
+
+        @Test
+        @DisplayName("should pick up trips recorded by another instance")
+        void should_addTripsOfOtherInstances_when_reseeded() {
+            // Given
+            seed(List.of(), List.of());
+            activityLog.getRecent(List.of(), 5);
+            Trip fromOtherInstance = startedTrip(now.minus(1, ChronoUnit.MINUTES), truckId);
+            seed(List.of(fromOtherInstance), List.of());
+
+            // When
+            activityLog.reseedIfLoaded();
+
+            // Then
+            assertThat(activityLog.getRecent(List.of(), 5)).extracting(ActivityEventDTO::timestamp)
+                .containsExactly(now.minus(1, ChronoUnit.MINUTES));
+        }
+
+        @Test
+        @DisplayName("should keep local events not yet returned by the queries")
+        void should_keepLocalEvents_when_reseeded() {
+            // Given
+            seed(List.of(), List.of());
+            activityLog.getRecent(List.of(), 5);
+            Trip local = startedTrip(now, truckId);
+            when(tripRepository.findRecentlyStartedTrips(any(Pageable.class))).thenAnswer(invocation -> {
+                activityLog.onTripEvent(local, ActivityType.TRIP_STARTED);
+                return List.of();
+            });
+
+            // When
+            activityLog.reseedIfLoaded();
+
+            // Then
+            assertThat(activityLog.getRecent(List.of(), 5)).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("should not query trips before the feed is read")
+        void should_skip_when_notLoaded() {
+            // When
+            activityLog.reseedIfLoaded();
+
+            // Then
+            verifyNoInteractions(tripRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("appends")
+    class Appends {
+
+        @Test
+        @DisplayName("should list an appended event once even if also seeded")
+        void should_listOnce_when_seededAndAppended() {
+            // Given
+            Trip trip = startedTrip(now.minus(1, ChronoUnit.MINUTES), truckId);
+            seed(List.of(trip), List.of());
+            activityLog.getRecent(List.of(), 5);
+
+            // When
+            activityLog.onTripEvent(trip, ActivityType.TRIP_STARTED);
+
+            // Then
+            assertThat(activityLog.getRecent(List.of(), 5)).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("should keep only the latest events up to capacity and limit")
+        void should_dropOldest_when_capacityExceeded() {
+            // Given
+            seed(List.of(), List.of());
+            activityLog.getRecent(List.of(), 5);
+
+            // When
+            for (int hours = 6; hours >= 1; hours--) {
+                activityLog.onTripEvent(startedTrip(now.minus(hours, ChronoUnit.HOURS), truckId), ActivityType.TRIP_STARTED);
+            }
+
+            // Then
+            assertThat(activityLog.getRecent(List.of(), 10)).extracting(ActivityEventDTO::timestamp)
+                .containsExactly(now.minus(1, ChronoUnit.HOURS), now.minus(2, ChronoUnit.HOURS),
+                    now.minus(3, ChronoUnit.HOURS), now.minus(4, ChronoUnit.HOURS));
+            assertThat(activityLog.getRecent(List.of(), 3)).hasSize(3);
+        }
+
+        @Test
+        @DisplayName("should only list events of trucks in the requested groups")
+        void should_filterByGroups() {
+            // Given
+            seed(List.of(), List.of());
+            activityLog.getRecent(List.of(), 5);
+            activityLog.onTripEvent(startedTrip(now, truckId), ActivityType.TRIP_STARTED);
+            activityLog.onTripEvent(startedTrip(now, null), ActivityType.TRIP_STARTED);
+
+            // When
+            List<ActivityEventDTO> inGroup = activityLog.getRecent(List.of(groupId), 5);
+            List<ActivityEventDTO> otherGroup = activityLog.getRecent(List.of(UUID.randomUUID()), 5);
+            List<ActivityEventDTO> all = activityLog.getRecent(List.of(), 5);
+
+            // Then
+            assertThat(inGroup).extracting(ActivityEventDTO::truckId).containsExactly("AB-123-CD");
+            assertThat(otherGroup).isEmpty();
+            assertThat(all).extracting(ActivityEventDTO::truckId).containsExactlyInAnyOrder("AB-123-CD", "Unassigned");
+        }
+    }
+}
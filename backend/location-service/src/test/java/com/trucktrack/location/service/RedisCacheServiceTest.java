@@ -0,0 +1,178 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.common.event.GPSPositionEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RedisCacheService - buffered pipelined writes and bulk reads.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisCacheService")
+class RedisCacheServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStringCommands stringCommands;
+
+    private RedisCacheService redisCacheService;
+    private UUID truckA;
+    private UUID truckB;
+
+    @BeforeEach
+    void setUp() {
+        redisCacheService = new RedisCacheService(redisTemplate);
+        truckA = UUID.randomUUID();
+        truckB = UUID.randomUUID();
+    }
+
+    private EncodedPosition encoded(UUID truckId, String json) {
+        GPSPositionEvent event = new GPSPositionEvent();
+        event.setTruckId(truckId.toString());
+        return new EncodedPosition(event, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] key(UUID truckId) {
+        return ("truck:position:" + truckId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    @DisplayName("cacheCurrentPosition")
+    class CacheCurrentPosition {
+
+        @Test
+        @DisplayName("should write latest position per truck in one pipeline on flush")
+        @SuppressWarnings("unchecked")
+        void should_pipelineLatestPositions_when_flushed() {
+            // Given
+            redisCacheService.cacheCurrentPosition(truckA, encoded(truckA, "{\"v\":1}"));
+            redisCacheService.cacheCurrentPosition(truckA, encoded(truckA, "{\"v\":2}"));
+            redisCacheService.cacheCurrentPosition(truckB, encoded(truckB, "{\"v\":3}"));
+            when(connection.stringCommands()).thenReturn(stringCommands);
+
+            // When
+            redisCacheService.flushPendingWrites();
+
+            // Then
+            ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+            verify(redisTemplate, times(1)).executePipelined(callback.capture());
+            callback.getValue().doInRedis(connection);
+
+            verify(stringCommands).set(aryEq(key(truckA)), aryEq("{\"v\":2}".getBytes(StandardCharsets.UTF_8)),
+                    any(), any());
+            verify(stringCommands).set(aryEq(key(truckB)), any(), any(), any());
+            verifyNoMoreInteractions(stringCommands);
+        }
+
+        @Test
+        @DisplayName("should keep positions buffered when the pipeline fails")
+        @SuppressWarnings("unchecked")
+        void should_keepPending_when_pipelineFails() {
+            // Given
+            redisCacheService.cacheCurrentPosition(truckA, encoded(truckA, "{\"v\":1}"));
+            when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                    .thenThrow(new IllegalStateException("Redis down"));
+
+            // When
+            redisCacheService.flushPendingWrites();
+
+            // Then
+            byte[] json = redisCacheService.getCurrentPositionJson(truckA);
+            assertThat(new String(json, StandardCharsets.UTF_8)).isEqualTo("{\"v\":1}");
+        }
+
+        @Test
+        @DisplayName("should keep a position replaced while the pipeline was in flight")
+        @SuppressWarnings("unchecked")
+        void should_keepNewerPosition_when_replacedDuringFlush() {
+            // Given
+            redisCacheService.cacheCurrentPosition(truckA, encoded(truckA, "{\"v\":1}"));
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+                redisCacheService.cacheCurrentPosition(truckA, encoded(truckA, "{\"v\":2}"));
+                return List.of();
+            });
+
+            // When
+            redisCacheService.flushPendingWrites();
+
+            // Then
+            byte[] json = redisCacheService.getCurrentPositionJson(truckA);
+            assertThat(new String(json, StandardCharsets.UTF_8)).isEqualTo("{\"v\":2}");
+        }
+
+        @Test
+        @DisplayName("should not touch Redis when nothing is pending")
+        void should_skipFlush_when_nothingPending() {
+            // When
+            redisCacheService.flushPendingWrites();
+
+            // Then
+            verifyNoInteractions(redisTemplate);
+        }
+
+        @Test
+        @DisplayName("should serve a pending position without a Redis round trip")
+        void should_readPending_when_notYetFlushed() {
+            // Given
+            redisCacheService.cacheCurrentPosition(truckA, encoded(truckA, "{\"v\":1}"));
+
+            // When
+            byte[] json = redisCacheService.getCurrentPositionJson(truckA);
+
+            // Then
+            assertThat(new String(json, StandardCharsets.UTF_8)).isEqualTo("{\"v\":1}");
+            verifyNoInteractions(redisTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("getCurrentPositionsJson")
+    class GetCurrentPositionsJson {
+
+        @Test
+        @DisplayName("should fetch all trucks with a single MGET and skip misses")
+        @SuppressWarnings("unchecked")
+        void should_useSingleMget_when_bulkRead() {
+            // Given
+            UUID missing = UUID.randomUUID();
+            when(connection.stringCommands()).thenReturn(stringCommands);
+            when(stringCommands.mGet(any(byte[][].class)))
+                    .thenReturn(Arrays.asList("{\"a\":1}".getBytes(StandardCharsets.UTF_8), null));
+            when(redisTemplate.execute(any(RedisCallback.class)))
+                    .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+
+            // When
+            Map<UUID, byte[]> positions = redisCacheService.getCurrentPositionsJson(List.of(truckA, missing));
+
+            // Then
+            assertThat(positions).containsOnlyKeys(truckA);
+            verify(stringCommands, times(1)).mGet(any(byte[][].class));
+        }
+    }
+}
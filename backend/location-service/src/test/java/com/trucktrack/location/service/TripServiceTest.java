@@ -1,7 +1,12 @@
 package com.trucktrack.location.service;
 
+import com.trucktrack.common.dto.CursorPage;
+import com.trucktrack.common.dto.PageCursor;
+import com.trucktrack.location.cache.CacheInvalidator;
+import com.trucktrack.location.dto.ActivityEventDTO;
 import com.trucktrack.location.dto.AssignTripRequest;
 import com.trucktrack.location.dto.CreateTripRequest;
+import com.trucktrack.location.dto.TripAnalyticsDTO;
 import com.trucktrack.location.dto.TripResponse;
 import com.trucktrack.location.dto.UpdateTripStatusRequest;
 import com.trucktrack.location.model.Trip;
@@ -21,9 +26,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -58,6 +66,12 @@ class TripServiceTest {
     @Mock
     private TripEventPublisher tripEventPublisher;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RecentActivityLog recentActivityLog;
+
     @InjectMocks
     private TripService tripService;
 
@@ -296,6 +310,8 @@ class TripServiceTest {
             Trip savedTrip = tripCaptor.getValue();
             assertThat(savedTrip.getStatus()).isEqualTo(TripStatus.COMPLETED);
             assertThat(savedTrip.getCompletedAt()).isNotNull();
+            verify(eventPublisher).publishEvent(new CacheInvalidator.TripChangedEvent(tripId.toString()));
+            verify(recentActivityLog).onTripEvent(savedTrip, ActivityEventDTO.ActivityType.TRIP_COMPLETED);
         }
     }
 
@@ -419,4 +435,95 @@ class TripServiceTest {
                 .isInstanceOf(IllegalStateException.class);
         }
     }
+
+    @Nested
+    @DisplayName("Get Trips Page")
+    class GetTripsPage {
+
+        @Test
+        @DisplayName("should return next cursor at last trip of page when more trips exist")
+        void should_returnNextCursor_when_moreTripsExist() {
+            // Given
+            Instant createdAt = Instant.parse("2026-03-10T12:00:00Z");
+            List<Trip> trips = List.of(
+                Trip.builder().id(UUID.randomUUID()).origin("A").destination("B").status(TripStatus.PENDING).createdAt(createdAt).build(),
+                Trip.builder().id(UUID.randomUUID()).origin("C").destination("D").status(TripStatus.PENDING).createdAt(createdAt.minusSeconds(60)).build(),
+                Trip.builder().id(UUID.randomUUID()).origin("E").destination("F").status(TripStatus.PENDING).createdAt(createdAt.minusSeconds(120)).build());
+            when(tripRepository.searchWithFiltersBefore(null, "PENDING", null, null, null, null, null, null, 3))
+                .thenReturn(trips);
+
+            // When
+            CursorPage<TripResponse> page = tripService.getTripsPage(null, 2, null, TripStatus.PENDING, null, null, null, null);
+
+            // Then
+            assertThat(page.content()).extracting(TripResponse::getOrigin).containsExactly("A", "C");
+            assertThat(page.hasNext()).isTrue();
+            assertThat(PageCursor.decode(page.nextCursor()))
+                .isEqualTo(PageCursor.of(createdAt.minusSeconds(60), trips.get(1).getId()));
+        }
+
+        @Test
+        @DisplayName("should read trips strictly before cursor")
+        void should_readBeforeCursor_when_cursorGiven() {
+            // Given
+            PageCursor cursor = PageCursor.of(Instant.parse("2026-03-10T12:00:00Z"), UUID.randomUUID());
+            when(tripRepository.searchWithFiltersBefore(null, null, null, null, null, null,
+                cursor.timestamp(), cursor.uuidId(), 3)).thenReturn(List.of());
+
+            // When
+            CursorPage<TripResponse> page = tripService.getTripsPage(cursor.encode(), 2, null, null, null, null, null, null);
+
+            // Then
+            assertThat(page.content()).isEmpty();
+            assertThat(page.hasNext()).isFalse();
+            assertThat(page.nextCursor()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Statistics")
+    class Statistics {
+
+        @BeforeEach
+        void setUp() {
+            when(tripRepository.findStatusCounts()).thenReturn(List.of(
+                new Object[]{"PENDING", 3L, 0L, 0.0},
+                new Object[]{"IN_PROGRESS", 2L, 0L, 0.0},
+                new Object[]{"COMPLETED", 4L, 4L, 360.0},
+                new Object[]{"CANCELLED", 1L, 0L, 0.0}));
+        }
+
+        @Test
+        @DisplayName("should read trip stats from the status counters")
+        void should_readStatusCounters_when_statsRequested() {
+            // When
+            Map<String, Long> stats = tripService.getTripStats();
+
+            // Then
+            assertThat(stats).containsEntry("PENDING", 3L)
+                .containsEntry("ASSIGNED", 0L)
+                .containsEntry("COMPLETED", 4L)
+                .containsEntry("TOTAL", 10L);
+            verify(tripRepository, never()).countByStatus(any());
+            verify(tripRepository, never()).count();
+        }
+
+        @Test
+        @DisplayName("should build analytics from the status and daily counters")
+        void should_buildAnalytics_fromCounters() {
+            // Given
+            when(tripRepository.countCreatedOnDays(any(), any())).thenReturn(2L);
+
+            // When
+            TripAnalyticsDTO analytics = tripService.getAnalytics();
+
+            // Then
+            assertThat(analytics.getTotalTrips()).isEqualTo(10);
+            assertThat(analytics.getAverageDurationMinutes()).isEqualTo(90.0);
+            assertThat(analytics.getCompletionRate()).isEqualTo(40.0);
+            assertThat(analytics.getTripsToday()).isEqualTo(2);
+            assertThat(analytics.getTripsTrendPercent()).isZero();
+            verify(tripRepository, times(4)).countCreatedOnDays(any(), any());
+        }
+    }
 }
@@ -0,0 +1,187 @@
+package com.trucktrack.location.service;
+
+import com.trucktrack.location.model.Truck;
+import com.trucktrack.location.model.TruckStatus;
+import com.trucktrack.location.repository.TruckRepository;
+import com.trucktrack.location.websocket.LocationWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TruckStatusSweeper - IDLE/OFFLINE deadlines for silent trucks.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TruckStatusSweeper")
+class TruckStatusSweeperTest {
+
+    @Mock
+    private TruckRepository truckRepository;
+
+    @Mock
+    private LocationWebSocketHandler webSocketHandler;
+
+    @Mock
+    private TruckStatusEventPublisher statusEventPublisher;
+
+    @Mock
+    private FleetStatusCounters fleetStatusCounters;
+
+    private TruckStatusSweeper sweeper;
+    private UUID truckId;
+    private Instant lastUpdate;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new TruckStatusSweeper(truckRepository, webSocketHandler, statusEventPublisher, fleetStatusCounters,
+                new TruckStatusService(), new SimpleMeterRegistry(), Duration.ofMinutes(2), 1000, 64);
+        truckId = UUID.randomUUID();
+        lastUpdate = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private void givenUpdateSucceeds() {
+        when(truckRepository.updateStatusIfNotUpdatedSince(eq(truckId), any(), any(), any())).thenReturn(1);
+        when(truckRepository.findById(truckId)).thenReturn(Optional.of(Truck.builder().id(truckId).build()));
+    }
+
+    @Nested
+    @DisplayName("sweep")
+    class Sweep {
+
+        @Test
+        @DisplayName("should not change a truck before its deadline")
+        void should_doNothing_when_deadlineNotReached() {
+            // Given
+            sweeper.track(truckId, TruckStatus.ACTIVE, lastUpdate);
+
+            // When
+            sweeper.sweep(lastUpdate.plusSeconds(100));
+
+            // Then
+            verifyNoInteractions(truckRepository, webSocketHandler);
+        }
+
+        @Test
+        @DisplayName("should flip silent ACTIVE truck to IDLE, then OFFLINE")
+        void should_flipToIdleThenOffline_when_truckSilent() {
+            // Given
+            givenUpdateSucceeds();
+            sweeper.track(truckId, TruckStatus.ACTIVE, lastUpdate);
+
+            // When
+            sweeper.sweep(lastUpdate.plus(Duration.ofMinutes(2)).plusSeconds(1));
+
+            // Then
+            verify(truckRepository).updateStatusIfNotUpdatedSince(
+                    eq(truckId), eq(TruckStatus.ACTIVE), eq(TruckStatus.IDLE), any());
+            verify(webSocketHandler).notifyStatusChange(truckId, "ACTIVE", "IDLE");
+            verify(fleetStatusCounters).onStatusChange(truckId, TruckStatus.IDLE);
+
+            // When
+            sweeper.sweep(lastUpdate.plus(Duration.ofMinutes(5)).plusSeconds(1));
+
+            // Then
+            verify(truckRepository).updateStatusIfNotUpdatedSince(
+                    eq(truckId), eq(TruckStatus.IDLE), eq(TruckStatus.OFFLINE), any());
+            verify(webSocketHandler).notifyStatusChange(truckId, "IDLE", "OFFLINE");
+            verify(statusEventPublisher).publishStatusChange(any(), eq(TruckStatus.IDLE), eq(TruckStatus.OFFLINE));
+            assertThat(sweeper.getTrackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should go straight to OFFLINE when both thresholds passed")
+        void should_flipToOffline_when_offlineThresholdPassed() {
+            // Given
+            givenUpdateSucceeds();
+            sweeper.track(truckId, TruckStatus.ACTIVE, lastUpdate);
+
+            // When
+            sweeper.sweep(lastUpdate.plus(Duration.ofMinutes(10)));
+
+            // Then
+            verify(truckRepository).updateStatusIfNotUpdatedSince(
+                    eq(truckId), eq(TruckStatus.ACTIVE), eq(TruckStatus.OFFLINE), any());
+            verify(webSocketHandler).notifyStatusChange(truckId, "ACTIVE", "OFFLINE");
+        }
+
+        @Test
+        @DisplayName("should push deadline back when a new point arrives")
+        void should_reschedule_when_newPointArrives() {
+            // Given
+            sweeper.track(truckId, TruckStatus.IDLE, lastUpdate);
+
+            // When
+            sweeper.track(truckId, TruckStatus.IDLE, lastUpdate.plus(Duration.ofMinutes(4)));
+            sweeper.sweep(lastUpdate.plus(Duration.ofMinutes(6)));
+
+            // Then
+            verifyNoInteractions(truckRepository, webSocketHandler);
+            assertThat(sweeper.getTrackedCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should stop tracking without notifying when the truck changed elsewhere")
+        void should_dropTruck_when_conditionalUpdateMisses() {
+            // Given
+            when(truckRepository.updateStatusIfNotUpdatedSince(eq(truckId), any(), any(), any())).thenReturn(0);
+            sweeper.track(truckId, TruckStatus.IDLE, lastUpdate);
+
+            // When
+            sweeper.sweep(lastUpdate.plus(Duration.ofMinutes(6)));
+
+            // Then
+            verifyNoInteractions(webSocketHandler, statusEventPublisher);
+            assertThat(sweeper.getTrackedCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("track")
+    class Track {
+
+        @Test
+        @DisplayName("should not track OFFLINE or maintenance trucks")
+        void should_untrack_when_statusNotOnline() {
+            // Given
+            sweeper.track(truckId, TruckStatus.ACTIVE, lastUpdate);
+
+            // When
+            sweeper.track(truckId, TruckStatus.MAINTENANCE, lastUpdate);
+
+            // Then
+            assertThat(sweeper.getTrackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should load ACTIVE and IDLE trucks at startup")
+        void should_loadOnlineTrucks_when_applicationReady() {
+            // Given
+            Truck active = Truck.builder().id(UUID.randomUUID()).status(TruckStatus.ACTIVE).lastUpdate(lastUpdate).build();
+            Truck idle = Truck.builder().id(UUID.randomUUID()).status(TruckStatus.IDLE).lastUpdate(lastUpdate).build();
+            when(truckRepository.findByStatus(TruckStatus.ACTIVE)).thenReturn(List.of(active));
+            when(truckRepository.findByStatus(TruckStatus.IDLE)).thenReturn(List.of(idle));
+
+            // When
+            sweeper.loadTrackedTrucks();
+
+            // Then
+            assertThat(sweeper.getTrackedCount()).isEqualTo(2);
+        }
+    }
+}
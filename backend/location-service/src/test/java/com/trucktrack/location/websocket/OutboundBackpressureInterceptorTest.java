@@ -0,0 +1,322 @@
+package com.trucktrack.location.websocket;
+
+import com.trucktrack.location.config.WebSocketOutboundProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboundBackpressureInterceptor - slow-consumer protection.
+ * Tests queue depth tracking, the send buffer limit and the DROP_OLDEST, CONFLATE and DISCONNECT policies.
+ */
+@DisplayName("OutboundBackpressureInterceptor")
+class OutboundBackpressureInterceptorTest {
+
+    private static final String SESSION_ID = "session-1";
+
+    private WebSocketOutboundProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundBackpressureInterceptor interceptor;
+    private ConcurrentWebSocketSessionDecorator session;
+    private MessageChannel channel;
+    private MessageHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new WebSocketOutboundProperties();
+        properties.setMaxQueuedMessagesPerSession(2);
+        meterRegistry = new SimpleMeterRegistry();
+        channel = mock(MessageChannel.class);
+        handler = mock(MessageHandler.class);
+
+        session = mock(ConcurrentWebSocketSessionDecorator.class);
+        when(session.getId()).thenReturn(SESSION_ID);
+    }
+
+    private void connect() {
+        interceptor = new OutboundBackpressureInterceptor(properties, meterRegistry);
+        interceptor.register(session);
+    }
+
+    private void bufferFull() {
+        when(session.getBufferSize()).thenReturn((int) properties.getBufferSoftLimit().toBytes() + 1);
+    }
+
+    private Message<?> message(String conflationKey) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        if (conflationKey != null) {
+            accessor.setNativeHeader(OutboundBackpressureInterceptor.CONFLATION_KEY_HEADER, conflationKey);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    /**
+     * Enqueue all messages, then let the executor handle them; returns the delivered ones.
+     */
+    private List<Message<?>> enqueueThenDrain(List<Message<?>> messages) {
+        List<Message<?>> queued = new ArrayList<>();
+        for (Message<?> message : messages) {
+            Message<?> sent = interceptor.preSend(message, channel);
+            if (sent != null) {
+                queued.add(sent);
+            }
+        }
+        List<Message<?>> delivered = new ArrayList<>();
+        for (Message<?> message : queued) {
+            Message<?> handled = interceptor.beforeHandle(message, channel, handler);
+            if (handled != null) {
+                delivered.add(handled);
+                interceptor.afterMessageHandled(handled, channel, handler, null);
+            }
+        }
+        return delivered;
+    }
+
+    @Nested
+    @DisplayName("queue depth")
+    class QueueDepth {
+
+        @Test
+        @DisplayName("should track queued messages until handled")
+        void should_trackDepth_when_messagesQueued() throws Exception {
+            // Given
+            connect();
+            Message<?> first = interceptor.preSend(message(null), channel);
+            interceptor.preSend(message(null), channel);
+
+            // Then
+            assertThat(interceptor.getQueueDepth(SESSION_ID)).isEqualTo(2);
+
+            // When
+            interceptor.beforeHandle(first, channel, handler);
+            interceptor.afterMessageHandled(first, channel, handler, null);
+
+            // Then
+            assertThat(interceptor.getQueueDepth(SESSION_ID)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should release message rejected by the executor")
+        void should_release_when_sendFails() throws Exception {
+            // Given
+            connect();
+            Message<?> sent = interceptor.preSend(message(null), channel);
+
+            // When
+            interceptor.afterSendCompletion(sent, channel, false, new IllegalStateException("rejected"));
+
+            // Then
+            assertThat(interceptor.getQueueDepth(SESSION_ID)).isZero();
+        }
+
+        @Test
+        @DisplayName("should not track protocol frames")
+        void should_ignoreProtocolFrames() throws Exception {
+            // Given
+            connect();
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+            accessor.setSessionId(SESSION_ID);
+            Message<?> connectAck = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+            // When
+            Message<?> sent = interceptor.preSend(connectAck, channel);
+
+            // Then
+            assertThat(sent).isSameAs(connectAck);
+            assertThat(interceptor.getQueueDepth(SESSION_ID)).isZero();
+        }
+
+        @Test
+        @DisplayName("should forget session state when connection closes")
+        void should_forgetSession_when_closed() throws Exception {
+            // Given
+            connect();
+            interceptor.preSend(message(null), channel);
+
+            // When
+            interceptor.unregister(SESSION_ID);
+
+            // Then
+            assertThat(interceptor.getQueueDepth(SESSION_ID)).isZero();
+            assertThat(meterRegistry.get("websocket.outbound.sessions").gauge().value()).isZero();
+        }
+
+        @Test
+        @DisplayName("should not send the conflation key to the client")
+        void should_stripConflationKey_when_enqueued() throws Exception {
+            // Given
+            connect();
+
+            // When
+            Message<?> delivered = enqueueThenDrain(List.of(message("truck-a"))).get(0);
+
+            // Then
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(delivered);
+            assertThat(accessor.getFirstNativeHeader(OutboundBackpressureInterceptor.CONFLATION_KEY_HEADER)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("overflow policies")
+    class OverflowPolicies {
+
+        @Test
+        @DisplayName("DROP_OLDEST should keep only the newest messages")
+        void should_dropOldest_when_queueOverflows() throws Exception {
+            // Given
+            properties.setOverflowPolicy(OutboundOverflowPolicy.DROP_OLDEST);
+            connect();
+
+            // When
+            List<Message<?>> delivered = enqueueThenDrain(List.of(message(null), message(null), message(null)));
+
+            // Then
+            assertThat(delivered).hasSize(2);
+            assertThat(interceptor.getQueueDepth(SESSION_ID)).isZero();
+            assertThat(meterRegistry.get("websocket.outbound.dropped").tag("reason", "oldest").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("CONFLATE should deliver only the latest message per key")
+        void should_conflate_when_sameKeyQueued() throws Exception {
+            // Given
+            properties.setOverflowPolicy(OutboundOverflowPolicy.CONFLATE);
+            properties.setMaxQueuedMessagesPerSession(10);
+            connect();
+
+            // When
+            List<Message<?>> delivered = enqueueThenDrain(
+                    List.of(message("truck-a"), message("truck-a"), message("truck-b")));
+
+            // Then
+            assertThat(delivered).hasSize(2);
+            assertThat(interceptor.getQueueDepth(SESSION_ID)).isZero();
+            assertThat(meterRegistry.get("websocket.outbound.dropped").tag("reason", "conflated").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("DISCONNECT should close the session once the limit is exceeded")
+        void should_evictSession_when_queueOverflows() throws Exception {
+            // Given
+            properties.setOverflowPolicy(OutboundOverflowPolicy.DISCONNECT);
+            connect();
+
+            // When
+            interceptor.preSend(message(null), channel);
+            interceptor.preSend(message(null), channel);
+            Message<?> overflow = interceptor.preSend(message(null), channel);
+            interceptor.preSend(message(null), channel);
+
+            // Then
+            assertThat(overflow).isNull();
+            verify(session, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+            assertThat(meterRegistry.get("websocket.outbound.evictions").counter().count()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("send buffer")
+    class SendBuffer {
+
+        @Test
+        @DisplayName("CONFLATE should park the latest message per key while the buffer is full")
+        void should_parkLatest_when_bufferFull() throws Exception {
+            // Given
+            properties.setOverflowPolicy(OutboundOverflowPolicy.CONFLATE);
+            properties.setMaxQueuedMessagesPerSession(10);
+            connect();
+            bufferFull();
+
+            // When
+            List<Message<?>> delivered = new ArrayList<>();
+            delivered.addAll(enqueueThenDrain(List.of(message("truck-a"))));
+            delivered.addAll(enqueueThenDrain(List.of(message("truck-a"), message(null))));
+
+            // Then
+            assertThat(delivered).hasSize(1);
+            assertThat(interceptor.getQueueDepth(SESSION_ID)).isZero();
+            assertThat(meterRegistry.get("websocket.outbound.dropped").tag("reason", "conflated").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("CONFLATE should re-send parked messages once the buffer drains")
+        void should_resendParked_when_bufferDrained() throws Exception {
+            // Given
+            properties.setOverflowPolicy(OutboundOverflowPolicy.CONFLATE);
+            connect();
+            bufferFull();
+            enqueueThenDrain(List.of(message("truck-a")));
+
+            // When
+            interceptor.flushParked();
+
+            // Then
+            verify(channel, never()).send(any());
+
+            // When
+            when(session.getBufferSize()).thenReturn(0);
+            interceptor.flushParked();
+            interceptor.flushParked();
+
+            // Then
+            verify(channel, times(1)).send(any());
+        }
+
+        @Test
+        @DisplayName("DISCONNECT should close the session once the buffer exceeds the soft limit")
+        void should_evictSession_when_bufferFull() throws Exception {
+            // Given
+            properties.setOverflowPolicy(OutboundOverflowPolicy.DISCONNECT);
+            properties.setBufferSoftLimit(DataSize.ofKilobytes(1));
+            connect();
+            bufferFull();
+
+            // When
+            List<Message<?>> delivered = enqueueThenDrain(List.of(message(null)));
+
+            // Then
+            assertThat(delivered).isEmpty();
+            assertThat(interceptor.getQueueDepth(SESSION_ID)).isZero();
+            verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        }
+
+        @Test
+        @DisplayName("DROP_OLDEST should leave dropping to the session decorator")
+        void should_deliver_when_bufferFullAndDropOldest() throws Exception {
+            // Given
+            properties.setOverflowPolicy(OutboundOverflowPolicy.DROP_OLDEST);
+            connect();
+            bufferFull();
+
+            // When
+            List<Message<?>> delivered = enqueueThenDrain(List.of(message("truck-a")));
+
+            // Then
+            assertThat(delivered).hasSize(1);
+            assertThat(interceptor.getBufferOverflowStrategy())
+                    .isEqualTo(ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.trucktrack.notification.config;
 
+import com.trucktrack.notification.websocket.StompAuthChannelInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -12,13 +15,18 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  *
  * Endpoints:
  * - /ws-notifications - WebSocket connection endpoint
- * - /topic/notifications - Subscribe to receive all notifications (broadcast)
- * - /user/queue/notifications - Subscribe to user-specific notifications
+ * - /user/queue/notifications - Subscribe to the notifications of the connected user
+ *
+ * Notifications are private: they are only pushed to their recipient, identified by the JWT
+ * sent in the CONNECT frame (see {@link StompAuthChannelInterceptor}).
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable simple in-memory message broker
@@ -45,4 +53,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws-notifications")
                 .setAllowedOriginPatterns("*");
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Resolve the user of the session on CONNECT
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
 }
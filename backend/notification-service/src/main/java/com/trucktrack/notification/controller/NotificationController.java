@@ -1,5 +1,6 @@
 package com.trucktrack.notification.controller;
 
+import com.trucktrack.common.dto.CursorPage;
 import com.trucktrack.common.security.GatewayUserPrincipal;
 import com.trucktrack.notification.model.Notification;
 import com.trucktrack.notification.service.NotificationService;
@@ -44,6 +45,23 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Get notifications for current user with keyset pagination (infinite scroll)
+     * GET /notification/v1/notifications/cursor?cursor=...&size=20
+     *
+     * Each page returns the token of the next one; deep pages cost the same as the first
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<Notification>> getNotificationsCursor(
+            @AuthenticationPrincipal GatewayUserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        UUID userId = UUID.fromString(principal.userId());
+        log.debug("Getting notifications page for user: {}, size: {}", userId, size);
+        return ResponseEntity.ok(notificationService.getNotificationsPage(userId, cursor, size));
+    }
+
     /**
      * Get unread notifications for current user
      * GET /notification/v1/notifications/unread
@@ -3,10 +3,15 @@ package com.trucktrack.notification.kafka;
 import com.trucktrack.common.event.AlertTriggeredEvent;
 import com.trucktrack.common.event.GPSPositionEvent;
 import com.trucktrack.notification.service.AlertRuleEngine;
+import com.trucktrack.notification.service.AlertStateChangelog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 /**
@@ -19,6 +24,7 @@ import org.springframework.stereotype.Component;
 public class AlertKafkaConsumer {
 
     private final AlertRuleEngine alertRuleEngine;
+    private final AlertStateChangelog alertStateChangelog;
 
     /**
      * Consume GPS position events and evaluate alert rules
@@ -28,14 +34,22 @@ public class AlertKafkaConsumer {
             groupId = "notification-service-gps-consumer",
             containerFactory = "gpsKafkaListenerContainerFactory"
     )
-    public void consumeGPSPositionEvent(GPSPositionEvent event, Acknowledgment ack) {
+    public void consumeGPSPositionEvent(GPSPositionEvent event,
+                                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                        Acknowledgment ack) {
         try {
             log.debug("Received GPS event for truck: {}", event.getTruckId());
 
             // Evaluate alert rules against the GPS event
             alertRuleEngine.evaluateRules(event);
 
+            // Persist geofence/cooldown changes before committing the position (waits for the write)
+            alertStateChangelog.flush(event.getTruckId(), partition);
+
             ack.acknowledge();
+        } catch (KafkaException e) {
+            // State not persisted - the error handler seeks back and redelivers the position
+            throw e;
         } catch (Exception e) {
             log.error("Error processing GPS event for truck {}: {}",
                     event.getTruckId(), e.getMessage(), e);
@@ -56,10 +70,13 @@ public class AlertKafkaConsumer {
             log.info("Received alert event: {} for truck {}",
                     event.getAlertType(), event.getTruckId());
 
-            // Create notifications for affected users
+            // Save notifications for affected users; they are pushed asynchronously
             alertRuleEngine.processAlertEvent(event);
 
             ack.acknowledge();
+        } catch (DataAccessException e) {
+            // Notifications not saved - the error handler seeks back and redelivers the alert
+            throw e;
         } catch (Exception e) {
             log.error("Error processing alert event {}: {}",
                     event.getEventId(), e.getMessage(), e);
@@ -0,0 +1,36 @@
+package com.trucktrack.notification.kafka;
+
+import com.trucktrack.notification.service.AlertRuleCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the local rule snapshot when another instance changed a rule.
+ * Every instance assigns itself all partitions, without a consumer group, so each one
+ * receives all notices (see {@link BroadcastPartitionFinder}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertRuleChangeListener {
+
+    private final AlertRuleCache alertRuleCache;
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = "${kafka.topics.alert-rules:truck-track.notification.alert-rules}",
+                    partitions = "#{@broadcastPartitions.partitions('${kafka.topics.alert-rules:truck-track.notification.alert-rules}')}"),
+            containerFactory = "alertRuleChangeKafkaListenerContainerFactory"
+    )
+    public void onAlertRuleChanged(AlertRuleChangeNotice notice) {
+        if (alertRuleCache.getInstanceId().equals(notice.getSourceInstanceId())) {
+            return; // Already rebuilt locally
+        }
+        log.info("Alert rule {} {} on another instance - rebuilding rule snapshot",
+                notice.getRuleId(), notice.isDeleted() ? "deleted" : "changed");
+        alertRuleCache.reload();
+    }
+}
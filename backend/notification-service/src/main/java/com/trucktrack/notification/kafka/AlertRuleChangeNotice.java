@@ -0,0 +1,22 @@
+package com.trucktrack.notification.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Message on the compacted alert-rules topic telling other instances that a rule changed.
+ * Keyed by rule ID, so compaction keeps only the latest change per rule.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRuleChangeNotice {
+
+    private String ruleId;
+    private boolean deleted;
+    private String sourceInstanceId;
+    private Instant changedAt;
+}
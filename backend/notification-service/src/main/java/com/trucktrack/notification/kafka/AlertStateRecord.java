@@ -0,0 +1,31 @@
+package com.trucktrack.notification.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Alert state of one truck on the compacted alert-state changelog topic.
+ * Keyed by truck ID and written to the same partition number as the truck's GPS positions,
+ * so compaction keeps the latest state per truck and it follows the GPS partition assignment.
+ * A null value (tombstone) removes the truck's state.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertStateRecord {
+
+    private String truckId;
+
+    /** Geofence or dwell rule ID -> GeofenceStateCache columns */
+    private Map<UUID, long[]> geofenceState;
+
+    /** Rule ID -> AlertCooldownCache columns */
+    private Map<UUID, long[]> cooldowns;
+
+    private Instant updatedAt;
+}
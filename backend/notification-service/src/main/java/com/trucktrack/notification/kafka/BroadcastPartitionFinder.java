@@ -0,0 +1,33 @@
+package com.trucktrack.notification.kafka;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.List;
+
+/**
+ * Lists the partitions of a broadcast topic, for listeners that assign themselves every
+ * partition instead of joining a consumer group. Each instance then receives all messages,
+ * and nothing is left behind on the brokers when it stops.
+ *
+ * Used from listener annotations: {@code partitions = "#{@broadcastPartitions.partitions('topic')}"}.
+ */
+@RequiredArgsConstructor
+public class BroadcastPartitionFinder {
+
+    private final ConsumerFactory<String, String> consumerFactory;
+
+    public String[] partitions(String topic) {
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+            if (partitions == null || partitions.isEmpty()) {
+                throw new IllegalStateException("Topic " + topic + " does not exist");
+            }
+            return partitions.stream()
+                    .map(partition -> String.valueOf(partition.partition()))
+                    .toArray(String[]::new);
+        }
+    }
+}
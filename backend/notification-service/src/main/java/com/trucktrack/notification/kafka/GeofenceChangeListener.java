@@ -0,0 +1,33 @@
+package com.trucktrack.notification.kafka;
+
+import com.trucktrack.common.event.GeofenceChangeEvent;
+import com.trucktrack.notification.service.GeofenceIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads the geofence index when a geofence is changed in location-service.
+ * Every instance assigns itself all partitions, without a consumer group, so each one
+ * receives all changes (see {@link BroadcastPartitionFinder}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeofenceChangeListener {
+
+    private final GeofenceIndex geofenceIndex;
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = "${kafka.topics.geofence-change:truck-track.location.geofence-change}",
+                    partitions = "#{@broadcastPartitions.partitions('${kafka.topics.geofence-change:truck-track.location.geofence-change}')}"),
+            containerFactory = "geofenceChangeKafkaListenerContainerFactory"
+    )
+    public void onGeofenceChanged(GeofenceChangeEvent event) {
+        log.debug("Received geofence change: {}", event);
+        geofenceIndex.reload();
+    }
+}
@@ -5,6 +5,9 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.trucktrack.common.event.AlertTriggeredEvent;
 import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.common.event.GeofenceChangeEvent;
+import com.trucktrack.common.event.TruckGroupChangeEvent;
+import com.trucktrack.notification.service.AlertStateChangelog;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -66,11 +69,14 @@ public class KafkaConfig {
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, GPSPositionEvent> gpsKafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, GPSPositionEvent> gpsKafkaListenerContainerFactory(
+            AlertStateChangelog alertStateChangelog) {
         ConcurrentKafkaListenerContainerFactory<String, GPSPositionEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(gpsConsumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // Alert state follows the GPS partitions: restored on assignment, dropped on revocation
+        factory.getContainerProperties().setConsumerRebalanceListener(alertStateChangelog);
         factory.setConcurrency(3);
         return factory;
     }
@@ -125,4 +131,174 @@ public class KafkaConfig {
     public KafkaTemplate<String, AlertTriggeredEvent> kafkaTemplate() {
         return new KafkaTemplate<>(alertProducerFactory());
     }
+
+    // Alert rule change notices (compacted topic, broadcast to every instance)
+    @Bean
+    public ProducerFactory<String, AlertRuleChangeNotice> alertRuleChangeProducerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    public KafkaTemplate<String, AlertRuleChangeNotice> alertRuleChangeKafkaTemplate() {
+        return new KafkaTemplate<>(alertRuleChangeProducerFactory());
+    }
+
+    // Broadcast topics are read by every instance on all partitions, without a consumer group
+    @Bean
+    public BroadcastPartitionFinder broadcastPartitions() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        return new BroadcastPartitionFinder(
+                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer()));
+    }
+
+    @Bean
+    public ConsumerFactory<String, AlertRuleChangeNotice> alertRuleChangeConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // Each instance loads the rules from the database at startup, only later changes matter.
+        // No group: nothing is committed, every start reads from the end.
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        JsonDeserializer<AlertRuleChangeNotice> deserializer =
+                new JsonDeserializer<>(AlertRuleChangeNotice.class, objectMapper);
+        deserializer.addTrustedPackages("*");
+        deserializer.setUseTypeHeaders(false);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(deserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, AlertRuleChangeNotice> alertRuleChangeKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, AlertRuleChangeNotice> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(alertRuleChangeConsumerFactory());
+        factory.setConcurrency(1);
+        return factory;
+    }
+
+    // Truck group membership changes from location-service (broadcast to every instance)
+    @Bean
+    public ConsumerFactory<String, TruckGroupChangeEvent> truckGroupChangeConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // Memberships are loaded from the database at startup, only later changes matter.
+        // No group: nothing is committed, every start reads from the end.
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        JsonDeserializer<TruckGroupChangeEvent> deserializer =
+                new JsonDeserializer<>(TruckGroupChangeEvent.class, objectMapper);
+        deserializer.addTrustedPackages("*");
+        deserializer.setUseTypeHeaders(false);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(deserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TruckGroupChangeEvent> truckGroupChangeKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, TruckGroupChangeEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(truckGroupChangeConsumerFactory());
+        factory.setConcurrency(1);
+        return factory;
+    }
+
+    // Geofence changes from location-service (broadcast to every instance)
+    @Bean
+    public ConsumerFactory<String, GeofenceChangeEvent> geofenceChangeConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // Geofences are loaded from the database at startup, only later changes matter.
+        // No group: nothing is committed, every start reads from the end.
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        JsonDeserializer<GeofenceChangeEvent> deserializer =
+                new JsonDeserializer<>(GeofenceChangeEvent.class, objectMapper);
+        deserializer.addTrustedPackages("*");
+        deserializer.setUseTypeHeaders(false);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(deserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, GeofenceChangeEvent> geofenceChangeKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, GeofenceChangeEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(geofenceChangeConsumerFactory());
+        factory.setConcurrency(1);
+        return factory;
+    }
+
+    // Alert state changelog (compacted, co-partitioned with the GPS position topic)
+    @Bean
+    public ProducerFactory<String, AlertStateRecord> alertStateProducerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        // Records of a truck land in send order, so a tombstone never overtakes its state
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "snappy");
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    public KafkaTemplate<String, AlertStateRecord> alertStateKafkaTemplate() {
+        return new KafkaTemplate<>(alertStateProducerFactory());
+    }
+
+    @Bean
+    public ConsumerFactory<String, AlertStateRecord> alertStateConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // Read with manual assignment from the beginning, no group and no commits
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 2000);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        JsonDeserializer<AlertStateRecord> deserializer =
+                new JsonDeserializer<>(AlertStateRecord.class, objectMapper);
+        deserializer.addTrustedPackages("*");
+        deserializer.setUseTypeHeaders(false);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(deserializer)
+        );
+    }
 }
@@ -0,0 +1,33 @@
+package com.trucktrack.notification.kafka;
+
+import com.trucktrack.common.event.TruckGroupChangeEvent;
+import com.trucktrack.notification.service.TruckRuleIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the truck -> rules index in line with group membership changes made in location-service.
+ * Every instance assigns itself all partitions, without a consumer group, so each one
+ * receives all changes (see {@link BroadcastPartitionFinder}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TruckGroupChangeListener {
+
+    private final TruckRuleIndex truckRuleIndex;
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = "${kafka.topics.truck-group-change:truck-track.location.truck-group-change}",
+                    partitions = "#{@broadcastPartitions.partitions('${kafka.topics.truck-group-change:truck-track.location.truck-group-change}')}"),
+            containerFactory = "truckGroupChangeKafkaListenerContainerFactory"
+    )
+    public void onTruckGroupChanged(TruckGroupChangeEvent event) {
+        log.debug("Received group change: {}", event);
+        truckRuleIndex.onTruckGroupChanged(event);
+    }
+}
@@ -54,6 +54,11 @@ public class AlertRule {
     @Column(name = "truck_group_id")
     private UUID truckGroupId;
 
+    // COMPOSITE rules only, e.g. "speed > 90 AND inside RESTRICTED_ZONE FOR 30s"
+    @Size(max = 500)
+    @Column(name = "condition_expression", columnDefinition = "TEXT")
+    private String conditionExpression;
+
     @NotNull
     @Column(name = "is_enabled", nullable = false)
     @Builder.Default
@@ -8,5 +8,8 @@ public enum AlertRuleType {
     IDLE,
     GEOFENCE_ENTER,
     GEOFENCE_EXIT,
-    SPEED_LIMIT
+    GEOFENCE_DWELL,
+    SPEED_LIMIT,
+    // Condition expression over a sliding window, see CompositeExpression
+    COMPOSITE
 }
@@ -9,7 +9,9 @@ public enum NotificationType {
     IDLE,
     GEOFENCE_ENTER,
     GEOFENCE_EXIT,
+    GEOFENCE_DWELL,
     SPEED_LIMIT,
+    COMPOSITE,
 
     // Email/Push notification types (Feature 016)
     DELIVERY_CONFIRMED,
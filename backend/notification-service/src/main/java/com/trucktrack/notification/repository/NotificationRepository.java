@@ -27,6 +27,27 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
      */
     Page<Notification> findByUserIdOrderByTriggeredAtDesc(UUID userId, Pageable pageable);
 
+    /**
+     * First keyset page of a user's notifications, newest first
+     */
+    @Query(value = "SELECT * FROM notifications WHERE user_id = :userId " +
+                   "ORDER BY triggered_at DESC, id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Notification> findFirstByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    /**
+     * Next keyset page of a user's notifications: those strictly before (beforeTime, beforeId)
+     */
+    @Query(value = "SELECT * FROM notifications WHERE user_id = :userId " +
+                   "AND (triggered_at, id) < (:beforeTime, :beforeId) " +
+                   "ORDER BY triggered_at DESC, id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Notification> findByUserIdBefore(
+        @Param("userId") UUID userId,
+        @Param("beforeTime") Instant beforeTime,
+        @Param("beforeId") UUID beforeId,
+        @Param("limit") int limit);
+
     /**
      * Find unread notifications for a user
      */
@@ -6,10 +6,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Cache to prevent alert flooding by enforcing cooldown periods.
@@ -20,30 +17,35 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class AlertCooldownCache {
 
-    // Key: "truckId:ruleId", Value: last alert timestamp
-    private final Map<String, Instant> lastAlertTimes = new ConcurrentHashMap<>();
+    private static final int LAST_ALERT = 0;
+
+    // Per truck: rule index -> last alert epoch millis
+    private final TruckStateStore<UUID> lastAlertTimes;
 
     @Value("${alert.cooldown-minutes:5}")
     private int cooldownMinutes;
 
+    public AlertCooldownCache(@Value("${alert.state.max-trucks:100000}") int maxTrucks) {
+        this.lastAlertTimes = new TruckStateStore<>(1, maxTrucks);
+    }
+
     /**
      * Check if an alert can be triggered (cooldown has passed)
      * @return true if alert is allowed, false if still in cooldown
      */
-    public boolean canTriggerAlert(String truckId, UUID ruleId) {
-        String key = buildKey(truckId, ruleId);
-        Instant lastAlert = lastAlertTimes.get(key);
+    public boolean canTriggerAlert(UUID truckId, UUID ruleId) {
+        long lastAlert = getLastAlert(truckId, ruleId);
 
-        if (lastAlert == null) {
+        if (lastAlert == 0) {
             return true; // No previous alert, allowed
         }
 
-        Instant cooldownEnd = lastAlert.plus(cooldownMinutes, ChronoUnit.MINUTES);
-        boolean allowed = Instant.now().isAfter(cooldownEnd);
+        long cooldownEnd = lastAlert + cooldownMillis();
+        boolean allowed = System.currentTimeMillis() > cooldownEnd;
 
         if (!allowed) {
             log.debug("Alert suppressed for truck {} rule {} - cooldown active until {}",
-                    truckId, ruleId, cooldownEnd);
+                    truckId, ruleId, Instant.ofEpochMilli(cooldownEnd));
         }
 
         return allowed;
@@ -52,63 +54,82 @@ public class AlertCooldownCache {
     /**
      * Record that an alert was triggered
      */
-    public void recordAlert(String truckId, UUID ruleId) {
-        String key = buildKey(truckId, ruleId);
-        lastAlertTimes.put(key, Instant.now());
-        log.debug("Recorded alert for key: {}", key);
+    public void recordAlert(UUID truckId, UUID ruleId) {
+        recordAlert(truckId, ruleId, Instant.now());
+    }
+
+    void recordAlert(UUID truckId, UUID ruleId, Instant at) {
+        int rule = lastAlertTimes.keyIndex(ruleId);
+        lastAlertTimes.update(truckId, slot -> {
+            slot.put(rule, LAST_ALERT, at.toEpochMilli());
+            return null;
+        });
+        log.debug("Recorded alert for truck {} rule {}", truckId, ruleId);
     }
 
     /**
      * Check and record in one atomic operation
      * @return true if alert was allowed and recorded, false if suppressed
      */
-    public boolean checkAndRecord(String truckId, UUID ruleId) {
-        String key = buildKey(truckId, ruleId);
-        Instant now = Instant.now();
-
-        Instant lastAlert = lastAlertTimes.get(key);
-        if (lastAlert != null) {
-            Instant cooldownEnd = lastAlert.plus(cooldownMinutes, ChronoUnit.MINUTES);
-            if (now.isBefore(cooldownEnd)) {
-                log.debug("Alert suppressed for {} - {} minutes remaining",
-                        key, ChronoUnit.MINUTES.between(now, cooldownEnd));
-                return false;
+    public boolean checkAndRecord(UUID truckId, UUID ruleId) {
+        int rule = lastAlertTimes.keyIndex(ruleId);
+        long now = System.currentTimeMillis();
+
+        return lastAlertTimes.update(truckId, slot -> {
+            long lastAlert = slot.get(rule, LAST_ALERT);
+            if (lastAlert != 0) {
+                long cooldownEnd = lastAlert + cooldownMillis();
+                if (now < cooldownEnd) {
+                    log.debug("Alert suppressed for truck {} rule {} - {} minutes remaining",
+                            truckId, ruleId, (cooldownEnd - now) / 60_000);
+                    return false;
+                }
             }
-        }
 
-        lastAlertTimes.put(key, now);
-        return true;
+            slot.put(rule, LAST_ALERT, now);
+            return true;
+        });
     }
 
     /**
      * Clear cooldown for a specific truck+rule (useful for testing)
      */
-    public void clearCooldown(String truckId, UUID ruleId) {
-        String key = buildKey(truckId, ruleId);
-        lastAlertTimes.remove(key);
+    public void clearCooldown(UUID truckId, UUID ruleId) {
+        int rule = lastAlertTimes.existingKeyIndex(ruleId);
+        if (rule >= 0) {
+            lastAlertTimes.updateExisting(truckId, slot -> {
+                slot.remove(rule);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Clear all cooldowns of a truck
+     */
+    public void clearTruck(UUID truckId) {
+        lastAlertTimes.clear(truckId);
     }
 
     /**
      * Clear all cooldowns (useful for testing)
      */
     public void clearAll() {
-        lastAlertTimes.clear();
+        lastAlertTimes.clearAll();
     }
 
     /**
      * Get remaining cooldown time in seconds
      */
-    public long getRemainingCooldownSeconds(String truckId, UUID ruleId) {
-        String key = buildKey(truckId, ruleId);
-        Instant lastAlert = lastAlertTimes.get(key);
+    public long getRemainingCooldownSeconds(UUID truckId, UUID ruleId) {
+        long lastAlert = getLastAlert(truckId, ruleId);
 
-        if (lastAlert == null) {
+        if (lastAlert == 0) {
             return 0;
         }
 
-        Instant cooldownEnd = lastAlert.plus(cooldownMinutes, ChronoUnit.MINUTES);
-        long remaining = ChronoUnit.SECONDS.between(Instant.now(), cooldownEnd);
-        return Math.max(0, remaining);
+        long remainingMillis = lastAlert + cooldownMillis() - System.currentTimeMillis();
+        return Math.max(0, remainingMillis / 1000);
     }
 
     /**
@@ -116,24 +137,41 @@ public class AlertCooldownCache {
      */
     @Scheduled(fixedRate = 600000) // 10 minutes
     public void cleanupExpiredEntries() {
-        Instant cutoff = Instant.now().minus(cooldownMinutes * 2L, ChronoUnit.MINUTES);
-        int removed = 0;
-
-        var iterator = lastAlertTimes.entrySet().iterator();
-        while (iterator.hasNext()) {
-            if (iterator.next().getValue().isBefore(cutoff)) {
-                iterator.remove();
-                removed++;
-            }
+        long cutoff = System.currentTimeMillis() - 2 * cooldownMillis();
+        int removed = lastAlertTimes.removeEntries(LAST_ALERT, lastAlert -> lastAlert < cutoff);
+        int forgotten = lastAlertTimes.compactKeys();
+
+        if (removed > 0 || forgotten > 0) {
+            log.debug("Cleaned up {} expired cooldown entries, forgot {} rule IDs", removed, forgotten);
         }
+    }
+
+    /**
+     * Number of trucks with cooldown entries
+     */
+    int size() {
+        return lastAlertTimes.size();
+    }
 
-        if (removed > 0) {
-            log.debug("Cleaned up {} expired cooldown entries", removed);
+    /**
+     * Backing store, persisted by {@link AlertStateChangelog}.
+     */
+    TruckStateStore<UUID> stateStore() {
+        return lastAlertTimes;
+    }
+
+    private long getLastAlert(UUID truckId, UUID ruleId) {
+        TruckStateStore.Slot slot = lastAlertTimes.get(truckId);
+        if (slot == null) {
+            return 0;
+        }
+        synchronized (slot) {
+            return slot.get(lastAlertTimes.existingKeyIndex(ruleId), LAST_ALERT);
         }
     }
 
-    private String buildKey(String truckId, UUID ruleId) {
-        return truckId + ":" + ruleId.toString();
+    private long cooldownMillis() {
+        return cooldownMinutes * 60_000L;
     }
 
     /**
@@ -0,0 +1,88 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.notification.kafka.AlertRuleChangeNotice;
+import com.trucktrack.notification.repository.AlertRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Holds the compiled {@link AlertRuleSnapshot} used by the {@link AlertRuleEngine}.
+ *
+ * Loaded lazily on first use and rebuilt atomically after each committed rule change.
+ * Changes are announced on a compacted Kafka topic so the other instances rebuild too.
+ */
+@Slf4j
+@Component
+public class AlertRuleCache {
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final KafkaTemplate<String, AlertRuleChangeNotice> ruleChangeKafkaTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${kafka.topics.alert-rules:truck-track.notification.alert-rules}")
+    private String alertRulesTopic;
+
+    private volatile AlertRuleSnapshot snapshot = AlertRuleSnapshot.EMPTY;
+    private volatile boolean loaded;
+
+    public AlertRuleCache(AlertRuleRepository alertRuleRepository,
+                          KafkaTemplate<String, AlertRuleChangeNotice> ruleChangeKafkaTemplate) {
+        this.alertRuleRepository = alertRuleRepository;
+        this.ruleChangeKafkaTemplate = ruleChangeKafkaTemplate;
+    }
+
+    /**
+     * Current rule snapshot, loaded on first call.
+     */
+    public AlertRuleSnapshot getSnapshot() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuild the snapshot from the enabled rules in the database.
+     */
+    public synchronized void reload() {
+        snapshot = AlertRuleSnapshot.of(alertRuleRepository.findByIsEnabledTrue());
+        loaded = true;
+        log.info("Compiled alert rule snapshot: {} enabled rules", snapshot.size());
+    }
+
+    /**
+     * Rebuild locally once the change is committed, then tell the other instances.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertRuleChanged(AlertRuleService.AlertRuleChangedEvent event) {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Failed to rebuild alert rule snapshot: {}", e.getMessage());
+            loaded = false; // Retry on next read
+        }
+
+        AlertRuleChangeNotice notice = new AlertRuleChangeNotice(
+                event.ruleId().toString(), event.deleted(), instanceId, Instant.now());
+        ruleChangeKafkaTemplate.send(alertRulesTopic, notice.getRuleId(), notice)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish alert rule change {}: {}", notice.getRuleId(), ex.getMessage());
+                    }
+                });
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+}
@@ -2,38 +2,46 @@ package com.trucktrack.notification.service;
 
 import com.trucktrack.common.event.AlertTriggeredEvent;
 import com.trucktrack.common.event.GPSPositionEvent;
-import com.trucktrack.notification.client.LocationServiceClient;
 import com.trucktrack.notification.model.*;
-import com.trucktrack.notification.websocket.NotificationWebSocketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Engine for evaluating alert rules against GPS events
  * T149: Create AlertRuleEngine
  * T150: Implement rule evaluation logic (with geofence support)
+ *
+ * OFFLINE and IDLE rules cannot be detected from a single point: each point re-arms the
+ * truck's deadlines in {@link TruckActivityTimers}, and the alerts fire when they expire.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AlertRuleEngine {
 
-    private final AlertRuleService alertRuleService;
-    private final NotificationService notificationService;
-    private final LocationServiceClient locationServiceClient;
+    private final TruckRuleIndex truckRuleIndex;
+    private final GeofenceIndex geofenceIndex;
     private final GeofenceStateCache geofenceStateCache;
     private final KafkaTemplate<String, AlertTriggeredEvent> kafkaTemplate;
-    private final NotificationWebSocketService webSocketService;
+    private final NotificationDispatcher notificationDispatcher;
     private final TruckLookupService truckLookupService;
     private final AlertCooldownCache alertCooldownCache;
+    private final TruckActivityTimers truckActivityTimers;
+    private final CompositeRuleEvaluator compositeRuleEvaluator;
 
     @Value("${kafka.topics.alert:truck-track.notification.alert}")
     private String alertTopic;
@@ -41,28 +49,85 @@ public class AlertRuleEngine {
     @Value("${alert.default-speed-limit:120}")
     private int defaultSpeedLimit;
 
+    @Value("${alert.default-dwell-minutes:30}")
+    private int defaultDwellMinutes;
+
     /**
      * Evaluate all enabled alert rules against a GPS event
+     * Only the rules of the truck's groups and the fleet-wide ones are evaluated
      */
     public void evaluateRules(GPSPositionEvent event) {
         log.debug("Evaluating rules for truck: {}", event.getTruckId());
+        TruckRuleIndex.TruckRules rules = truckRuleIndex.getRules(UUID.fromString(event.getTruckId()));
 
         // Check speed limit rules
-        evaluateSpeedLimitRules(event);
+        evaluateSpeedLimitRules(event, rules);
 
         // Check geofence rules
-        evaluateGeofenceRules(event);
+        evaluateGeofenceRules(event, rules);
+
+        // Check composite rules (conditions over a sliding window)
+        evaluateCompositeRules(event, rules);
+
+        // Re-arm the offline / idle deadlines
+        truckActivityTimers.onPosition(event, rules);
+    }
+
+    /**
+     * Fire the OFFLINE and IDLE rules whose threshold passed without a new point
+     */
+    @Scheduled(fixedDelayString = "${alert.activity.tick-interval-ms:1000}")
+    public void evaluateActivityTimers() {
+        for (TruckActivityTimers.DueAlert due : truckActivityTimers.advance(Instant.now())) {
+            try {
+                triggerActivityAlert(due);
+            } catch (Exception e) {
+                log.error("Error triggering {} alert for truck {}: {}",
+                        due.alertType(), due.truckId(), e.getMessage());
+            }
+        }
+    }
+
+    private void triggerActivityAlert(TruckActivityTimers.DueAlert due) {
+        UUID truckId = due.truckId();
+        if (!alertCooldownCache.checkAndRecord(truckId, due.rule().getId())) {
+            log.debug("{} alert suppressed for truck {} - in cooldown period", due.alertType(), truckId);
+            return;
+        }
+
+        // Last known position of the truck
+        GPSPositionEvent lastPosition = new GPSPositionEvent();
+        lastPosition.setTruckId(truckId.toString());
+        lastPosition.setTruckIdReadable(due.truckIdReadable());
+        lastPosition.setLatitude(due.latitude());
+        lastPosition.setLongitude(due.longitude());
+        lastPosition.setTimestamp(due.since());
+        String truckName = getTruckName(lastPosition);
+
+        if (due.alertType() == AlertTriggeredEvent.AlertType.OFFLINE) {
+            log.info("Truck {} offline: no GPS data for {} min", truckName, due.thresholdMinutes());
+            triggerAlert(due.rule(), lastPosition, AlertTriggeredEvent.AlertType.OFFLINE,
+                    AlertTriggeredEvent.Severity.WARNING,
+                    String.format("Truck %s has not reported its position for more than %d min",
+                            truckName, due.thresholdMinutes()));
+        } else {
+            log.info("Truck {} idle for {} min", truckName, due.thresholdMinutes());
+            triggerAlert(due.rule(), lastPosition, AlertTriggeredEvent.AlertType.IDLE,
+                    AlertTriggeredEvent.Severity.INFO,
+                    String.format("Truck %s has been idle for more than %d min",
+                            truckName, due.thresholdMinutes()));
+        }
     }
 
     /**
      * Evaluate speed limit rules
      */
-    private void evaluateSpeedLimitRules(GPSPositionEvent event) {
+    private void evaluateSpeedLimitRules(GPSPositionEvent event, TruckRuleIndex.TruckRules rules) {
         if (event.getSpeed() == null) {
             return;
         }
 
-        List<AlertRule> speedRules = alertRuleService.getEnabledSpeedLimitRules();
+        List<AlertRule> speedRules = rules.speedLimitRules();
 
         for (AlertRule rule : speedRules) {
             int threshold = rule.getThresholdValue() != null
@@ -71,7 +136,7 @@ public class AlertRuleEngine {
 
             if (event.getSpeed() > threshold) {
                 // Check cooldown before triggering alert
-                if (!alertCooldownCache.checkAndRecord(event.getTruckId(), rule.getId())) {
+                if (!alertCooldownCache.checkAndRecord(UUID.fromString(event.getTruckId()), rule.getId())) {
                     log.debug("Speed alert suppressed for truck {} - in cooldown period", event.getTruckId());
                     continue;
                 }
@@ -89,77 +154,127 @@ public class AlertRuleEngine {
     }
 
     /**
-     * Evaluate geofence rules (enter/exit detection)
+     * Evaluate geofence rules (enter/exit/dwell detection)
      * T150: Implement geofence evaluation in AlertRuleEngine
+     * Containment is resolved once per point against the local geofence index,
+     * and each geofence state is updated once per point whatever the number of rules on it.
      */
-    private void evaluateGeofenceRules(GPSPositionEvent event) {
+    private void evaluateGeofenceRules(GPSPositionEvent event, TruckRuleIndex.TruckRules rules) {
         if (event.getLatitude() == null || event.getLongitude() == null) {
             return;
         }
 
-        List<AlertRule> geofenceRules = alertRuleService.getEnabledGeofenceRules();
+        List<AlertRule> geofenceRules = rules.geofenceRules();
         if (geofenceRules.isEmpty()) {
             return;
         }
 
         UUID truckId = UUID.fromString(event.getTruckId());
+        double latitude = event.getLatitude();
+        double longitude = event.getLongitude();
+        Set<UUID> containingGeofences = geofenceIndex.findContaining(latitude, longitude);
 
+        Map<UUID, List<AlertRule>> rulesByGeofence = new LinkedHashMap<>();
         for (AlertRule rule : geofenceRules) {
-            if (rule.getGeofenceId() == null) {
-                continue;
+            if (rule.getGeofenceId() != null) {
+                rulesByGeofence.computeIfAbsent(rule.getGeofenceId(), id -> new ArrayList<>()).add(rule);
+            }
+        }
+
+        rulesByGeofence.forEach((geofenceId, geofenceRuleList) -> {
+            if (!geofenceIndex.isIndexed(geofenceId)) {
+                // Inactive or not loaded yet - keep the previous state rather than report an exit
+                log.debug("Geofence {} not indexed, skipping {} rules", geofenceId, geofenceRuleList.size());
+                return;
             }
 
             try {
                 // Check if truck is currently inside the geofence
-                boolean isInside = locationServiceClient.isPointInsideGeofence(
-                        rule.getGeofenceId(),
-                        event.getLatitude(),
-                        event.getLongitude());
+                boolean isInside = containingGeofences.contains(geofenceId);
 
-                // Check for state change
+                // Check for a confirmed state change (hysteresis applied by the state cache)
                 GeofenceStateCache.StateChange stateChange = geofenceStateCache.checkStateChange(
-                        truckId, rule.getGeofenceId(), isInside);
-
-                if (stateChange != null) {
-                    // State changed - check if it matches the rule type
-                    boolean shouldTrigger = switch (rule.getRuleType()) {
-                        case GEOFENCE_ENTER ->
-                                stateChange.changeType() == GeofenceStateCache.StateChangeType.ENTERED;
-                        case GEOFENCE_EXIT ->
-                                stateChange.changeType() == GeofenceStateCache.StateChangeType.EXITED;
-                        default -> false;
-                    };
-
-                    if (shouldTrigger) {
-                        // Check cooldown before triggering geofence alert
-                        if (!alertCooldownCache.checkAndRecord(event.getTruckId(), rule.getId())) {
-                            log.debug("Geofence alert suppressed for truck {} - in cooldown period", event.getTruckId());
-                            continue;
-                        }
-
-                        AlertTriggeredEvent.AlertType alertType =
-                                rule.getRuleType() == AlertRuleType.GEOFENCE_ENTER
-                                        ? AlertTriggeredEvent.AlertType.GEOFENCE_ENTER
-                                        : AlertTriggeredEvent.AlertType.GEOFENCE_EXIT;
-
-                        String action = alertType == AlertTriggeredEvent.AlertType.GEOFENCE_ENTER
-                                ? "entered" : "exited";
-
-                        String truckName = getTruckName(event);
-
-                        triggerAlert(rule, event, alertType,
-                                AlertTriggeredEvent.Severity.INFO,
-                                String.format("Truck %s %s geofence '%s'",
-                                        truckName, action, rule.getName()));
-                    }
+                        truckId, geofenceId, isInside,
+                        () -> geofenceIndex.distanceToBoundaryMeters(geofenceId, latitude, longitude),
+                        event.getSpeed(), event.getTimestamp());
+
+                for (AlertRule rule : geofenceRuleList) {
+                    evaluateGeofenceRule(rule, event, truckId, stateChange);
                 }
             } catch (Exception e) {
-                log.error("Error evaluating geofence rule {} for truck {}: {}",
-                        rule.getId(), event.getTruckId(), e.getMessage());
+                log.error("Error evaluating geofence {} for truck {}: {}",
+                        geofenceId, event.getTruckId(), e.getMessage());
+            }
+        });
+    }
+
+    private void evaluateGeofenceRule(AlertRule rule, GPSPositionEvent event, UUID truckId,
+                                      GeofenceStateCache.StateChange stateChange) {
+        // Check whether the state matches the rule type
+        boolean shouldTrigger = switch (rule.getRuleType()) {
+            case GEOFENCE_ENTER -> stateChange != null
+                    && stateChange.changeType() == GeofenceStateCache.StateChangeType.ENTERED;
+            case GEOFENCE_EXIT -> stateChange != null
+                    && stateChange.changeType() == GeofenceStateCache.StateChangeType.EXITED;
+            case GEOFENCE_DWELL -> geofenceStateCache.checkDwell(truckId, rule.getGeofenceId(), rule.getId(),
+                    Duration.ofMinutes(getDwellMinutes(rule)), event.getTimestamp());
+            default -> false;
+        };
+
+        if (!shouldTrigger) {
+            return;
+        }
+
+        // Check cooldown before triggering geofence alert
+        if (!alertCooldownCache.checkAndRecord(truckId, rule.getId())) {
+            log.debug("Geofence alert suppressed for truck {} - in cooldown period", event.getTruckId());
+            return;
+        }
+
+        String truckName = getTruckName(event);
+
+        switch (rule.getRuleType()) {
+            case GEOFENCE_ENTER -> triggerAlert(rule, event, AlertTriggeredEvent.AlertType.GEOFENCE_ENTER,
+                    AlertTriggeredEvent.Severity.INFO,
+                    String.format("Truck %s entered geofence '%s'", truckName, rule.getName()));
+            case GEOFENCE_EXIT -> triggerAlert(rule, event, AlertTriggeredEvent.AlertType.GEOFENCE_EXIT,
+                    AlertTriggeredEvent.Severity.INFO,
+                    String.format("Truck %s exited geofence '%s'", truckName, rule.getName()));
+            case GEOFENCE_DWELL -> triggerAlert(rule, event, AlertTriggeredEvent.AlertType.GEOFENCE_DWELL,
+                    AlertTriggeredEvent.Severity.INFO,
+                    String.format("Truck %s has been inside geofence '%s' for more than %d min",
+                            truckName, rule.getName(), getDwellMinutes(rule)));
+            default -> { }
+        }
+    }
+
+    /**
+     * Evaluate composite rules, incrementally from the per-truck window state
+     */
+    private void evaluateCompositeRules(GPSPositionEvent event, TruckRuleIndex.TruckRules rules) {
+        if (rules.compositeRules().isEmpty()) {
+            return;
+        }
+
+        for (AlertRule rule : compositeRuleEvaluator.evaluate(event, rules.compositeRules(), rules.snapshot())) {
+            if (!alertCooldownCache.checkAndRecord(UUID.fromString(event.getTruckId()), rule.getId())) {
+                log.debug("Composite alert suppressed for truck {} - in cooldown period", event.getTruckId());
+                continue;
             }
+
+            String truckName = getTruckName(event);
+            log.info("Composite rule '{}' matched for truck {}", rule.getName(), truckName);
+            triggerAlert(rule, event, AlertTriggeredEvent.AlertType.COMPOSITE,
+                    AlertTriggeredEvent.Severity.WARNING,
+                    String.format("Truck %s matched rule '%s': %s",
+                            truckName, rule.getName(), rule.getConditionExpression()));
         }
     }
 
+    private int getDwellMinutes(AlertRule rule) {
+        return rule.getThresholdValue() != null ? rule.getThresholdValue() : defaultDwellMinutes;
+    }
+
     /**
      * Trigger an alert and publish to Kafka
      */
@@ -198,6 +313,7 @@ public class AlertRuleEngine {
 
     /**
      * Process an alert event and create notifications for affected users
+     * The notifications are saved and pushed asynchronously, in one batch per alert
      */
     public void processAlertEvent(AlertTriggeredEvent event) {
         log.info("Processing alert event: {} for truck {}",
@@ -209,43 +325,36 @@ public class AlertRuleEngine {
             return;
         }
 
+        List<Notification> notifications = new ArrayList<>(affectedUserIds.size());
         for (String userIdStr : affectedUserIds) {
             try {
                 UUID userId = UUID.fromString(userIdStr);
-                createNotification(userId, event);
+                notifications.add(buildNotification(userId, event));
             } catch (IllegalArgumentException e) {
                 log.warn("Invalid user ID in alert event: {}", userIdStr);
             }
         }
+
+        notificationDispatcher.dispatch(notifications);
     }
 
     /**
-     * Create a notification for a user from an alert event
+     * Build the notification of a user for an alert event
      */
-    private void createNotification(UUID userId, AlertTriggeredEvent event) {
-        NotificationType notificationType = mapAlertTypeToNotificationType(event.getAlertType());
-        NotificationSeverity severity = mapSeverity(event.getSeverity());
-
-        Notification notification = Notification.builder()
+    private Notification buildNotification(UUID userId, AlertTriggeredEvent event) {
+        return Notification.builder()
                 .userId(userId)
                 .alertRuleId(UUID.fromString(event.getAlertRuleId()))
                 .truckId(UUID.fromString(event.getTruckId()))
-                .notificationType(notificationType)
+                .notificationType(mapAlertTypeToNotificationType(event.getAlertType()))
                 .title(generateTitle(event))
                 .message(event.getMessage())
-                .severity(severity)
+                .severity(mapSeverity(event.getSeverity()))
                 .latitude(event.getLatitude() != null ? BigDecimal.valueOf(event.getLatitude()) : null)
                 .longitude(event.getLongitude() != null ? BigDecimal.valueOf(event.getLongitude()) : null)
                 .triggeredAt(event.getTriggeredAt())
                 .isRead(false)
                 .build();
-
-        Notification savedNotification = notificationService.createNotification(notification);
-        log.info("Created notification for user {} - type: {}", userId, notificationType);
-
-        // T166: Broadcast notification via WebSocket for real-time updates
-        webSocketService.sendToUser(userId.toString(), savedNotification);
-        webSocketService.broadcastNotification(savedNotification);
     }
 
     private String generateTitle(AlertTriggeredEvent event) {
@@ -255,6 +364,8 @@ public class AlertRuleEngine {
             case IDLE -> "Truck Idle Alert";
             case GEOFENCE_ENTER -> "Geofence Entry Alert";
             case GEOFENCE_EXIT -> "Geofence Exit Alert";
+            case GEOFENCE_DWELL -> "Geofence Dwell Alert";
+            case COMPOSITE -> "Composite Rule Alert";
         };
     }
 
@@ -265,6 +376,8 @@ public class AlertRuleEngine {
             case IDLE -> NotificationType.IDLE;
             case GEOFENCE_ENTER -> NotificationType.GEOFENCE_ENTER;
             case GEOFENCE_EXIT -> NotificationType.GEOFENCE_EXIT;
+            case GEOFENCE_DWELL -> NotificationType.GEOFENCE_DWELL;
+            case COMPOSITE -> NotificationType.COMPOSITE;
         };
     }
 
@@ -5,6 +5,7 @@ import com.trucktrack.notification.model.AlertRuleType;
 import com.trucktrack.notification.repository.AlertRuleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +23,12 @@ import java.util.UUID;
 public class AlertRuleService {
 
     private final AlertRuleRepository alertRuleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Event published when a rule is created, updated, enabled/disabled or deleted.
+     */
+    public record AlertRuleChangedEvent(UUID ruleId, boolean deleted) {}
 
     /**
      * Get all alert rules
@@ -71,7 +78,10 @@ public class AlertRuleService {
     @Transactional
     public AlertRule createAlertRule(AlertRule alertRule) {
         log.info("Creating alert rule: {} of type {}", alertRule.getName(), alertRule.getRuleType());
-        return alertRuleRepository.save(alertRule);
+        validateConditionExpression(alertRule);
+        AlertRule saved = alertRuleRepository.save(alertRule);
+        eventPublisher.publishEvent(new AlertRuleChangedEvent(saved.getId(), false));
+        return saved;
     }
 
     /**
@@ -79,6 +89,7 @@ public class AlertRuleService {
      */
     @Transactional
     public Optional<AlertRule> updateAlertRule(UUID id, AlertRule updates) {
+        validateConditionExpression(updates);
         return alertRuleRepository.findById(id)
                 .map(existing -> {
                     existing.setName(updates.getName());
@@ -87,13 +98,33 @@ public class AlertRuleService {
                     existing.setThresholdValue(updates.getThresholdValue());
                     existing.setGeofenceId(updates.getGeofenceId());
                     existing.setTruckGroupId(updates.getTruckGroupId());
+                    existing.setConditionExpression(updates.getConditionExpression());
                     existing.setIsEnabled(updates.getIsEnabled());
                     existing.setNotificationChannels(updates.getNotificationChannels());
                     log.info("Updated alert rule: {}", id);
-                    return alertRuleRepository.save(existing);
+                    AlertRule saved = alertRuleRepository.save(existing);
+                    eventPublisher.publishEvent(new AlertRuleChangedEvent(id, false));
+                    return saved;
                 });
     }
 
+    /**
+     * Compile the expression of a COMPOSITE rule so an invalid one is rejected on save
+     * rather than skipped at evaluation time.
+     *
+     * @throws InvalidCompositeRuleException if the expression is missing or invalid
+     */
+    private void validateConditionExpression(AlertRule rule) {
+        if (rule.getRuleType() != AlertRuleType.COMPOSITE) {
+            rule.setConditionExpression(null);
+            return;
+        }
+        CompositeExpression expression = CompositeExpression.compile(rule.getConditionExpression());
+        if (expression.referencesRuleGeofence() && rule.getGeofenceId() == null) {
+            throw new InvalidCompositeRuleException("Condition expression uses GEOFENCE but the rule has no geofence");
+        }
+    }
+
     /**
      * Enable or disable an alert rule
      */
@@ -103,7 +134,9 @@ public class AlertRuleService {
                 .map(rule -> {
                     rule.setIsEnabled(enabled);
                     log.info("Alert rule {} set to enabled={}", id, enabled);
-                    return alertRuleRepository.save(rule);
+                    AlertRule saved = alertRuleRepository.save(rule);
+                    eventPublisher.publishEvent(new AlertRuleChangedEvent(id, false));
+                    return saved;
                 });
     }
 
@@ -115,6 +148,7 @@ public class AlertRuleService {
         if (alertRuleRepository.existsById(id)) {
             alertRuleRepository.deleteById(id);
             log.info("Deleted alert rule: {}", id);
+            eventPublisher.publishEvent(new AlertRuleChangedEvent(id, true));
             return true;
         }
         return false;
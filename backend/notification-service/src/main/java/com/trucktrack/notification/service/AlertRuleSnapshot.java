@@ -0,0 +1,153 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.notification.model.AlertRule;
+import com.trucktrack.notification.model.AlertRuleType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable set of the enabled alert rules, indexed for evaluation on the GPS hot path.
+ *
+ * Built once per rule change and shared by all evaluations, so no query runs per point.
+ * Rules are indexed by type, by truck group (rules without group are fleet-wide) and by geofence.
+ * Geofence rules without a geofence are dropped at build time, as they can never match.
+ * Composite rules are compiled here once; those whose expression does not compile are dropped.
+ */
+@Slf4j
+public final class AlertRuleSnapshot {
+
+    public static final AlertRuleSnapshot EMPTY = new AlertRuleSnapshot(List.of());
+
+    private final List<AlertRule> rules;
+    private final Map<AlertRuleType, List<AlertRule>> byType;
+    private final Map<UUID, List<AlertRule>> byTruckGroup;
+    private final Map<UUID, List<AlertRule>> byGeofence;
+    private final List<AlertRule> fleetWide;
+    private final List<AlertRule> geofenceRules;
+    private final Map<UUID, CompositeExpression> compositeExpressions;
+
+    private AlertRuleSnapshot(Collection<AlertRule> enabledRules) {
+        List<AlertRule> all = new ArrayList<>();
+        Map<AlertRuleType, List<AlertRule>> types = new EnumMap<>(AlertRuleType.class);
+        Map<UUID, List<AlertRule>> groups = new HashMap<>();
+        Map<UUID, List<AlertRule>> geofences = new HashMap<>();
+        List<AlertRule> noGroup = new ArrayList<>();
+        Map<UUID, CompositeExpression> expressions = new HashMap<>();
+
+        for (AlertRule rule : enabledRules) {
+            if (!Boolean.TRUE.equals(rule.getIsEnabled()) || rule.getRuleType() == null) {
+                continue;
+            }
+            if (isGeofenceRule(rule.getRuleType()) && rule.getGeofenceId() == null) {
+                continue;
+            }
+            if (rule.getRuleType() == AlertRuleType.COMPOSITE) {
+                try {
+                    expressions.put(rule.getId(), CompositeExpression.compile(rule.getConditionExpression()));
+                } catch (InvalidCompositeRuleException e) {
+                    log.warn("Skipping composite rule {}: {}", rule.getId(), e.getMessage());
+                    continue;
+                }
+            }
+            all.add(rule);
+            types.computeIfAbsent(rule.getRuleType(), type -> new ArrayList<>()).add(rule);
+            if (rule.getTruckGroupId() != null) {
+                groups.computeIfAbsent(rule.getTruckGroupId(), id -> new ArrayList<>()).add(rule);
+            } else {
+                noGroup.add(rule);
+            }
+            if (rule.getGeofenceId() != null) {
+                geofences.computeIfAbsent(rule.getGeofenceId(), id -> new ArrayList<>()).add(rule);
+            }
+        }
+
+        this.rules = List.copyOf(all);
+        this.byType = freeze(types);
+        this.byTruckGroup = freeze(groups);
+        this.byGeofence = freeze(geofences);
+        this.fleetWide = List.copyOf(noGroup);
+        this.compositeExpressions = Map.copyOf(expressions);
+
+        List<AlertRule> geofence = new ArrayList<>(getRules(AlertRuleType.GEOFENCE_ENTER));
+        geofence.addAll(getRules(AlertRuleType.GEOFENCE_EXIT));
+        geofence.addAll(getRules(AlertRuleType.GEOFENCE_DWELL));
+        this.geofenceRules = List.copyOf(geofence);
+    }
+
+    /**
+     * Compile a snapshot from the enabled rules (disabled ones are ignored).
+     */
+    public static AlertRuleSnapshot of(Collection<AlertRule> enabledRules) {
+        return new AlertRuleSnapshot(enabledRules);
+    }
+
+    public List<AlertRule> getRules() {
+        return rules;
+    }
+
+    public List<AlertRule> getRules(AlertRuleType type) {
+        return byType.getOrDefault(type, List.of());
+    }
+
+    public List<AlertRule> getSpeedLimitRules() {
+        return getRules(AlertRuleType.SPEED_LIMIT);
+    }
+
+    /**
+     * Enabled GEOFENCE_ENTER, GEOFENCE_EXIT and GEOFENCE_DWELL rules.
+     */
+    public List<AlertRule> getGeofenceRules() {
+        return geofenceRules;
+    }
+
+    /**
+     * Compiled expression of an enabled COMPOSITE rule, null for other rules.
+     */
+    public CompositeExpression getCompositeExpression(UUID ruleId) {
+        return compositeExpressions.get(ruleId);
+    }
+
+    /**
+     * Rules scoped to a truck group.
+     */
+    public List<AlertRule> getRulesForTruckGroup(UUID truckGroupId) {
+        return byTruckGroup.getOrDefault(truckGroupId, List.of());
+    }
+
+    /**
+     * Rules without truck group, applying to the whole fleet.
+     */
+    public List<AlertRule> getFleetWideRules() {
+        return fleetWide;
+    }
+
+    public List<AlertRule> getRulesForGeofence(UUID geofenceId) {
+        return byGeofence.getOrDefault(geofenceId, List.of());
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * Rule types evaluated against a geofence (geofence_id required).
+     */
+    static boolean isGeofenceRule(AlertRuleType type) {
+        return type == AlertRuleType.GEOFENCE_ENTER
+                || type == AlertRuleType.GEOFENCE_EXIT
+                || type == AlertRuleType.GEOFENCE_DWELL;
+    }
+
+    private static <K> Map<K, List<AlertRule>> freeze(Map<K, List<AlertRule>> index) {
+        index.replaceAll((key, list) -> List.copyOf(list));
+        return Collections.unmodifiableMap(index);
+    }
+}
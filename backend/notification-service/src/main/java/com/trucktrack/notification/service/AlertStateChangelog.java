@@ -0,0 +1,291 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.notification.kafka.AlertStateRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Persists the geofence and cooldown state of each truck to a compacted changelog topic,
+ * so a restart or a rebalance does not lose transitions nor re-fire alerts in cooldown.
+ *
+ * The changelog has as many partitions as the GPS position topic and a truck's state is
+ * written to the partition its positions come from. When GPS partitions are assigned, the
+ * matching changelog partitions are replayed before any position is processed; when they
+ * are revoked, the state of their trucks is dropped, offline/idle timers included.
+ *
+ * A position is acknowledged only once the state it changed is written. Trucks whose state
+ * was evicted get a tombstone, so compaction removes them and a restore does not bring
+ * them back.
+ */
+@Slf4j
+@Component
+public class AlertStateChangelog implements ConsumerAwareRebalanceListener {
+
+    private final GeofenceStateCache geofenceStateCache;
+    private final AlertCooldownCache alertCooldownCache;
+    private final KafkaTemplate<String, AlertStateRecord> alertStateKafkaTemplate;
+    private final ConsumerFactory<String, AlertStateRecord> alertStateConsumerFactory;
+    private final TruckActivityTimers truckActivityTimers;
+    private final CompositeRuleEvaluator compositeRuleEvaluator;
+
+    // Trucks seen per GPS partition, to drop their state when the partition is revoked
+    private final Map<Integer, Set<UUID>> trucksByPartition = new ConcurrentHashMap<>();
+
+    // Trucks that may have a state record in the changelog -> its partition
+    private final Map<UUID, Integer> persisted = new ConcurrentHashMap<>();
+
+    // Orders the writes of a truck: a tombstone never overtakes a newer state, nor the reverse
+    private final Object writeLock = new Object();
+
+    @Value("${kafka.topics.alert-state:truck-track.notification.alert-state}")
+    private String alertStateTopic;
+
+    @Value("${alert.state.changelog.enabled:true}")
+    private boolean enabled;
+
+    @Value("${alert.state.changelog.restore-timeout-ms:60000}")
+    private long restoreTimeoutMs;
+
+    @Value("${alert.state.changelog.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    public AlertStateChangelog(GeofenceStateCache geofenceStateCache,
+                               AlertCooldownCache alertCooldownCache,
+                               KafkaTemplate<String, AlertStateRecord> alertStateKafkaTemplate,
+                               ConsumerFactory<String, AlertStateRecord> alertStateConsumerFactory,
+                               TruckActivityTimers truckActivityTimers,
+                               CompositeRuleEvaluator compositeRuleEvaluator) {
+        this.geofenceStateCache = geofenceStateCache;
+        this.alertCooldownCache = alertCooldownCache;
+        this.alertStateKafkaTemplate = alertStateKafkaTemplate;
+        this.alertStateConsumerFactory = alertStateConsumerFactory;
+        this.truckActivityTimers = truckActivityTimers;
+        this.compositeRuleEvaluator = compositeRuleEvaluator;
+    }
+
+    /**
+     * Write the truck's state if it changed while processing a position from the partition,
+     * and wait for the write so the position is acknowledged only once its state is durable.
+     *
+     * @throws KafkaException if the write failed or timed out; the state stays marked changed
+     */
+    public void flush(String truckId, int partition) {
+        UUID truck = UUID.fromString(truckId);
+        // Tracked even when disabled: the offline/idle timers of revoked trucks must be dropped
+        trucksByPartition.computeIfAbsent(partition, p -> ConcurrentHashMap.newKeySet()).add(truck);
+        if (!enabled) {
+            return;
+        }
+
+        CompletableFuture<SendResult<String, AlertStateRecord>> write;
+        synchronized (writeLock) {
+            boolean geofenceChanged = geofenceStateCache.stateStore().takeDirty(truck);
+            boolean cooldownChanged = alertCooldownCache.stateStore().takeDirty(truck);
+            if (!geofenceChanged && !cooldownChanged) {
+                return;
+            }
+            write = write(truck, partition);
+        }
+
+        try {
+            write.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failed(truck, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw failed(truck, e);
+        }
+    }
+
+    /**
+     * Tombstone the trucks whose state was evicted (idle, over the truck limit, expired
+     * cooldowns), so the changelog does not keep and restore them forever.
+     */
+    @Scheduled(fixedDelayString = "${alert.state.changelog.tombstone-interval-ms:60000}")
+    public void tombstoneEvictedTrucks() {
+        if (!enabled) {
+            return;
+        }
+
+        int tombstoned = 0;
+        for (Map.Entry<UUID, Integer> entry : persisted.entrySet()) {
+            UUID truck = entry.getKey();
+            synchronized (writeLock) {
+                if (!geofenceStateCache.stateStore().contains(truck)
+                        && !alertCooldownCache.stateStore().contains(truck)
+                        && persisted.containsKey(truck)) {
+                    write(truck, entry.getValue());
+                    tombstoned++;
+                }
+            }
+        }
+        if (tombstoned > 0) {
+            log.debug("Sent alert state tombstones for {} evicted trucks", tombstoned);
+        }
+    }
+
+    // Current state of the truck, or a tombstone if it has none. Called under the write lock.
+    private CompletableFuture<SendResult<String, AlertStateRecord>> write(UUID truck, int partition) {
+        Map<UUID, long[]> geofenceState = geofenceStateCache.stateStore().export(truck);
+        Map<UUID, long[]> cooldowns = alertCooldownCache.stateStore().export(truck);
+
+        AlertStateRecord record = null;
+        if (isEmpty(geofenceState) && isEmpty(cooldowns)) {
+            persisted.remove(truck);
+        } else {
+            record = new AlertStateRecord(truck.toString(), orEmpty(geofenceState), orEmpty(cooldowns), Instant.now());
+            persisted.put(truck, partition);
+        }
+
+        boolean tombstone = record == null;
+        return alertStateKafkaTemplate.send(new ProducerRecord<>(alertStateTopic, partition, truck.toString(), record))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to write alert state of truck {}: {}", truck, ex.getMessage());
+                        geofenceStateCache.stateStore().markDirty(truck);
+                        alertCooldownCache.stateStore().markDirty(truck);
+                        if (tombstone) {
+                            persisted.putIfAbsent(truck, partition); // Retried by the next sweep
+                        }
+                    }
+                });
+    }
+
+    private static KafkaException failed(UUID truck, Exception cause) {
+        return new KafkaException("Alert state of truck " + truck + " not written", cause);
+    }
+
+    /**
+     * Restore the state of the trucks of the assigned partitions before consuming them.
+     */
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!enabled || partitions.isEmpty()) {
+            return;
+        }
+
+        List<TopicPartition> statePartitions = partitions.stream()
+                .map(partition -> new TopicPartition(alertStateTopic, partition.partition()))
+                .toList();
+        long start = System.currentTimeMillis();
+        int restored = 0;
+
+        try (Consumer<String, AlertStateRecord> restoreConsumer = alertStateConsumerFactory.createConsumer()) {
+            restoreConsumer.assign(statePartitions);
+            restoreConsumer.seekToBeginning(statePartitions);
+            Map<TopicPartition, Long> endOffsets = restoreConsumer.endOffsets(statePartitions);
+
+            while (!caughtUp(restoreConsumer, endOffsets)) {
+                if (System.currentTimeMillis() - start > restoreTimeoutMs) {
+                    log.warn("Alert state restore timed out, continuing with {} records", restored);
+                    break;
+                }
+                for (ConsumerRecord<String, AlertStateRecord> record : restoreConsumer.poll(Duration.ofMillis(200))) {
+                    apply(record);
+                    restored++;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to restore alert state for partitions {}: {}", partitions, e.getMessage());
+        }
+
+        log.info("Restored {} alert state records for partitions {} in {} ms",
+                restored, partitions, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        drop(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        drop(partitions);
+    }
+
+    /**
+     * Apply one changelog record to the in-memory state.
+     */
+    void apply(ConsumerRecord<String, AlertStateRecord> record) {
+        if (record.key() == null) {
+            return;
+        }
+        UUID truck = UUID.fromString(record.key());
+
+        AlertStateRecord state = record.value();
+        if (state == null) {
+            geofenceStateCache.clearTruckState(truck);
+            alertCooldownCache.clearTruck(truck);
+            persisted.remove(truck);
+            return;
+        }
+
+        geofenceStateCache.stateStore().restore(truck, orEmpty(state.getGeofenceState()));
+        alertCooldownCache.stateStore().restore(truck, orEmpty(state.getCooldowns()));
+        trucksByPartition.computeIfAbsent(record.partition(), p -> ConcurrentHashMap.newKeySet()).add(truck);
+        persisted.put(truck, record.partition());
+    }
+
+    private void drop(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            Set<UUID> trucks = trucksByPartition.remove(partition.partition());
+            if (trucks == null) {
+                continue;
+            }
+            trucks.forEach(truckId -> {
+                // The new owner keeps the changelog record - dropping the state here is not an eviction
+                synchronized (writeLock) {
+                    persisted.remove(truckId);
+                }
+                geofenceStateCache.clearTruckState(truckId);
+                alertCooldownCache.clearTruck(truckId);
+                // Positions now go to another instance - do not report the truck offline
+                truckActivityTimers.clearTruck(truckId);
+                // Windows are not persisted; a stale one must not carry over if the truck comes back
+                compositeRuleEvaluator.clearTruckState(truckId);
+            });
+            log.debug("Dropped alert state of {} trucks of revoked partition {}", trucks.size(), partition);
+        }
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(Map<UUID, long[]> entries) {
+        return entries == null || entries.isEmpty();
+    }
+
+    private static Map<UUID, long[]> orEmpty(Map<UUID, long[]> entries) {
+        return entries != null ? entries : Map.of();
+    }
+}
@@ -0,0 +1,328 @@
+package com.trucktrack.notification.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled condition of a COMPOSITE alert rule.
+ *
+ * Grammar (keywords are case-insensitive):
+ * <pre>
+ * expression := conjunction [FOR duration]
+ *             | COUNT '(' conjunction ')' '>=' integer WITHIN duration
+ * conjunction := condition (AND condition)*
+ * condition := metric ('>' | '>=' | '<' | '<=') number
+ *            | (INSIDE | OUTSIDE) (GEOFENCE | zone type)
+ * metric := speed (km/h) | accel | decel (km/h per second, between consecutive points)
+ * duration := integer ('s' | 'm' | 'h')
+ * </pre>
+ * Examples: {@code speed > 90 AND inside RESTRICTED_ZONE FOR 30s},
+ * {@code COUNT(decel >= 12) >= 3 WITHIN 5m}. {@code inside GEOFENCE} refers to the rule's geofence.
+ *
+ * A sustained expression fires once when the conjunction has held for the duration (at once
+ * without FOR); a counting expression fires when the conjunction became true the given number
+ * of times within the window. The source is parsed once, evaluation only walks the conditions.
+ */
+public final class CompositeExpression {
+
+    /**
+     * Largest COUNT threshold, so the per-truck window state stays bounded.
+     */
+    public static final int MAX_COUNT = 10;
+
+    static final Set<String> ZONE_TYPES = Set.of("DEPOT", "DELIVERY_AREA", "RESTRICTED_ZONE", "CUSTOM");
+
+    private static final Pattern TOKEN = Pattern.compile(
+            "\\s*(\\d+(?:\\.\\d+)?[smh]?|>=|<=|>|<|\\(|\\)|[A-Za-z_]+)");
+
+    private final String source;
+    private final List<Condition> conditions;
+    private final long forMillis;
+    private final int count;
+    private final long withinMillis;
+
+    private CompositeExpression(String source, List<Condition> conditions, long forMillis, int count, long withinMillis) {
+        this.source = source;
+        this.conditions = List.copyOf(conditions);
+        this.forMillis = forMillis;
+        this.count = count;
+        this.withinMillis = withinMillis;
+    }
+
+    /**
+     * Parse an expression.
+     *
+     * @throws InvalidCompositeRuleException if the expression is invalid
+     */
+    public static CompositeExpression compile(String source) {
+        if (source == null || source.isBlank()) {
+            throw new InvalidCompositeRuleException("Condition expression is required for COMPOSITE rules");
+        }
+        return new Parser(source).parse();
+    }
+
+    /**
+     * Whether the conditions all hold for the point.
+     */
+    public boolean matches(Sample sample) {
+        for (Condition condition : conditions) {
+            if (!condition.test(sample)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isCounting() {
+        return count > 0;
+    }
+
+    /**
+     * Time the conditions must hold before a sustained expression fires (0 = at once).
+     */
+    public long getForMillis() {
+        return forMillis;
+    }
+
+    /**
+     * Number of occurrences of a counting expression (0 if not counting).
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public long getWithinMillis() {
+        return withinMillis;
+    }
+
+    /**
+     * Whether a condition uses {@code inside/outside GEOFENCE}, which needs the rule's geofence.
+     */
+    public boolean referencesRuleGeofence() {
+        return conditions.stream().anyMatch(condition -> condition instanceof Containment containment
+                && containment.zoneType() == null);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * Values of the current point a condition can test.
+     */
+    public interface Sample {
+        /** Speed in km/h, null if unknown. */
+        Double speed();
+
+        /** Speed change in km/h per second since the previous point, null if unknown. */
+        Double acceleration();
+
+        /** Whether the point is inside the rule's geofence. */
+        boolean insideRuleGeofence();
+
+        /** Whether the point is inside a geofence of the zone type. */
+        boolean insideZone(String zoneType);
+    }
+
+    private sealed interface Condition permits Comparison, Containment {
+        boolean test(Sample sample);
+    }
+
+    private enum Metric { SPEED, ACCEL, DECEL }
+
+    private record Comparison(Metric metric, String operator, double value) implements Condition {
+        @Override
+        public boolean test(Sample sample) {
+            Double actual = switch (metric) {
+                case SPEED -> sample.speed();
+                case ACCEL -> sample.acceleration();
+                case DECEL -> sample.acceleration() != null ? -sample.acceleration() : null;
+            };
+            if (actual == null) {
+                return false;
+            }
+            return switch (operator) {
+                case ">" -> actual > value;
+                case ">=" -> actual >= value;
+                case "<" -> actual < value;
+                default -> actual <= value;
+            };
+        }
+    }
+
+    // zoneType null = the rule's geofence
+    private record Containment(boolean inside, String zoneType) implements Condition {
+        @Override
+        public boolean test(Sample sample) {
+            boolean in = zoneType == null ? sample.insideRuleGeofence() : sample.insideZone(zoneType);
+            return in == inside;
+        }
+    }
+
+    /**
+     * Recursive-descent parser over the token list.
+     */
+    private static final class Parser {
+
+        private final String source;
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        private Parser(String source) {
+            this.source = source.trim();
+            Matcher matcher = TOKEN.matcher(this.source);
+            int end = 0;
+            while (matcher.find() && matcher.start() == end) {
+                tokens.add(matcher.group(1));
+                end = matcher.end();
+            }
+            if (end != this.source.length()) {
+                throw error("unexpected character at position " + end);
+            }
+        }
+
+        private CompositeExpression parse() {
+            CompositeExpression expression;
+            if (acceptKeyword("COUNT")) {
+                expect("(");
+                List<Condition> conditions = conjunction();
+                expect(")");
+                expect(">=");
+                int count = integer();
+                if (count < 1 || count > MAX_COUNT) {
+                    throw error("COUNT must be between 1 and " + MAX_COUNT);
+                }
+                expectKeyword("WITHIN");
+                long within = duration();
+                expression = new CompositeExpression(source, conditions, 0, count, within);
+            } else {
+                List<Condition> conditions = conjunction();
+                long forMillis = acceptKeyword("FOR") ? duration() : 0;
+                expression = new CompositeExpression(source, conditions, forMillis, 0, 0);
+            }
+            if (position < tokens.size()) {
+                throw error("unexpected '" + tokens.get(position) + "'");
+            }
+            return expression;
+        }
+
+        private List<Condition> conjunction() {
+            List<Condition> conditions = new ArrayList<>();
+            conditions.add(condition());
+            while (acceptKeyword("AND")) {
+                conditions.add(condition());
+            }
+            return conditions;
+        }
+
+        private Condition condition() {
+            String word = next().toUpperCase(Locale.ROOT);
+            if (word.equals("INSIDE") || word.equals("OUTSIDE")) {
+                String target = next().toUpperCase(Locale.ROOT);
+                if (target.equals("GEOFENCE")) {
+                    return new Containment(word.equals("INSIDE"), null);
+                }
+                if (!ZONE_TYPES.contains(target)) {
+                    throw error("unknown zone type '" + target + "', expected GEOFENCE or one of " + ZONE_TYPES);
+                }
+                return new Containment(word.equals("INSIDE"), target);
+            }
+
+            Metric metric;
+            try {
+                metric = Metric.valueOf(word);
+            } catch (IllegalArgumentException e) {
+                throw error("unknown condition '" + word + "', expected speed, accel, decel, inside or outside");
+            }
+            String operator = next();
+            if (!Set.of(">", ">=", "<", "<=").contains(operator)) {
+                throw error("expected a comparison after " + word.toLowerCase(Locale.ROOT));
+            }
+            return new Comparison(metric, operator, number());
+        }
+
+        private long duration() {
+            String token = next();
+            if (!token.matches("\\d+[smh]")) {
+                throw error("expected a duration such as 30s, 5m or 1h");
+            }
+            long millis;
+            try {
+                long amount = Long.parseLong(token.substring(0, token.length() - 1));
+                Duration duration = switch (token.charAt(token.length() - 1)) {
+                    case 's' -> Duration.ofSeconds(amount);
+                    case 'm' -> Duration.ofMinutes(amount);
+                    default -> Duration.ofHours(amount);
+                };
+                millis = duration.toMillis();
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw error("duration '" + token + "' is too large");
+            }
+            if (millis == 0) {
+                throw error("duration must be positive");
+            }
+            return millis;
+        }
+
+        private double number() {
+            String token = next();
+            if (!token.matches("\\d+(\\.\\d+)?")) {
+                throw error("expected a number");
+            }
+            return Double.parseDouble(token);
+        }
+
+        private int integer() {
+            String token = next();
+            if (!token.matches("\\d+")) {
+                throw error("expected an integer");
+            }
+            try {
+                return Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                throw error("integer '" + token + "' is too large");
+            }
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expectKeyword(String keyword) {
+            if (!acceptKeyword(keyword)) {
+                throw error("expected " + keyword);
+            }
+        }
+
+        private void expect(String symbol) {
+            if (!next().equals(symbol)) {
+                throw error("expected '" + symbol + "'");
+            }
+        }
+
+        private String next() {
+            if (position >= tokens.size()) {
+                throw error("unexpected end of expression");
+            }
+            return tokens.get(position++);
+        }
+
+        private InvalidCompositeRuleException error(String message) {
+            return new InvalidCompositeRuleException("Invalid condition expression '" + source + "': " + message);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.notification.model.AlertRule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Incremental evaluation of COMPOSITE rules over a sliding per-truck window.
+ *
+ * Each point updates a fixed-size state per truck and rule, whatever the window length:
+ * - sustained rules keep whether the condition held on the previous point and since when
+ * - counting rules keep the timestamps of their last COUNT occurrences in a small ring
+ * Acceleration is derived from the previous point of the truck, kept in the same slot.
+ */
+@Slf4j
+@Component
+public class CompositeRuleEvaluator {
+
+    // Per rule: FLAGS = matched on the previous point (bit 0) / fired for the current stretch (bit 1),
+    // SINCE = start of the current stretch (sustained) or ring head (counting), then the ring
+    private static final int FLAGS = 0;
+    private static final int SINCE = 1;
+    private static final int RING = 2;
+    private static final long MATCHED = 1L;
+    private static final long FIRED = 2L;
+
+    // Previous point of the truck, stored under a reserved key: SPEED (raw double bits), AT
+    private static final UUID MOTION_ID = new UUID(0L, 0L);
+    private static final int SPEED = 0;
+    private static final int AT = 1;
+
+    private final GeofenceIndex geofenceIndex;
+    private final TruckStateStore<UUID> stateStore;
+
+    @Value("${geofence.state.idle-minutes:1440}")
+    private long idleMinutes;
+
+    public CompositeRuleEvaluator(GeofenceIndex geofenceIndex,
+                                  @Value("${alert.state.max-trucks:100000}") int maxTrucks) {
+        this.geofenceIndex = geofenceIndex;
+        this.stateStore = new TruckStateStore<>(RING + CompositeExpression.MAX_COUNT, maxTrucks);
+    }
+
+    /**
+     * Feed a GPS point to the composite rules of the truck.
+     *
+     * @return rules whose expression fired on this point
+     */
+    public List<AlertRule> evaluate(GPSPositionEvent event, List<AlertRule> rules, AlertRuleSnapshot snapshot) {
+        if (rules.isEmpty()) {
+            return List.of();
+        }
+
+        UUID truckId = UUID.fromString(event.getTruckId());
+        long at = (event.getTimestamp() != null ? event.getTimestamp() : Instant.now()).toEpochMilli();
+        int motion = stateStore.keyIndex(MOTION_ID);
+
+        return stateStore.update(truckId, slot -> {
+            if (slot.contains(motion) && at < slot.get(motion, AT)) {
+                return List.of(); // Out of order point - the window only moves forward
+            }
+            Double acceleration = acceleration(slot, motion, event.getSpeed(), at);
+            if (event.getSpeed() != null) {
+                slot.put(motion, SPEED, Double.doubleToRawLongBits(event.getSpeed()));
+                slot.put(motion, AT, at);
+            }
+
+            List<AlertRule> fired = new ArrayList<>();
+            PointSample sample = new PointSample(event, acceleration);
+            for (AlertRule rule : rules) {
+                CompositeExpression expression = snapshot.getCompositeExpression(rule.getId());
+                if (expression == null) {
+                    continue;
+                }
+                sample.ruleGeofenceId = rule.getGeofenceId();
+                boolean matches = expression.matches(sample);
+                int key = stateStore.keyIndex(rule.getId());
+                boolean fires = expression.isCounting()
+                        ? updateCounting(slot, key, expression, matches, at)
+                        : updateSustained(slot, key, expression, matches, at);
+                if (fires) {
+                    fired.add(rule);
+                }
+            }
+            return fired;
+        });
+    }
+
+    /**
+     * Forget trucks that sent no position for a long time.
+     */
+    @Scheduled(fixedRate = 600000) // 10 minutes
+    public void evictIdleTrucks() {
+        int evicted = stateStore.evictIdle(System.currentTimeMillis() - idleMinutes * 60_000L);
+        int forgotten = stateStore.compactKeys();
+        if (evicted > 0 || forgotten > 0) {
+            log.debug("Evicted composite rule state of {} idle trucks, forgot {} rule IDs", evicted, forgotten);
+        }
+    }
+
+    public void clearTruckState(UUID truckId) {
+        stateStore.clear(truckId);
+    }
+
+    private static boolean updateSustained(TruckStateStore.Slot slot, int key, CompositeExpression expression,
+                                           boolean matches, long at) {
+        if (!matches) {
+            slot.remove(key); // Stretch over, nothing to keep
+            return false;
+        }
+        long flags = slot.get(key, FLAGS);
+        long since = (flags & MATCHED) != 0 ? slot.get(key, SINCE) : at;
+        boolean fires = (flags & FIRED) == 0 && at - since >= expression.getForMillis();
+        slot.put(key, SINCE, since);
+        slot.put(key, FLAGS, MATCHED | (fires || (flags & FIRED) != 0 ? FIRED : 0L));
+        return fires;
+    }
+
+    private static boolean updateCounting(TruckStateStore.Slot slot, int key, CompositeExpression expression,
+                                          boolean matches, long at) {
+        if (!slot.contains(key) && !matches) {
+            return false;
+        }
+        long flags = slot.get(key, FLAGS);
+        boolean wasMatching = (flags & MATCHED) != 0;
+        slot.put(key, FLAGS, matches ? MATCHED : 0L);
+        if (!matches || wasMatching) {
+            return false; // Only a new occurrence (condition becoming true) counts
+        }
+
+        // Ring of the last COUNT occurrences; the slot at head is the oldest one
+        int count = expression.getCount();
+        int head = (int) slot.get(key, SINCE);
+        slot.put(key, RING + head, at);
+        head = (head + 1) % count;
+        slot.put(key, SINCE, head);
+
+        long oldest = slot.get(key, RING + head);
+        if (oldest != 0 && at - oldest <= expression.getWithinMillis()) {
+            // Fired - the next alert needs COUNT new occurrences
+            for (int i = 0; i < count; i++) {
+                slot.put(key, RING + i, 0L);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static Double acceleration(TruckStateStore.Slot slot, int motion, Double speed, long at) {
+        if (speed == null || !slot.contains(motion)) {
+            return null;
+        }
+        long previousAt = slot.get(motion, AT);
+        if (at <= previousAt) {
+            return null;
+        }
+        double previousSpeed = Double.longBitsToDouble(slot.get(motion, SPEED));
+        return (speed - previousSpeed) / ((at - previousAt) / 1000.0);
+    }
+
+    /**
+     * Current point as seen by the conditions; containment is resolved once, on first use.
+     */
+    private final class PointSample implements CompositeExpression.Sample {
+
+        private final GPSPositionEvent event;
+        private final Double acceleration;
+        private Set<UUID> containing;
+        private UUID ruleGeofenceId;
+
+        private PointSample(GPSPositionEvent event, Double acceleration) {
+            this.event = event;
+            this.acceleration = acceleration;
+        }
+
+        @Override
+        public Double speed() {
+            return event.getSpeed();
+        }
+
+        @Override
+        public Double acceleration() {
+            return acceleration;
+        }
+
+        @Override
+        public boolean insideRuleGeofence() {
+            return ruleGeofenceId != null && containing().contains(ruleGeofenceId);
+        }
+
+        @Override
+        public boolean insideZone(String zoneType) {
+            for (UUID geofenceId : containing()) {
+                if (zoneType.equals(geofenceIndex.getZoneType(geofenceId))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Set<UUID> containing() {
+            if (containing == null) {
+                containing = event.getLatitude() != null && event.getLongitude() != null
+                        ? geofenceIndex.findContaining(event.getLatitude(), event.getLongitude())
+                        : Set.of();
+            }
+            return containing;
+        }
+    }
+}
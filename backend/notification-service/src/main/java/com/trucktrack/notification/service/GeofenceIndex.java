@@ -0,0 +1,128 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.common.geo.GeofenceSpatialIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory index of the active geofences, used to evaluate point-in-polygon locally
+ * instead of asking location-service for every rule and every GPS point.
+ *
+ * Boundaries are read from the shared geofences table into a {@link GeofenceSpatialIndex},
+ * once at startup and again on every geofence change published by location-service
+ * (see {@link com.trucktrack.notification.kafka.GeofenceChangeListener}). The whole index
+ * is rebuilt and swapped atomically.
+ */
+@Slf4j
+@Component
+public class GeofenceIndex {
+
+    private static final String LOAD_SQL =
+            "SELECT id, zone_type::text AS zone_type, ST_AsBinary(boundary) AS boundary FROM geofences WHERE is_active = true";
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile GeofenceSpatialIndex index = GeofenceSpatialIndex.EMPTY;
+    private volatile Map<UUID, String> zoneTypes = Map.of();
+    private volatile boolean loaded;
+
+    public GeofenceIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Load the geofences until a load succeeds; runs at startup and retries on failure.
+     * Later changes arrive as events, so nothing is polled once loaded.
+     */
+    @Scheduled(fixedDelayString = "${geofence.index.retry-interval-ms:30000}")
+    public void loadIfNeeded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Reload the active geofences; on failure the previous index is kept.
+     */
+    public synchronized void reload() {
+        try {
+            WKBReader reader = new WKBReader(GEOMETRY_FACTORY);
+            Map<UUID, Geometry> geofences = new HashMap<>();
+            Map<UUID, String> types = new HashMap<>();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                try {
+                    UUID id = rs.getObject("id", UUID.class);
+                    geofences.put(id, reader.read(rs.getBytes("boundary")));
+                    types.put(id, rs.getString("zone_type"));
+                } catch (ParseException e) {
+                    log.warn("Skipping geofence {} with unreadable boundary: {}", rs.getString("id"), e.getMessage());
+                }
+            });
+
+            rebuild(geofences, types);
+            loaded = true;
+            log.info("Geofence index loaded: {} active geofences", geofences.size());
+
+        } catch (Exception e) {
+            log.error("Failed to reload geofence index, keeping {} geofences: {}", size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the indexed geofences.
+     */
+    void rebuild(Map<UUID, Geometry> geofences) {
+        rebuild(geofences, Map.of());
+    }
+
+    void rebuild(Map<UUID, Geometry> geofences, Map<UUID, String> geofenceZoneTypes) {
+        zoneTypes = Map.copyOf(geofenceZoneTypes);
+        index = GeofenceSpatialIndex.of(geofences);
+    }
+
+    /**
+     * IDs of the indexed geofences containing the point.
+     */
+    public Set<UUID> findContaining(double latitude, double longitude) {
+        return index.findContaining(latitude, longitude);
+    }
+
+    /**
+     * Approximate distance in meters from the point to the geofence edge.
+     */
+    public double distanceToBoundaryMeters(UUID geofenceId, double latitude, double longitude) {
+        return index.distanceToBoundaryMeters(geofenceId, latitude, longitude);
+    }
+
+    /**
+     * Whether the geofence is active and loaded; unknown geofences cannot be evaluated.
+     */
+    public boolean isIndexed(UUID geofenceId) {
+        return index.isIndexed(geofenceId);
+    }
+
+    /**
+     * Zone type of an indexed geofence (DEPOT, RESTRICTED_ZONE...), null if unknown.
+     */
+    public String getZoneType(UUID geofenceId) {
+        return zoneTypes.get(geofenceId);
+    }
+
+    public int size() {
+        return index.size();
+    }
+}
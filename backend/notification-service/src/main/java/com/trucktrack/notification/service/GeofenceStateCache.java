@@ -1,81 +1,161 @@
 package com.trucktrack.notification.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
 
 /**
  * Cache for tracking truck positions relative to geofences
  * Used to detect geofence enter/exit events
  * T150: Implement geofence evaluation in AlertRuleEngine
+ *
+ * Transitions go through hysteresis so GPS jitter on an edge does not produce enter/exit pairs:
+ * points within the buffer distance of the edge never change the state, and a new side is only
+ * confirmed once the truck has stayed on it for the minimum dwell (longer when stationary).
+ * Confirmed transitions are dated from the first point seen on the new side.
  */
 @Slf4j
 @Component
 public class GeofenceStateCache {
 
-    /**
-     * Key: truckId:geofenceId
-     * Value: true if truck is inside, false if outside
-     */
-    private final Map<String, GeofenceState> stateMap = new ConcurrentHashMap<>();
+    private static final int STATE = 0;
+    private static final int PENDING_SINCE = 1;
 
     /**
-     * Check if a truck's geofence state has changed
-     *
-     * @param truckId     Truck ID
-     * @param geofenceId  Geofence ID
-     * @param isNowInside Current position state
-     * @return StateChange if state changed, null otherwise
+     * Per truck, keyed by geofence index:
+     * STATE = confirmed side and since when (packed), PENDING_SINCE = first position on the other side (0 if none).
+     * Keyed by dwell rule index: STATE = packed state of the stay the rule already fired for.
      */
-    public StateChange checkStateChange(UUID truckId, UUID geofenceId, boolean isNowInside) {
-        String key = createKey(truckId, geofenceId);
-        GeofenceState currentState = stateMap.get(key);
-
-        // If no previous state, store current and report as initial state
-        if (currentState == null) {
-            stateMap.put(key, new GeofenceState(isNowInside, Instant.now()));
-            log.debug("Initial geofence state for truck {} / geofence {}: inside={}",
-                    truckId, geofenceId, isNowInside);
-            return null; // No state change for initial state
-        }
+    private final TruckStateStore<UUID> stateStore;
 
-        boolean wasInside = currentState.inside();
+    @Value("${geofence.hysteresis.buffer-meters:20}")
+    private double bufferMeters;
 
-        // Check if state changed
-        if (wasInside != isNowInside) {
-            // Update state
-            stateMap.put(key, new GeofenceState(isNowInside, Instant.now()));
+    @Value("${geofence.hysteresis.min-dwell-seconds:10}")
+    private long minDwellSeconds;
 
-            StateChangeType changeType = isNowInside
-                    ? StateChangeType.ENTERED
-                    : StateChangeType.EXITED;
+    @Value("${geofence.hysteresis.stationary-dwell-seconds:60}")
+    private long stationaryDwellSeconds;
 
-            log.info("Truck {} {} geofence {}", truckId, changeType.name(), geofenceId);
-            return new StateChange(truckId, geofenceId, changeType, Instant.now());
+    @Value("${geofence.hysteresis.stationary-speed-kmh:5}")
+    private double stationarySpeedKmh;
+
+    @Value("${geofence.state.idle-minutes:1440}")
+    private long idleMinutes;
+
+    public GeofenceStateCache(@Value("${alert.state.max-trucks:100000}") int maxTrucks) {
+        this.stateStore = new TruckStateStore<>(2, maxTrucks);
+    }
+
+    /**
+     * Check if a truck's geofence state has changed
+     *
+     * @param truckId            Truck ID
+     * @param geofenceId         Geofence ID
+     * @param isNowInside        Raw containment of the current position
+     * @param distanceToBoundary Distance in meters to the geofence edge, only called when the side differs
+     * @param speedKmh           Current speed (null if unknown)
+     * @param timestamp          Position timestamp (now if null)
+     * @return StateChange if a transition is confirmed, null otherwise
+     */
+    public StateChange checkStateChange(UUID truckId, UUID geofenceId, boolean isNowInside,
+                                        DoubleSupplier distanceToBoundary, Double speedKmh, Instant timestamp) {
+        int geofence = stateStore.keyIndex(geofenceId);
+        long at = (timestamp != null ? timestamp : Instant.now()).toEpochMilli();
+
+        StateChange change = stateStore.update(truckId, slot -> {
+            // If no previous state, store current and report as initial state
+            if (!slot.contains(geofence)) {
+                slot.put(geofence, STATE, pack(isNowInside, at));
+                log.debug("Initial geofence state for truck {} / geofence {}: inside={}",
+                        truckId, geofenceId, isNowInside);
+                return null; // No state change for initial state
+            }
+
+            long state = slot.get(geofence, STATE);
+            long pendingSince = slot.get(geofence, PENDING_SINCE);
+
+            if (isInside(state) == isNowInside) {
+                // Back on the confirmed side - drop any pending transition
+                slot.put(geofence, PENDING_SINCE, 0L);
+            } else if (distanceToBoundary.getAsDouble() >= bufferMeters) {
+                // Beyond the buffer band - confirm once the dwell has elapsed on the new side
+                if (pendingSince == 0) {
+                    pendingSince = at;
+                }
+                if (at - pendingSince < requiredDwell(speedKmh).toMillis()) {
+                    slot.put(geofence, PENDING_SINCE, pendingSince);
+                } else {
+                    slot.put(geofence, STATE, pack(isNowInside, pendingSince));
+                    slot.put(geofence, PENDING_SINCE, 0L);
+                    StateChangeType changeType = isNowInside
+                            ? StateChangeType.ENTERED
+                            : StateChangeType.EXITED;
+                    return new StateChange(truckId, geofenceId, changeType, Instant.ofEpochMilli(pendingSince));
+                }
+            }
+            // Within the buffer band - not far enough to count as the other side
+            return null;
+        });
+
+        if (change != null) {
+            log.info("Truck {} {} geofence {}", truckId, change.changeType().name(), geofenceId);
         }
+        return change;
+    }
 
-        return null; // No change
+    /**
+     * Check if a truck has been inside a geofence for at least the dwell threshold.
+     * Fires once per rule and per stay; the stay is counted from the confirmed entry,
+     * or from the first position seen for that geofence.
+     *
+     * @return true the first time the threshold is reached during the current stay
+     */
+    public boolean checkDwell(UUID truckId, UUID geofenceId, UUID ruleId, Duration threshold, Instant timestamp) {
+        long at = (timestamp != null ? timestamp : Instant.now()).toEpochMilli();
+        int geofence = stateStore.keyIndex(geofenceId);
+        int rule = stateStore.keyIndex(ruleId);
+
+        return Boolean.TRUE.equals(stateStore.updateExisting(truckId, slot -> {
+            if (!slot.contains(geofence)) {
+                return false;
+            }
+            long state = slot.get(geofence, STATE);
+            if (!isInside(state)
+                    || (slot.contains(rule) && slot.get(rule, STATE) == state)
+                    || at - since(state) < threshold.toMillis()) {
+                return false;
+            }
+            slot.put(rule, STATE, state);
+            return true;
+        }));
     }
 
     /**
      * Get current state for a truck/geofence combination
      */
     public Boolean getState(UUID truckId, UUID geofenceId) {
-        String key = createKey(truckId, geofenceId);
-        GeofenceState state = stateMap.get(key);
-        return state != null ? state.inside() : null;
+        TruckStateStore.Slot slot = stateStore.get(truckId);
+        if (slot == null) {
+            return null;
+        }
+        int geofence = stateStore.existingKeyIndex(geofenceId);
+        synchronized (slot) {
+            return slot.contains(geofence) ? isInside(slot.get(geofence, STATE)) : null;
+        }
     }
 
     /**
      * Clear state for a truck (e.g., when truck goes offline)
      */
     public void clearTruckState(UUID truckId) {
-        String prefix = truckId.toString() + ":";
-        stateMap.keySet().removeIf(key -> key.startsWith(prefix));
+        stateStore.clear(truckId);
         log.debug("Cleared geofence state for truck {}", truckId);
     }
 
@@ -83,12 +163,45 @@ public class GeofenceStateCache {
      * Clear all state (for testing or reset)
      */
     public void clearAll() {
-        stateMap.clear();
+        stateStore.clearAll();
         log.info("Cleared all geofence state");
     }
 
-    private String createKey(UUID truckId, UUID geofenceId) {
-        return truckId.toString() + ":" + geofenceId.toString();
+    /**
+     * Forget trucks that sent no position for a long time; their next position starts fresh.
+     */
+    @Scheduled(fixedRate = 600000) // 10 minutes
+    public void evictIdleTrucks() {
+        int evicted = stateStore.evictIdle(System.currentTimeMillis() - idleMinutes * 60_000L);
+        int forgotten = stateStore.compactKeys();
+        if (evicted > 0 || forgotten > 0) {
+            log.debug("Evicted geofence state of {} idle trucks, forgot {} geofence and rule IDs", evicted, forgotten);
+        }
+    }
+
+    /**
+     * Backing store, persisted by {@link AlertStateChangelog}.
+     */
+    TruckStateStore<UUID> stateStore() {
+        return stateStore;
+    }
+
+    private Duration requiredDwell(Double speedKmh) {
+        boolean stationary = speedKmh != null && speedKmh < stationarySpeedKmh;
+        return Duration.ofSeconds(stationary ? stationaryDwellSeconds : minDwellSeconds);
+    }
+
+    // Confirmed side in the lowest bit, epoch millis of the transition above it
+    private static long pack(boolean inside, long sinceMillis) {
+        return (sinceMillis << 1) | (inside ? 1L : 0L);
+    }
+
+    private static boolean isInside(long state) {
+        return (state & 1L) != 0;
+    }
+
+    private static long since(long state) {
+        return state >> 1;
     }
 
     /**
@@ -108,9 +221,4 @@ public class GeofenceStateCache {
             StateChangeType changeType,
             Instant timestamp
     ) {}
-
-    /**
-     * Internal state record
-     */
-    private record GeofenceState(boolean inside, Instant lastUpdate) {}
 }
@@ -0,0 +1,12 @@
+package com.trucktrack.notification.service;
+
+/**
+ * Thrown when the condition expression of a COMPOSITE rule is missing or invalid.
+ * Rejected with a 400 when a rule is saved; rules already stored are skipped at evaluation.
+ */
+public class InvalidCompositeRuleException extends IllegalArgumentException {
+
+    public InvalidCompositeRuleException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,94 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.notification.model.Notification;
+import com.trucktrack.notification.websocket.NotificationWebSocketService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the notifications of an alert.
+ *
+ * They are saved on the Kafka consumer thread, so an alert is acknowledged only once its
+ * notifications are persisted, then pushed to their recipient only off that thread.
+ * Push workers and queue are bounded; when the queue is full the consumer thread pushes
+ * the alert itself, which slows consumption instead of dropping pushes or growing memory
+ * during a burst.
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher {
+
+    private final NotificationService notificationService;
+    private final NotificationWebSocketService webSocketService;
+    private final ThreadPoolExecutor executor;
+
+    public NotificationDispatcher(
+            NotificationService notificationService,
+            NotificationWebSocketService webSocketService,
+            @Value("${alert.dispatch.threads:2}") int threads,
+            @Value("${alert.dispatch.queue-capacity:1000}") int queueCapacity) {
+        this.notificationService = notificationService;
+        this.webSocketService = webSocketService;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-dispatch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Save the notifications of one alert, then queue their push.
+     *
+     * @throws org.springframework.dao.DataAccessException if they could not be saved
+     */
+    public void dispatch(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        List<Notification> saved = notificationService.createNotifications(notifications);
+        executor.execute(() -> push(saved));
+    }
+
+    /**
+     * Number of alerts waiting for a push worker.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    void push(List<Notification> saved) {
+        // T166: Push each notification to its recipient only
+        for (Notification notification : saved) {
+            try {
+                webSocketService.sendToUser(notification.getUserId().toString(), notification);
+            } catch (Exception e) {
+                log.warn("Failed to push notification {} to user {}: {}",
+                        notification.getId(), notification.getUserId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Push the queued alerts before shutting down.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} alerts not pushed at shutdown", executor.shutdownNow().size());
+        }
+    }
+}
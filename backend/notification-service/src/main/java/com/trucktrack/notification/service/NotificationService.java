@@ -1,5 +1,7 @@
 package com.trucktrack.notification.service;
 
+import com.trucktrack.common.dto.CursorPage;
+import com.trucktrack.common.dto.PageCursor;
 import com.trucktrack.notification.model.Notification;
 import com.trucktrack.notification.model.NotificationSeverity;
 import com.trucktrack.notification.repository.NotificationRepository;
@@ -8,11 +10,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,6 +32,15 @@ import java.util.UUID;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_COLUMNS = "INSERT INTO notifications "
+            + "(id, user_id, alert_rule_id, truck_id, notification_type, title, message, severity, "
+            + "is_read, latitude, longitude, triggered_at, sent_at) VALUES ";
+    private static final String INSERT_ROW =
+            "(?, ?, ?, ?, CAST(? AS notification_type), ?, ?, CAST(? AS notification_severity), ?, ?, ?, ?, ?)";
+    // 13 bind parameters per row, PostgreSQL accepts at most 65,535 per statement
+    static final int MAX_ROWS_PER_INSERT = 1000;
 
     /**
      * Get all notifications for a user (paginated)
@@ -36,6 +50,21 @@ public class NotificationService {
         return notificationRepository.findByUserIdOrderByTriggeredAtDesc(userId, pageable);
     }
 
+    /**
+     * Get a keyset page of notifications for a user, newest first
+     *
+     * @param cursor token of the page to get (from the previous page), null for the first page
+     */
+    public CursorPage<Notification> getNotificationsPage(UUID userId, String cursor, int size) {
+        int pageSize = CursorPage.pageSize(size);
+        PageCursor before = PageCursor.decode(cursor);
+        List<Notification> notifications = before == null
+            ? notificationRepository.findFirstByUserId(userId, pageSize + 1)
+            : notificationRepository.findByUserIdBefore(userId, before.timestamp(), before.uuidId(), pageSize + 1);
+        return CursorPage.of(notifications, pageSize,
+            notification -> PageCursor.of(notification.getTriggeredAt(), notification.getId()));
+    }
+
     /**
      * Get unread notifications for a user
      */
@@ -102,6 +131,52 @@ public class NotificationService {
         return notificationRepository.save(notification);
     }
 
+    /**
+     * Save the notifications of one alert (one per recipient) with multi-row INSERTs of at most
+     * {@link #MAX_ROWS_PER_INSERT} rows, in one transaction. IDs are assigned here, so the returned notifications can be pushed without reloading them.
+     */
+    @Transactional
+    public List<Notification> createNotifications(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+
+        for (int from = 0; from < notifications.size(); from += MAX_ROWS_PER_INSERT) {
+            insert(notifications.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, notifications.size())));
+        }
+        log.info("Created {} notifications for truck {}, type: {}", notifications.size(),
+                notifications.get(0).getTruckId(), notifications.get(0).getNotificationType());
+        return notifications;
+    }
+
+    private void insert(List<Notification> notifications) {
+        StringBuilder sql = new StringBuilder(INSERT_COLUMNS);
+        List<Object> args = new ArrayList<>(notifications.size() * 13);
+        for (Notification notification : notifications) {
+            if (notification.getId() == null) {
+                notification.setId(UUID.randomUUID());
+            }
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_ROW);
+            args.add(notification.getId());
+            args.add(notification.getUserId());
+            args.add(notification.getAlertRuleId());
+            args.add(notification.getTruckId());
+            args.add(notification.getNotificationType().name());
+            args.add(notification.getTitle());
+            args.add(notification.getMessage());
+            args.add(notification.getSeverity().name());
+            args.add(Boolean.TRUE.equals(notification.getIsRead()));
+            args.add(notification.getLatitude());
+            args.add(notification.getLongitude());
+            args.add(Timestamp.from(notification.getTriggeredAt()));
+            args.add(Timestamp.from(notification.getSentAt()));
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
     /**
      * Get notifications for a truck
      */
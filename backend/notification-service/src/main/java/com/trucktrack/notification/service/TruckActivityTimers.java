@@ -0,0 +1,231 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.common.event.AlertTriggeredEvent;
+import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.common.util.TimerWheel;
+import com.trucktrack.notification.model.AlertRule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-truck deadlines for the rules that fire on the absence of data (OFFLINE, IDLE).
+ *
+ * Each GPS point records the truck's activity and (re)schedules its earliest pending deadline
+ * in a hashed timer wheel (O(1)); {@link #advance(Instant)} only visits the trucks whose
+ * deadline passed - no periodic table scan, whatever the fleet size.
+ * - OFFLINE: no point for the rule's threshold (minutes) since the last one
+ * - IDLE: every point at or below the idle speed for the rule's threshold (minutes)
+ *
+ * Each rule fires once per silence / idle stay. Times are arrival times on this instance, so
+ * replaying a consumer backlog does not produce alerts for points that were merely late.
+ * Trucks are tracked by the instance consuming their GPS partition and dropped on revocation.
+ */
+@Slf4j
+@Component
+public class TruckActivityTimers {
+
+    private final TruckRuleIndex truckRuleIndex;
+
+    // Guarded by this
+    private final TimerWheel<UUID> wheel;
+    private final Map<UUID, Activity> activities = new HashMap<>();
+
+    @Value("${alert.offline-threshold-minutes:5}")
+    private int defaultOfflineMinutes;
+
+    @Value("${alert.idle.default-minutes:15}")
+    private int defaultIdleMinutes;
+
+    @Value("${alert.idle.speed-threshold-kmh:5}")
+    private double idleSpeedKmh;
+
+    public TruckActivityTimers(
+            TruckRuleIndex truckRuleIndex,
+            @Value("${alert.activity.tick-interval-ms:1000}") long tickIntervalMs,
+            @Value("${alert.activity.wheel-size:512}") int wheelSize) {
+        this.truckRuleIndex = truckRuleIndex;
+        this.wheel = new TimerWheel<>(Duration.ofMillis(tickIntervalMs), wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Record a GPS point and reschedule the truck's next OFFLINE/IDLE deadline.
+     */
+    public void onPosition(GPSPositionEvent event, TruckRuleIndex.TruckRules rules) {
+        onPosition(event, rules, Instant.now());
+    }
+
+    synchronized void onPosition(GPSPositionEvent event, TruckRuleIndex.TruckRules rules, Instant receivedAt) {
+        UUID truckId = UUID.fromString(event.getTruckId());
+        if (rules.offlineRules().isEmpty() && rules.idleRules().isEmpty()) {
+            if (activities.remove(truckId) != null) {
+                wheel.cancel(truckId);
+            }
+            return;
+        }
+
+        Activity activity = activities.computeIfAbsent(truckId, id -> new Activity());
+        long at = receivedAt.toEpochMilli();
+
+        // New point: a new silence starts for the OFFLINE rules
+        activity.lastPointAt = at;
+        activity.firedOffline.clear();
+
+        if (event.getSpeed() != null) {
+            if (event.getSpeed() <= idleSpeedKmh) {
+                if (activity.idleSince == 0) {
+                    activity.idleSince = at;
+                }
+            } else {
+                activity.idleSince = 0;
+                activity.firedIdle.clear();
+            }
+        }
+        // Unknown speed - keep the current idle stay
+
+        if (event.getLatitude() != null && event.getLongitude() != null) {
+            activity.latitude = event.getLatitude();
+            activity.longitude = event.getLongitude();
+        }
+        if (event.getTruckIdReadable() != null && !event.getTruckIdReadable().isBlank()) {
+            activity.truckIdReadable = event.getTruckIdReadable();
+        }
+
+        reschedule(truckId, activity, rules);
+    }
+
+    /**
+     * Advance the wheel and collect the OFFLINE/IDLE rules whose threshold passed.
+     *
+     * @return alerts to trigger, at most one per truck and rule per silence / idle stay
+     */
+    public List<DueAlert> advance(Instant now) {
+        List<UUID> expired;
+        synchronized (this) {
+            expired = wheel.advance(now.toEpochMilli());
+        }
+
+        List<DueAlert> due = new ArrayList<>();
+        for (UUID truckId : expired) {
+            // Current rules, so a rule disabled or deleted meanwhile does not fire
+            TruckRuleIndex.TruckRules rules = truckRuleIndex.getRules(truckId);
+            synchronized (this) {
+                Activity activity = activities.get(truckId);
+                if (activity == null) {
+                    continue; // Dropped meanwhile
+                }
+                collectDue(truckId, activity, rules, now.toEpochMilli(), due);
+                reschedule(truckId, activity, rules);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Stop tracking a truck (e.g. its GPS partition was revoked).
+     */
+    public synchronized void clearTruck(UUID truckId) {
+        activities.remove(truckId);
+        wheel.cancel(truckId);
+    }
+
+    public synchronized int getTrackedCount() {
+        return activities.size();
+    }
+
+    private void collectDue(UUID truckId, Activity activity, TruckRuleIndex.TruckRules rules,
+                            long now, List<DueAlert> due) {
+        for (AlertRule rule : rules.offlineRules()) {
+            int minutes = getOfflineMinutes(rule);
+            if (!activity.firedOffline.contains(rule.getId()) && now >= activity.lastPointAt + minutes * 60_000L) {
+                activity.firedOffline.add(rule.getId());
+                due.add(new DueAlert(truckId, activity.truckIdReadable, rule, AlertTriggeredEvent.AlertType.OFFLINE,
+                        minutes, activity.latitude, activity.longitude, Instant.ofEpochMilli(activity.lastPointAt)));
+            }
+        }
+        if (activity.idleSince == 0) {
+            return;
+        }
+        for (AlertRule rule : rules.idleRules()) {
+            int minutes = getIdleMinutes(rule);
+            if (!activity.firedIdle.contains(rule.getId()) && now >= activity.idleSince + minutes * 60_000L) {
+                activity.firedIdle.add(rule.getId());
+                due.add(new DueAlert(truckId, activity.truckIdReadable, rule, AlertTriggeredEvent.AlertType.IDLE,
+                        minutes, activity.latitude, activity.longitude, Instant.ofEpochMilli(activity.idleSince)));
+            }
+        }
+    }
+
+    // Schedule the earliest deadline not fired yet; a truck with none left is no longer tracked
+    private void reschedule(UUID truckId, Activity activity, TruckRuleIndex.TruckRules rules) {
+        long next = Long.MAX_VALUE;
+        for (AlertRule rule : rules.offlineRules()) {
+            if (!activity.firedOffline.contains(rule.getId())) {
+                next = Math.min(next, activity.lastPointAt + getOfflineMinutes(rule) * 60_000L);
+            }
+        }
+        if (activity.idleSince != 0) {
+            for (AlertRule rule : rules.idleRules()) {
+                if (!activity.firedIdle.contains(rule.getId())) {
+                    next = Math.min(next, activity.idleSince + getIdleMinutes(rule) * 60_000L);
+                }
+            }
+        }
+
+        if (next != Long.MAX_VALUE) {
+            wheel.schedule(truckId, next);
+            return;
+        }
+        wheel.cancel(truckId);
+        if (activity.idleSince == 0 || !activity.firedOffline.isEmpty()) {
+            // Nothing pending until the next point, which starts over
+            activities.remove(truckId);
+        }
+        // Otherwise idle alerts were sent - keep the stay so they do not fire again on the next point
+    }
+
+    private int getOfflineMinutes(AlertRule rule) {
+        return rule.getThresholdValue() != null ? rule.getThresholdValue() : defaultOfflineMinutes;
+    }
+
+    private int getIdleMinutes(AlertRule rule) {
+        return rule.getThresholdValue() != null ? rule.getThresholdValue() : defaultIdleMinutes;
+    }
+
+    /**
+     * Last known activity of a tracked truck.
+     */
+    private static final class Activity {
+        private long lastPointAt;
+        private long idleSince;
+        private Double latitude;
+        private Double longitude;
+        private String truckIdReadable;
+        private final Set<UUID> firedOffline = new HashSet<>(2);
+        private final Set<UUID> firedIdle = new HashSet<>(2);
+    }
+
+    /**
+     * OFFLINE/IDLE rule whose threshold passed for a truck, with its last known position.
+     */
+    public record DueAlert(
+            UUID truckId,
+            String truckIdReadable,
+            AlertRule rule,
+            AlertTriggeredEvent.AlertType alertType,
+            int thresholdMinutes,
+            Double latitude,
+            Double longitude,
+            Instant since
+    ) {}
+}
@@ -0,0 +1,162 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.common.event.TruckGroupChangeEvent;
+import com.trucktrack.notification.model.AlertRule;
+import com.trucktrack.notification.model.AlertRuleType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed truckId -> applicable rules, so evaluation only touches the rules of the
+ * truck's groups plus the fleet-wide ones (rules without truck group).
+ *
+ * Group memberships are read from truck_group_assignments and kept up to date from
+ * {@link TruckGroupChangeEvent}s. A truck's entry is computed on first use and recomputed
+ * lazily when the rule snapshot or the memberships change.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TruckRuleIndex {
+
+    private final AlertRuleCache alertRuleCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<UUID, Set<UUID>> groupsByTruck = new ConcurrentHashMap<>();
+    private final Map<UUID, TruckRules> rulesByTruck = new ConcurrentHashMap<>();
+    private final AtomicLong membershipVersion = new AtomicLong();
+    private volatile boolean membershipsLoaded;
+
+    /**
+     * Rules applicable to a truck with the current rule snapshot.
+     */
+    public TruckRules getRules(UUID truckId) {
+        AlertRuleSnapshot snapshot = alertRuleCache.getSnapshot();
+        ensureMembershipsLoaded();
+        long version = membershipVersion.get();
+
+        TruckRules rules = rulesByTruck.get(truckId);
+        if (rules == null || rules.snapshot() != snapshot || rules.membershipVersion() != version) {
+            rules = TruckRules.of(snapshot, groupsByTruck.getOrDefault(truckId, Set.of()), version);
+            rulesByTruck.put(truckId, rules);
+        }
+        return rules;
+    }
+
+    /**
+     * Groups a truck belongs to (empty if none).
+     */
+    public Set<UUID> getGroups(UUID truckId) {
+        ensureMembershipsLoaded();
+        return groupsByTruck.getOrDefault(truckId, Set.of());
+    }
+
+    /**
+     * Apply a membership change published by location-service.
+     */
+    public void onTruckGroupChanged(TruckGroupChangeEvent event) {
+        if (event.getChangeType() == TruckGroupChangeEvent.ChangeType.GROUP_MODIFIED || event.getTruckId() == null) {
+            membershipsLoaded = false; // Next read reloads all memberships
+            membershipVersion.incrementAndGet();
+            return;
+        }
+        if (!membershipsLoaded) {
+            return; // Next read loads the committed state
+        }
+
+        UUID truckId = UUID.fromString(event.getTruckId());
+        UUID groupId = UUID.fromString(event.getGroupId());
+        boolean added = event.getChangeType() == TruckGroupChangeEvent.ChangeType.ADDED;
+        groupsByTruck.compute(truckId, (id, current) -> {
+            Set<UUID> groups = current != null ? new HashSet<>(current) : new HashSet<>();
+            if (added) {
+                groups.add(groupId);
+            } else {
+                groups.remove(groupId);
+            }
+            return groups.isEmpty() ? null : Set.copyOf(groups);
+        });
+        membershipVersion.incrementAndGet();
+    }
+
+    /**
+     * Reload all group memberships from the database.
+     */
+    public synchronized void reloadMemberships() {
+        Map<UUID, Set<UUID>> loaded = new HashMap<>();
+        jdbcTemplate.query("SELECT truck_id, group_id FROM truck_group_assignments", rs -> {
+            loaded.computeIfAbsent(rs.getObject("truck_id", UUID.class), id -> new HashSet<>())
+                    .add(rs.getObject("group_id", UUID.class));
+        });
+        // Replaced in place, so concurrent rule lookups never see an empty index
+        loaded.forEach((truckId, groups) -> groupsByTruck.put(truckId, Set.copyOf(groups)));
+        groupsByTruck.keySet().retainAll(loaded.keySet());
+        membershipsLoaded = true;
+        membershipVersion.incrementAndGet();
+        log.info("Loaded group memberships for {} trucks", groupsByTruck.size());
+    }
+
+    private void ensureMembershipsLoaded() {
+        if (!membershipsLoaded) {
+            synchronized (this) {
+                if (!membershipsLoaded) {
+                    reloadMemberships();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rules applying to one truck, split by evaluation path.
+     */
+    public record TruckRules(
+            AlertRuleSnapshot snapshot,
+            long membershipVersion,
+            List<AlertRule> speedLimitRules,
+            List<AlertRule> geofenceRules,
+            List<AlertRule> offlineRules,
+            List<AlertRule> idleRules,
+            List<AlertRule> compositeRules
+    ) {
+
+        public static TruckRules of(AlertRuleSnapshot snapshot, Set<UUID> truckGroups, long membershipVersion) {
+            List<AlertRule> applicable = new ArrayList<>(snapshot.getFleetWideRules());
+            for (UUID groupId : truckGroups) {
+                applicable.addAll(snapshot.getRulesForTruckGroup(groupId));
+            }
+
+            List<AlertRule> speed = new ArrayList<>();
+            List<AlertRule> geofence = new ArrayList<>();
+            List<AlertRule> offline = new ArrayList<>();
+            List<AlertRule> idle = new ArrayList<>();
+            List<AlertRule> composite = new ArrayList<>();
+            for (AlertRule rule : applicable) {
+                if (rule.getRuleType() == AlertRuleType.SPEED_LIMIT) {
+                    speed.add(rule);
+                } else if (AlertRuleSnapshot.isGeofenceRule(rule.getRuleType())) {
+                    geofence.add(rule);
+                } else if (rule.getRuleType() == AlertRuleType.OFFLINE) {
+                    offline.add(rule);
+                } else if (rule.getRuleType() == AlertRuleType.IDLE) {
+                    idle.add(rule);
+                } else if (rule.getRuleType() == AlertRuleType.COMPOSITE) {
+                    composite.add(rule);
+                }
+            }
+            return new TruckRules(snapshot, membershipVersion, List.copyOf(speed), List.copyOf(geofence),
+                    List.copyOf(offline), List.copyOf(idle), List.copyOf(composite));
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.trucktrack.notification.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+
+/**
+ * Compact per-truck state: for each truck, a small table of key index -> long columns.
+ *
+ * Keys (rule or geofence IDs) are interned to ints once and values are primitives such as
+ * epoch millis, so lookups allocate nothing and an entry costs a few bytes instead of a
+ * concatenated String key, a boxed value and a map node.
+ * All entries of a truck live in one {@link Slot}: clearing a truck is a single removal,
+ * and idle trucks are evicted as a whole. The number of trucks is bounded: over the limit,
+ * a CLOCK sweep evicts trucks not accessed since its previous pass (approximate LRU,
+ * constant amortized cost per insert).
+ *
+ * Slots are not thread-safe: write through {@link #update}, which locks the slot and retries
+ * if the slot was evicted meanwhile, so no write lands in a dropped slot.
+ * Slots track whether they changed, so callers can persist only the trucks that did.
+ * IDs no truck uses any more are forgotten by {@link #compactKeys()}.
+ *
+ * @param <K> truck key type
+ */
+public final class TruckStateStore<K> {
+
+    private final int columns;
+    private final int maxTrucks;
+    private final Map<UUID, Integer> keyIndexes = new ConcurrentHashMap<>();
+    private final Map<Integer, UUID> keyIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextKeyIndex = new AtomicInteger();
+    private final Map<K, Slot> slots = new ConcurrentHashMap<>();
+
+    // Key indexes no truck used at the previous compaction, dropped at the next one if still unused
+    private final Set<Integer> unusedKeys = ConcurrentHashMap.newKeySet();
+
+    // CLOCK hand, only moved by evictOverCapacity() (synchronized)
+    private Iterator<Map.Entry<K, Slot>> clockHand;
+
+    /**
+     * @param columns   number of long values stored per key
+     * @param maxTrucks maximum number of trucks kept in memory
+     */
+    public TruckStateStore(int columns, int maxTrucks) {
+        if (columns < 1 || maxTrucks < 1) {
+            throw new IllegalArgumentException("columns and maxTrucks must be positive");
+        }
+        this.columns = columns;
+        this.maxTrucks = maxTrucks;
+    }
+
+    /**
+     * Stable int index of a rule or geofence ID, assigned on first use.
+     */
+    public int keyIndex(UUID id) {
+        Integer index = keyIndexes.get(id);
+        if (index == null) {
+            index = keyIndexes.computeIfAbsent(id, key -> {
+                int assigned = nextKeyIndex.getAndIncrement();
+                keyIds.put(assigned, key);
+                return assigned;
+            });
+        }
+        if (!unusedKeys.isEmpty()) {
+            unusedKeys.remove(index); // In use again, keep it
+        }
+        return index;
+    }
+
+    /**
+     * Index of an ID for reads only, -1 if it was never stored (no slot contains -1).
+     */
+    public int existingKeyIndex(UUID id) {
+        Integer index = keyIndexes.get(id);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * State of a truck, or null if it has none.
+     */
+    public Slot get(K truck) {
+        Slot slot = slots.get(truck);
+        if (slot != null) {
+            slot.lastAccess = System.currentTimeMillis();
+            if (!slot.referenced) {
+                slot.referenced = true;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * State of a truck, created empty if needed.
+     * Prefer {@link #update} to write: the returned slot may be evicted concurrently.
+     */
+    public Slot getOrCreate(K truck) {
+        Slot slot = get(truck);
+        if (slot != null) {
+            return slot;
+        }
+        slot = slots.computeIfAbsent(truck, key -> new Slot(columns));
+        if (slots.size() > maxTrucks) {
+            evictOverCapacity(slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Read-modify-write of a truck's state (created empty if needed) under its slot lock.
+     */
+    public <R> R update(K truck, Function<Slot, R> action) {
+        while (true) {
+            Slot slot = getOrCreate(truck);
+            synchronized (slot) {
+                if (!slot.removed) {
+                    return action.apply(slot);
+                }
+            }
+            // Evicted or cleared between lookup and lock: retry on the current slot
+        }
+    }
+
+    /**
+     * Like {@link #update}, but only if the truck has state.
+     *
+     * @return result of the action, or null if the truck has none
+     */
+    public <R> R updateExisting(K truck, Function<Slot, R> action) {
+        Slot slot;
+        while ((slot = get(truck)) != null) {
+            synchronized (slot) {
+                if (!slot.removed) {
+                    return action.apply(slot);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copy of a truck's entries as ID -> columns, or null if it has none.
+     */
+    public Map<UUID, long[]> export(K truck) {
+        Slot slot = slots.get(truck);
+        if (slot == null) {
+            return null;
+        }
+        Map<UUID, long[]> entries = new HashMap<>();
+        synchronized (slot) {
+            for (int position = 0; position < slot.size; position++) {
+                UUID id = keyIds.get(slot.keys[position]);
+                if (id != null) {
+                    int from = position * columns;
+                    entries.put(id, Arrays.copyOfRange(slot.values, from, from + columns));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Replace a truck's entries, e.g. with state restored from a changelog.
+     */
+    public void restore(K truck, Map<UUID, long[]> entries) {
+        Slot slot = new Slot(columns);
+        entries.forEach((id, row) -> {
+            int key = keyIndex(id);
+            for (int column = 0; column < Math.min(columns, row.length); column++) {
+                slot.put(key, column, row[column]);
+            }
+        });
+        slot.dirty = false;
+        slots.compute(truck, (key, previous) -> {
+            if (previous != null) {
+                markRemoved(previous);
+            }
+            return slot;
+        });
+    }
+
+    /**
+     * Whether the truck's entries changed since the last call.
+     */
+    public boolean takeDirty(K truck) {
+        Slot slot = slots.get(truck);
+        if (slot == null) {
+            return false;
+        }
+        synchronized (slot) {
+            boolean dirty = slot.dirty;
+            slot.dirty = false;
+            return dirty;
+        }
+    }
+
+    /**
+     * Mark a truck's entries changed again, e.g. after persisting them failed.
+     */
+    public void markDirty(K truck) {
+        Slot slot = slots.get(truck);
+        if (slot != null) {
+            synchronized (slot) {
+                slot.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Whether the truck has state, without counting as an access.
+     */
+    public boolean contains(K truck) {
+        return slots.containsKey(truck);
+    }
+
+    /**
+     * Drop all state of a truck.
+     */
+    public void clear(K truck) {
+        Slot slot = slots.get(truck);
+        if (slot != null) {
+            remove(truck, slot);
+        }
+    }
+
+    public void clearAll() {
+        slots.forEach(this::remove);
+    }
+
+    /**
+     * Drop the trucks not accessed since the cutoff.
+     *
+     * @return number of trucks evicted
+     */
+    public int evictIdle(long cutoffMillis) {
+        int evicted = 0;
+        for (Map.Entry<K, Slot> entry : slots.entrySet()) {
+            if (entry.getValue().lastAccess < cutoffMillis && remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Remove the entries whose value in the column matches, and the trucks left empty.
+     *
+     * @return number of entries removed
+     */
+    public int removeEntries(int column, LongPredicate predicate) {
+        int removed = 0;
+        for (var iterator = slots.values().iterator(); iterator.hasNext(); ) {
+            Slot slot = iterator.next();
+            synchronized (slot) {
+                removed += slot.removeIf(column, predicate);
+                if (slot.isEmpty()) {
+                    slot.removed = true;
+                    iterator.remove();
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Number of trucks with state.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Forget the IDs no truck has used during a whole interval between two calls, so the ID
+     * table follows deleted rules and geofences. Run periodically.
+     *
+     * @return number of IDs forgotten
+     */
+    public int compactKeys() {
+        Set<Integer> used = new HashSet<>();
+        for (Slot slot : slots.values()) {
+            synchronized (slot) {
+                for (int position = 0; position < slot.size; position++) {
+                    used.add(slot.keys[position]);
+                }
+            }
+        }
+
+        int forgotten = 0;
+        for (Integer index : unusedKeys) {
+            // Still a candidate: not handed out by keyIndex() since the previous call
+            if (!used.contains(index) && unusedKeys.remove(index)) {
+                UUID id = keyIds.remove(index);
+                if (id != null) {
+                    keyIndexes.remove(id, index);
+                    forgotten++;
+                }
+            }
+        }
+        for (Integer index : keyIds.keySet()) {
+            if (!used.contains(index)) {
+                unusedKeys.add(index);
+            }
+        }
+        return forgotten;
+    }
+
+    /**
+     * Number of interned IDs.
+     */
+    public int keyCount() {
+        return keyIndexes.size();
+    }
+
+    /**
+     * CLOCK sweep: a truck accessed since the hand last passed gets a second chance,
+     * the next one not accessed is evicted. Two passes at most evict one truck.
+     */
+    private synchronized void evictOverCapacity(Slot keep) {
+        int budget = 2 * slots.size() + 1;
+        while (slots.size() > maxTrucks && budget-- > 0) {
+            if (clockHand == null || !clockHand.hasNext()) {
+                clockHand = slots.entrySet().iterator();
+                if (!clockHand.hasNext()) {
+                    return;
+                }
+            }
+            Map.Entry<K, Slot> entry = clockHand.next();
+            Slot slot = entry.getValue();
+            if (slot == keep) {
+                continue;
+            }
+            if (slot.referenced) {
+                slot.referenced = false;
+            } else {
+                remove(entry.getKey(), slot);
+            }
+        }
+    }
+
+    private boolean remove(K truck, Slot slot) {
+        synchronized (slot) {
+            slot.removed = true;
+            return slots.remove(truck, slot);
+        }
+    }
+
+    private static void markRemoved(Slot slot) {
+        synchronized (slot) {
+            slot.removed = true;
+        }
+    }
+
+    /**
+     * Entries of one truck: parallel arrays of key indexes and values, scanned linearly
+     * (a truck has at most a few dozen rules and geofences).
+     */
+    public static final class Slot {
+
+        private final int columns;
+        private int[] keys = new int[4];
+        private long[] values;
+        private int size;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private volatile boolean referenced = true;
+        private boolean removed;
+        private boolean dirty;
+
+        private Slot(int columns) {
+            this.columns = columns;
+            this.values = new long[keys.length * columns];
+        }
+
+        public boolean contains(int key) {
+            return find(key) >= 0;
+        }
+
+        /**
+         * Value of the key in the column, 0 if absent.
+         */
+        public long get(int key, int column) {
+            int position = find(key);
+            return position >= 0 ? values[position * columns + column] : 0L;
+        }
+
+        public void put(int key, int column, long value) {
+            int position = find(key);
+            if (position < 0) {
+                position = add(key);
+            } else if (values[position * columns + column] == value) {
+                return;
+            }
+            values[position * columns + column] = value;
+            dirty = true;
+        }
+
+        public void remove(int key) {
+            int position = find(key);
+            if (position >= 0) {
+                removeAt(position);
+                dirty = true;
+            }
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private int removeIf(int column, LongPredicate predicate) {
+            int removed = 0;
+            for (int position = size - 1; position >= 0; position--) {
+                if (predicate.test(values[position * columns + column])) {
+                    removeAt(position);
+                    dirty = true;
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        private int find(int key) {
+            for (int position = 0; position < size; position++) {
+                if (keys[position] == key) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        private int add(int key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2 * columns);
+            }
+            keys[size] = key;
+            Arrays.fill(values, size * columns, (size + 1) * columns, 0L);
+            return size++;
+        }
+
+        // Swap with the last entry, order does not matter
+        private void removeAt(int position) {
+            int last = size - 1;
+            keys[position] = keys[last];
+            System.arraycopy(values, last * columns, values, position * columns, columns);
+            size--;
+        }
+    }
+}
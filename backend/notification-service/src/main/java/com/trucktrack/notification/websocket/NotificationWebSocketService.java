@@ -7,8 +7,10 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 /**
- * Service for broadcasting notifications via WebSocket
+ * Service for pushing notifications via WebSocket
  * T166: Implement WebSocket subscription for real-time notifications
+ *
+ * Notifications are private and only sent to their recipient's user destination.
  */
 @Slf4j
 @Service
@@ -17,21 +19,12 @@ public class NotificationWebSocketService {
 
     private final SimpMessagingTemplate messagingTemplate;
 
-    /**
-     * Broadcast notification to all connected clients
-     * Topic: /topic/notifications
-     */
-    public void broadcastNotification(Notification notification) {
-        log.info("Broadcasting notification to /topic/notifications: {}", notification.getId());
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
-    }
-
     /**
      * Send notification to a specific user
      * Destination: /user/{userId}/queue/notifications
      */
     public void sendToUser(String userId, Notification notification) {
-        log.info("Sending notification to user {}: {}", userId, notification.getId());
+        log.debug("Sending notification to user {}: {}", userId, notification.getId());
         messagingTemplate.convertAndSendToUser(
                 userId,
                 "/queue/notifications",
@@ -0,0 +1,102 @@
+package com.trucktrack.notification.websocket;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.security.Principal;
+import java.util.Base64;
+
+/**
+ * Authenticates STOMP sessions from the JWT sent in the CONNECT frame.
+ *
+ * The WebSocket endpoint is not behind the gateway, so the token issued by auth-service is
+ * validated here and the session principal is the user ID: notifications are then pushed to
+ * /user/queue/notifications of their recipient only. Sessions without token stay anonymous
+ * and receive no notification.
+ */
+@Slf4j
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Value("${jwt.secret:}")
+    private String secret;
+
+    private SecretKey signingKey;
+
+    @PostConstruct
+    public void init() {
+        if (secret == null || secret.isBlank()) {
+            log.warn("JWT_SECRET is not set: WebSocket sessions cannot be authenticated, "
+                    + "user notifications will not be pushed");
+            return;
+        }
+        byte[] keyBytes;
+        try {
+            keyBytes = Base64.getDecoder().decode(secret);
+        } catch (IllegalArgumentException e) {
+            // Not Base64, use raw bytes (same as the gateway)
+            keyBytes = secret.getBytes();
+        }
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return message; // Anonymous session
+        }
+        if (signingKey == null) {
+            throw new MessageDeliveryException("WebSocket authentication is not configured");
+        }
+
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(signingKey)
+                    .build()
+                    .parseSignedClaims(authHeader.substring(BEARER_PREFIX.length()))
+                    .getPayload();
+            String userId = claims.get("userId", String.class);
+            if (userId == null) {
+                throw new MessageDeliveryException("Token has no user ID");
+            }
+            accessor.setUser(new UserIdPrincipal(userId));
+            return message;
+        } catch (MessageDeliveryException e) {
+            throw e;
+        } catch (Exception e) {
+            log.debug("WebSocket JWT validation failed: {}", e.getMessage());
+            throw new MessageDeliveryException("Invalid or expired token");
+        }
+    }
+
+    /**
+     * Session principal named after the user ID, the name used by convertAndSendToUser.
+     */
+    record UserIdPrincipal(String userId) implements Principal {
+        @Override
+        public String getName() {
+            return userId;
+        }
+    }
+}
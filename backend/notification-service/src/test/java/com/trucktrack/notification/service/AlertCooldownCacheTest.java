@@ -8,9 +8,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -23,15 +21,15 @@ class AlertCooldownCacheTest {
 
     private AlertCooldownCache cooldownCache;
     private UUID ruleId;
-    private String truckId;
+    private UUID truckId;
 
     @BeforeEach
     void setUp() {
-        cooldownCache = new AlertCooldownCache();
+        cooldownCache = new AlertCooldownCache(1000);
         ReflectionTestUtils.setField(cooldownCache, "cooldownMinutes", 5);
 
         ruleId = UUID.randomUUID();
-        truckId = UUID.randomUUID().toString();
+        truckId = UUID.randomUUID();
     }
 
     @Nested
@@ -64,11 +62,9 @@ class AlertCooldownCacheTest {
         @Test
         @DisplayName("should allow alert after cooldown expires")
         void should_allowAfterCooldown() {
-            // Given - simulate old alert by directly manipulating the cache
-            Map<String, Instant> lastAlertTimes = new ConcurrentHashMap<>();
+            // Given - simulate old alert
             Instant oldTime = Instant.now().minus(10, ChronoUnit.MINUTES); // 10 min ago, cooldown is 5 min
-            lastAlertTimes.put(truckId + ":" + ruleId, oldTime);
-            ReflectionTestUtils.setField(cooldownCache, "lastAlertTimes", lastAlertTimes);
+            cooldownCache.recordAlert(truckId, ruleId, oldTime);
 
             // When
             boolean canTrigger = cooldownCache.canTriggerAlert(truckId, ruleId);
@@ -95,7 +91,7 @@ class AlertCooldownCacheTest {
         @DisplayName("should allow same rule for different truck")
         void should_allowDifferentTruck() {
             // Given
-            String differentTruckId = UUID.randomUUID().toString();
+            UUID differentTruckId = UUID.randomUUID();
             cooldownCache.recordAlert(truckId, ruleId);
 
             // When
@@ -139,25 +135,16 @@ class AlertCooldownCacheTest {
         @DisplayName("should update timestamp when alert allowed after cooldown")
         void should_updateTimestampAfterCooldown() {
             // Given - old alert
-            Map<String, Instant> lastAlertTimes = new ConcurrentHashMap<>();
             Instant oldTime = Instant.now().minus(10, ChronoUnit.MINUTES);
-            String key = truckId + ":" + ruleId;
-            lastAlertTimes.put(key, oldTime);
-            ReflectionTestUtils.setField(cooldownCache, "lastAlertTimes", lastAlertTimes);
+            cooldownCache.recordAlert(truckId, ruleId, oldTime);
 
             // When
-            Instant before = Instant.now();
             boolean result = cooldownCache.checkAndRecord(truckId, ruleId);
-            Instant after = Instant.now();
 
-            // Then
+            // Then - a new cooldown started from now
             assertThat(result).isTrue();
-            @SuppressWarnings("unchecked")
-            Map<String, Instant> updatedTimes = (Map<String, Instant>)
-                ReflectionTestUtils.getField(cooldownCache, "lastAlertTimes");
-            Instant newTime = updatedTimes.get(key);
-            assertThat(newTime).isAfterOrEqualTo(before);
-            assertThat(newTime).isBeforeOrEqualTo(after);
+            assertThat(cooldownCache.getRemainingCooldownSeconds(truckId, ruleId)).isGreaterThan(290);
+            assertThat(cooldownCache.checkAndRecord(truckId, ruleId)).isFalse();
         }
     }
 
@@ -205,7 +192,7 @@ class AlertCooldownCacheTest {
         void should_clearAllCooldowns() {
             // Given
             UUID ruleId2 = UUID.randomUUID();
-            String truckId2 = UUID.randomUUID().toString();
+            UUID truckId2 = UUID.randomUUID();
             cooldownCache.recordAlert(truckId, ruleId);
             cooldownCache.recordAlert(truckId2, ruleId2);
 
@@ -250,10 +237,8 @@ class AlertCooldownCacheTest {
         @DisplayName("should return 0 after cooldown expires")
         void should_returnZeroAfterCooldown() {
             // Given - old alert beyond cooldown
-            Map<String, Instant> lastAlertTimes = new ConcurrentHashMap<>();
             Instant oldTime = Instant.now().minus(10, ChronoUnit.MINUTES);
-            lastAlertTimes.put(truckId + ":" + ruleId, oldTime);
-            ReflectionTestUtils.setField(cooldownCache, "lastAlertTimes", lastAlertTimes);
+            cooldownCache.recordAlert(truckId, ruleId, oldTime);
 
             // When
             long remaining = cooldownCache.getRemainingCooldownSeconds(truckId, ruleId);
@@ -271,26 +256,22 @@ class AlertCooldownCacheTest {
         @DisplayName("should remove entries older than 2x cooldown period")
         void should_removeOldEntries() {
             // Given
-            Map<String, Instant> lastAlertTimes = new ConcurrentHashMap<>();
-            String oldKey = "old-truck:" + UUID.randomUUID();
-            String recentKey = "recent-truck:" + UUID.randomUUID();
+            UUID oldTruck = UUID.randomUUID();
+            UUID recentTruck = UUID.randomUUID();
+            UUID recentRuleId = UUID.randomUUID();
 
             // Old entry: 15 minutes ago (beyond 2x5min cutoff)
-            lastAlertTimes.put(oldKey, Instant.now().minus(15, ChronoUnit.MINUTES));
+            cooldownCache.recordAlert(oldTruck, ruleId, Instant.now().minus(15, ChronoUnit.MINUTES));
             // Recent entry: 2 minutes ago (within cutoff)
-            lastAlertTimes.put(recentKey, Instant.now().minus(2, ChronoUnit.MINUTES));
-
-            ReflectionTestUtils.setField(cooldownCache, "lastAlertTimes", lastAlertTimes);
+            cooldownCache.recordAlert(recentTruck, recentRuleId, Instant.now().minus(2, ChronoUnit.MINUTES));
 
             // When
             cooldownCache.cleanupExpiredEntries();
 
-            // Then
-            @SuppressWarnings("unchecked")
-            Map<String, Instant> remaining = (Map<String, Instant>)
-                ReflectionTestUtils.getField(cooldownCache, "lastAlertTimes");
-            assertThat(remaining).doesNotContainKey(oldKey);
-            assertThat(remaining).containsKey(recentKey);
+            // Then - trucks left without entries are dropped
+            assertThat(cooldownCache.size()).isEqualTo(1);
+            assertThat(cooldownCache.canTriggerAlert(oldTruck, ruleId)).isTrue();
+            assertThat(cooldownCache.canTriggerAlert(recentTruck, recentRuleId)).isFalse();
         }
 
         @Test
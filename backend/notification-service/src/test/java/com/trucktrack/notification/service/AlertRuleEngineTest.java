@@ -2,11 +2,9 @@ package com.trucktrack.notification.service;
 
 import com.trucktrack.common.event.AlertTriggeredEvent;
 import com.trucktrack.common.event.GPSPositionEvent;
-import com.trucktrack.notification.client.LocationServiceClient;
 import com.trucktrack.notification.model.AlertRule;
 import com.trucktrack.notification.model.AlertRuleType;
 import com.trucktrack.notification.model.Notification;
-import com.trucktrack.notification.websocket.NotificationWebSocketService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -20,8 +18,10 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -38,13 +38,10 @@ import static org.mockito.Mockito.*;
 class AlertRuleEngineTest {
 
     @Mock
-    private AlertRuleService alertRuleService;
+    private TruckRuleIndex truckRuleIndex;
 
     @Mock
-    private NotificationService notificationService;
-
-    @Mock
-    private LocationServiceClient locationServiceClient;
+    private GeofenceIndex geofenceIndex;
 
     @Mock
     private GeofenceStateCache geofenceStateCache;
@@ -53,7 +50,7 @@ class AlertRuleEngineTest {
     private KafkaTemplate<String, AlertTriggeredEvent> kafkaTemplate;
 
     @Mock
-    private NotificationWebSocketService webSocketService;
+    private NotificationDispatcher notificationDispatcher;
 
     @Mock
     private TruckLookupService truckLookupService;
@@ -61,6 +58,12 @@ class AlertRuleEngineTest {
     @Mock
     private AlertCooldownCache alertCooldownCache;
 
+    @Mock
+    private TruckActivityTimers truckActivityTimers;
+
+    @Mock
+    private CompositeRuleEvaluator compositeRuleEvaluator;
+
     @InjectMocks
     private AlertRuleEngine alertRuleEngine;
 
@@ -73,6 +76,7 @@ class AlertRuleEngineTest {
     void setUp() {
         ReflectionTestUtils.setField(alertRuleEngine, "alertTopic", "test-alert-topic");
         ReflectionTestUtils.setField(alertRuleEngine, "defaultSpeedLimit", 120);
+        ReflectionTestUtils.setField(alertRuleEngine, "defaultDwellMinutes", 30);
 
         truckId = UUID.randomUUID();
         ruleId = UUID.randomUUID();
@@ -98,8 +102,7 @@ class AlertRuleEngineTest {
             // Given
             testEvent.setSpeed(100.0);
             AlertRule rule = createSpeedLimitRule(120);
-            when(alertRuleService.getEnabledSpeedLimitRules()).thenReturn(List.of(rule));
-            when(alertRuleService.getEnabledGeofenceRules()).thenReturn(List.of());
+            givenRules(rule);
 
             // When
             alertRuleEngine.evaluateRules(testEvent);
@@ -114,9 +117,8 @@ class AlertRuleEngineTest {
             // Given
             testEvent.setSpeed(130.0);
             AlertRule rule = createSpeedLimitRule(120);
-            when(alertRuleService.getEnabledSpeedLimitRules()).thenReturn(List.of(rule));
-            when(alertRuleService.getEnabledGeofenceRules()).thenReturn(List.of());
-            when(alertCooldownCache.checkAndRecord(anyString(), any(UUID.class))).thenReturn(true);
+            givenRules(rule);
+            when(alertCooldownCache.checkAndRecord(any(UUID.class), any(UUID.class))).thenReturn(true);
 
             CompletableFuture<SendResult<String, AlertTriggeredEvent>> future = new CompletableFuture<>();
             when(kafkaTemplate.send(anyString(), anyString(), any(AlertTriggeredEvent.class)))
@@ -141,9 +143,8 @@ class AlertRuleEngineTest {
             // Given
             testEvent.setSpeed(125.0); // Above default 120
             AlertRule rule = createSpeedLimitRule(null);
-            when(alertRuleService.getEnabledSpeedLimitRules()).thenReturn(List.of(rule));
-            when(alertRuleService.getEnabledGeofenceRules()).thenReturn(List.of());
-            when(alertCooldownCache.checkAndRecord(anyString(), any(UUID.class))).thenReturn(true);
+            givenRules(rule);
+            when(alertCooldownCache.checkAndRecord(any(UUID.class), any(UUID.class))).thenReturn(true);
 
             CompletableFuture<SendResult<String, AlertTriggeredEvent>> future = new CompletableFuture<>();
             when(kafkaTemplate.send(anyString(), anyString(), any(AlertTriggeredEvent.class)))
@@ -162,9 +163,8 @@ class AlertRuleEngineTest {
             // Given
             testEvent.setSpeed(130.0);
             AlertRule rule = createSpeedLimitRule(120);
-            when(alertRuleService.getEnabledSpeedLimitRules()).thenReturn(List.of(rule));
-            when(alertRuleService.getEnabledGeofenceRules()).thenReturn(List.of());
-            when(alertCooldownCache.checkAndRecord(anyString(), any(UUID.class))).thenReturn(false);
+            givenRules(rule);
+            when(alertCooldownCache.checkAndRecord(any(UUID.class), any(UUID.class))).thenReturn(false);
 
             // When
             alertRuleEngine.evaluateRules(testEvent);
@@ -178,13 +178,13 @@ class AlertRuleEngineTest {
         void should_skipEvaluation_when_speedNull() {
             // Given
             testEvent.setSpeed(null);
-            when(alertRuleService.getEnabledGeofenceRules()).thenReturn(List.of());
+            givenRules();
 
             // When
             alertRuleEngine.evaluateRules(testEvent);
 
             // Then - no speed limit rules are evaluated when speed is null
-            verify(alertCooldownCache, never()).checkAndRecord(anyString(), any());
+            verify(alertCooldownCache, never()).checkAndRecord(any(), any());
         }
     }
 
@@ -199,14 +199,15 @@ class AlertRuleEngineTest {
             UUID geofenceId = UUID.randomUUID();
             AlertRule rule = createGeofenceRule(AlertRuleType.GEOFENCE_ENTER, geofenceId);
 
-            when(alertRuleService.getEnabledSpeedLimitRules()).thenReturn(List.of());
-            when(alertRuleService.getEnabledGeofenceRules()).thenReturn(List.of(rule));
-            when(locationServiceClient.isPointInsideGeofence(geofenceId, 48.8566, 2.3522))
-                .thenReturn(true);
-            when(geofenceStateCache.checkStateChange(any(UUID.class), eq(geofenceId), eq(true)))
+            givenRules(rule);
+            when(geofenceIndex.findContaining(48.8566, 2.3522))
+                .thenReturn(Set.of(geofenceId));
+            when(geofenceIndex.isIndexed(geofenceId)).thenReturn(true);
+            when(geofenceStateCache.checkStateChange(
+                    any(UUID.class), eq(geofenceId), eq(true), any(), any(), any()))
                 .thenReturn(new GeofenceStateCache.StateChange(
                     truckId, geofenceId, GeofenceStateCache.StateChangeType.ENTERED, Instant.now()));
-            when(alertCooldownCache.checkAndRecord(anyString(), any(UUID.class))).thenReturn(true);
+            when(alertCooldownCache.checkAndRecord(any(UUID.class), any(UUID.class))).thenReturn(true);
 
             CompletableFuture<SendResult<String, AlertTriggeredEvent>> future = new CompletableFuture<>();
             when(kafkaTemplate.send(anyString(), anyString(), any(AlertTriggeredEvent.class)))
@@ -231,14 +232,15 @@ class AlertRuleEngineTest {
             UUID geofenceId = UUID.randomUUID();
             AlertRule rule = createGeofenceRule(AlertRuleType.GEOFENCE_EXIT, geofenceId);
 
-            when(alertRuleService.getEnabledSpeedLimitRules()).thenReturn(List.of());
-            when(alertRuleService.getEnabledGeofenceRules()).thenReturn(List.of(rule));
-            when(locationServiceClient.isPointInsideGeofence(geofenceId, 48.8566, 2.3522))
-                .thenReturn(false);
-            when(geofenceStateCache.checkStateChange(any(UUID.class), eq(geofenceId), eq(false)))
+            givenRules(rule);
+            when(geofenceIndex.findContaining(48.8566, 2.3522))
+                .thenReturn(Set.of());
+            when(geofenceIndex.isIndexed(geofenceId)).thenReturn(true);
+            when(geofenceStateCache.checkStateChange(
+                    any(UUID.class), eq(geofenceId), eq(false), any(), any(), any()))
                 .thenReturn(new GeofenceStateCache.StateChange(
                     truckId, geofenceId, GeofenceStateCache.StateChangeType.EXITED, Instant.now()));
-            when(alertCooldownCache.checkAndRecord(anyString(), any(UUID.class))).thenReturn(true);
+            when(alertCooldownCache.checkAndRecord(any(UUID.class), any(UUID.class))).thenReturn(true);
 
             CompletableFuture<SendResult<String, AlertTriggeredEvent>> future = new CompletableFuture<>();
             when(kafkaTemplate.send(anyString(), anyString(), any(AlertTriggeredEvent.class)))
@@ -263,11 +265,12 @@ class AlertRuleEngineTest {
             UUID geofenceId = UUID.randomUUID();
             AlertRule rule = createGeofenceRule(AlertRuleType.GEOFENCE_ENTER, geofenceId);
 
-            when(alertRuleService.getEnabledSpeedLimitRules()).thenReturn(List.of());
-            when(alertRuleService.getEnabledGeofenceRules()).thenReturn(List.of(rule));
-            when(locationServiceClient.isPointInsideGeofence(geofenceId, 48.8566, 2.3522))
-                .thenReturn(true);
-            when(geofenceStateCache.checkStateChange(any(UUID.class), eq(geofenceId), eq(true)))
+            givenRules(rule);
+            when(geofenceIndex.findContaining(48.8566, 2.3522))
+                .thenReturn(Set.of(geofenceId));
+            when(geofenceIndex.isIndexed(geofenceId)).thenReturn(true);
+            when(geofenceStateCache.checkStateChange(
+                    any(UUID.class), eq(geofenceId), eq(true), any(), any(), any()))
                 .thenReturn(null); // No state change
 
             // When
@@ -277,6 +280,66 @@ class AlertRuleEngineTest {
             verify(kafkaTemplate, never()).send(anyString(), anyString(), any(AlertTriggeredEvent.class));
         }
 
+        @Test
+        @DisplayName("should update the geofence state once when several rules share the geofence")
+        void should_checkStateOnce_when_rulesShareGeofence() {
+            // Given
+            UUID geofenceId = UUID.randomUUID();
+            AlertRule enterRule = createGeofenceRule(AlertRuleType.GEOFENCE_ENTER, geofenceId);
+            AlertRule exitRule = createGeofenceRule(AlertRuleType.GEOFENCE_EXIT, geofenceId);
+            exitRule.setId(UUID.randomUUID());
+
+            givenRules(enterRule, exitRule);
+            when(geofenceIndex.findContaining(48.8566, 2.3522)).thenReturn(Set.of());
+            when(geofenceIndex.isIndexed(geofenceId)).thenReturn(true);
+            when(geofenceStateCache.checkStateChange(
+                    any(UUID.class), eq(geofenceId), eq(false), any(), any(), any()))
+                .thenReturn(new GeofenceStateCache.StateChange(
+                    truckId, geofenceId, GeofenceStateCache.StateChangeType.EXITED, Instant.now()));
+            when(alertCooldownCache.checkAndRecord(any(UUID.class), any(UUID.class))).thenReturn(true);
+            when(kafkaTemplate.send(anyString(), anyString(), any(AlertTriggeredEvent.class)))
+                .thenReturn(new CompletableFuture<>());
+
+            // When
+            alertRuleEngine.evaluateRules(testEvent);
+
+            // Then - the exit is seen by the exit rule, not swallowed by the enter rule
+            verify(geofenceStateCache, times(1)).checkStateChange(
+                    any(), eq(geofenceId), anyBoolean(), any(), any(), any());
+            verify(alertCooldownCache).checkAndRecord(truckId, exitRule.getId());
+            verify(alertCooldownCache, never()).checkAndRecord(truckId, enterRule.getId());
+        }
+
+        @Test
+        @DisplayName("should trigger GEOFENCE_DWELL alert when truck stays inside longer than threshold")
+        void should_triggerDwellAlert_when_dwellThresholdReached() {
+            // Given
+            UUID geofenceId = UUID.randomUUID();
+            AlertRule rule = createGeofenceRule(AlertRuleType.GEOFENCE_DWELL, geofenceId);
+            rule.setThresholdValue(45);
+
+            givenRules(rule);
+            when(geofenceIndex.findContaining(48.8566, 2.3522)).thenReturn(Set.of(geofenceId));
+            when(geofenceIndex.isIndexed(geofenceId)).thenReturn(true);
+            when(geofenceStateCache.checkDwell(any(UUID.class), eq(geofenceId), eq(ruleId),
+                    eq(Duration.ofMinutes(45)), any()))
+                .thenReturn(true);
+            when(alertCooldownCache.checkAndRecord(any(UUID.class), any(UUID.class))).thenReturn(true);
+            when(kafkaTemplate.send(anyString(), anyString(), any(AlertTriggeredEvent.class)))
+                .thenReturn(new CompletableFuture<>());
+
+            // When
+            alertRuleEngine.evaluateRules(testEvent);
+
+            // Then
+            ArgumentCaptor<AlertTriggeredEvent> captor = ArgumentCaptor.forClass(AlertTriggeredEvent.class);
+            verify(kafkaTemplate).send(eq("test-alert-topic"), eq(truckId.toString()), captor.capture());
+
+            AlertTriggeredEvent event = captor.getValue();
+            assertThat(event.getAlertType()).isEqualTo(AlertTriggeredEvent.AlertType.GEOFENCE_DWELL);
+            assertThat(event.getMessage()).contains("45 min");
+        }
+
         @Test
         @DisplayName("should skip geofence rule with null geofenceId")
         void should_skipRule_when_geofenceIdNull() {
@@ -290,14 +353,33 @@ class AlertRuleEngineTest {
                 .createdBy(userId)
                 .build();
 
-            when(alertRuleService.getEnabledSpeedLimitRules()).thenReturn(List.of());
-            when(alertRuleService.getEnabledGeofenceRules()).thenReturn(List.of(rule));
+            givenRules(rule);
 
             // When
             alertRuleEngine.evaluateRules(testEvent);
 
             // Then
-            verify(locationServiceClient, never()).isPointInsideGeofence(any(), anyDouble(), anyDouble());
+            verify(geofenceIndex, never()).isIndexed(any());
+            verify(geofenceStateCache, never()).checkStateChange(any(), any(), anyBoolean(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should keep state when geofence is not indexed")
+        void should_skipRule_when_geofenceNotIndexed() {
+            // Given
+            UUID geofenceId = UUID.randomUUID();
+            AlertRule rule = createGeofenceRule(AlertRuleType.GEOFENCE_EXIT, geofenceId);
+
+            givenRules(rule);
+            when(geofenceIndex.findContaining(48.8566, 2.3522)).thenReturn(Set.of());
+            when(geofenceIndex.isIndexed(geofenceId)).thenReturn(false);
+
+            // When
+            alertRuleEngine.evaluateRules(testEvent);
+
+            // Then
+            verify(geofenceStateCache, never()).checkStateChange(any(), any(), anyBoolean(), any(), any(), any());
+            verify(kafkaTemplate, never()).send(anyString(), anyString(), any(AlertTriggeredEvent.class));
         }
 
         @Test
@@ -307,13 +389,13 @@ class AlertRuleEngineTest {
             testEvent.setLatitude(null);
             testEvent.setLongitude(null);
 
-            when(alertRuleService.getEnabledSpeedLimitRules()).thenReturn(List.of());
+            givenRules();
 
             // When
             alertRuleEngine.evaluateRules(testEvent);
 
             // Then - geofence rules are skipped when coordinates are null
-            verify(geofenceStateCache, never()).checkStateChange(any(), any(), anyBoolean());
+            verify(geofenceStateCache, never()).checkStateChange(any(), any(), anyBoolean(), any(), any(), any());
         }
     }
 
@@ -322,22 +404,21 @@ class AlertRuleEngineTest {
     class ProcessAlertEvent {
 
         @Test
-        @DisplayName("should create notification for each affected user")
+        @DisplayName("should dispatch one notification per affected user in a single batch")
+        @SuppressWarnings("unchecked")
         void should_createNotification_forEachUser() {
             // Given
+            UUID otherUserId = UUID.randomUUID();
             AlertTriggeredEvent alertEvent = createAlertTriggeredEvent();
-            alertEvent.setAffectedUserIds(List.of(userId.toString(), UUID.randomUUID().toString()));
-
-            when(notificationService.createNotification(any(Notification.class)))
-                .thenReturn(Notification.builder().id(UUID.randomUUID()).build());
+            alertEvent.setAffectedUserIds(List.of(userId.toString(), otherUserId.toString()));
 
             // When
             alertRuleEngine.processAlertEvent(alertEvent);
 
             // Then
-            verify(notificationService, times(2)).createNotification(any(Notification.class));
-            verify(webSocketService, times(2)).sendToUser(anyString(), any(Notification.class));
-            verify(webSocketService, times(2)).broadcastNotification(any(Notification.class));
+            ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+            verify(notificationDispatcher, times(1)).dispatch(captor.capture());
+            assertThat(captor.getValue()).extracting(Notification::getUserId).containsExactly(userId, otherUserId);
         }
 
         @Test
@@ -351,47 +432,161 @@ class AlertRuleEngineTest {
             alertRuleEngine.processAlertEvent(alertEvent);
 
             // Then
-            verify(notificationService, never()).createNotification(any());
+            verify(notificationDispatcher, never()).dispatch(any());
         }
 
         @Test
         @DisplayName("should skip invalid user IDs")
+        @SuppressWarnings("unchecked")
         void should_skipInvalidUserIds() {
             // Given
             AlertTriggeredEvent alertEvent = createAlertTriggeredEvent();
             alertEvent.setAffectedUserIds(List.of("invalid-uuid", userId.toString()));
 
-            when(notificationService.createNotification(any(Notification.class)))
-                .thenReturn(Notification.builder().id(UUID.randomUUID()).build());
-
             // When
             alertRuleEngine.processAlertEvent(alertEvent);
 
             // Then - only one notification created (valid UUID)
-            verify(notificationService, times(1)).createNotification(any(Notification.class));
+            ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+            verify(notificationDispatcher).dispatch(captor.capture());
+            assertThat(captor.getValue()).hasSize(1);
         }
 
         @Test
         @DisplayName("should map alert type to notification type correctly")
+        @SuppressWarnings("unchecked")
         void should_mapAlertTypeCorrectly() {
             // Given
             AlertTriggeredEvent alertEvent = createAlertTriggeredEvent();
             alertEvent.setAlertType(AlertTriggeredEvent.AlertType.GEOFENCE_ENTER);
             alertEvent.setAffectedUserIds(List.of(userId.toString()));
 
-            when(notificationService.createNotification(any(Notification.class)))
-                .thenReturn(Notification.builder().id(UUID.randomUUID()).build());
-
             // When
             alertRuleEngine.processAlertEvent(alertEvent);
 
             // Then
-            ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-            verify(notificationService).createNotification(captor.capture());
-            assertThat(captor.getValue().getTitle()).isEqualTo("Geofence Entry Alert");
+            ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+            verify(notificationDispatcher).dispatch(captor.capture());
+            assertThat(captor.getValue().get(0).getTitle()).isEqualTo("Geofence Entry Alert");
+        }
+    }
+
+    @Nested
+    @DisplayName("evaluateCompositeRules")
+    class EvaluateCompositeRules {
+
+        @Test
+        @DisplayName("should trigger COMPOSITE alert when the evaluator fires the rule")
+        void should_triggerCompositeAlert_when_ruleFires() {
+            // Given
+            AlertRule rule = createCompositeRule("speed > 90 AND inside RESTRICTED_ZONE FOR 30s");
+            givenRules(rule);
+            when(compositeRuleEvaluator.evaluate(eq(testEvent), eq(List.of(rule)), any(AlertRuleSnapshot.class)))
+                .thenReturn(List.of(rule));
+            when(alertCooldownCache.checkAndRecord(any(UUID.class), any(UUID.class))).thenReturn(true);
+
+            CompletableFuture<SendResult<String, AlertTriggeredEvent>> future = new CompletableFuture<>();
+            when(kafkaTemplate.send(anyString(), anyString(), any(AlertTriggeredEvent.class)))
+                .thenReturn(future);
+
+            // When
+            alertRuleEngine.evaluateRules(testEvent);
+
+            // Then
+            ArgumentCaptor<AlertTriggeredEvent> captor = ArgumentCaptor.forClass(AlertTriggeredEvent.class);
+            verify(kafkaTemplate).send(eq("test-alert-topic"), eq(truckId.toString()), captor.capture());
+
+            AlertTriggeredEvent event = captor.getValue();
+            assertThat(event.getAlertType()).isEqualTo(AlertTriggeredEvent.AlertType.COMPOSITE);
+            assertThat(event.getMessage()).contains("RESTRICTED_ZONE");
+        }
+
+        @Test
+        @DisplayName("should not call the evaluator when the truck has no composite rule")
+        void should_skipEvaluator_when_noCompositeRules() {
+            // Given
+            givenRules(createSpeedLimitRule(120));
+
+            // When
+            alertRuleEngine.evaluateRules(testEvent);
+
+            // Then
+            verify(compositeRuleEvaluator, never()).evaluate(any(), anyList(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("evaluateActivityTimers")
+    class EvaluateActivityTimers {
+
+        @Test
+        @DisplayName("should re-arm the offline / idle deadlines on each position")
+        void should_rearmTimers_when_positionReceived() {
+            // Given
+            givenRules(createSpeedLimitRule(120));
+
+            // When
+            alertRuleEngine.evaluateRules(testEvent);
+
+            // Then
+            verify(truckActivityTimers).onPosition(eq(testEvent), any(TruckRuleIndex.TruckRules.class));
+        }
+
+        @Test
+        @DisplayName("should publish an offline alert at the last known position when a deadline expires")
+        @SuppressWarnings("unchecked")
+        void should_triggerOfflineAlert_when_deadlineExpired() {
+            // Given
+            AlertRule rule = createActivityRule(AlertRuleType.OFFLINE, 10);
+            when(truckActivityTimers.advance(any(Instant.class))).thenReturn(List.of(
+                new TruckActivityTimers.DueAlert(truckId, "TRK-001", rule, AlertTriggeredEvent.AlertType.OFFLINE,
+                    10, 48.8566, 2.3522, Instant.now().minusSeconds(600))));
+            when(alertCooldownCache.checkAndRecord(truckId, ruleId)).thenReturn(true);
+            when(kafkaTemplate.send(anyString(), anyString(), any(AlertTriggeredEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+            // When
+            alertRuleEngine.evaluateActivityTimers();
+
+            // Then
+            ArgumentCaptor<AlertTriggeredEvent> captor = ArgumentCaptor.forClass(AlertTriggeredEvent.class);
+            verify(kafkaTemplate).send(eq("test-alert-topic"), eq(truckId.toString()), captor.capture());
+            assertThat(captor.getValue().getAlertType()).isEqualTo(AlertTriggeredEvent.AlertType.OFFLINE);
+            assertThat(captor.getValue().getSeverity()).isEqualTo(AlertTriggeredEvent.Severity.WARNING);
+            assertThat(captor.getValue().getLatitude()).isEqualTo(48.8566);
+            assertThat(captor.getValue().getMessage()).contains("TRK-001").contains("10 min");
+        }
+
+        @Test
+        @DisplayName("should not publish an idle alert in cooldown")
+        void should_notTrigger_when_inCooldown() {
+            // Given
+            AlertRule rule = createActivityRule(AlertRuleType.IDLE, 15);
+            when(truckActivityTimers.advance(any(Instant.class))).thenReturn(List.of(
+                new TruckActivityTimers.DueAlert(truckId, "TRK-001", rule, AlertTriggeredEvent.AlertType.IDLE,
+                    15, 48.8566, 2.3522, Instant.now().minusSeconds(900))));
+            when(alertCooldownCache.checkAndRecord(truckId, ruleId)).thenReturn(false);
+
+            // When
+            alertRuleEngine.evaluateActivityTimers();
+
+            // Then
+            verify(kafkaTemplate, never()).send(anyString(), anyString(), any(AlertTriggeredEvent.class));
         }
     }
 
+    private AlertRule createActivityRule(AlertRuleType type, Integer thresholdMinutes) {
+        return AlertRule.builder()
+            .id(ruleId)
+            .name("Activity Rule")
+            .ruleType(type)
+            .thresholdValue(thresholdMinutes)
+            .isEnabled(true)
+            .createdBy(userId)
+            .notificationChannels(List.of("IN_APP"))
+            .build();
+    }
+
     private AlertRule createSpeedLimitRule(Integer threshold) {
         return AlertRule.builder()
             .id(ruleId)
@@ -404,6 +599,23 @@ class AlertRuleEngineTest {
             .build();
     }
 
+    private void givenRules(AlertRule... rules) {
+        when(truckRuleIndex.getRules(any(UUID.class)))
+            .thenReturn(TruckRuleIndex.TruckRules.of(AlertRuleSnapshot.of(List.of(rules)), Set.of(), 0));
+    }
+
+    private AlertRule createCompositeRule(String expression) {
+        return AlertRule.builder()
+            .id(ruleId)
+            .name("Composite Rule")
+            .ruleType(AlertRuleType.COMPOSITE)
+            .conditionExpression(expression)
+            .isEnabled(true)
+            .createdBy(userId)
+            .notificationChannels(List.of("IN_APP"))
+            .build();
+    }
+
     private AlertRule createGeofenceRule(AlertRuleType type, UUID geofenceId) {
         return AlertRule.builder()
             .id(ruleId)
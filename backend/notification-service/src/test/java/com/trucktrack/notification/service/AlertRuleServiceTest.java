@@ -12,12 +12,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +34,9 @@ class AlertRuleServiceTest {
     @Mock
     private AlertRuleRepository alertRuleRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AlertRuleService alertRuleService;
 
@@ -178,6 +183,24 @@ class AlertRuleServiceTest {
             assertThat(result.getId()).isNotNull();
             verify(alertRuleRepository).save(newRule);
         }
+
+        @Test
+        @DisplayName("should reject a composite rule with an invalid expression")
+        void should_throw_when_compositeExpressionInvalid() {
+            // Given
+            AlertRule newRule = AlertRule.builder()
+                .name("Composite Alert")
+                .ruleType(AlertRuleType.COMPOSITE)
+                .conditionExpression("speed >> 90")
+                .isEnabled(true)
+                .createdBy(userId)
+                .build();
+
+            // When / Then
+            assertThatThrownBy(() -> alertRuleService.createAlertRule(newRule))
+                .isInstanceOf(InvalidCompositeRuleException.class);
+            verify(alertRuleRepository, never()).save(any(AlertRule.class));
+        }
     }
 
     @Nested
@@ -286,6 +309,7 @@ class AlertRuleServiceTest {
             // Then
             assertThat(result).isTrue();
             verify(alertRuleRepository).deleteById(ruleId);
+            verify(eventPublisher).publishEvent(new AlertRuleService.AlertRuleChangedEvent(ruleId, true));
         }
 
         @Test
@@ -0,0 +1,70 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.notification.model.AlertRule;
+import com.trucktrack.notification.model.AlertRuleType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AlertRuleSnapshot - compiled rule indexes.
+ */
+@DisplayName("AlertRuleSnapshot")
+class AlertRuleSnapshotTest {
+
+    private final UUID groupId = UUID.randomUUID();
+    private final UUID geofenceId = UUID.randomUUID();
+
+    private AlertRule rule(AlertRuleType type, UUID truckGroupId, UUID geofenceId, boolean enabled) {
+        return AlertRule.builder()
+            .id(UUID.randomUUID())
+            .name(type.name())
+            .ruleType(type)
+            .thresholdValue(type == AlertRuleType.SPEED_LIMIT ? 90 : null)
+            .truckGroupId(truckGroupId)
+            .geofenceId(geofenceId)
+            .isEnabled(enabled)
+            .createdBy(UUID.randomUUID())
+            .build();
+    }
+
+    @Test
+    @DisplayName("should index enabled rules by type, truck group and geofence")
+    void should_indexRules_when_built() {
+        // Given
+        AlertRule fleetSpeed = rule(AlertRuleType.SPEED_LIMIT, null, null, true);
+        AlertRule groupSpeed = rule(AlertRuleType.SPEED_LIMIT, groupId, null, true);
+        AlertRule enter = rule(AlertRuleType.GEOFENCE_ENTER, null, geofenceId, true);
+        AlertRule exit = rule(AlertRuleType.GEOFENCE_EXIT, groupId, geofenceId, true);
+
+        // When
+        AlertRuleSnapshot snapshot = AlertRuleSnapshot.of(List.of(fleetSpeed, groupSpeed, enter, exit));
+
+        // Then
+        assertThat(snapshot.getSpeedLimitRules()).containsExactly(fleetSpeed, groupSpeed);
+        assertThat(snapshot.getGeofenceRules()).containsExactly(enter, exit);
+        assertThat(snapshot.getRulesForTruckGroup(groupId)).containsExactly(groupSpeed, exit);
+        assertThat(snapshot.getFleetWideRules()).containsExactly(fleetSpeed, enter);
+        assertThat(snapshot.getRulesForGeofence(geofenceId)).containsExactly(enter, exit);
+        assertThat(snapshot.getRules(AlertRuleType.OFFLINE)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should drop disabled rules and geofence rules without geofence")
+    void should_dropUnusableRules_when_built() {
+        // Given
+        AlertRule disabled = rule(AlertRuleType.SPEED_LIMIT, null, null, false);
+        AlertRule noGeofence = rule(AlertRuleType.GEOFENCE_ENTER, null, null, true);
+
+        // When
+        AlertRuleSnapshot snapshot = AlertRuleSnapshot.of(List.of(disabled, noGeofence));
+
+        // Then
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.getGeofenceRules()).isEmpty();
+    }
+}
@@ -0,0 +1,260 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.notification.kafka.AlertStateRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for AlertStateChangelog - persistence of per-truck alert state.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AlertStateChangelog")
+class AlertStateChangelogTest {
+
+    private static final String TOPIC = "test-alert-state";
+
+    @Mock
+    private KafkaTemplate<String, AlertStateRecord> kafkaTemplate;
+
+    @Mock
+    private ConsumerFactory<String, AlertStateRecord> consumerFactory;
+
+    @Mock
+    private TruckActivityTimers truckActivityTimers;
+
+    @Mock
+    private CompositeRuleEvaluator compositeRuleEvaluator;
+
+    private GeofenceStateCache geofenceStateCache;
+    private AlertCooldownCache alertCooldownCache;
+    private AlertStateChangelog changelog;
+
+    private UUID truckId;
+    private UUID geofenceId;
+    private UUID ruleId;
+
+    @BeforeEach
+    void setUp() {
+        geofenceStateCache = new GeofenceStateCache(1000);
+        alertCooldownCache = new AlertCooldownCache(1000);
+        ReflectionTestUtils.setField(alertCooldownCache, "cooldownMinutes", 5);
+        changelog = new AlertStateChangelog(geofenceStateCache, alertCooldownCache, kafkaTemplate, consumerFactory,
+                truckActivityTimers, compositeRuleEvaluator);
+        ReflectionTestUtils.setField(changelog, "alertStateTopic", TOPIC);
+        ReflectionTestUtils.setField(changelog, "enabled", true);
+        ReflectionTestUtils.setField(changelog, "sendTimeoutMs", 1000L);
+
+        truckId = UUID.randomUUID();
+        geofenceId = UUID.randomUUID();
+        ruleId = UUID.randomUUID();
+    }
+
+    @Nested
+    @DisplayName("flush")
+    class Flush {
+
+        @Test
+        @DisplayName("should write the truck state to the partition of its positions when it changed")
+        @SuppressWarnings("unchecked")
+        void should_writeState_when_changed() {
+            // Given
+            when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+            geofenceStateCache.checkStateChange(truckId, geofenceId, true, () -> 500.0, 50.0, Instant.now());
+            alertCooldownCache.checkAndRecord(truckId, ruleId);
+
+            // When
+            changelog.flush(truckId.toString(), 7);
+
+            // Then
+            ArgumentCaptor<ProducerRecord<String, AlertStateRecord>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+            verify(kafkaTemplate).send(captor.capture());
+            ProducerRecord<String, AlertStateRecord> record = captor.getValue();
+            assertThat(record.topic()).isEqualTo(TOPIC);
+            assertThat(record.partition()).isEqualTo(7);
+            assertThat(record.key()).isEqualTo(truckId.toString());
+            assertThat(record.value().getGeofenceState()).containsKey(geofenceId);
+            assertThat(record.value().getCooldowns()).containsKey(ruleId);
+        }
+
+        @Test
+        @DisplayName("should not write when nothing changed since the last flush")
+        @SuppressWarnings("unchecked")
+        void should_notWrite_when_unchanged() {
+            // Given
+            when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+            geofenceStateCache.checkStateChange(truckId, geofenceId, true, () -> 500.0, 50.0, Instant.now());
+            changelog.flush(truckId.toString(), 0);
+
+            // When - same side again, nothing to persist
+            geofenceStateCache.checkStateChange(truckId, geofenceId, true, () -> 500.0, 50.0, Instant.now());
+            changelog.flush(truckId.toString(), 0);
+
+            // Then
+            verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+        }
+
+        @Test
+        @DisplayName("should do nothing when disabled")
+        @SuppressWarnings("unchecked")
+        void should_skip_when_disabled() {
+            // Given
+            ReflectionTestUtils.setField(changelog, "enabled", false);
+            alertCooldownCache.checkAndRecord(truckId, ruleId);
+
+            // When
+            changelog.flush(truckId.toString(), 0);
+
+            // Then
+            verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("write failures and tombstones")
+    class Durability {
+
+        @Test
+        @DisplayName("should fail the flush and write the state again when the write failed")
+        @SuppressWarnings("unchecked")
+        void should_throwAndRetry_when_writeFails() {
+            // Given
+            when(kafkaTemplate.send(any(ProducerRecord.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                    .thenReturn(CompletableFuture.completedFuture(null));
+            alertCooldownCache.checkAndRecord(truckId, ruleId);
+
+            // When / Then - the position must not be acknowledged
+            assertThatThrownBy(() -> changelog.flush(truckId.toString(), 0))
+                    .isInstanceOf(KafkaException.class);
+
+            // When - redelivered position, nothing changed in between
+            changelog.flush(truckId.toString(), 0);
+
+            // Then
+            verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        }
+
+        @Test
+        @DisplayName("should tombstone a truck once its state was evicted")
+        @SuppressWarnings("unchecked")
+        void should_sendTombstone_when_stateEvicted() {
+            // Given
+            when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+            alertCooldownCache.checkAndRecord(truckId, ruleId);
+            changelog.flush(truckId.toString(), 7);
+            alertCooldownCache.clearTruck(truckId);
+
+            // When - a second sweep has nothing left to tombstone
+            changelog.tombstoneEvictedTrucks();
+            changelog.tombstoneEvictedTrucks();
+
+            // Then
+            ArgumentCaptor<ProducerRecord<String, AlertStateRecord>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+            verify(kafkaTemplate, times(2)).send(captor.capture());
+            ProducerRecord<String, AlertStateRecord> tombstone = captor.getAllValues().get(1);
+            assertThat(tombstone.partition()).isEqualTo(7);
+            assertThat(tombstone.key()).isEqualTo(truckId.toString());
+            assertThat(tombstone.value()).isNull();
+        }
+
+        @Test
+        @DisplayName("should not tombstone the trucks of revoked partitions")
+        @SuppressWarnings("unchecked")
+        void should_notSendTombstone_when_partitionRevoked() {
+            // Given
+            when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+            alertCooldownCache.checkAndRecord(truckId, ruleId);
+            changelog.flush(truckId.toString(), 3);
+            changelog.onPartitionsRevokedAfterCommit(null, List.of(new TopicPartition("truck-track.gps.position", 3)));
+
+            // When
+            changelog.tombstoneEvictedTrucks();
+
+            // Then - the new owner of the partition keeps the record
+            verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("restore")
+    class Restore {
+
+        @Test
+        @DisplayName("should restore geofence state and cooldowns so nothing re-fires after a restart")
+        void should_restoreState_when_recordApplied() {
+            // Given - state produced by a previous instance
+            GeofenceStateCache previousGeofences = new GeofenceStateCache(1000);
+            AlertCooldownCache previousCooldowns = new AlertCooldownCache(1000);
+            ReflectionTestUtils.setField(previousCooldowns, "cooldownMinutes", 5);
+            previousGeofences.checkStateChange(truckId, geofenceId, true, () -> 500.0, 50.0, Instant.now());
+            previousCooldowns.checkAndRecord(truckId, ruleId);
+            AlertStateRecord state = new AlertStateRecord(truckId.toString(),
+                    previousGeofences.stateStore().export(truckId),
+                    previousCooldowns.stateStore().export(truckId),
+                    Instant.now());
+
+            // When
+            changelog.apply(new ConsumerRecord<>(TOPIC, 3, 0L, truckId.toString(), state));
+
+            // Then
+            assertThat(geofenceStateCache.getState(truckId, geofenceId)).isTrue();
+            assertThat(alertCooldownCache.canTriggerAlert(truckId, ruleId)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should drop the state of the trucks of revoked partitions")
+        void should_dropState_when_partitionRevoked() {
+            // Given
+            AlertStateRecord state = new AlertStateRecord(truckId.toString(), null, null, Instant.now());
+            changelog.apply(new ConsumerRecord<>(TOPIC, 3, 0L, truckId.toString(), state));
+            alertCooldownCache.checkAndRecord(truckId, ruleId);
+
+            // When
+            changelog.onPartitionsRevokedAfterCommit(null, List.of(new TopicPartition("truck-track.gps.position", 3)));
+
+            // Then
+            assertThat(alertCooldownCache.canTriggerAlert(truckId, ruleId)).isTrue();
+            verify(truckActivityTimers).clearTruck(truckId);
+            verify(compositeRuleEvaluator).clearTruckState(truckId);
+        }
+
+        @Test
+        @DisplayName("should clear the truck on a tombstone")
+        void should_clearTruck_when_tombstone() {
+            // Given
+            geofenceStateCache.checkStateChange(truckId, geofenceId, true, () -> 500.0, 50.0, Instant.now());
+
+            // When
+            changelog.apply(new ConsumerRecord<>(TOPIC, 0, 1L, truckId.toString(), null));
+
+            // Then
+            assertThat(geofenceStateCache.getState(truckId, geofenceId)).isNull();
+        }
+    }
+}
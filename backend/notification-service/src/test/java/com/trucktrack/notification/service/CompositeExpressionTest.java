@@ -0,0 +1,146 @@
+package com.trucktrack.notification.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for CompositeExpression - parsing and evaluation of composite rule conditions.
+ */
+@DisplayName("CompositeExpression")
+class CompositeExpressionTest {
+
+    private static CompositeExpression.Sample sample(Double speed, Double acceleration, String zoneType) {
+        return new CompositeExpression.Sample() {
+            @Override
+            public Double speed() {
+                return speed;
+            }
+
+            @Override
+            public Double acceleration() {
+                return acceleration;
+            }
+
+            @Override
+            public boolean insideRuleGeofence() {
+                return zoneType != null;
+            }
+
+            @Override
+            public boolean insideZone(String type) {
+                return type.equals(zoneType);
+            }
+        };
+    }
+
+    @Nested
+    @DisplayName("compile")
+    class Compile {
+
+        @Test
+        @DisplayName("should parse a sustained expression with its duration")
+        void should_parseSustained_when_forGiven() {
+            // When
+            CompositeExpression expression = CompositeExpression.compile("speed > 90 AND inside RESTRICTED_ZONE FOR 30s");
+
+            // Then
+            assertThat(expression.isCounting()).isFalse();
+            assertThat(expression.getForMillis()).isEqualTo(30_000);
+            assertThat(expression.referencesRuleGeofence()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should parse a counting expression with its window")
+        void should_parseCounting_when_countGiven() {
+            // When
+            CompositeExpression expression = CompositeExpression.compile("count(decel >= 12) >= 3 within 5m");
+
+            // Then
+            assertThat(expression.isCounting()).isTrue();
+            assertThat(expression.getCount()).isEqualTo(3);
+            assertThat(expression.getWithinMillis()).isEqualTo(300_000);
+        }
+
+        @Test
+        @DisplayName("should flag expressions using the rule's geofence")
+        void should_referenceRuleGeofence_when_geofenceKeyword() {
+            // When / Then
+            assertThat(CompositeExpression.compile("outside GEOFENCE AND speed > 0").referencesRuleGeofence()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should reject invalid expressions")
+        void should_throw_when_invalid() {
+            // When / Then
+            assertThatThrownBy(() -> CompositeExpression.compile(" "))
+                .isInstanceOf(InvalidCompositeRuleException.class);
+            assertThatThrownBy(() -> CompositeExpression.compile("rpm > 3000"))
+                .isInstanceOf(InvalidCompositeRuleException.class)
+                .hasMessageContaining("unknown condition");
+            assertThatThrownBy(() -> CompositeExpression.compile("inside HARBOUR"))
+                .isInstanceOf(InvalidCompositeRuleException.class)
+                .hasMessageContaining("unknown zone type");
+            assertThatThrownBy(() -> CompositeExpression.compile("speed > 90 FOR 0s"))
+                .isInstanceOf(InvalidCompositeRuleException.class);
+            assertThatThrownBy(() -> CompositeExpression.compile("speed > 90 extra"))
+                .isInstanceOf(InvalidCompositeRuleException.class);
+            assertThatThrownBy(() -> CompositeExpression.compile("COUNT(decel >= 12) >= 11 WITHIN 5m"))
+                .isInstanceOf(InvalidCompositeRuleException.class)
+                .hasMessageContaining("COUNT must be between");
+        }
+
+        @Test
+        @DisplayName("should reject numbers that overflow instead of failing with a runtime error")
+        void should_throw_when_numberOverflows() {
+            // When / Then
+            assertThatThrownBy(() -> CompositeExpression.compile("speed > 90 FOR 99999999999999999999s"))
+                .isInstanceOf(InvalidCompositeRuleException.class)
+                .hasMessageContaining("too large");
+            assertThatThrownBy(() -> CompositeExpression.compile("speed > 90 FOR 9223372036854775807h"))
+                .isInstanceOf(InvalidCompositeRuleException.class)
+                .hasMessageContaining("too large");
+            assertThatThrownBy(() -> CompositeExpression.compile("COUNT(decel >= 12) >= 3000000000 WITHIN 5m"))
+                .isInstanceOf(InvalidCompositeRuleException.class)
+                .hasMessageContaining("too large");
+        }
+    }
+
+    @Nested
+    @DisplayName("matches")
+    class Matches {
+
+        @Test
+        @DisplayName("should match only when every condition holds")
+        void should_matchConjunction() {
+            // Given
+            CompositeExpression expression = CompositeExpression.compile("speed > 90 AND inside RESTRICTED_ZONE");
+
+            // When / Then
+            assertThat(expression.matches(sample(100.0, null, "RESTRICTED_ZONE"))).isTrue();
+            assertThat(expression.matches(sample(80.0, null, "RESTRICTED_ZONE"))).isFalse();
+            assertThat(expression.matches(sample(100.0, null, "DEPOT"))).isFalse();
+        }
+
+        @Test
+        @DisplayName("should treat deceleration as negative acceleration")
+        void should_matchDecel_when_speedDrops() {
+            // Given
+            CompositeExpression expression = CompositeExpression.compile("decel >= 12");
+
+            // When / Then
+            assertThat(expression.matches(sample(40.0, -15.0, null))).isTrue();
+            assertThat(expression.matches(sample(40.0, 15.0, null))).isFalse();
+        }
+
+        @Test
+        @DisplayName("should not match a metric that is unknown for the point")
+        void should_notMatch_when_valueMissing() {
+            // When / Then
+            assertThat(CompositeExpression.compile("speed < 5").matches(sample(null, null, null))).isFalse();
+        }
+    }
+}
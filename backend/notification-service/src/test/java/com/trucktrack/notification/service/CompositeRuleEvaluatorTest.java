@@ -0,0 +1,187 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.notification.model.AlertRule;
+import com.trucktrack.notification.model.AlertRuleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.io.WKTReader;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CompositeRuleEvaluator - sliding window evaluation of composite rules.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CompositeRuleEvaluator")
+class CompositeRuleEvaluatorTest {
+
+    // Restricted zone around central Paris
+    private static final double IN_ZONE_LAT = 48.8566;
+    private static final double IN_ZONE_LON = 2.3522;
+    private static final double OUT_ZONE_LAT = 45.7640;
+    private static final double OUT_ZONE_LON = 4.8357;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CompositeRuleEvaluator evaluator;
+    private UUID truckId;
+    private Instant start;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        GeofenceIndex geofenceIndex = new GeofenceIndex(jdbcTemplate);
+        UUID zone = UUID.randomUUID();
+        geofenceIndex.rebuild(
+                Map.of(zone, new WKTReader().read("POLYGON((2.2 48.8, 2.5 48.8, 2.5 48.95, 2.2 48.95, 2.2 48.8))")),
+                Map.of(zone, "RESTRICTED_ZONE"));
+
+        evaluator = new CompositeRuleEvaluator(geofenceIndex, 100);
+        truckId = UUID.randomUUID();
+        start = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private AlertRule rule(String expression) {
+        return AlertRule.builder()
+            .id(UUID.randomUUID())
+            .name("Composite Rule")
+            .ruleType(AlertRuleType.COMPOSITE)
+            .conditionExpression(expression)
+            .isEnabled(true)
+            .build();
+    }
+
+    private List<AlertRule> feed(AlertRule rule, long offsetSeconds, double speed, double latitude, double longitude) {
+        GPSPositionEvent event = new GPSPositionEvent();
+        event.setTruckId(truckId.toString());
+        event.setLatitude(latitude);
+        event.setLongitude(longitude);
+        event.setSpeed(speed);
+        event.setTimestamp(start.plusSeconds(offsetSeconds));
+        return evaluator.evaluate(event, List.of(rule), AlertRuleSnapshot.of(List.of(rule)));
+    }
+
+    @Nested
+    @DisplayName("sustained rules")
+    class Sustained {
+
+        @Test
+        @DisplayName("should fire once when the condition held for the duration")
+        void should_fireOnce_when_conditionHeldLongEnough() {
+            // Given
+            AlertRule rule = rule("speed > 90 AND inside RESTRICTED_ZONE FOR 30s");
+
+            // When / Then
+            assertThat(feed(rule, 0, 100, IN_ZONE_LAT, IN_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 20, 100, IN_ZONE_LAT, IN_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 30, 100, IN_ZONE_LAT, IN_ZONE_LON)).containsExactly(rule);
+            assertThat(feed(rule, 60, 100, IN_ZONE_LAT, IN_ZONE_LON)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should restart the duration when the condition stops holding")
+        void should_restart_when_conditionBroken() {
+            // Given
+            AlertRule rule = rule("speed > 90 AND inside RESTRICTED_ZONE FOR 30s");
+
+            // When / Then
+            assertThat(feed(rule, 0, 100, IN_ZONE_LAT, IN_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 20, 100, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 40, 100, IN_ZONE_LAT, IN_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 60, 100, IN_ZONE_LAT, IN_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 70, 100, IN_ZONE_LAT, IN_ZONE_LON)).containsExactly(rule);
+        }
+
+        @Test
+        @DisplayName("should ignore points older than the last one")
+        void should_ignore_when_outOfOrder() {
+            // Given
+            AlertRule rule = rule("speed > 90 FOR 30s");
+
+            // When / Then
+            assertThat(feed(rule, 10, 100, IN_ZONE_LAT, IN_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 50, 100, IN_ZONE_LAT, IN_ZONE_LON)).containsExactly(rule);
+            assertThat(feed(rule, 0, 50, IN_ZONE_LAT, IN_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 60, 100, IN_ZONE_LAT, IN_ZONE_LON)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("counting rules")
+    class Counting {
+
+        @Test
+        @DisplayName("should fire when the condition occurred COUNT times within the window")
+        void should_fire_when_enoughOccurrencesInWindow() {
+            // Given - harsh braking is a drop of 12 km/h or more per second
+            AlertRule rule = rule("COUNT(decel >= 12) >= 3 WITHIN 5m");
+
+            // When / Then
+            assertThat(feed(rule, 0, 80, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 2, 40, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();   // 1st
+            assertThat(feed(rule, 60, 80, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 62, 40, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();  // 2nd
+            assertThat(feed(rule, 120, 80, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 122, 40, OUT_ZONE_LAT, OUT_ZONE_LON)).containsExactly(rule); // 3rd
+        }
+
+        @Test
+        @DisplayName("should not fire when the occurrences are spread over more than the window")
+        void should_notFire_when_occurrencesTooFarApart() {
+            // Given
+            AlertRule rule = rule("COUNT(decel >= 12) >= 2 WITHIN 1m");
+
+            // When / Then
+            assertThat(feed(rule, 0, 80, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 2, 40, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 100, 80, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 102, 40, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should count a condition that keeps holding only once")
+        void should_countOnce_when_conditionKeepsHolding() {
+            // Given
+            AlertRule rule = rule("COUNT(speed > 90) >= 2 WITHIN 5m");
+
+            // When / Then
+            assertThat(feed(rule, 0, 100, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 10, 100, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 20, 100, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 30, 50, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+            assertThat(feed(rule, 40, 100, OUT_ZONE_LAT, OUT_ZONE_LON)).containsExactly(rule);
+        }
+    }
+
+    @Nested
+    @DisplayName("clearTruckState")
+    class ClearTruckState {
+
+        @Test
+        @DisplayName("should start a new window after the truck state is cleared")
+        void should_forgetWindow_when_cleared() {
+            // Given
+            AlertRule rule = rule("speed > 90 FOR 30s");
+            feed(rule, 0, 100, OUT_ZONE_LAT, OUT_ZONE_LON);
+
+            // When
+            evaluator.clearTruckState(truckId);
+
+            // Then
+            assertThat(feed(rule, 40, 100, OUT_ZONE_LAT, OUT_ZONE_LON)).isEmpty();
+        }
+    }
+}
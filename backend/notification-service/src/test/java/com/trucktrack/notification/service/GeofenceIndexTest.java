@@ -0,0 +1,116 @@
+package com.trucktrack.notification.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKTReader;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GeofenceIndex - local point-in-polygon evaluation.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GeofenceIndex")
+class GeofenceIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private GeofenceIndex geofenceIndex;
+    private UUID paris;
+    private UUID lyon;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        geofenceIndex = new GeofenceIndex(jdbcTemplate);
+        paris = UUID.randomUUID();
+        lyon = UUID.randomUUID();
+
+        WKTReader reader = new WKTReader();
+        Geometry parisBox = reader.read("POLYGON((2.2 48.8, 2.5 48.8, 2.5 48.95, 2.2 48.95, 2.2 48.8))");
+        Geometry lyonBox = reader.read("POLYGON((4.7 45.7, 4.95 45.7, 4.95 45.85, 4.7 45.85, 4.7 45.7))");
+        geofenceIndex.rebuild(Map.of(paris, parisBox, lyon, lyonBox));
+    }
+
+    @Nested
+    @DisplayName("findContaining")
+    class FindContaining {
+
+        @Test
+        @DisplayName("should return only the geofence containing the point")
+        void should_returnContainingGeofence_when_pointInside() {
+            // When / Then
+            assertThat(geofenceIndex.findContaining(48.8566, 2.3522)).containsExactly(paris);
+            assertThat(geofenceIndex.findContaining(45.7640, 4.8357)).containsExactly(lyon);
+        }
+
+        @Test
+        @DisplayName("should return nothing when point is outside every geofence")
+        void should_returnEmpty_when_pointOutside() {
+            // When / Then
+            assertThat(geofenceIndex.findContaining(43.2965, 5.3698)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("reload")
+    class Reload {
+
+        @Test
+        @DisplayName("should load geofences only once without change events")
+        void should_loadOnce_when_noChange() {
+            // Given
+            geofenceIndex.loadIfNeeded();
+
+            // When
+            geofenceIndex.loadIfNeeded();
+
+            // Then
+            verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+        }
+
+        @Test
+        @DisplayName("should retry loading until the first load succeeds")
+        void should_retry_when_firstLoadFails() {
+            // Given
+            doThrow(new RuntimeException("connection refused")).doNothing()
+                    .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+            geofenceIndex.loadIfNeeded();
+
+            // When
+            geofenceIndex.loadIfNeeded();
+            geofenceIndex.loadIfNeeded();
+
+            // Then
+            verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+        }
+
+        @Test
+        @DisplayName("should keep the current geofences when the database is unavailable")
+        void should_keepIndex_when_loadFails() {
+            // Given
+            doThrow(new RuntimeException("connection refused"))
+                    .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+            // When
+            geofenceIndex.reload();
+
+            // Then
+            assertThat(geofenceIndex.size()).isEqualTo(2);
+            assertThat(geofenceIndex.isIndexed(paris)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.trucktrack.notification.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.DoubleSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for GeofenceStateCache - geofence state machine with hysteresis.
+ * Tests buffer band, confirmation dwell, speed-aware debounce and dwell alerts.
+ */
+@DisplayName("GeofenceStateCache")
+class GeofenceStateCacheTest {
+
+    private static final DoubleSupplier FAR_FROM_EDGE = () -> 500.0;
+    private static final DoubleSupplier ON_EDGE = () -> 5.0;
+    private static final Double MOVING = 50.0;
+    private static final Double STOPPED = 0.0;
+
+    private GeofenceStateCache stateCache;
+    private UUID truckId;
+    private UUID geofenceId;
+    private Instant start;
+
+    @BeforeEach
+    void setUp() {
+        stateCache = new GeofenceStateCache(1000);
+        ReflectionTestUtils.setField(stateCache, "bufferMeters", 20.0);
+        ReflectionTestUtils.setField(stateCache, "minDwellSeconds", 10L);
+        ReflectionTestUtils.setField(stateCache, "stationaryDwellSeconds", 60L);
+        ReflectionTestUtils.setField(stateCache, "stationarySpeedKmh", 5.0);
+
+        truckId = UUID.randomUUID();
+        geofenceId = UUID.randomUUID();
+        start = Instant.parse("2026-01-15T08:00:00Z");
+    }
+
+    private GeofenceStateCache.StateChange observe(boolean inside, DoubleSupplier distance, Double speed, long secondsAfterStart) {
+        return stateCache.checkStateChange(truckId, geofenceId, inside, distance, speed, start.plusSeconds(secondsAfterStart));
+    }
+
+    @Nested
+    @DisplayName("checkStateChange")
+    class CheckStateChange {
+
+        @Test
+        @DisplayName("should record the initial state without reporting a change")
+        void should_returnNull_when_firstPosition() {
+            // When
+            GeofenceStateCache.StateChange change = observe(true, FAR_FROM_EDGE, MOVING, 0);
+
+            // Then
+            assertThat(change).isNull();
+            assertThat(stateCache.getState(truckId, geofenceId)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should confirm a transition once the truck stayed on the new side for the minimum dwell")
+        void should_confirmTransition_when_minDwellElapsed() {
+            // Given
+            observe(false, FAR_FROM_EDGE, MOVING, 0);
+
+            // When
+            GeofenceStateCache.StateChange pending = observe(true, FAR_FROM_EDGE, MOVING, 5);
+            GeofenceStateCache.StateChange confirmed = observe(true, FAR_FROM_EDGE, MOVING, 15);
+
+            // Then - dated from the first position inside
+            assertThat(pending).isNull();
+            assertThat(confirmed).isNotNull();
+            assertThat(confirmed.changeType()).isEqualTo(GeofenceStateCache.StateChangeType.ENTERED);
+            assertThat(confirmed.timestamp()).isEqualTo(start.plusSeconds(5));
+            assertThat(stateCache.getState(truckId, geofenceId)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should ignore a single jitter point on the other side")
+        void should_notFlip_when_singleJitterPoint() {
+            // Given
+            observe(true, FAR_FROM_EDGE, MOVING, 0);
+
+            // When
+            GeofenceStateCache.StateChange jitter = observe(false, FAR_FROM_EDGE, MOVING, 5);
+            GeofenceStateCache.StateChange back = observe(true, FAR_FROM_EDGE, MOVING, 10);
+            GeofenceStateCache.StateChange jitterAgain = observe(false, FAR_FROM_EDGE, MOVING, 15);
+
+            // Then - the pending exit was cancelled, so the new one starts over
+            assertThat(jitter).isNull();
+            assertThat(back).isNull();
+            assertThat(jitterAgain).isNull();
+            assertThat(stateCache.getState(truckId, geofenceId)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should never change state for positions within the buffer band")
+        void should_keepState_when_withinBuffer() {
+            // Given
+            observe(true, FAR_FROM_EDGE, MOVING, 0);
+
+            // When
+            GeofenceStateCache.StateChange first = observe(false, ON_EDGE, MOVING, 30);
+            GeofenceStateCache.StateChange later = observe(false, ON_EDGE, MOVING, 600);
+
+            // Then
+            assertThat(first).isNull();
+            assertThat(later).isNull();
+            assertThat(stateCache.getState(truckId, geofenceId)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should require the longer stationary dwell when the truck is stopped")
+        void should_waitStationaryDwell_when_truckStopped() {
+            // Given
+            observe(true, FAR_FROM_EDGE, STOPPED, 0);
+            observe(false, FAR_FROM_EDGE, STOPPED, 10);
+
+            // When
+            GeofenceStateCache.StateChange afterMinDwell = observe(false, FAR_FROM_EDGE, STOPPED, 30);
+            GeofenceStateCache.StateChange afterStationaryDwell = observe(false, FAR_FROM_EDGE, STOPPED, 70);
+
+            // Then
+            assertThat(afterMinDwell).isNull();
+            assertThat(afterStationaryDwell).isNotNull();
+            assertThat(afterStationaryDwell.changeType()).isEqualTo(GeofenceStateCache.StateChangeType.EXITED);
+        }
+    }
+
+    @Nested
+    @DisplayName("checkDwell")
+    class CheckDwell {
+
+        @Test
+        @DisplayName("should fire once per stay when the dwell threshold is reached")
+        void should_fireOnce_when_dwellThresholdReached() {
+            // Given
+            UUID ruleId = UUID.randomUUID();
+            Duration threshold = Duration.ofMinutes(30);
+            observe(true, FAR_FROM_EDGE, MOVING, 0);
+
+            // When
+            boolean early = stateCache.checkDwell(truckId, geofenceId, ruleId, threshold, start.plusSeconds(600));
+            boolean reached = stateCache.checkDwell(truckId, geofenceId, ruleId, threshold, start.plusSeconds(1800));
+            boolean again = stateCache.checkDwell(truckId, geofenceId, ruleId, threshold, start.plusSeconds(2400));
+
+            // Then
+            assertThat(early).isFalse();
+            assertThat(reached).isTrue();
+            assertThat(again).isFalse();
+        }
+
+        @Test
+        @DisplayName("should start a new stay after the truck exits and re-enters")
+        void should_fireAgain_when_truckReenters() {
+            // Given
+            UUID ruleId = UUID.randomUUID();
+            Duration threshold = Duration.ofMinutes(5);
+            observe(true, FAR_FROM_EDGE, MOVING, 0);
+            assertThat(stateCache.checkDwell(truckId, geofenceId, ruleId, threshold, start.plusSeconds(300))).isTrue();
+
+            observe(false, FAR_FROM_EDGE, MOVING, 400);
+            observe(false, FAR_FROM_EDGE, MOVING, 420);
+            observe(true, FAR_FROM_EDGE, MOVING, 500);
+            observe(true, FAR_FROM_EDGE, MOVING, 520);
+
+            // When
+            boolean beforeThreshold = stateCache.checkDwell(truckId, geofenceId, ruleId, threshold, start.plusSeconds(700));
+            boolean afterThreshold = stateCache.checkDwell(truckId, geofenceId, ruleId, threshold, start.plusSeconds(800));
+
+            // Then
+            assertThat(beforeThreshold).isFalse();
+            assertThat(afterThreshold).isTrue();
+        }
+
+        @Test
+        @DisplayName("should not fire when the truck is outside or unknown")
+        void should_notFire_when_outside() {
+            // Given
+            UUID ruleId = UUID.randomUUID();
+            observe(false, FAR_FROM_EDGE, MOVING, 0);
+
+            // When / Then
+            assertThat(stateCache.checkDwell(truckId, geofenceId, ruleId, Duration.ZERO, start.plusSeconds(60))).isFalse();
+            assertThat(stateCache.checkDwell(UUID.randomUUID(), geofenceId, ruleId, Duration.ZERO, start)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("clearTruckState")
+    class ClearTruckState {
+
+        @Test
+        @DisplayName("should forget every geofence of the truck only")
+        void should_clearOnlyThatTruck() {
+            // Given
+            UUID otherGeofence = UUID.randomUUID();
+            UUID otherTruck = UUID.randomUUID();
+            observe(true, FAR_FROM_EDGE, MOVING, 0);
+            stateCache.checkStateChange(truckId, otherGeofence, false, FAR_FROM_EDGE, MOVING, start);
+            stateCache.checkStateChange(otherTruck, geofenceId, true, FAR_FROM_EDGE, MOVING, start);
+
+            // When
+            stateCache.clearTruckState(truckId);
+
+            // Then
+            assertThat(stateCache.getState(truckId, geofenceId)).isNull();
+            assertThat(stateCache.getState(truckId, otherGeofence)).isNull();
+            assertThat(stateCache.getState(otherTruck, geofenceId)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.notification.model.Notification;
+import com.trucktrack.notification.model.NotificationSeverity;
+import com.trucktrack.notification.model.NotificationType;
+import com.trucktrack.notification.websocket.NotificationWebSocketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for NotificationDispatcher - batched save and asynchronous push of alert notifications.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationDispatcher")
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private NotificationWebSocketService webSocketService;
+
+    private NotificationDispatcher dispatcher;
+    private UUID truckId;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDispatcher(notificationService, webSocketService, 1, 10);
+        truckId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    private Notification notificationFor(UUID userId) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .truckId(truckId)
+                .alertRuleId(UUID.randomUUID())
+                .notificationType(NotificationType.GEOFENCE_ENTER)
+                .title("Geofence Entry Alert")
+                .message("Truck entered geofence")
+                .severity(NotificationSeverity.INFO)
+                .triggeredAt(Instant.now())
+                .build();
+    }
+
+    @Nested
+    @DisplayName("dispatch")
+    class Dispatch {
+
+        @Test
+        @DisplayName("should save the alert's notifications before returning and push each to its recipient only")
+        void should_saveOnceAndPushToRecipients() {
+            // Given
+            UUID firstUser = UUID.randomUUID();
+            UUID secondUser = UUID.randomUUID();
+            List<Notification> notifications = List.of(notificationFor(firstUser), notificationFor(secondUser));
+            when(notificationService.createNotifications(notifications)).thenReturn(notifications);
+
+            // When
+            dispatcher.dispatch(notifications);
+
+            // Then - saved on the caller thread, pushed asynchronously
+            verify(notificationService).createNotifications(notifications);
+            verify(webSocketService, timeout(1000)).sendToUser(eq(firstUser.toString()), eq(notifications.get(0)));
+            verify(webSocketService, timeout(1000)).sendToUser(eq(secondUser.toString()), eq(notifications.get(1)));
+        }
+
+        @Test
+        @DisplayName("should do nothing for an empty batch")
+        void should_skip_when_empty() {
+            // When
+            dispatcher.dispatch(List.of());
+
+            // Then
+            verify(notificationService, never()).createNotifications(anyList());
+        }
+
+        @Test
+        @DisplayName("should fail without pushing when the notifications could not be saved")
+        void should_throwAndNotPush_when_saveFails() {
+            // Given
+            List<Notification> notifications = List.of(notificationFor(UUID.randomUUID()));
+            when(notificationService.createNotifications(notifications))
+                    .thenThrow(new DataAccessResourceFailureException("db down"));
+
+            // When / Then - the alert must not be acknowledged
+            assertThatThrownBy(() -> dispatcher.dispatch(notifications))
+                    .isInstanceOf(DataAccessResourceFailureException.class);
+            verify(webSocketService, never()).sendToUser(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("push")
+    class Push {
+
+        @Test
+        @DisplayName("should keep pushing to other users when one push fails")
+        void should_continue_when_onePushFails() {
+            // Given
+            UUID secondUser = UUID.randomUUID();
+            List<Notification> notifications = List.of(notificationFor(UUID.randomUUID()), notificationFor(secondUser));
+            doThrow(new RuntimeException("closed"))
+                    .when(webSocketService).sendToUser(eq(notifications.get(0).getUserId().toString()), any());
+
+            // When
+            dispatcher.push(notifications);
+
+            // Then
+            verify(webSocketService).sendToUser(secondUser.toString(), notifications.get(1));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.trucktrack.notification.service;
 
+import com.trucktrack.common.dto.CursorPage;
+import com.trucktrack.common.dto.PageCursor;
 import com.trucktrack.notification.model.Notification;
 import com.trucktrack.notification.model.NotificationSeverity;
 import com.trucktrack.notification.model.NotificationType;
@@ -17,9 +19,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,6 +44,9 @@ class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -94,6 +101,48 @@ class NotificationServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getNotificationsPage")
+    class GetNotificationsPage {
+
+        @Test
+        @DisplayName("should return first page with next cursor when more notifications exist")
+        void should_returnNextCursor_when_moreNotificationsExist() {
+            // Given
+            Notification older = Notification.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .triggeredAt(testNotification.getTriggeredAt().minusSeconds(60))
+                .build();
+            when(notificationRepository.findFirstByUserId(userId, 2)).thenReturn(List.of(testNotification, older));
+
+            // When
+            CursorPage<Notification> page = notificationService.getNotificationsPage(userId, null, 1);
+
+            // Then
+            assertThat(page.content()).containsExactly(testNotification);
+            assertThat(page.hasNext()).isTrue();
+            assertThat(PageCursor.decode(page.nextCursor()))
+                .isEqualTo(PageCursor.of(testNotification.getTriggeredAt(), notificationId));
+        }
+
+        @Test
+        @DisplayName("should read notifications strictly before cursor")
+        void should_readBeforeCursor_when_cursorGiven() {
+            // Given
+            PageCursor cursor = PageCursor.of(testNotification.getTriggeredAt(), notificationId);
+            when(notificationRepository.findByUserIdBefore(userId, cursor.timestamp(), notificationId, 21))
+                .thenReturn(List.of());
+
+            // When
+            CursorPage<Notification> page = notificationService.getNotificationsPage(userId, cursor.encode(), 20);
+
+            // Then
+            assertThat(page.content()).isEmpty();
+            assertThat(page.nextCursor()).isNull();
+        }
+    }
+
     @Nested
     @DisplayName("getUnreadNotifications")
     class GetUnreadNotifications {
@@ -256,6 +305,77 @@ class NotificationServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("createNotifications")
+    class CreateNotifications {
+
+        @Test
+        @DisplayName("should insert all notifications of an alert in one statement")
+        void should_insertInOneStatement() {
+            // Given
+            testNotification.setId(null);
+            Notification other = Notification.builder()
+                .userId(UUID.randomUUID())
+                .truckId(truckId)
+                .alertRuleId(alertRuleId)
+                .notificationType(NotificationType.SPEED_LIMIT)
+                .title("Speed Limit Alert")
+                .message("Truck exceeded speed limit: 130 km/h")
+                .severity(NotificationSeverity.WARNING)
+                .triggeredAt(Instant.now())
+                .build();
+
+            // When
+            List<Notification> saved = notificationService.createNotifications(List.of(testNotification, other));
+
+            // Then - one multi-row INSERT, IDs assigned
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(jdbcTemplate, times(1)).update(sql.capture(), args.capture());
+            assertThat(sql.getValue()).startsWith("INSERT INTO notifications");
+            assertThat(args.getValue()).hasSize(26);
+            assertThat(saved).extracting(Notification::getId).doesNotContainNull();
+        }
+
+        @Test
+        @DisplayName("should split large alerts so a statement stays under the bind parameter limit")
+        void should_chunkInserts_when_manyRecipients() {
+            // Given
+            List<Notification> notifications = new ArrayList<>();
+            for (int i = 0; i <= NotificationService.MAX_ROWS_PER_INSERT; i++) {
+                notifications.add(Notification.builder()
+                    .userId(UUID.randomUUID())
+                    .truckId(truckId)
+                    .alertRuleId(alertRuleId)
+                    .notificationType(NotificationType.SPEED_LIMIT)
+                    .title("Speed Limit Alert")
+                    .message("Truck exceeded speed limit: 130 km/h")
+                    .severity(NotificationSeverity.WARNING)
+                    .triggeredAt(Instant.now())
+                    .build());
+            }
+
+            // When
+            notificationService.createNotifications(notifications);
+
+            // Then - a full statement, then the remaining row
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+            assertThat(args.getAllValues().get(0)).hasSize(NotificationService.MAX_ROWS_PER_INSERT * 13);
+            assertThat(args.getAllValues().get(1)).hasSize(13);
+        }
+
+        @Test
+        @DisplayName("should not query the database when there is nothing to insert")
+        void should_skip_when_empty() {
+            // When
+            notificationService.createNotifications(List.of());
+
+            // Then
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+
     @Nested
     @DisplayName("getNotificationsForTruck")
     class GetNotificationsForTruck {
@@ -0,0 +1,253 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.common.event.AlertTriggeredEvent;
+import com.trucktrack.common.event.GPSPositionEvent;
+import com.trucktrack.notification.model.AlertRule;
+import com.trucktrack.notification.model.AlertRuleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Unit tests for TruckActivityTimers - OFFLINE / IDLE deadlines driven by GPS points.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TruckActivityTimers")
+class TruckActivityTimersTest {
+
+    private static final double MOVING = 60.0;
+    private static final double STOPPED = 0.0;
+
+    @Mock
+    private TruckRuleIndex truckRuleIndex;
+
+    private TruckActivityTimers timers;
+    private UUID truckId;
+    private UUID userId;
+    private Instant start;
+
+    @BeforeEach
+    void setUp() {
+        timers = new TruckActivityTimers(truckRuleIndex, 1000, 64);
+        ReflectionTestUtils.setField(timers, "defaultOfflineMinutes", 5);
+        ReflectionTestUtils.setField(timers, "defaultIdleMinutes", 15);
+        ReflectionTestUtils.setField(timers, "idleSpeedKmh", 5.0);
+
+        truckId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        start = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private TruckRuleIndex.TruckRules givenRules(AlertRule... rules) {
+        TruckRuleIndex.TruckRules truckRules =
+                TruckRuleIndex.TruckRules.of(AlertRuleSnapshot.of(List.of(rules)), Set.of(), 0);
+        lenient().when(truckRuleIndex.getRules(any(UUID.class))).thenReturn(truckRules);
+        return truckRules;
+    }
+
+    private void position(TruckRuleIndex.TruckRules rules, double speed, long secondsAfterStart) {
+        GPSPositionEvent event = new GPSPositionEvent();
+        event.setTruckId(truckId.toString());
+        event.setTruckIdReadable("TRK-001");
+        event.setLatitude(48.8566);
+        event.setLongitude(2.3522);
+        event.setSpeed(speed);
+        timers.onPosition(event, rules, start.plusSeconds(secondsAfterStart));
+    }
+
+    private List<TruckActivityTimers.DueAlert> advance(long secondsAfterStart) {
+        return timers.advance(start.plusSeconds(secondsAfterStart));
+    }
+
+    private AlertRule rule(AlertRuleType type, Integer thresholdMinutes) {
+        return AlertRule.builder()
+                .id(UUID.randomUUID())
+                .name(type.name() + " Rule")
+                .ruleType(type)
+                .thresholdValue(thresholdMinutes)
+                .isEnabled(true)
+                .createdBy(userId)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("OFFLINE rules")
+    class Offline {
+
+        @Test
+        @DisplayName("should fire once the truck sent no point for the threshold")
+        void should_fire_when_noPointForThreshold() {
+            // Given
+            AlertRule offline = rule(AlertRuleType.OFFLINE, 10);
+            TruckRuleIndex.TruckRules rules = givenRules(offline);
+            position(rules, MOVING, 0);
+
+            // When
+            List<TruckActivityTimers.DueAlert> early = advance(599);
+            List<TruckActivityTimers.DueAlert> due = advance(601);
+
+            // Then
+            assertThat(early).isEmpty();
+            assertThat(due).hasSize(1);
+            assertThat(due.get(0).alertType()).isEqualTo(AlertTriggeredEvent.AlertType.OFFLINE);
+            assertThat(due.get(0).rule()).isSameAs(offline);
+            assertThat(due.get(0).truckIdReadable()).isEqualTo("TRK-001");
+            assertThat(due.get(0).since()).isEqualTo(start);
+        }
+
+        @Test
+        @DisplayName("should push the deadline back on each point")
+        void should_notFire_when_truckKeepsReporting() {
+            // Given
+            TruckRuleIndex.TruckRules rules = givenRules(rule(AlertRuleType.OFFLINE, 10));
+            position(rules, MOVING, 0);
+            position(rules, MOVING, 300);
+
+            // When
+            List<TruckActivityTimers.DueAlert> afterFirstDeadline = advance(601);
+            List<TruckActivityTimers.DueAlert> afterSecondDeadline = advance(901);
+
+            // Then
+            assertThat(afterFirstDeadline).isEmpty();
+            assertThat(afterSecondDeadline).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("should fire once per silence and stop tracking the truck")
+        void should_fireOnce_when_truckStaysSilent() {
+            // Given
+            TruckRuleIndex.TruckRules rules = givenRules(rule(AlertRuleType.OFFLINE, null));
+            position(rules, MOVING, 0);
+
+            // When
+            List<TruckActivityTimers.DueAlert> first = advance(301);
+            List<TruckActivityTimers.DueAlert> later = advance(3600);
+
+            // Then - default threshold of 5 minutes
+            assertThat(first).hasSize(1);
+            assertThat(first.get(0).thresholdMinutes()).isEqualTo(5);
+            assertThat(later).isEmpty();
+            assertThat(timers.getTrackedCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("IDLE rules")
+    class Idle {
+
+        @Test
+        @DisplayName("should fire when every point stayed at or below the idle speed for the threshold")
+        void should_fire_when_stoppedForThreshold() {
+            // Given
+            TruckRuleIndex.TruckRules rules = givenRules(rule(AlertRuleType.IDLE, 15));
+            position(rules, MOVING, 0);
+            position(rules, STOPPED, 60);
+            position(rules, STOPPED, 600);
+
+            // When
+            List<TruckActivityTimers.DueAlert> early = advance(900);
+            List<TruckActivityTimers.DueAlert> due = advance(961);
+
+            // Then - the stay started at the first stopped point
+            assertThat(early).isEmpty();
+            assertThat(due).hasSize(1);
+            assertThat(due.get(0).alertType()).isEqualTo(AlertTriggeredEvent.AlertType.IDLE);
+            assertThat(due.get(0).since()).isEqualTo(start.plusSeconds(60));
+        }
+
+        @Test
+        @DisplayName("should cancel the idle deadline when the truck moves again")
+        void should_notFire_when_truckMovesAgain() {
+            // Given
+            TruckRuleIndex.TruckRules rules = givenRules(rule(AlertRuleType.IDLE, 15));
+            position(rules, STOPPED, 0);
+            position(rules, MOVING, 600);
+
+            // When
+            List<TruckActivityTimers.DueAlert> due = advance(1000);
+
+            // Then
+            assertThat(due).isEmpty();
+            assertThat(timers.getTrackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should not fire again for the same idle stay")
+        void should_fireOnce_when_stillStopped() {
+            // Given
+            TruckRuleIndex.TruckRules rules = givenRules(rule(AlertRuleType.IDLE, 15));
+            position(rules, STOPPED, 0);
+            assertThat(advance(901)).hasSize(1);
+
+            // When
+            position(rules, STOPPED, 1000);
+            List<TruckActivityTimers.DueAlert> later = advance(3600);
+
+            // Then
+            assertThat(later).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("tracking")
+    class Tracking {
+
+        @Test
+        @DisplayName("should not track trucks without OFFLINE or IDLE rule")
+        void should_notTrack_when_noActivityRule() {
+            // Given
+            TruckRuleIndex.TruckRules rules = givenRules(rule(AlertRuleType.SPEED_LIMIT, 120));
+
+            // When
+            position(rules, STOPPED, 0);
+
+            // Then
+            assertThat(timers.getTrackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should not fire for a cleared truck")
+        void should_notFire_when_truckCleared() {
+            // Given
+            TruckRuleIndex.TruckRules rules = givenRules(rule(AlertRuleType.OFFLINE, 10));
+            position(rules, MOVING, 0);
+
+            // When
+            timers.clearTruck(truckId);
+
+            // Then
+            assertThat(advance(3600)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should not fire a rule removed since the point")
+        void should_notFire_when_ruleRemoved() {
+            // Given
+            TruckRuleIndex.TruckRules rules = givenRules(rule(AlertRuleType.OFFLINE, 10));
+            position(rules, MOVING, 0);
+            givenRules();
+
+            // When
+            List<TruckActivityTimers.DueAlert> due = advance(601);
+
+            // Then
+            assertThat(due).isEmpty();
+            assertThat(timers.getTrackedCount()).isZero();
+        }
+    }
+}
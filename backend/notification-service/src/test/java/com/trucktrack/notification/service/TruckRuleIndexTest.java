@@ -0,0 +1,176 @@
+package com.trucktrack.notification.service;
+
+import com.trucktrack.common.event.TruckGroupChangeEvent;
+import com.trucktrack.notification.model.AlertRule;
+import com.trucktrack.notification.model.AlertRuleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TruckRuleIndex - group-scoped rule lookup per truck.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TruckRuleIndex")
+class TruckRuleIndexTest {
+
+    @Mock
+    private AlertRuleCache alertRuleCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private TruckRuleIndex truckRuleIndex;
+
+    private UUID truckId;
+    private UUID otherTruckId;
+    private UUID groupA;
+    private UUID groupB;
+    private AlertRule fleetRule;
+    private AlertRule groupARule;
+    private AlertRule groupBRule;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        truckId = UUID.randomUUID();
+        otherTruckId = UUID.randomUUID();
+        groupA = UUID.randomUUID();
+        groupB = UUID.randomUUID();
+        fleetRule = speedRule(null);
+        groupARule = speedRule(groupA);
+        groupBRule = speedRule(groupB);
+
+        when(alertRuleCache.getSnapshot())
+            .thenReturn(AlertRuleSnapshot.of(List.of(fleetRule, groupARule, groupBRule)));
+
+        // truck -> group A only
+        ResultSet row = mock(ResultSet.class);
+        when(row.getObject("truck_id", UUID.class)).thenReturn(truckId);
+        when(row.getObject("group_id", UUID.class)).thenReturn(groupA);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    private AlertRule speedRule(UUID truckGroupId) {
+        return AlertRule.builder()
+            .id(UUID.randomUUID())
+            .name("Speed")
+            .ruleType(AlertRuleType.SPEED_LIMIT)
+            .thresholdValue(90)
+            .truckGroupId(truckGroupId)
+            .isEnabled(true)
+            .createdBy(UUID.randomUUID())
+            .build();
+    }
+
+    @Nested
+    @DisplayName("getRules")
+    class GetRules {
+
+        @Test
+        @DisplayName("should return fleet-wide rules and the rules of the truck's groups only")
+        void should_scopeRulesToGroups() {
+            // When / Then
+            assertThat(truckRuleIndex.getRules(truckId).speedLimitRules())
+                .containsExactlyInAnyOrder(fleetRule, groupARule);
+            assertThat(truckRuleIndex.getRules(otherTruckId).speedLimitRules())
+                .containsExactly(fleetRule);
+        }
+
+        @Test
+        @DisplayName("should reuse the computed entry while nothing changes")
+        void should_reuseEntry_when_unchanged() {
+            // When
+            TruckRuleIndex.TruckRules first = truckRuleIndex.getRules(truckId);
+            TruckRuleIndex.TruckRules second = truckRuleIndex.getRules(truckId);
+
+            // Then
+            assertThat(second).isSameAs(first);
+            verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("onTruckGroupChanged")
+    class OnTruckGroupChanged {
+
+        @Test
+        @DisplayName("should apply group rules when truck is added to a group")
+        void should_addGroupRules_when_truckAdded() {
+            // Given
+            truckRuleIndex.getRules(truckId);
+
+            // When
+            truckRuleIndex.onTruckGroupChanged(new TruckGroupChangeEvent(UUID.randomUUID().toString(),
+                truckId.toString(), groupB.toString(), TruckGroupChangeEvent.ChangeType.ADDED, Instant.now()));
+
+            // Then
+            assertThat(truckRuleIndex.getRules(truckId).speedLimitRules())
+                .containsExactlyInAnyOrder(fleetRule, groupARule, groupBRule);
+        }
+
+        @Test
+        @DisplayName("should drop group rules when truck is removed from a group")
+        void should_dropGroupRules_when_truckRemoved() {
+            // Given
+            truckRuleIndex.getRules(truckId);
+
+            // When
+            truckRuleIndex.onTruckGroupChanged(new TruckGroupChangeEvent(UUID.randomUUID().toString(),
+                truckId.toString(), groupA.toString(), TruckGroupChangeEvent.ChangeType.REMOVED, Instant.now()));
+
+            // Then
+            assertThat(truckRuleIndex.getRules(truckId).speedLimitRules()).containsExactly(fleetRule);
+        }
+
+        @Test
+        @DisplayName("should reload memberships when a whole group is modified")
+        void should_reload_when_groupModified() {
+            // Given
+            truckRuleIndex.getRules(truckId);
+
+            // When
+            truckRuleIndex.onTruckGroupChanged(new TruckGroupChangeEvent(UUID.randomUUID().toString(),
+                null, groupA.toString(), TruckGroupChangeEvent.ChangeType.GROUP_MODIFIED, Instant.now()));
+            truckRuleIndex.getRules(truckId);
+
+            // Then
+            verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+        }
+
+        @Test
+        @DisplayName("should drop trucks that left every group when memberships are reloaded")
+        void should_dropStaleTrucks_when_reloaded() {
+            // Given
+            truckRuleIndex.getRules(truckId);
+            doAnswer(invocation -> null)
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+            // When
+            truckRuleIndex.onTruckGroupChanged(new TruckGroupChangeEvent(UUID.randomUUID().toString(),
+                null, groupA.toString(), TruckGroupChangeEvent.ChangeType.GROUP_MODIFIED, Instant.now()));
+
+            // Then
+            assertThat(truckRuleIndex.getRules(truckId).speedLimitRules()).containsExactly(fleetRule);
+        }
+    }
+}
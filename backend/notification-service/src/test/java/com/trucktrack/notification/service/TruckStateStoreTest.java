@@ -0,0 +1,233 @@
+package com.trucktrack.notification.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TruckStateStore - compact per-truck primitive state.
+ */
+@DisplayName("TruckStateStore")
+class TruckStateStoreTest {
+
+    private TruckStateStore<String> store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TruckStateStore<>(2, 10);
+    }
+
+    @Nested
+    @DisplayName("Slot")
+    class SlotEntries {
+
+        @Test
+        @DisplayName("should store columns per key and return 0 for absent keys")
+        void should_storeColumns_when_put() {
+            // Given
+            int ruleA = store.keyIndex(UUID.randomUUID());
+            int ruleB = store.keyIndex(UUID.randomUUID());
+            TruckStateStore.Slot slot = store.getOrCreate("truck-1");
+
+            // When
+            slot.put(ruleA, 0, 11L);
+            slot.put(ruleA, 1, 12L);
+            slot.put(ruleB, 1, 22L);
+
+            // Then
+            assertThat(slot.get(ruleA, 0)).isEqualTo(11L);
+            assertThat(slot.get(ruleA, 1)).isEqualTo(12L);
+            assertThat(slot.get(ruleB, 0)).isZero();
+            assertThat(slot.get(ruleB, 1)).isEqualTo(22L);
+            assertThat(slot.get(store.keyIndex(UUID.randomUUID()), 0)).isZero();
+        }
+
+        @Test
+        @DisplayName("should grow past the initial capacity and keep entries after removals")
+        void should_keepEntries_when_growingAndRemoving() {
+            // Given
+            TruckStateStore.Slot slot = store.getOrCreate("truck-1");
+            for (int key = 0; key < 20; key++) {
+                slot.put(key, 0, key + 100L);
+            }
+
+            // When
+            slot.remove(3);
+            slot.remove(0);
+
+            // Then
+            assertThat(slot.size()).isEqualTo(18);
+            assertThat(slot.contains(3)).isFalse();
+            assertThat(slot.get(19, 0)).isEqualTo(119L);
+            assertThat(slot.get(7, 0)).isEqualTo(107L);
+        }
+
+        @Test
+        @DisplayName("should return the same index for the same ID")
+        void should_internKeys() {
+            // Given
+            UUID id = UUID.randomUUID();
+
+            // When / Then
+            assertThat(store.keyIndex(id)).isEqualTo(store.keyIndex(UUID.fromString(id.toString())));
+            assertThat(store.keyIndex(UUID.randomUUID())).isNotEqualTo(store.keyIndex(id));
+        }
+    }
+
+    @Nested
+    @DisplayName("eviction")
+    class Eviction {
+
+        @Test
+        @DisplayName("should clear a single truck")
+        void should_clearTruck() {
+            // Given
+            store.getOrCreate("truck-1").put(1, 0, 1L);
+            store.getOrCreate("truck-2").put(1, 0, 1L);
+
+            // When
+            store.clear("truck-1");
+
+            // Then
+            assertThat(store.get("truck-1")).isNull();
+            assertThat(store.get("truck-2")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should remove matching entries and drop trucks left empty")
+        void should_removeEntries_when_predicateMatches() {
+            // Given
+            store.getOrCreate("truck-1").put(1, 0, 5L);
+            TruckStateStore.Slot mixed = store.getOrCreate("truck-2");
+            mixed.put(1, 0, 5L);
+            mixed.put(2, 0, 50L);
+
+            // When
+            int removed = store.removeEntries(0, value -> value < 10);
+
+            // Then
+            assertThat(removed).isEqualTo(2);
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.get("truck-2").get(2, 0)).isEqualTo(50L);
+        }
+
+        @Test
+        @DisplayName("should keep the number of trucks bounded")
+        void should_evictLeastRecentlyUsed_when_maxTrucksExceeded() {
+            // When
+            for (int i = 0; i < 50; i++) {
+                store.getOrCreate("truck-" + i).put(1, 0, i);
+            }
+
+            // Then
+            assertThat(store.size()).isLessThanOrEqualTo(10);
+            assertThat(store.get("truck-49")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should keep a truck accessed between inserts over the limit")
+        void should_keepTruck_when_accessedBetweenEvictions() {
+            // Given
+            for (int i = 0; i < 10; i++) {
+                store.getOrCreate("truck-" + i).put(1, 0, i);
+            }
+
+            // When
+            for (int i = 10; i < 40; i++) {
+                store.get("truck-0");
+                store.getOrCreate("truck-" + i).put(1, 0, i);
+            }
+
+            // Then
+            assertThat(store.size()).isLessThanOrEqualTo(10);
+            assertThat(store.get("truck-0")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should write to the current state when the truck was cleared after lookup")
+        void should_writeToCurrentSlot_when_clearedConcurrently() {
+            // Given
+            TruckStateStore.Slot stale = store.getOrCreate("truck-1");
+            store.clear("truck-1");
+
+            // When
+            store.update("truck-1", slot -> {
+                slot.put(1, 0, 42L);
+                return null;
+            });
+
+            // Then
+            assertThat(store.get("truck-1")).isNotSameAs(stale);
+            assertThat(store.get("truck-1").get(1, 0)).isEqualTo(42L);
+        }
+
+        @Test
+        @DisplayName("should not create state when updating a truck without any")
+        void should_returnNull_when_updatingMissingTruck() {
+            // When
+            Boolean result = store.updateExisting("truck-1", slot -> true);
+
+            // Then
+            assertThat(result).isNull();
+            assertThat(store.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should reject non positive sizes")
+        void should_throw_when_invalidSize() {
+            // When / Then
+            assertThatThrownBy(() -> new TruckStateStore<String>(0, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("compactKeys")
+    class CompactKeys {
+
+        @Test
+        @DisplayName("should forget an ID unused during two compactions")
+        void should_forgetKey_when_unusedTwice() {
+            // Given
+            UUID deleted = UUID.randomUUID();
+            UUID kept = UUID.randomUUID();
+            TruckStateStore.Slot slot = store.getOrCreate("truck-1");
+            slot.put(store.keyIndex(deleted), 0, 1L);
+            slot.put(store.keyIndex(kept), 0, 2L);
+            slot.remove(store.existingKeyIndex(deleted));
+
+            // When
+            int first = store.compactKeys();
+            int second = store.compactKeys();
+
+            // Then
+            assertThat(first).isZero();
+            assertThat(second).isEqualTo(1);
+            assertThat(store.existingKeyIndex(deleted)).isEqualTo(-1);
+            assertThat(store.export("truck-1")).containsOnlyKeys(kept);
+        }
+
+        @Test
+        @DisplayName("should keep an ID requested again between compactions")
+        void should_keepKey_when_requestedAgain() {
+            // Given
+            UUID rule = UUID.randomUUID();
+            int index = store.keyIndex(rule);
+            store.compactKeys();
+
+            // When
+            store.keyIndex(rule);
+            int forgotten = store.compactKeys();
+
+            // Then
+            assertThat(forgotten).isZero();
+            assertThat(store.existingKeyIndex(rule)).isEqualTo(index);
+        }
+    }
+}
@@ -20,7 +20,6 @@ public final class CacheConstants {
     public static final String CACHE_STATS = "stats";
     public static final String CACHE_DASHBOARD_KPIS = "dashboard-kpis";
     public static final String CACHE_DASHBOARD_FLEET_STATUS = "dashboard-fleet-status";
-    public static final String CACHE_DASHBOARD_ACTIVITY = "dashboard-activity";
     public static final String CACHE_DASHBOARD_PERFORMANCE = "dashboard-performance";
 
     // TTL values in seconds
@@ -30,7 +29,6 @@ public final class CacheConstants {
     public static final long TTL_STATS_SECONDS = 60;        // 1 minute
     public static final long TTL_DASHBOARD_KPIS_SECONDS = 30;      // 30 seconds (real-time feel)
     public static final long TTL_DASHBOARD_FLEET_SECONDS = 30;     // 30 seconds
-    public static final long TTL_DASHBOARD_ACTIVITY_SECONDS = 15;  // 15 seconds (frequent updates)
     public static final long TTL_DASHBOARD_PERFORMANCE_SECONDS = 300; // 5 minutes (less volatile)
 
     // TTL as Duration
@@ -40,7 +38,6 @@ public final class CacheConstants {
     public static final Duration TTL_STATS = Duration.ofSeconds(TTL_STATS_SECONDS);
     public static final Duration TTL_DASHBOARD_KPIS = Duration.ofSeconds(TTL_DASHBOARD_KPIS_SECONDS);
     public static final Duration TTL_DASHBOARD_FLEET = Duration.ofSeconds(TTL_DASHBOARD_FLEET_SECONDS);
-    public static final Duration TTL_DASHBOARD_ACTIVITY = Duration.ofSeconds(TTL_DASHBOARD_ACTIVITY_SECONDS);
     public static final Duration TTL_DASHBOARD_PERFORMANCE = Duration.ofSeconds(TTL_DASHBOARD_PERFORMANCE_SECONDS);
 
     // Key prefixes for Redis
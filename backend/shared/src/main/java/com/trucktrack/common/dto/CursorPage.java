@@ -0,0 +1,53 @@
+package com.trucktrack.common.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset-paginated response, for infinite scroll over large listings.
+ * Unlike {@link PageResponse} there is no page number and no exact total: the client
+ * passes {@code nextCursor} back to get the following page.
+ *
+ * @param content          rows of the page
+ * @param size             requested page size
+ * @param hasNext          whether more rows follow
+ * @param nextCursor       token of the following page, null on the last page
+ * @param approximateTotal estimated number of rows of the whole listing, when requested
+ * @param <T> the type of content items
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor,
+        Long approximateTotal
+) {
+
+    public static final int MAX_SIZE = 200;
+
+    /**
+     * Page size to use for a requested size, between 1 and {@link #MAX_SIZE}.
+     * Repositories are asked for one more row to know whether a next page exists.
+     */
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+
+    /**
+     * Page of the rows fetched with a limit of {@code size + 1}.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(size - 1)).encode() : null;
+        return new CursorPage<>(List.copyOf(content), size, hasNext, nextCursor, null);
+    }
+
+    public CursorPage<T> withApproximateTotal(Long total) {
+        return new CursorPage<>(content, size, hasNext, nextCursor, total);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).toList(), size, hasNext, nextCursor, approximateTotal);
+    }
+}
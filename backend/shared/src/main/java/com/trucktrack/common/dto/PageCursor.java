@@ -0,0 +1,69 @@
+package com.trucktrack.common.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a newest-first listing: the (timestamp, id) of the last row of a page.
+ * The next page holds the rows strictly before it, so fetching any page costs the same
+ * (keyset pagination, no OFFSET and no COUNT).
+ *
+ * Exchanged with clients as an opaque URL-safe token.
+ *
+ * @param timestamp sort timestamp of the row
+ * @param id        row ID, breaking ties between rows of the same timestamp
+ */
+public record PageCursor(Instant timestamp, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PageCursor of(Instant timestamp, Object id) {
+        return new PageCursor(timestamp, id.toString());
+    }
+
+    /**
+     * Opaque token of the cursor.
+     */
+    public String encode() {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Cursor of a token, or null for a blank token (first page).
+     *
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            return new PageCursor(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * Row ID of a table keyed by UUID.
+     */
+    public UUID uuidId() {
+        return UUID.fromString(id);
+    }
+
+    /**
+     * Row ID of a table keyed by a sequence.
+     */
+    public long longId() {
+        return Long.parseLong(id);
+    }
+}
@@ -36,7 +36,9 @@ public class AlertTriggeredEvent implements Serializable {
         IDLE,
         GEOFENCE_ENTER,
         GEOFENCE_EXIT,
-        SPEED_LIMIT
+        GEOFENCE_DWELL,
+        SPEED_LIMIT,
+        COMPOSITE
     }
 
     public enum Severity {
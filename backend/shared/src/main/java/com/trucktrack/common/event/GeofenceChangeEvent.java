@@ -0,0 +1,60 @@
+package com.trucktrack.common.event;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Kafka event for geofence changes (created, updated, deactivated or deleted)
+ * Published to: truck-track.location.geofence-change
+ * Consumers reload their geofences from the database; the event only says which one changed.
+ */
+public class GeofenceChangeEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String eventId;
+    private String geofenceId;
+    private Instant timestamp;
+
+    public GeofenceChangeEvent() {
+    }
+
+    public GeofenceChangeEvent(String eventId, String geofenceId, Instant timestamp) {
+        this.eventId = eventId;
+        this.geofenceId = geofenceId;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getGeofenceId() {
+        return geofenceId;
+    }
+
+    public void setGeofenceId(String geofenceId) {
+        this.geofenceId = geofenceId;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "GeofenceChangeEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", geofenceId='" + geofenceId + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,89 @@
+package com.trucktrack.common.event;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Kafka event for truck group membership changes
+ * Published to: truck-track.location.truck-group-change
+ * GROUP_MODIFIED means the memberships of the whole group may have changed (truckId is null).
+ */
+public class TruckGroupChangeEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String eventId;
+    private String truckId;
+    private String groupId;
+    private ChangeType changeType;
+    private Instant timestamp;
+
+    public TruckGroupChangeEvent() {
+    }
+
+    public TruckGroupChangeEvent(String eventId, String truckId, String groupId,
+                                 ChangeType changeType, Instant timestamp) {
+        this.eventId = eventId;
+        this.truckId = truckId;
+        this.groupId = groupId;
+        this.changeType = changeType;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getTruckId() {
+        return truckId;
+    }
+
+    public void setTruckId(String truckId) {
+        this.truckId = truckId;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(ChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public enum ChangeType {
+        ADDED,
+        REMOVED,
+        GROUP_MODIFIED
+    }
+
+    @Override
+    public String toString() {
+        return "TruckGroupChangeEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", truckId='" + truckId + '\'' +
+                ", groupId='" + groupId + '\'' +
+                ", changeType=" + changeType +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
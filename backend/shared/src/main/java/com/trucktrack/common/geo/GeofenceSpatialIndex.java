@@ -0,0 +1,116 @@
+package com.trucktrack.common.geo;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable point-in-polygon index over geofence boundaries.
+ *
+ * Envelopes go into an STR-tree, so a lookup only runs the exact test on the few
+ * geofences whose bounding box contains the point; the exact test uses prepared
+ * geometries. Containment follows PostGIS ST_Contains: a point on the boundary is not inside.
+ *
+ * Thread-safe once built; rebuild a new index when geofences change.
+ */
+public final class GeofenceSpatialIndex {
+
+    public static final GeofenceSpatialIndex EMPTY = new GeofenceSpatialIndex(Map.of());
+
+    // SRID 4326 = WGS84, x = longitude, y = latitude
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final Map<UUID, PreparedGeometry> geofences;
+    private final STRtree tree;
+
+    private GeofenceSpatialIndex(Map<UUID, ? extends Geometry> boundaries) {
+        Map<UUID, PreparedGeometry> prepared = new HashMap<>();
+        STRtree strTree = new STRtree();
+        boundaries.forEach((id, boundary) -> {
+            prepared.put(id, PreparedGeometryFactory.prepare(boundary));
+            strTree.insert(boundary.getEnvelopeInternal(), id);
+        });
+        strTree.build();
+        this.geofences = Collections.unmodifiableMap(prepared);
+        this.tree = strTree;
+    }
+
+    /**
+     * Build an index from geofence ID -> boundary (lon/lat coordinates).
+     */
+    public static GeofenceSpatialIndex of(Map<UUID, ? extends Geometry> boundaries) {
+        return boundaries.isEmpty() ? EMPTY : new GeofenceSpatialIndex(boundaries);
+    }
+
+    /**
+     * IDs of the geofences containing the point.
+     */
+    public Set<UUID> findContaining(double latitude, double longitude) {
+        if (geofences.isEmpty()) {
+            return Set.of();
+        }
+
+        Point point = createPoint(latitude, longitude);
+        @SuppressWarnings("unchecked")
+        List<UUID> candidates = tree.query(point.getEnvelopeInternal());
+
+        Set<UUID> containing = new HashSet<>();
+        for (UUID id : candidates) {
+            if (geofences.get(id).contains(point)) {
+                containing.add(id);
+            }
+        }
+        return containing;
+    }
+
+    /**
+     * Check if the point is inside a given geofence (false if not indexed).
+     */
+    public boolean contains(UUID geofenceId, double latitude, double longitude) {
+        PreparedGeometry boundary = geofences.get(geofenceId);
+        return boundary != null && boundary.contains(createPoint(latitude, longitude));
+    }
+
+    /**
+     * Approximate distance in meters from the point to the geofence edge, inside or outside.
+     * Degrees are converted with the longitude scale at that latitude, which never overestimates
+     * the distance; meant for hysteresis bands of a few tens of meters, not for measuring.
+     *
+     * @return the distance, or {@link Double#POSITIVE_INFINITY} if the geofence is not indexed
+     */
+    public double distanceToBoundaryMeters(UUID geofenceId, double latitude, double longitude) {
+        PreparedGeometry boundary = geofences.get(geofenceId);
+        if (boundary == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double degrees = boundary.getGeometry().getBoundary().distance(createPoint(latitude, longitude));
+        return degrees * METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+    }
+
+    public boolean isIndexed(UUID geofenceId) {
+        return geofences.containsKey(geofenceId);
+    }
+
+    public int size() {
+        return geofences.size();
+    }
+
+    private static Point createPoint(double latitude, double longitude) {
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(longitude, latitude));
+    }
+}
@@ -0,0 +1,176 @@
+package com.trucktrack.common.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timer wheel holding at most one deadline per key.
+ *
+ * Scheduling, rescheduling and cancelling are O(1); {@link #advance(long)} only visits
+ * the buckets of the ticks that elapsed. Deadlines fire at most one tick late, never early.
+ * Deadlines further away than one rotation wait in their bucket for the remaining rounds.
+ *
+ * Not thread-safe: callers synchronize access.
+ *
+ * @param <K> key type (e.g. truck ID)
+ */
+public class TimerWheel<K> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Entry<K>[] buckets;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    // Next tick to be processed by advance()
+    private long nextTick;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(Duration tick, int wheelSize, long startMillis) {
+        if (tick.toMillis() <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMillis = tick.toMillis();
+        this.startMillis = startMillis;
+        this.buckets = new Entry[wheelSize];
+        this.nextTick = 0;
+    }
+
+    /**
+     * Schedule (or reschedule) the deadline of a key.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        Entry<K> entry = entries.get(key);
+        if (entry != null) {
+            unlink(entry);
+        } else {
+            entry = new Entry<>(key);
+            entries.put(key, entry);
+        }
+        entry.deadline = deadlineMillis;
+        place(entry);
+    }
+
+    /**
+     * Cancel the deadline of a key.
+     *
+     * @return true if a deadline was scheduled
+     */
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Scheduled deadline of a key, or null if none.
+     */
+    public Long getDeadline(K key) {
+        Entry<K> entry = entries.get(key);
+        return entry != null ? entry.deadline : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advance the wheel to the given time and remove the keys whose deadline has passed.
+     *
+     * @return expired keys, in tick order
+     */
+    public List<K> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<K> expired = new ArrayList<>();
+
+        if (nowTick - nextTick >= buckets.length) {
+            // Fell behind a full rotation (e.g. paused): fire what is due, re-place the rest
+            List<Entry<K>> all = new ArrayList<>(entries.values());
+            Arrays.fill(buckets, null);
+            nextTick = nowTick + 1;
+            for (Entry<K> entry : all) {
+                entry.next = null;
+                entry.prev = null;
+                if (entry.deadline <= nowMillis) {
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                } else {
+                    place(entry);
+                }
+            }
+            return expired;
+        }
+
+        while (nextTick <= nowTick) {
+            int index = bucketIndex(nextTick);
+            Entry<K> entry = buckets[index];
+            while (entry != null) {
+                Entry<K> next = entry.next;
+                if (entry.remainingRounds <= 0) {
+                    unlink(entry);
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                } else {
+                    entry.remainingRounds--;
+                }
+                entry = next;
+            }
+            nextTick++;
+        }
+        return expired;
+    }
+
+    private void place(Entry<K> entry) {
+        // Round up so a deadline never fires before it is due
+        long deadlineTick = Math.max(Math.floorDiv(entry.deadline - startMillis + tickMillis - 1, tickMillis), nextTick);
+        entry.remainingRounds = (deadlineTick - nextTick) / buckets.length;
+        entry.bucket = bucketIndex(deadlineTick);
+
+        Entry<K> head = buckets[entry.bucket];
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        buckets[entry.bucket] = entry;
+    }
+
+    private void unlink(Entry<K> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (buckets[entry.bucket] == entry) {
+            buckets[entry.bucket] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private int bucketIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.length);
+    }
+
+    /**
+     * Doubly linked bucket entry.
+     */
+    private static final class Entry<K> {
+        private final K key;
+        private long deadline;
+        private long remainingRounds;
+        private int bucket;
+        private Entry<K> prev;
+        private Entry<K> next;
+
+        private Entry(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.trucktrack.common.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CursorPage")
+class CursorPageTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-10T12:00:00.123456Z");
+
+    private record Row(Instant timestamp, long id) {
+    }
+
+    @Nested
+    @DisplayName("PageCursor")
+    class Cursor {
+
+        @Test
+        @DisplayName("should decode the token it encodes")
+        void should_roundTrip_when_encoded() {
+            // Given
+            UUID id = UUID.randomUUID();
+
+            // When
+            PageCursor decoded = PageCursor.decode(PageCursor.of(T0, id).encode());
+
+            // Then
+            assertThat(decoded.timestamp()).isEqualTo(T0);
+            assertThat(decoded.uuidId()).isEqualTo(id);
+        }
+
+        @Test
+        @DisplayName("should start from the first page without a token")
+        void should_returnNull_when_blank() {
+            assertThat(PageCursor.decode(null)).isNull();
+            assertThat(PageCursor.decode(" ")).isNull();
+        }
+
+        @Test
+        @DisplayName("should reject a token it did not produce")
+        void should_reject_when_tampered() {
+            assertThatThrownBy(() -> PageCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> PageCursor.decode("!!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("of")
+    class Of {
+
+        @Test
+        @DisplayName("should point the next cursor at the last row when more rows were fetched")
+        void should_setNextCursor_when_extraRowFetched() {
+            // Given
+            List<Row> rows = List.of(new Row(T0, 3), new Row(T0, 2), new Row(T0.minusSeconds(1), 1));
+
+            // When
+            CursorPage<Row> page = CursorPage.of(rows, 2, row -> PageCursor.of(row.timestamp(), row.id()));
+
+            // Then
+            assertThat(page.content()).hasSize(2);
+            assertThat(page.hasNext()).isTrue();
+            PageCursor next = PageCursor.decode(page.nextCursor());
+            assertThat(next.timestamp()).isEqualTo(T0);
+            assertThat(next.longId()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should end the listing when no extra row was fetched")
+        void should_haveNoNextCursor_when_lastPage() {
+            // When
+            CursorPage<Row> page = CursorPage.of(List.of(new Row(T0, 1)), 2, row -> PageCursor.of(row.timestamp(), row.id()))
+                .withApproximateTotal(1L);
+
+            // Then
+            assertThat(page.hasNext()).isFalse();
+            assertThat(page.nextCursor()).isNull();
+            assertThat(page.map(Row::id).content()).containsExactly(1L);
+            assertThat(page.map(Row::id).approximateTotal()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("should cap the page size")
+        void should_capPageSize() {
+            assertThat(CursorPage.pageSize(0)).isEqualTo(1);
+            assertThat(CursorPage.pageSize(50)).isEqualTo(50);
+            assertThat(CursorPage.pageSize(10_000)).isEqualTo(CursorPage.MAX_SIZE);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.trucktrack.common.geo;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: point-in-polygon over 10k geofences, STR-tree index vs testing every geofence.
+ *
+ * Not a unit test (surefire ignores it). Run from backend/ with:
+ * mvn -pl shared test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.trucktrack.common.geo.GeofenceSpatialIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeofenceSpatialIndexBenchmark {
+
+    // Bounding box of mainland France
+    private static final double MIN_LAT = 42.5;
+    private static final double MAX_LAT = 51.0;
+    private static final double MIN_LON = -4.5;
+    private static final double MAX_LON = 8.0;
+    private static final int VERTICES = 16;
+    private static final int POINTS = 1024;
+
+    @Param({"10000"})
+    private int geofenceCount;
+
+    private GeofenceSpatialIndex index;
+    private List<PreparedGeometry> allGeofences;
+    private Point[] points;
+    private double[][] coordinates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        GeometryFactory factory = new GeometryFactory();
+
+        Map<UUID, Geometry> boundaries = new HashMap<>();
+        allGeofences = new ArrayList<>(geofenceCount);
+        for (int i = 0; i < geofenceCount; i++) {
+            // Roughly circular zones of 0.5 to 5 km
+            Polygon zone = circle(factory, randomLat(random), randomLon(random), 0.005 + random.nextDouble() * 0.045);
+            boundaries.put(UUID.randomUUID(), zone);
+            allGeofences.add(PreparedGeometryFactory.prepare(zone));
+        }
+        index = GeofenceSpatialIndex.of(boundaries);
+
+        points = new Point[POINTS];
+        coordinates = new double[POINTS][];
+        for (int i = 0; i < POINTS; i++) {
+            double lat = randomLat(random);
+            double lon = randomLon(random);
+            points[i] = factory.createPoint(new Coordinate(lon, lat));
+            coordinates[i] = new double[] {lat, lon};
+        }
+    }
+
+    @Benchmark
+    public int spatialIndex() {
+        double[] point = coordinates[next++ & (POINTS - 1)];
+        return index.findContaining(point[0], point[1]).size();
+    }
+
+    @Benchmark
+    public int linearScan() {
+        Point point = points[next++ & (POINTS - 1)];
+        int containing = 0;
+        for (PreparedGeometry geofence : allGeofences) {
+            if (geofence.contains(point)) {
+                containing++;
+            }
+        }
+        return containing;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeofenceSpatialIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static Polygon circle(GeometryFactory factory, double lat, double lon, double radiusDegrees) {
+        Coordinate[] ring = new Coordinate[VERTICES + 1];
+        for (int i = 0; i < VERTICES; i++) {
+            double angle = 2 * Math.PI * i / VERTICES;
+            ring[i] = new Coordinate(lon + radiusDegrees * Math.cos(angle), lat + radiusDegrees * Math.sin(angle));
+        }
+        ring[VERTICES] = ring[0];
+        return factory.createPolygon(ring);
+    }
+
+    private static double randomLat(Random random) {
+        return MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+    }
+
+    private static double randomLon(Random random) {
+        return MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON);
+    }
+}
@@ -0,0 +1,107 @@
+package com.trucktrack.common.geo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKTReader;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for GeofenceSpatialIndex - indexed point-in-polygon.
+ */
+@DisplayName("GeofenceSpatialIndex")
+class GeofenceSpatialIndexTest {
+
+    private UUID paris;
+    private UUID parisCenter;
+    private UUID lyon;
+    private GeofenceSpatialIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        paris = UUID.randomUUID();
+        parisCenter = UUID.randomUUID();
+        lyon = UUID.randomUUID();
+
+        WKTReader reader = new WKTReader();
+        Geometry parisBox = reader.read("POLYGON((2.2 48.8, 2.5 48.8, 2.5 48.95, 2.2 48.95, 2.2 48.8))");
+        Geometry parisCenterBox = reader.read("POLYGON((2.33 48.84, 2.37 48.84, 2.37 48.87, 2.33 48.87, 2.33 48.84))");
+        Geometry lyonBox = reader.read("POLYGON((4.7 45.7, 4.95 45.7, 4.95 45.85, 4.7 45.85, 4.7 45.7))");
+        index = GeofenceSpatialIndex.of(Map.of(paris, parisBox, parisCenter, parisCenterBox, lyon, lyonBox));
+    }
+
+    @Nested
+    @DisplayName("findContaining")
+    class FindContaining {
+
+        @Test
+        @DisplayName("should return every geofence containing the point")
+        void should_returnAllContaining_when_geofencesOverlap() {
+            // When / Then
+            assertThat(index.findContaining(48.8566, 2.3522)).containsExactlyInAnyOrder(paris, parisCenter);
+            assertThat(index.findContaining(48.90, 2.45)).containsExactly(paris);
+            assertThat(index.findContaining(45.7640, 4.8357)).containsExactly(lyon);
+        }
+
+        @Test
+        @DisplayName("should return nothing when point is outside every geofence")
+        void should_returnEmpty_when_pointOutside() {
+            // When / Then
+            assertThat(index.findContaining(43.2965, 5.3698)).isEmpty();
+            assertThat(GeofenceSpatialIndex.EMPTY.findContaining(48.8566, 2.3522)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should treat a point on the boundary as outside, like ST_Contains")
+        void should_returnEmpty_when_pointOnBoundary() {
+            // When / Then
+            assertThat(index.findContaining(48.8, 2.3)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("contains")
+    class Contains {
+
+        @Test
+        @DisplayName("should test a single geofence and return false for unknown ones")
+        void should_testSingleGeofence() {
+            // When / Then
+            assertThat(index.contains(paris, 48.8566, 2.3522)).isTrue();
+            assertThat(index.contains(lyon, 48.8566, 2.3522)).isFalse();
+            assertThat(index.contains(UUID.randomUUID(), 48.8566, 2.3522)).isFalse();
+            assertThat(index.isIndexed(lyon)).isTrue();
+            assertThat(index.size()).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("distanceToBoundaryMeters")
+    class DistanceToBoundary {
+
+        @Test
+        @DisplayName("should measure the distance to the nearest edge without overestimating it")
+        void should_returnDistanceToEdge_when_pointNearBoundary() {
+            // Given - 0.0005 degrees (~55 m) north of the southern edge of the Paris box
+            double latitude = 48.8005;
+            double longitude = 2.3;
+
+            // When
+            double inside = index.distanceToBoundaryMeters(paris, latitude, longitude);
+            double outside = index.distanceToBoundaryMeters(paris, 48.7995, longitude);
+
+            // Then
+            assertThat(inside).isBetween(30.0, 56.0);
+            assertThat(outside).isBetween(30.0, 56.0);
+            assertThat(index.distanceToBoundaryMeters(lyon, latitude, longitude)).isGreaterThan(100_000.0);
+            assertThat(index.distanceToBoundaryMeters(UUID.randomUUID(), latitude, longitude))
+                    .isEqualTo(Double.POSITIVE_INFINITY);
+        }
+    }
+}
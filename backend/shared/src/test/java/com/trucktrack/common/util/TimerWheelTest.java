@@ -0,0 +1,121 @@
+package com.trucktrack.common.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TimerWheel - hashed timer wheel.
+ */
+@DisplayName("TimerWheel")
+class TimerWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private TimerWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        // 1s ticks, 8 buckets = one rotation every 8s
+        wheel = new TimerWheel<>(Duration.ofSeconds(1), 8, START);
+    }
+
+    @Nested
+    @DisplayName("advance")
+    class Advance {
+
+        @Test
+        @DisplayName("should fire deadline once it has passed, never before")
+        void should_fire_when_deadlinePassed() {
+            // Given
+            wheel.schedule("truck-1", START + 2_500);
+
+            // Then
+            assertThat(wheel.advance(START + 2_499)).isEmpty();
+            assertThat(wheel.advance(START + 3_000)).containsExactly("truck-1");
+            assertThat(wheel.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should keep deadlines beyond one rotation for the remaining rounds")
+        void should_waitRounds_when_deadlineBeyondRotation() {
+            // Given
+            wheel.schedule("truck-1", START + 20_000);
+
+            // Then
+            assertThat(wheel.advance(START + 8_000)).isEmpty();
+            assertThat(wheel.advance(START + 16_000)).isEmpty();
+            assertThat(wheel.advance(START + 19_999)).isEmpty();
+            assertThat(wheel.advance(START + 20_000)).containsExactly("truck-1");
+        }
+
+        @Test
+        @DisplayName("should fire past deadlines after falling behind a full rotation")
+        void should_catchUp_when_fallenBehind() {
+            // Given
+            wheel.schedule("due", START + 5_000);
+            wheel.schedule("later", START + 40_000);
+
+            // When
+            var expired = wheel.advance(START + 30_000);
+
+            // Then
+            assertThat(expired).containsExactly("due");
+            assertThat(wheel.advance(START + 39_999)).isEmpty();
+            assertThat(wheel.advance(START + 40_000)).containsExactly("later");
+        }
+
+        @Test
+        @DisplayName("should fire deadlines scheduled in the past on next advance")
+        void should_fire_when_deadlineInPast() {
+            // Given
+            wheel.advance(START + 5_000);
+            wheel.schedule("truck-1", START + 1_000);
+
+            // Then
+            assertThat(wheel.advance(START + 6_000)).containsExactly("truck-1");
+        }
+    }
+
+    @Nested
+    @DisplayName("schedule and cancel")
+    class ScheduleAndCancel {
+
+        @Test
+        @DisplayName("should replace previous deadline when rescheduled")
+        void should_replaceDeadline_when_rescheduled() {
+            // Given
+            wheel.schedule("truck-1", START + 2_000);
+
+            // When
+            wheel.schedule("truck-1", START + 5_000);
+
+            // Then
+            assertThat(wheel.size()).isEqualTo(1);
+            assertThat(wheel.getDeadline("truck-1")).isEqualTo(START + 5_000);
+            assertThat(wheel.advance(START + 4_000)).isEmpty();
+            assertThat(wheel.advance(START + 5_000)).containsExactly("truck-1");
+        }
+
+        @Test
+        @DisplayName("should not fire cancelled deadline")
+        void should_notFire_when_cancelled() {
+            // Given
+            wheel.schedule("truck-1", START + 2_000);
+            wheel.schedule("truck-2", START + 2_000);
+
+            // When
+            boolean cancelled = wheel.cancel("truck-1");
+
+            // Then
+            assertThat(cancelled).isTrue();
+            assertThat(wheel.cancel("truck-1")).isFalse();
+            assertThat(wheel.advance(START + 3_000)).containsExactly("truck-2");
+        }
+    }
+}
@@ -1,4 +1,4 @@
-import { Component, inject, ChangeDetectionStrategy, computed, OnInit } from '@angular/core';
+import { Component, inject, ChangeDetectionStrategy, computed, OnInit, OnDestroy } from '@angular/core';
 import { DecimalPipe } from '@angular/common';
 import { TranslateModule } from '@ngx-translate/core';
 import { StoreFacade } from '../../../store/store.facade';
@@ -25,6 +25,7 @@ interface StatusItem {
  *
  * T023: Updated to use real KPI data from NgRx store
  * T030: Updated to use real Fleet Status data from NgRx store
+ * Sections are kept up to date by the dashboard push stream while displayed
  * Feature: 022-dashboard-real-data
  */
 @Component({
@@ -35,7 +36,7 @@ interface StatusItem {
   styleUrl: './dashboard-v2.component.scss',
   changeDetection: ChangeDetectionStrategy.OnPush
 })
-export class DashboardV2Component implements OnInit {
+export class DashboardV2Component implements OnInit, OnDestroy {
   private readonly facade = inject(StoreFacade);
 
   // User from store
@@ -76,11 +77,12 @@ export class DashboardV2Component implements OnInit {
   readonly isRefreshing = this.facade.dashboardRefreshing;
 
   ngOnInit(): void {
-    // Load dashboard data on component init
-    this.facade.loadDashboardKpis();
-    this.facade.loadDashboardFleetStatus();
-    this.facade.loadDashboardActivity(5);
-    this.facade.loadDashboardPerformance('week');
+    // Server pushes the full dashboard, then each section when it changes
+    this.facade.startDashboardStream('week');
+  }
+
+  ngOnDestroy(): void {
+    this.facade.stopDashboardStream();
   }
 
   /**
@@ -118,7 +120,7 @@ export class DashboardV2Component implements OnInit {
   onPerformancePeriodChange(event: Event): void {
     const select = event.target as HTMLSelectElement;
     const period = select.value === 'This Month' ? 'month' : 'week';
-    this.facade.loadDashboardPerformance(period);
+    this.facade.startDashboardStream(period);
   }
 
   /**
@@ -79,6 +79,14 @@ export interface TruckRanking {
   limit: number;
 }
 
+// Whole analytics page in one request
+export interface AnalyticsOverview {
+  kpis: FleetKPI;
+  dailyMetrics: DailyMetrics;
+  alertBreakdown: AlertBreakdown;
+  truckRanking: TruckRanking;
+}
+
 // Filter State
 export interface AnalyticsFilter {
   periodType: PeriodType;
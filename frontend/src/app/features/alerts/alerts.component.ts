@@ -71,8 +71,10 @@ export class AlertsComponent implements OnInit, AfterViewInit, OnDestroy {
     { value: 'SPEED_LIMIT', label: 'Speed Limit', icon: 'speed' },
     { value: 'GEOFENCE_ENTER', label: 'Geofence Enter', icon: 'login' },
     { value: 'GEOFENCE_EXIT', label: 'Geofence Exit', icon: 'logout' },
+    { value: 'GEOFENCE_DWELL', label: 'Geofence Dwell', icon: 'timer' },
     { value: 'IDLE', label: 'Idle Time', icon: 'pause_circle' },
-    { value: 'OFFLINE', label: 'Offline', icon: 'cloud_off' }
+    { value: 'OFFLINE', label: 'Offline', icon: 'cloud_off' },
+    { value: 'COMPOSITE', label: 'Composite Condition', icon: 'rule' }
   ];
 
   // Alert rule form (T162)
@@ -82,6 +84,7 @@ export class AlertsComponent implements OnInit, AfterViewInit, OnDestroy {
     ruleType: ['SPEED_LIMIT' as AlertRuleType, Validators.required],
     thresholdValue: [80, [Validators.min(0)]],
     geofenceId: [''],
+    conditionExpression: ['', [Validators.maxLength(500)]],
     isEnabled: [true]
   });
 
@@ -228,7 +231,9 @@ export class AlertsComponent implements OnInit, AfterViewInit, OnDestroy {
       description: formValue.description || undefined,
       ruleType: formValue.ruleType,
       thresholdValue: this.requiresThreshold(formValue.ruleType) ? formValue.thresholdValue : undefined,
-      geofenceId: this.requiresGeofence(formValue.ruleType) ? formValue.geofenceId : undefined,
+      geofenceId: this.requiresGeofence(formValue.ruleType) || this.isComposite(formValue.ruleType)
+        ? formValue.geofenceId || undefined : undefined,
+      conditionExpression: this.isComposite(formValue.ruleType) ? formValue.conditionExpression : undefined,
       isEnabled: formValue.isEnabled,
       notificationChannels: ['IN_APP']
     };
@@ -296,7 +301,12 @@ export class AlertsComponent implements OnInit, AfterViewInit, OnDestroy {
 
   // Check if rule type requires geofence
   requiresGeofence(ruleType: AlertRuleType): boolean {
-    return ['GEOFENCE_ENTER', 'GEOFENCE_EXIT'].includes(ruleType);
+    return ['GEOFENCE_ENTER', 'GEOFENCE_EXIT', 'GEOFENCE_DWELL'].includes(ruleType);
+  }
+
+  // Composite rules are defined by an expression, optionally on a geofence
+  isComposite(ruleType: AlertRuleType): boolean {
+    return ruleType === 'COMPOSITE';
   }
 
   // Get threshold label based on rule type
@@ -305,6 +315,7 @@ export class AlertsComponent implements OnInit, AfterViewInit, OnDestroy {
       case 'SPEED_LIMIT': return 'Speed Limit (km/h)';
       case 'IDLE': return 'Idle Time (minutes)';
       case 'OFFLINE': return 'Offline Duration (minutes)';
+      case 'GEOFENCE_DWELL': return 'Dwell Time (minutes)';
       default: return 'Threshold Value';
     }
   }
@@ -321,6 +332,7 @@ export class AlertsComponent implements OnInit, AfterViewInit, OnDestroy {
       ruleType: 'SPEED_LIMIT',
       thresholdValue: 80,
       geofenceId: '',
+      conditionExpression: '',
       isEnabled: true
     });
   }
@@ -375,9 +387,11 @@ export class AlertsComponent implements OnInit, AfterViewInit, OnDestroy {
     switch (type) {
       case 'SPEED_LIMIT': return 'speed';
       case 'GEOFENCE_ENTER':
-      case 'GEOFENCE_EXIT': return 'location_on';
+      case 'GEOFENCE_EXIT':
+      case 'GEOFENCE_DWELL': return 'location_on';
       case 'IDLE': return 'pause_circle';
       case 'OFFLINE': return 'cloud_off';
+      case 'COMPOSITE': return 'rule';
       default: return 'notifications';
     }
   }
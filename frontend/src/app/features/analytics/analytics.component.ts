@@ -2,7 +2,7 @@ import { Component, OnInit, OnDestroy, inject, signal, computed, HostListener }
 import { CommonModule } from '@angular/common';
 import { ActivatedRoute, Router } from '@angular/router';
 import { FormsModule } from '@angular/forms';
-import { Subject, forkJoin, takeUntil } from 'rxjs';
+import { Subject, takeUntil } from 'rxjs';
 
 import { AnalyticsService } from './services/analytics.service';
 import { ExportService } from './services/export.service';
@@ -258,44 +258,24 @@ export class AnalyticsComponent implements OnInit, OnDestroy {
   }
 
   loadAllData(): void {
-    this.loadKPIs();
-    this.loadChartData();
-  }
-
-  loadKPIs(): void {
     this.isLoading.set(true);
+    this.isChartsLoading.set(true);
     this.error.set(null);
 
-    this.analyticsService.getFleetKPIs(this.currentFilter()).subscribe({
-      next: (data) => {
-        this.kpis.set(data);
+    // KPIs, charts and ranking come from one request
+    this.analyticsService.getOverview(this.currentFilter(), 'DISTANCE', 10).subscribe({
+      next: (overview) => {
+        this.kpis.set(overview.kpis);
+        this.dailyMetrics.set(overview.dailyMetrics.dailyData || []);
+        this.alertBreakdown.set(overview.alertBreakdown.breakdown || []);
+        this.truckRanking.set(overview.truckRanking.ranking || []);
         this.isLoading.set(false);
+        this.isChartsLoading.set(false);
       },
       error: (err) => {
-        console.error('Failed to load KPIs:', err);
+        console.error('Failed to load analytics:', err);
         this.error.set('Impossible de charger les KPIs. Veuillez réessayer.');
         this.isLoading.set(false);
-      }
-    });
-  }
-
-  loadChartData(): void {
-    this.isChartsLoading.set(true);
-    const filter = this.currentFilter();
-
-    forkJoin({
-      dailyMetrics: this.analyticsService.getDailyMetrics(filter),
-      alertBreakdown: this.analyticsService.getAlertBreakdown(filter),
-      truckRanking: this.analyticsService.getTruckRanking(filter, 'DISTANCE', 10)
-    }).subscribe({
-      next: (results) => {
-        this.dailyMetrics.set(results.dailyMetrics.dailyData || []);
-        this.alertBreakdown.set(results.alertBreakdown.breakdown || []);
-        this.truckRanking.set(results.truckRanking.ranking || []);
-        this.isChartsLoading.set(false);
-      },
-      error: (err) => {
-        console.error('Failed to load chart data:', err);
         this.isChartsLoading.set(false);
       }
     });
@@ -6,6 +6,7 @@ import {
   DailyMetrics,
   AlertBreakdown,
   TruckRanking,
+  AnalyticsOverview,
   PeriodType,
   EntityType,
   RankingMetric,
@@ -59,6 +60,16 @@ export class AnalyticsService {
     return this.http.get<TruckRanking>(`${this.baseUrl}/truck-ranking`, { params });
   }
 
+  /**
+   * Get KPIs, daily metrics, alert breakdown and truck ranking in one request.
+   */
+  getOverview(filter: AnalyticsFilter, metric: RankingMetric = 'DISTANCE', limit: number = 10): Observable<AnalyticsOverview> {
+    let params = this.buildParams(filter);
+    params = params.set('metric', metric);
+    params = params.set('limit', limit.toString());
+    return this.http.get<AnalyticsOverview>(`${this.baseUrl}/overview`, { params });
+  }
+
   /**
    * Get accessible trucks for entity filter.
    */
@@ -3,7 +3,7 @@
  * T155: Create AlertRule model
  */
 
-export type AlertRuleType = 'OFFLINE' | 'IDLE' | 'SPEED_LIMIT' | 'GEOFENCE_ENTER' | 'GEOFENCE_EXIT';
+export type AlertRuleType = 'OFFLINE' | 'IDLE' | 'SPEED_LIMIT' | 'GEOFENCE_ENTER' | 'GEOFENCE_EXIT' | 'GEOFENCE_DWELL' | 'COMPOSITE';
 
 export interface AlertRule {
   id: string;
@@ -13,6 +13,7 @@ export interface AlertRule {
   thresholdValue?: number;
   geofenceId?: string;
   truckGroupId?: string;
+  conditionExpression?: string;
   isEnabled: boolean;
   notificationChannels: string[];
   createdBy: string;
@@ -27,6 +28,7 @@ export interface CreateAlertRuleRequest {
   thresholdValue?: number;
   geofenceId?: string;
   truckGroupId?: string;
+  conditionExpression?: string;
   isEnabled?: boolean;
   notificationChannels?: string[];
 }
@@ -38,6 +40,7 @@ export interface UpdateAlertRuleRequest {
   thresholdValue?: number;
   geofenceId?: string;
   truckGroupId?: string;
+  conditionExpression?: string;
   isEnabled?: boolean;
   notificationChannels?: string[];
 }
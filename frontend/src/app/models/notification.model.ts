@@ -3,7 +3,7 @@
  * T156: Create Notification model
  */
 
-export type NotificationType = 'OFFLINE' | 'IDLE' | 'SPEED_LIMIT' | 'GEOFENCE_ENTER' | 'GEOFENCE_EXIT';
+export type NotificationType = 'OFFLINE' | 'IDLE' | 'SPEED_LIMIT' | 'GEOFENCE_ENTER' | 'GEOFENCE_EXIT' | 'GEOFENCE_DWELL' | 'COMPOSITE';
 export type NotificationSeverity = 'INFO' | 'WARNING' | 'CRITICAL';
 
 export interface Notification {
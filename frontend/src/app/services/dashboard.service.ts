@@ -1,6 +1,6 @@
 import { Injectable, inject } from '@angular/core';
-import { HttpClient, HttpParams } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpDownloadProgressEvent, HttpEventType, HttpParams } from '@angular/common/http';
+import { Observable, defer, filter, map, mergeMap } from 'rxjs';
 import { environment } from '../../environments/environment';
 import {
   DashboardData,
@@ -10,6 +10,15 @@ import {
   PerformanceMetrics
 } from '../store/dashboard/dashboard.state';
 
+/**
+ * A dashboard section pushed by the stream endpoint.
+ */
+export type DashboardStreamEvent =
+  | { section: 'kpis'; data: DashboardKpi }
+  | { section: 'fleetStatus'; data: FleetStatus }
+  | { section: 'activity'; data: ActivityEvent[] }
+  | { section: 'performance'; data: PerformanceMetrics };
+
 /**
  * T014: Dashboard API service for HTTP operations.
  * Feature: 022-dashboard-real-data
@@ -58,4 +67,64 @@ export class DashboardApiService {
     const params = new HttpParams().set('period', period);
     return this.http.get<PerformanceMetrics>(`${this.baseUrl}/performance`, { params });
   }
+
+  /**
+   * Dashboard sections pushed over Server-Sent Events: every section first, then each
+   * section again when it changes. Read through HttpClient rather than EventSource so the
+   * auth interceptor adds the bearer token. Completes when the server closes the stream.
+   */
+  streamDashboard(performancePeriod: 'week' | 'month' = 'week'): Observable<DashboardStreamEvent> {
+    const params = new HttpParams().set('performancePeriod', performancePeriod);
+    return defer(() => {
+      let consumed = 0;
+      return this.http.get(`${this.baseUrl}/stream`, {
+        params,
+        observe: 'events',
+        reportProgress: true,
+        responseType: 'text'
+      }).pipe(
+        filter((event): event is HttpDownloadProgressEvent => event.type === HttpEventType.DownloadProgress),
+        mergeMap(event => {
+          // partialText holds the whole body so far: parse the complete messages not seen yet
+          const text = event.partialText ?? '';
+          const end = text.lastIndexOf('\n\n');
+          if (end < consumed) {
+            return [];
+          }
+          const messages = text.substring(consumed, end).split('\n\n');
+          consumed = end + 2;
+          return messages;
+        }),
+        map(message => this.parseStreamMessage(message)),
+        filter((event): event is DashboardStreamEvent => event !== null)
+      );
+    });
+  }
+
+  /**
+   * Section event of an SSE message, null for keep-alive comments and unknown events.
+   */
+  private parseStreamMessage(message: string): DashboardStreamEvent | null {
+    let section: string | null = null;
+    const data: string[] = [];
+    for (const line of message.split('\n')) {
+      if (line.startsWith('event:')) {
+        section = line.substring(6).trim();
+      } else if (line.startsWith('data:')) {
+        data.push(line.substring(5).replace(/^ /, ''));
+      }
+    }
+    if (!section || data.length === 0) {
+      return null;
+    }
+    switch (section) {
+      case 'kpis':
+      case 'fleetStatus':
+      case 'activity':
+      case 'performance':
+        return { section, data: JSON.parse(data.join('\n')) } as DashboardStreamEvent;
+      default:
+        return null;
+    }
+  }
 }
@@ -161,6 +161,8 @@ export class NotificationsDropdownComponent implements OnInit, OnDestroy {
       case 'SPEED_LIMIT': return 'speed';
       case 'GEOFENCE_ENTER': return 'login';
       case 'GEOFENCE_EXIT': return 'logout';
+      case 'GEOFENCE_DWELL': return 'timer';
+      case 'COMPOSITE': return 'rule';
       default: return 'notifications';
     }
   }
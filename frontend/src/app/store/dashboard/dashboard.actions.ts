@@ -110,6 +110,19 @@ export const setPerformancePeriod = createAction(
   props<{ period: 'week' | 'month' }>()
 );
 
+// ============================================
+// Live Stream (Server-Sent Events)
+// ============================================
+
+export const startDashboardStream = createAction(
+  '[Dashboard] Start Dashboard Stream',
+  props<{ performancePeriod?: 'week' | 'month' }>()
+);
+
+export const stopDashboardStream = createAction(
+  '[Dashboard] Stop Dashboard Stream'
+);
+
 // ============================================
 // Refresh Actions
 // ============================================
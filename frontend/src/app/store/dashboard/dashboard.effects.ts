@@ -1,8 +1,9 @@
 import { Injectable, inject } from '@angular/core';
 import { Actions, createEffect, ofType } from '@ngrx/effects';
-import { catchError, map, mergeMap, switchMap } from 'rxjs/operators';
+import { catchError, map, mergeMap, repeat, switchMap, takeUntil } from 'rxjs/operators';
+import { Action } from '@ngrx/store';
 import { of } from 'rxjs';
-import { DashboardApiService } from '../../services/dashboard.service';
+import { DashboardApiService, DashboardStreamEvent } from '../../services/dashboard.service';
 import * as DashboardActions from './dashboard.actions';
 
 /**
@@ -16,6 +17,9 @@ import * as DashboardActions from './dashboard.actions';
  * - T044: loadPerformance$ implementation
  * - T052: loadAllDashboardData$ implementation
  */
+/** Delay before reconnecting the dashboard stream after it dropped or closed. */
+const STREAM_RECONNECT_DELAY_MS = 10_000;
+
 @Injectable()
 export class DashboardEffects {
   private readonly actions$ = inject(Actions);
@@ -125,4 +129,39 @@ export class DashboardEffects {
       map(() => DashboardActions.loadAllDashboardData({}))
     )
   );
+
+  /**
+   * Live dashboard: each section pushed by the server replaces the store section.
+   * If the stream drops, the dashboard is loaded once over HTTP, then the stream reconnects.
+   * Starting again (e.g. with another performance period) replaces the running stream.
+   */
+  dashboardStream$ = createEffect(() =>
+    this.actions$.pipe(
+      ofType(DashboardActions.startDashboardStream),
+      switchMap(({ performancePeriod }) => {
+        const period = performancePeriod ?? 'week';
+        return this.dashboardService.streamDashboard(period).pipe(
+          map(event => this.toSectionAction(event)),
+          catchError(() => of(DashboardActions.loadAllDashboardData({ performancePeriod: period }))),
+          repeat({ delay: STREAM_RECONNECT_DELAY_MS }),
+          takeUntil(this.actions$.pipe(
+            ofType(DashboardActions.stopDashboardStream, DashboardActions.clearDashboard)
+          ))
+        );
+      })
+    )
+  );
+
+  private toSectionAction(event: DashboardStreamEvent): Action {
+    switch (event.section) {
+      case 'kpis':
+        return DashboardActions.loadKpisSuccess({ kpis: event.data });
+      case 'fleetStatus':
+        return DashboardActions.loadFleetStatusSuccess({ fleetStatus: event.data });
+      case 'activity':
+        return DashboardActions.loadActivitySuccess({ activity: event.data });
+      case 'performance':
+        return DashboardActions.loadPerformanceSuccess({ performance: event.data });
+    }
+  }
 }
@@ -165,6 +165,26 @@ export const dashboardReducer = createReducer(
     performance: { ...state.performance, selectedPeriod: period }
   })),
 
+  // ============================================
+  // Live Stream
+  // ============================================
+
+  // Sections without data show loading until the stream pushes them
+  on(DashboardActions.startDashboardStream, (state, { performancePeriod }) => {
+    const selectedPeriod = performancePeriod ?? state.performance.selectedPeriod;
+    return {
+      ...state,
+      kpis: { ...state.kpis, loading: state.kpis.data === null },
+      fleetStatus: { ...state.fleetStatus, loading: state.fleetStatus.data === null },
+      activity: { ...state.activity, loading: state.activity.lastUpdated === null },
+      performance: {
+        ...state.performance,
+        loading: state.performance.data === null || selectedPeriod !== state.performance.selectedPeriod,
+        selectedPeriod
+      }
+    };
+  }),
+
   // ============================================
   // Refresh Actions
   // ============================================
@@ -17,6 +17,7 @@ import {
 import { Client, IMessage } from '@stomp/stompjs';
 import { environment } from '../../../environments/environment';
 import { NotificationService } from '../../services/notification.service';
+import { TokenStorageService } from '../../core/services/token-storage.service';
 import * as NotificationsActions from './notifications.actions';
 import * as AuthActions from '../auth/auth.actions';
 import { Notification } from '../../models/notification.model';
@@ -26,6 +27,7 @@ export class NotificationsEffects implements OnDestroy {
   private readonly actions$ = inject(Actions);
   private readonly store = inject(Store);
   private readonly notificationService = inject(NotificationService);
+  private readonly tokenStorage = inject(TokenStorageService);
 
   private readonly destroy$ = new Subject<void>();
   private wsClient: Client | null = null;
@@ -201,17 +203,24 @@ export class NotificationsEffects implements OnDestroy {
       .replace('http', 'ws')
       .replace(':8000', ':8082') + '/ws-notifications';
 
-    this.wsClient = new Client({
+    const client = new Client({
       brokerURL: wsUrl,
       reconnectDelay: 5000,
       heartbeatIncoming: 4000,
       heartbeatOutgoing: 4000
     });
+    this.wsClient = client;
+
+    // Authenticate each (re)connection with the current token: notifications are per user
+    client.beforeConnect = () => {
+      const token = this.tokenStorage.getAccessToken();
+      client.connectHeaders = token ? { Authorization: `Bearer ${token}` } : {};
+    };
 
     // Wire up STOMP callbacks to observables
     this.wsClient.onConnect = () => {
       this.wsStatus$.next('connected');
-      this.wsClient?.subscribe('/topic/notifications', (message: IMessage) => {
+      this.wsClient?.subscribe('/user/queue/notifications', (message: IMessage) => {
         const notification: Notification = JSON.parse(message.body);
         this.wsMessages$.next(notification);
       });
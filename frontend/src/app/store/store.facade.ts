@@ -850,6 +850,20 @@ export class StoreFacade {
     this.store.dispatch(DashboardActions.setPerformancePeriod({ period }));
   }
 
+  /**
+   * Keep the dashboard updated from the server push stream until stopped
+   */
+  startDashboardStream(performancePeriod?: 'week' | 'month') {
+    this.store.dispatch(DashboardActions.startDashboardStream({ performancePeriod }));
+  }
+
+  /**
+   * Stop the dashboard push stream
+   */
+  stopDashboardStream() {
+    this.store.dispatch(DashboardActions.stopDashboardStream());
+  }
+
   /**
    * Refresh all dashboard data
    */